@@ -0,0 +1,29 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.aspsp.profile.domain;
+
+import lombok.Value;
+
+/**
+ * Application event, published whenever ASPSP profile settings or SCA approaches have been changed
+ * (either by the reloading schedule task or via the profile update endpoints).
+ * Consumers that keep a local copy of the profile should drop it on receiving this event.
+ */
+@Value
+public class AspspSettingsUpdatedEvent {
+    private long timestamp;
+}
@@ -19,6 +19,7 @@ package de.adorsys.psd2.aspsp.profile.service;
 import de.adorsys.psd2.aspsp.profile.config.BankProfileSetting;
 import de.adorsys.psd2.aspsp.profile.config.ProfileConfiguration;
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettingsUpdatedEvent;
 import de.adorsys.psd2.aspsp.profile.domain.MulticurrencyAccountLevel;
 import de.adorsys.psd2.aspsp.profile.domain.SupportedAccountReferenceField;
 import de.adorsys.psd2.aspsp.profile.domain.ais.*;
@@ -41,12 +42,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
 import static de.adorsys.psd2.aspsp.profile.domain.SupportedAccountReferenceField.IBAN;
 import static de.adorsys.psd2.xs2a.core.ais.BookingStatus.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -102,6 +106,8 @@ class AspspProfileUpdateServiceImplTest {
 
     @Mock
     private ProfileConfiguration profileConfiguration;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Spy
     private AspspSettingsToBankProfileSettingMapper profileSettingMapper = Mappers.getMapper(AspspSettingsToBankProfileSettingMapper.class);
@@ -118,6 +124,7 @@ class AspspProfileUpdateServiceImplTest {
 
         //Then:
         assertEquals(Collections.singletonList(REDIRECT_APPROACH), profileConfiguration.getSetting().getCommon().getScaApproachesSupported());
+        verify(applicationEventPublisher).publishEvent(any(AspspSettingsUpdatedEvent.class));
     }
 
     @Test
@@ -162,6 +169,7 @@ class AspspProfileUpdateServiceImplTest {
         assertEquals(AIS_PIS_SESSION_SUPPORTED, setting.getCommon().isAisPisSessionsSupported());
         assertEquals(XS2A_BASE_LINKS_URL, setting.getCommon().getXs2aBaseLinksUrl());
         assertEquals(SCA_REDIRECT_FLOW, setting.getCommon().getScaRedirectFlow());
+        verify(applicationEventPublisher).publishEvent(any(AspspSettingsUpdatedEvent.class));
     }
 
     private AspspSettings buildAspspSettings() {
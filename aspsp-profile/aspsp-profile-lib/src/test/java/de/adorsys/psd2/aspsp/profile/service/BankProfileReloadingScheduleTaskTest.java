@@ -2,6 +2,7 @@ package de.adorsys.psd2.aspsp.profile.service;
 
 import de.adorsys.psd2.aspsp.profile.config.BankProfileSetting;
 import de.adorsys.psd2.aspsp.profile.config.ProfileConfiguration;
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettingsUpdatedEvent;
 import de.adorsys.psd2.aspsp.profile.domain.ais.*;
 import de.adorsys.psd2.aspsp.profile.domain.common.CommonAspspProfileBankSetting;
 import de.adorsys.psd2.aspsp.profile.domain.piis.PiisAspspProfileBankSetting;
@@ -13,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -23,6 +25,8 @@ class BankProfileReloadingScheduleTaskTest {
     private BankProfileReadingService bankProfileReadingService;
     @Mock
     private ProfileConfiguration profileConfiguration;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @InjectMocks
     private BankProfileReloadingScheduleTask bankProfileReloadingScheduleTask;
@@ -42,6 +46,7 @@ class BankProfileReloadingScheduleTaskTest {
         ArgumentCaptor<BankProfileSetting> bankProfileSettingArgumentCaptor = ArgumentCaptor.forClass(BankProfileSetting.class);
         verify(profileConfiguration, times(1)).setSetting(bankProfileSettingArgumentCaptor.capture());
         verify(profileConfiguration, times(1)).setDefaultProperties();
+        verify(applicationEventPublisher).publishEvent(any(AspspSettingsUpdatedEvent.class));
 
         assertEquals(bankProfileReadingService.getProfileConfiguration(), newProfileConfiguration);
         assertEquals(bankProfileSettingArgumentCaptor.getValue(), newProfileConfiguration.getSetting());
@@ -15,7 +15,11 @@
  */
 package de.adorsys.psd2.aspsp.profile.config;
 
+import de.adorsys.psd2.http.client.HttpClientPoolMetrics;
+import de.adorsys.psd2.http.client.HttpClientPoolProperties;
+import de.adorsys.psd2.http.client.PooledClientHttpRequestFactory;
 import de.adorsys.psd2.logger.web.LoggingContextInterceptor;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -34,20 +38,57 @@ public class AspspProfileRestConfig {
     private int readTimeout;
     @Value("${http-client.connection-timeout.ms:10000}")
     private int connectionTimeout;
+    @Value("${http-client.pool.enabled:true}")
+    private boolean poolEnabled;
+    @Value("${http-client.pool.max-total:100}")
+    private int poolMaxTotal;
+    @Value("${http-client.pool.max-per-route:20}")
+    private int poolMaxPerRoute;
+    @Value("${http-client.pool.connection-request-timeout.ms:5000}")
+    private int poolConnectionRequestTimeout;
+    @Value("${http-client.pool.keep-alive.ms:30000}")
+    private long poolKeepAlive;
+    @Value("${http-client.pool.idle-eviction.ms:60000}")
+    private long poolIdleEviction;
+    @Value("${http-client.compression.enabled:true}")
+    private boolean compressionEnabled;
 
     @Bean(name = "aspspProfileRestTemplate")
     public RestTemplate aspspProfileRestTemplate() {
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(aspspProfileClientHttpRequestFactory());
         rest.getMessageConverters().removeIf(m -> m.getClass().isAssignableFrom(MappingJackson2XmlHttpMessageConverter.class));
         rest.setErrorHandler(new AspspProfileRestErrorHandler());
         rest.getInterceptors().add(loggingContextInterceptor);
         return rest;
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
+    @Bean
+    public ClientHttpRequestFactory aspspProfileClientHttpRequestFactory() {
+        if (poolEnabled) {
+            return new PooledClientHttpRequestFactory("aspspProfileRestTemplate", poolProperties());
+        }
+
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setReadTimeout(readTimeout);
         factory.setConnectTimeout(connectionTimeout);
         return factory;
     }
+
+    @Bean
+    public MeterBinder aspspProfileHttpClientPoolMetrics() {
+        return new HttpClientPoolMetrics(aspspProfileClientHttpRequestFactory());
+    }
+
+    private HttpClientPoolProperties poolProperties() {
+        HttpClientPoolProperties properties = new HttpClientPoolProperties();
+        properties.setMaxTotal(poolMaxTotal);
+        properties.setMaxPerRoute(poolMaxPerRoute);
+        properties.setConnectionTimeout(connectionTimeout);
+        properties.setReadTimeout(readTimeout);
+        properties.setConnectionRequestTimeout(poolConnectionRequestTimeout);
+        properties.setKeepAliveMs(poolKeepAlive);
+        properties.setIdleEvictionMs(poolIdleEviction);
+        properties.setCompressionEnabled(compressionEnabled);
+        return properties;
+    }
 }
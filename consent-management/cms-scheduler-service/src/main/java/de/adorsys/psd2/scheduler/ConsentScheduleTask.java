@@ -16,51 +16,45 @@
 
 package de.adorsys.psd2.scheduler;
 
-import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
-import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.consent.service.notification.TppNotificationOutbox;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Collections;
+import java.time.OffsetDateTime;
 import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
-import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.RECEIVED;
-import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.VALID;
+import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.*;
 
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ConsentScheduleTask {
+    private static final String TASK_NAME = "consent-expiration";
+
     private final ConsentJpaRepository consentJpaRepository;
+    private final ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
+    private final TppNotificationOutbox tppNotificationOutbox;
 
     @Scheduled(cron = "${consent.cron.expression}")
-    @Transactional
     public void checkConsentStatus() {
         log.info("Consent schedule task is run!");
-        List<ConsentEntity> availableConsents = Optional.ofNullable(consentJpaRepository.findByConsentStatusIn(EnumSet.of(RECEIVED, VALID)))
-                                                 .orElse(Collections.emptyList());
-        consentJpaRepository.saveAll(updateConsent(availableConsents));
-    }
-
-    private List<ConsentEntity> updateConsent(List<ConsentEntity> availableConsents) {
-        return availableConsents.stream()
-                   .filter(ConsentEntity::isExpiredByDate)
-                   .map(this::updateConsentParameters)
-                   .collect(Collectors.toList());
+        LocalDate currentDate = LocalDate.now();
+        chunkedScheduleTaskExecutor.execute(TASK_NAME,
+                                            (lastId, chunk) -> consentJpaRepository.findExpiredByDateConsentIds(EnumSet.of(RECEIVED, VALID), currentDate, lastId, chunk),
+                                            ids -> expireConsents(ids, currentDate));
     }
 
-    private ConsentEntity updateConsentParameters(ConsentEntity consent) {
-        consent.setConsentStatus(ConsentStatus.EXPIRED);
-        consent.setExpireDate(LocalDate.now());
-        return consent;
+    private void expireConsents(List<Long> ids, LocalDate currentDate) {
+        OffsetDateTime statusChangeTimestamp = OffsetDateTime.now();
+        consentJpaRepository.expireConsents(ids, EXPIRED, currentDate, statusChangeTimestamp);
+        // the bulk update bypasses entity listeners, which register status changes for TPP notifications
+        tppNotificationOutbox.registerConsentStatusChanges(ids, EXPIRED, statusChangeTimestamp);
     }
 }
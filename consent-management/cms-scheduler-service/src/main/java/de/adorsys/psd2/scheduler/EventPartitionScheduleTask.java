@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.event.persist.EventPartitionRepository;
+import de.adorsys.psd2.scheduler.service.ScheduleTaskLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventPartitionScheduleTask {
+    private static final String TASK_NAME = "event-partitioning";
+
+    private final ObjectProvider<EventPartitionRepository> eventPartitionRepositoryProvider;
+    private final ScheduleTaskLockService scheduleTaskLockService;
+
+    @Scheduled(cron = "${cms.event.partitioning.cron.expression:0 30 0 * * ?}")
+    public void maintainEventPartitions() {
+        EventPartitionRepository eventPartitionRepository = eventPartitionRepositoryProvider.getIfAvailable();
+        if (eventPartitionRepository == null) {
+            return;
+        }
+
+        log.info("Event partitioning schedule task is run!");
+        if (!scheduleTaskLockService.tryLock(TASK_NAME)) {
+            log.info("Schedule task [{}] is skipped, as it is being run by another node", TASK_NAME);
+            return;
+        }
+
+        try {
+            LocalDate currentDate = LocalDate.now();
+            int created = eventPartitionRepository.createPartitions(currentDate);
+            int removed = eventPartitionRepository.removeExpiredPartitions(currentDate);
+            log.info("Schedule task [{}] is finished, {} partitions created, {} expired periods removed", TASK_NAME, created, removed);
+        } finally {
+            scheduleTaskLockService.releaseLock(TASK_NAME);
+        }
+    }
+}
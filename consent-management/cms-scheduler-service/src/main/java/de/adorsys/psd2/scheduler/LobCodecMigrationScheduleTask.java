@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.service.migration.LobCodecMigrationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LobCodecMigrationScheduleTask {
+    private static final String CONSENT_TASK_NAME = "lob-codec-migration-consent";
+    private static final String PAYMENT_TASK_NAME = "lob-codec-migration-payment";
+
+    private final LobCodecMigrationService lobCodecMigrationService;
+    private final ConsentJpaRepository consentJpaRepository;
+    private final PisCommonPaymentDataRepository paymentDataRepository;
+    private final ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
+
+    @Value("${cms.lob-codec.migration.enabled:true}")
+    private boolean enabled;
+
+    @Scheduled(initialDelayString = "${cms.lob-codec.migration.initial-delay.ms:60000}",
+        fixedDelayString = "${cms.lob-codec.migration.interval.ms:3600000}")
+    public void migrateNotEncodedData() {
+        if (!enabled) {
+            return;
+        }
+
+        log.debug("LOB codec migration schedule task is run!");
+
+        chunkedScheduleTaskExecutor.execute(CONSENT_TASK_NAME,
+                                            consentJpaRepository::findConsentIdsWithNotEncodedData,
+                                            lobCodecMigrationService::migrateConsents);
+        chunkedScheduleTaskExecutor.execute(PAYMENT_TASK_NAME,
+                                            paymentDataRepository::findPaymentIdsWithNotEncodedData,
+                                            lobCodecMigrationService::migratePayments);
+    }
+}
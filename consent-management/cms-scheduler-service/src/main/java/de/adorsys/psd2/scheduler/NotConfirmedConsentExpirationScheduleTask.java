@@ -16,17 +16,21 @@
 
 package de.adorsys.psd2.scheduler;
 
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
 import de.adorsys.psd2.consent.service.AisConsentConfirmationExpirationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.IterableUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,15 +39,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Component
 public class NotConfirmedConsentExpirationScheduleTask {
+    private static final String TASK_NAME = "not-confirmed-consent-expiration";
+
     private final AisConsentConfirmationExpirationService aisConsentConfirmationExpirationService;
     private final ConsentJpaRepository consentJpaRepository;
+    private final AspspProfileService aspspProfileService;
+    private final ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
 
     @Scheduled(cron = "${not-confirmed-consent-expiration.cron.expression}")
-    @Transactional
     public void obsoleteNotConfirmedConsentIfExpired() {
         log.info("Not confirmed consent expiration schedule task is run!");
 
-        List<ConsentEntity> expiredNotConfirmedConsents = consentJpaRepository.findByConsentStatusIn(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED))
+        long expirationPeriodMs = aspspProfileService.getAspspSettings().getAis().getConsentTypes().getNotConfirmedConsentExpirationTimeMs();
+        OffsetDateTime createdBefore = OffsetDateTime.now().minus(expirationPeriodMs, ChronoUnit.MILLIS);
+        chunkedScheduleTaskExecutor.execute(TASK_NAME,
+                                            (lastId, chunk) -> consentJpaRepository.findConsentIdsCreatedBefore(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED), createdBefore, lastId, chunk),
+                                            this::obsoleteConsentsIfExpired);
+    }
+
+    private void obsoleteConsentsIfExpired(List<Long> ids) {
+        List<ConsentEntity> expiredNotConfirmedConsents = IterableUtils.toList(consentJpaRepository.findAllById(ids))
                                                               .stream()
                                                               .filter(aisConsentConfirmationExpirationService::isConfirmationExpired)
                                                               .collect(Collectors.toList());
@@ -16,17 +16,21 @@
 
 package de.adorsys.psd2.scheduler;
 
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
 import de.adorsys.psd2.consent.service.PisCommonPaymentConfirmationExpirationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.IterableUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,15 +39,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Component
 public class NotConfirmedPaymentExpirationScheduleTask {
+    private static final String TASK_NAME = "not-confirmed-payment-expiration";
+
     private final PisCommonPaymentConfirmationExpirationService pisCommonPaymentConfirmationExpirationService;
     private final PisCommonPaymentDataRepository paymentDataRepository;
+    private final AspspProfileService aspspProfileService;
+    private final ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
 
     @Scheduled(cron = "${not-confirmed-payment-expiration.cron.expression}")
-    @Transactional
     public void obsoleteNotConfirmedPaymentIfExpired() {
         log.info("Not confirmed payment expiration schedule task is run!");
 
-        List<PisCommonPaymentData> expiredNotConfirmedPaymentDatas = paymentDataRepository.findByTransactionStatusIn(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC))
+        long expirationPeriodMs = aspspProfileService.getAspspSettings().getPis().getNotConfirmedPaymentExpirationTimeMs();
+        OffsetDateTime createdBefore = OffsetDateTime.now().minus(expirationPeriodMs, ChronoUnit.MILLIS);
+        chunkedScheduleTaskExecutor.execute(TASK_NAME,
+                                            (lastId, chunk) -> paymentDataRepository.findPaymentIdsCreatedBefore(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC), createdBefore, lastId, chunk),
+                                            this::obsoletePaymentsIfExpired);
+    }
+
+    private void obsoletePaymentsIfExpired(List<Long> ids) {
+        List<PisCommonPaymentData> expiredNotConfirmedPaymentDatas = IterableUtils.toList(paymentDataRepository.findAllById(ids))
                                                                          .stream()
                                                                          .filter(pisCommonPaymentConfirmationExpirationService::isConfirmationExpired)
                                                                          .collect(Collectors.toList());
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.scheduler.service.ScheduleTaskLockService;
+import de.adorsys.psd2.scheduler.service.TppNotificationDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TppNotificationScheduleTask {
+    private static final String TASK_NAME = "tpp-notification";
+
+    private final TppNotificationDispatcher tppNotificationDispatcher;
+    private final ScheduleTaskLockService scheduleTaskLockService;
+
+    @Scheduled(fixedDelayString = "${cms.tpp-notification.dispatch-interval.ms:1000}")
+    public void dispatchNotifications() {
+        if (!tppNotificationDispatcher.isEnabled()) {
+            return;
+        }
+
+        if (!scheduleTaskLockService.tryLock(TASK_NAME)) {
+            log.debug("Schedule task [{}] is skipped, as it is being run by another node", TASK_NAME);
+            return;
+        }
+
+        try {
+            int dispatched = tppNotificationDispatcher.dispatch();
+            if (dispatched > 0) {
+                log.info("Schedule task [{}] is finished, {} notifications processed", TASK_NAME, dispatched);
+            }
+        } finally {
+            scheduleTaskLockService.releaseLock(TASK_NAME);
+        }
+    }
+}
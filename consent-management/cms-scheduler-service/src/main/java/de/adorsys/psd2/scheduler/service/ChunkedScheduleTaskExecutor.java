@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.scheduler.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Runs schedule tasks over large tables in chunks: identifiers of the records to be processed are selected page by page
+ * in the order of their identifiers (keyset pagination), and every chunk is processed and committed in its own transaction.
+ * The task is run only by the node, that has acquired its lock.
+ */
+@Slf4j
+@Service
+public class ChunkedScheduleTaskExecutor implements MeterBinder {
+    private static final String TASK_TAG = "task";
+
+    private final ScheduleTaskLockService scheduleTaskLockService;
+    private final TransactionTemplate transactionTemplate;
+    private volatile MeterRegistry meterRegistry;
+
+    @Value("${scheduler.chunk.size:1000}")
+    private int chunkSize;
+
+    public ChunkedScheduleTaskExecutor(ScheduleTaskLockService scheduleTaskLockService, PlatformTransactionManager transactionManager) {
+        this.scheduleTaskLockService = scheduleTaskLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Executes the task chunk by chunk
+     *
+     * @param taskName       name of the task, used for the lock and metrics
+     * @param idLoader       loads the next chunk of record identifiers, greater than given identifier, in ascending order
+     * @param chunkProcessor processes the records with given identifiers
+     * @return number of processed records, or <code>-1</code> if the task is being run by another node
+     */
+    public long execute(@NotNull String taskName,
+                        @NotNull BiFunction<Long, Pageable, List<Long>> idLoader,
+                        @NotNull Consumer<List<Long>> chunkProcessor) {
+        if (!scheduleTaskLockService.tryLock(taskName)) {
+            log.info("Schedule task [{}] is skipped, as it is being run by another node", taskName);
+            return -1;
+        }
+
+        long startTime = System.nanoTime();
+        long processed = 0;
+        try {
+            Pageable chunk = PageRequest.of(0, chunkSize);
+            long lastId = 0;
+            List<Long> ids;
+            do {
+                long previousLastId = lastId;
+                ids = transactionTemplate.execute(status -> processChunk(previousLastId, chunk, idLoader, chunkProcessor));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+
+                processed += ids.size();
+                lastId = ids.get(ids.size() - 1);
+                incrementProcessed(taskName, ids.size());
+                log.info("Schedule task [{}]: {} records processed", taskName, processed);
+            } while (ids.size() == chunkSize);
+        } finally {
+            scheduleTaskLockService.releaseLock(taskName);
+            recordDuration(taskName, System.nanoTime() - startTime);
+        }
+
+        log.info("Schedule task [{}] is finished, {} records processed", taskName, processed);
+        return processed;
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        meterRegistry = registry;
+    }
+
+    private List<Long> processChunk(long lastId, Pageable chunk,
+                                    BiFunction<Long, Pageable, List<Long>> idLoader,
+                                    Consumer<List<Long>> chunkProcessor) {
+        List<Long> ids = idLoader.apply(lastId, chunk);
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        chunkProcessor.accept(ids);
+        return ids;
+    }
+
+    private void incrementProcessed(String taskName, int amount) {
+        if (meterRegistry != null) {
+            Counter.builder("cms.scheduler.task.processed")
+                .description("Number of records, processed by schedule task")
+                .tag(TASK_TAG, taskName)
+                .register(meterRegistry)
+                .increment(amount);
+        }
+    }
+
+    private void recordDuration(String taskName, long durationNanos) {
+        if (meterRegistry != null) {
+            Timer.builder("cms.scheduler.task.duration")
+                .description("Duration of schedule task run")
+                .tag(TASK_TAG, taskName)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
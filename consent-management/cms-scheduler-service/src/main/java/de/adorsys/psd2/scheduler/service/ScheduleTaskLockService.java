@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.scheduler.service;
+
+import de.adorsys.psd2.consent.domain.SchedulerLockEntity;
+import de.adorsys.psd2.consent.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Guards schedule tasks from being run simultaneously by several CMS nodes, sharing the same database.
+ * The lock is represented by the row in <code>scheduler_lock</code> table, that is considered to be held until
+ * its <code>locked_until</code> timestamp, so the lock of the crashed node is released after the maximum duration.
+ */
+@Slf4j
+@Service
+public class ScheduleTaskLockService {
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String lockedBy = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${scheduler.lock.max-duration.ms:1800000}")
+    private long lockMaxDurationMs;
+
+    public ScheduleTaskLockService(SchedulerLockRepository schedulerLockRepository, PlatformTransactionManager transactionManager) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Tries to acquire the lock for the task with given name
+     *
+     * @param name name of the task
+     * @return <code>true</code> if the lock was acquired by current node, <code>false</code> if it is held by another node
+     */
+    public boolean tryLock(String name) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime lockedUntil = now.plus(lockMaxDurationMs, ChronoUnit.MILLIS);
+
+        Integer updatedLocks = transactionTemplate.execute(status -> schedulerLockRepository.acquireLock(name, lockedBy, now, lockedUntil));
+        if (updatedLocks != null && updatedLocks > 0) {
+            return true;
+        }
+
+        if (schedulerLockRepository.existsById(name)) {
+            log.info("Lock for schedule task [{}] is held by another node", name);
+            return false;
+        }
+
+        try {
+            transactionTemplate.execute(status -> schedulerLockRepository.save(new SchedulerLockEntity(name, lockedUntil, now, lockedBy)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.info("Lock for schedule task [{}] has been created by another node", name);
+            return false;
+        }
+    }
+
+    /**
+     * Releases the lock for the task with given name, if it is held by current node
+     *
+     * @param name name of the task
+     */
+    public void releaseLock(String name) {
+        transactionTemplate.execute(status -> schedulerLockRepository.releaseLock(name, lockedBy, OffsetDateTime.now()));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler.service;
+
+import de.adorsys.psd2.consent.domain.notification.TppNotificationEntity;
+import de.adorsys.psd2.consent.repository.TppNotificationRepository;
+import de.adorsys.psd2.http.client.HttpClientPoolProperties;
+import de.adorsys.psd2.http.client.PooledClientHttpRequestFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends notifications, stored in the <code>tpp_notification</code> table, to TPP notification URIs.
+ * <p>
+ * Due notifications are loaded in chunks of `cms.tpp-notification.chunk-size`, grouped by notification URI and sent
+ * as JSON arrays of up to `cms.tpp-notification.batch-size` notifications per request. Notification URIs are served
+ * concurrently by up to `cms.tpp-notification.max-concurrent-uris` threads, batches of one URI are sent sequentially.
+ * Delivered notifications are removed, notifications of failed requests are retried with exponential backoff, starting
+ * from `cms.tpp-notification.retry.initial-backoff.ms` and limited by `cms.tpp-notification.retry.max-backoff.ms`, until
+ * `cms.tpp-notification.retry.max-attempts` is reached. A failed request backs off the whole URI: remaining batches are
+ * not sent and all pending notifications of the URI are postponed until the retry of the failed batch.
+ */
+@Slf4j
+@Service
+public class TppNotificationDispatcher implements MeterBinder {
+    private static final String OUTCOME_TAG = "outcome";
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final TppNotificationRepository tppNotificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PooledClientHttpRequestFactory requestFactory;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor;
+    private volatile MeterRegistry meterRegistry;
+
+    @Value("${cms.tpp-notification.enabled:false}")
+    private boolean enabled;
+    @Value("${cms.tpp-notification.chunk-size:500}")
+    private int chunkSize;
+    @Value("${cms.tpp-notification.batch-size:50}")
+    private int batchSize;
+    @Value("${cms.tpp-notification.retry.max-attempts:10}")
+    private int maxAttempts;
+    @Value("${cms.tpp-notification.retry.initial-backoff.ms:1000}")
+    private long initialBackoffMs;
+    @Value("${cms.tpp-notification.retry.max-backoff.ms:600000}")
+    private long maxBackoffMs;
+
+    public TppNotificationDispatcher(TppNotificationRepository tppNotificationRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${cms.tpp-notification.connection-timeout.ms:5000}") int connectionTimeout,
+                                     @Value("${cms.tpp-notification.read-timeout.ms:5000}") int readTimeout,
+                                     @Value("${cms.tpp-notification.max-concurrent-uris:10}") int maxConcurrentUris) {
+        this.tppNotificationRepository = tppNotificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        HttpClientPoolProperties poolProperties = new HttpClientPoolProperties();
+        poolProperties.setConnectionTimeout(connectionTimeout);
+        poolProperties.setReadTimeout(readTimeout);
+        poolProperties.setMaxTotal(Math.max(maxConcurrentUris, poolProperties.getMaxTotal()));
+        this.requestFactory = new PooledClientHttpRequestFactory("tppNotificationRestTemplate", poolProperties);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.executor = Executors.newFixedThreadPool(maxConcurrentUris, new NotificationThreadFactory());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sends the next chunk of due notifications
+     *
+     * @return number of notifications, that were due
+     */
+    public int dispatch() {
+        List<TppNotificationEntity> notifications = transactionTemplate.execute(
+            status -> tppNotificationRepository.findDueNotifications(OffsetDateTime.now(), PageRequest.of(0, chunkSize)));
+        if (notifications == null || notifications.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<TppNotificationEntity>> notificationsByUri = notifications.stream()
+                                                                          .collect(Collectors.groupingBy(TppNotificationEntity::getTppNotificationUri,
+                                                                                                         LinkedHashMap::new,
+                                                                                                         Collectors.toList()));
+        CompletableFuture<?>[] uriDispatches = notificationsByUri.entrySet().stream()
+                                                   .map(e -> CompletableFuture.runAsync(() -> sendNotifications(e.getKey(), e.getValue()), executor))
+                                                   .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(uriDispatches).join();
+        return notifications.size();
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        meterRegistry = registry;
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        executor.shutdownNow();
+        requestFactory.destroy();
+    }
+
+    private void sendNotifications(String uri, List<TppNotificationEntity> uriNotifications) {
+        for (int from = 0; from < uriNotifications.size(); from += batchSize) {
+            List<TppNotificationEntity> batch = uriNotifications.subList(from, Math.min(from + batchSize, uriNotifications.size()));
+            if (!sendBatch(uri, batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean sendBatch(String uri, List<TppNotificationEntity> batch) {
+        List<TppNotificationMessage> messages = batch.stream()
+                                                    .map(TppNotificationMessage::of)
+                                                    .collect(Collectors.toList());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        long startTime = System.nanoTime();
+        try {
+            restTemplate.postForEntity(URI.create(uri), new HttpEntity<>(messages, headers), Void.class);
+            recordRequest("success", System.nanoTime() - startTime);
+            transactionTemplate.execute(status -> {
+                tppNotificationRepository.deleteAll(batch);
+                return null;
+            });
+            incrementNotifications("delivered", batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            recordRequest("error", System.nanoTime() - startTime);
+            log.info("Notification of TPP via [{}] failed: {}", uri, e.getMessage());
+            OffsetDateTime nextAttemptTimestamp = scheduleRetry(batch, e);
+            // other notifications of the URI are not sent before the retry of the failed batch
+            int postponed = transactionTemplate.execute(status -> tppNotificationRepository.postponeNotifications(uri, nextAttemptTimestamp));
+            incrementNotifications("postponed", postponed);
+            return false;
+        }
+    }
+
+    private OffsetDateTime scheduleRetry(List<TppNotificationEntity> batch, RuntimeException error) {
+        OffsetDateTime now = OffsetDateTime.now();
+        String lastError = StringUtils.abbreviate(error.getMessage(), MAX_ERROR_LENGTH);
+        int failed = 0;
+        int maxBatchAttempts = 0;
+
+        for (TppNotificationEntity notification : batch) {
+            int attempts = notification.getAttempts() + 1;
+            maxBatchAttempts = Math.max(maxBatchAttempts, attempts);
+            notification.setAttempts(attempts);
+            notification.setLastError(lastError);
+            if (attempts >= maxAttempts) {
+                notification.setFailed(true);
+                failed++;
+            } else {
+                notification.setNextAttemptTimestamp(now.plus(getBackoffMs(attempts), ChronoUnit.MILLIS));
+            }
+        }
+
+        transactionTemplate.execute(status -> tppNotificationRepository.saveAll(batch));
+        incrementNotifications("retry", batch.size() - failed);
+        incrementNotifications("failed", failed);
+        return now.plus(getBackoffMs(maxBatchAttempts), ChronoUnit.MILLIS);
+    }
+
+    long getBackoffMs(int attempts) {
+        long backoff = initialBackoffMs;
+        for (int i = 1; i < attempts && backoff < maxBackoffMs; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    private void incrementNotifications(String outcome, int amount) {
+        if (meterRegistry != null && amount > 0) {
+            Counter.builder("cms.tpp.notifications")
+                .description("Number of notifications, sent to TPPs")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .increment(amount);
+        }
+    }
+
+    private void recordRequest(String outcome, long durationNanos) {
+        if (meterRegistry != null) {
+            Timer.builder("cms.tpp.notification.requests")
+                .description("Duration of requests to TPP notification URIs")
+                .tag(OUTCOME_TAG, outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static class NotificationThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "tpp-notification-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Body of the notification, sent to the TPP notification URI
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TppNotificationMessage {
+    private TppNotificationResourceType resourceType;
+    private String resourceId;
+    private String authorisationId;
+    private String status;
+    private OffsetDateTime statusChangeTimestamp;
+
+    static TppNotificationMessage of(TppNotificationEntity notification) {
+        return new TppNotificationMessage(notification.getResourceType(), notification.getResourceId(),
+                                          notification.getAuthorisationId(), notification.getStatus(),
+                                          notification.getStatusChangeTimestamp());
+    }
+}
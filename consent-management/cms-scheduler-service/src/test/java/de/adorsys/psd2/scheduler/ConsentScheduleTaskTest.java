@@ -16,98 +16,79 @@
 
 package de.adorsys.psd2.scheduler;
 
-import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
-import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
-import org.jetbrains.annotations.NotNull;
+import de.adorsys.psd2.consent.service.notification.TppNotificationOutbox;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ConsentScheduleTaskTest {
+    private static final String TASK_NAME = "consent-expiration";
+    private static final Pageable CHUNK = PageRequest.of(0, 2);
+    private static final List<Long> CONSENT_IDS = Arrays.asList(1L, 2L);
 
     @InjectMocks
     private ConsentScheduleTask scheduleTask;
 
     @Mock
     private ConsentJpaRepository consentJpaRepository;
-
-    @Captor
-    private ArgumentCaptor<ArrayList<ConsentEntity>> consentCaptor;
-
-    @Test
-    void checkConsentStatus_allConsentsExpired() {
-        List<ConsentEntity> availableConsents = new ArrayList<>();
-        availableConsents.add(createConsent(RECEIVED));
-        availableConsents.add(createConsent(VALID));
-        when(consentJpaRepository.findByConsentStatusIn(EnumSet.of(RECEIVED, VALID))).thenReturn(availableConsents);
-
-        when(consentJpaRepository.saveAll(consentCaptor.capture())).thenReturn(Collections.emptyList());
-
-        scheduleTask.checkConsentStatus();
-
-        assertEquals(2, consentCaptor.getValue().size());
-        consentCaptor.getValue().forEach(c -> assertEquals(EXPIRED, c.getConsentStatus()));
-
-        verify(consentJpaRepository, times(1)).findByConsentStatusIn(EnumSet.of(RECEIVED, VALID));
-        verify(consentJpaRepository, times(1)).saveAll(anyList());
-    }
+    @Mock
+    private ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
+    @Mock
+    private TppNotificationOutbox tppNotificationOutbox;
 
     @Test
-    void checkConsentStatus_notAllConsentsExpired() {
-        List<ConsentEntity> availableConsents = new ArrayList<>();
-        availableConsents.add(createConsent(RECEIVED));
-        ConsentEntity consent = createConsent(VALID);
-        consent.setValidUntil(LocalDate.now().plusDays(1));
-        availableConsents.add(consent);
-        when(consentJpaRepository.findByConsentStatusIn(EnumSet.of(RECEIVED, VALID))).thenReturn(availableConsents);
-
-        when(consentJpaRepository.saveAll(consentCaptor.capture())).thenReturn(Collections.emptyList());
+    void checkConsentStatus() {
+        // Given
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(consentJpaRepository.findExpiredByDateConsentIds(EnumSet.of(RECEIVED, VALID), LocalDate.now(), 0L, CHUNK)).thenReturn(CONSENT_IDS);
 
+        // When
         scheduleTask.checkConsentStatus();
 
-        assertEquals(1, consentCaptor.getValue().size());
-        assertEquals("RECEIVED", consentCaptor.getValue().get(0).getExternalId());
-        consentCaptor.getValue().forEach(c -> assertEquals(EXPIRED, c.getConsentStatus()));
-
-        verify(consentJpaRepository, times(1)).findByConsentStatusIn(EnumSet.of(RECEIVED, VALID));
-        verify(consentJpaRepository, times(1)).saveAll(anyList());
+        // Then
+        verify(consentJpaRepository, times(1)).findExpiredByDateConsentIds(EnumSet.of(RECEIVED, VALID), LocalDate.now(), 0L, CHUNK);
+        ArgumentCaptor<OffsetDateTime> statusChangeTimestampCaptor = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(consentJpaRepository, times(1)).expireConsents(eq(CONSENT_IDS), eq(EXPIRED), eq(LocalDate.now()), statusChangeTimestampCaptor.capture());
+        verify(tppNotificationOutbox, times(1)).registerConsentStatusChanges(CONSENT_IDS, EXPIRED, statusChangeTimestampCaptor.getValue());
+        verify(consentJpaRepository, never()).findByConsentStatusIn(any());
     }
 
     @Test
-    void checkConsentStatus_nullValue() {
-
-        when(consentJpaRepository.findByConsentStatusIn(EnumSet.of(RECEIVED, VALID))).thenReturn(null);
-
-        when(consentJpaRepository.saveAll(Collections.emptyList())).thenReturn(Collections.emptyList());
+    void checkConsentStatus_skippedByLock() {
+        // Given
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenReturn(-1L);
 
+        // When
         scheduleTask.checkConsentStatus();
 
-        verify(consentJpaRepository, times(1)).findByConsentStatusIn(EnumSet.of(RECEIVED, VALID));
-        verify(consentJpaRepository, times(1)).saveAll(Collections.emptyList());
+        // Then
+        verifyNoInteractions(consentJpaRepository, tppNotificationOutbox);
     }
 
-    @NotNull
-    private ConsentEntity createConsent(ConsentStatus consentStatus) {
-        ConsentEntity aisConsent = new ConsentEntity();
-        aisConsent.setConsentStatus(consentStatus);
-        aisConsent.setExternalId(consentStatus.toString());
-        aisConsent.setValidUntil(LocalDate.now().minusDays(1));
-        return aisConsent;
+    private long executeChunk(BiFunction<Long, Pageable, List<Long>> idLoader, Consumer<List<Long>> chunkProcessor) {
+        List<Long> ids = idLoader.apply(0L, CHUNK);
+        chunkProcessor.accept(ids);
+        return ids.size();
     }
 }
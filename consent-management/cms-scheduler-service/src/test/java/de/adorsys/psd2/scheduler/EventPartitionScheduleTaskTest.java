@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.event.persist.EventPartitionRepository;
+import de.adorsys.psd2.scheduler.service.ScheduleTaskLockService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitionScheduleTaskTest {
+    private static final String TASK_NAME = "event-partitioning";
+
+    @InjectMocks
+    private EventPartitionScheduleTask scheduleTask;
+
+    @Mock
+    private ObjectProvider<EventPartitionRepository> eventPartitionRepositoryProvider;
+    @Mock
+    private ScheduleTaskLockService scheduleTaskLockService;
+    @Mock
+    private EventPartitionRepository eventPartitionRepository;
+
+    @Test
+    void maintainEventPartitions() {
+        // Given
+        when(eventPartitionRepositoryProvider.getIfAvailable()).thenReturn(eventPartitionRepository);
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+
+        // When
+        scheduleTask.maintainEventPartitions();
+
+        // Then
+        verify(eventPartitionRepository).createPartitions(LocalDate.now());
+        verify(eventPartitionRepository).removeExpiredPartitions(LocalDate.now());
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+    }
+
+    @Test
+    void maintainEventPartitions_skippedByLock() {
+        // Given
+        when(eventPartitionRepositoryProvider.getIfAvailable()).thenReturn(eventPartitionRepository);
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(false);
+
+        // When
+        scheduleTask.maintainEventPartitions();
+
+        // Then
+        verifyNoInteractions(eventPartitionRepository);
+        verify(scheduleTaskLockService, never()).releaseLock(TASK_NAME);
+    }
+
+    @Test
+    void maintainEventPartitions_noEventStorage() {
+        // Given
+        when(eventPartitionRepositoryProvider.getIfAvailable()).thenReturn(null);
+
+        // When
+        scheduleTask.maintainEventPartitions();
+
+        // Then
+        verifyNoInteractions(scheduleTaskLockService);
+    }
+
+    @Test
+    void maintainEventPartitions_lockReleasedOnFailure() {
+        // Given
+        when(eventPartitionRepositoryProvider.getIfAvailable()).thenReturn(eventPartitionRepository);
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+        when(eventPartitionRepository.createPartitions(LocalDate.now())).thenThrow(new IllegalStateException());
+
+        // When
+        assertThrows(IllegalStateException.class, () -> scheduleTask.maintainEventPartitions());
+
+        // Then
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.service.migration.LobCodecMigrationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LobCodecMigrationScheduleTaskTest {
+    private static final String CONSENT_TASK_NAME = "lob-codec-migration-consent";
+    private static final String PAYMENT_TASK_NAME = "lob-codec-migration-payment";
+    private static final Pageable CHUNK = PageRequest.of(0, 2);
+    private static final List<Long> IDS = Arrays.asList(1L, 2L);
+
+    @InjectMocks
+    private LobCodecMigrationScheduleTask scheduleTask;
+
+    @Mock
+    private LobCodecMigrationService lobCodecMigrationService;
+    @Mock
+    private ConsentJpaRepository consentJpaRepository;
+    @Mock
+    private PisCommonPaymentDataRepository paymentDataRepository;
+    @Mock
+    private ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
+
+    @Test
+    void migrateNotEncodedData() {
+        // Given
+        ReflectionTestUtils.setField(scheduleTask, "enabled", true);
+        when(chunkedScheduleTaskExecutor.execute(any(), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(consentJpaRepository.findConsentIdsWithNotEncodedData(0L, CHUNK)).thenReturn(IDS);
+        when(paymentDataRepository.findPaymentIdsWithNotEncodedData(0L, CHUNK)).thenReturn(Collections.emptyList());
+
+        // When
+        scheduleTask.migrateNotEncodedData();
+
+        // Then
+        verify(chunkedScheduleTaskExecutor).execute(eq(CONSENT_TASK_NAME), any(), any());
+        verify(chunkedScheduleTaskExecutor).execute(eq(PAYMENT_TASK_NAME), any(), any());
+        verify(lobCodecMigrationService).migrateConsents(IDS);
+        verify(lobCodecMigrationService, never()).migratePayments(any());
+    }
+
+    @Test
+    void migrateNotEncodedData_disabled() {
+        // Given
+        ReflectionTestUtils.setField(scheduleTask, "enabled", false);
+
+        // When
+        scheduleTask.migrateNotEncodedData();
+
+        // Then
+        verifyNoInteractions(chunkedScheduleTaskExecutor, lobCodecMigrationService);
+    }
+
+    private long executeChunk(BiFunction<Long, Pageable, List<Long>> idLoader, Consumer<List<Long>> chunkProcessor) {
+        List<Long> ids = idLoader.apply(0L, CHUNK);
+        if (!ids.isEmpty()) {
+            chunkProcessor.accept(ids);
+        }
+        return ids.size();
+    }
+}
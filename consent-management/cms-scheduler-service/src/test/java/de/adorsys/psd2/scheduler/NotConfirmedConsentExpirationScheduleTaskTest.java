@@ -16,9 +16,14 @@
 
 package de.adorsys.psd2.scheduler;
 
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.aspsp.profile.domain.ais.AisAspspProfileSetting;
+import de.adorsys.psd2.aspsp.profile.domain.ais.ConsentTypeSetting;
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
 import de.adorsys.psd2.consent.service.AisConsentConfirmationExpirationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,18 +32,26 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class NotConfirmedConsentExpirationScheduleTaskTest {
+    private static final String TASK_NAME = "not-confirmed-consent-expiration";
+    private static final Pageable CHUNK = PageRequest.of(0, 2);
+    private static final List<Long> CONSENT_IDS = Arrays.asList(1L, 2L);
+    private static final long EXPIRATION_TIME_MS = 1000L;
 
     @InjectMocks
     private NotConfirmedConsentExpirationScheduleTask scheduleTask;
@@ -47,9 +60,15 @@ class NotConfirmedConsentExpirationScheduleTaskTest {
     private AisConsentConfirmationExpirationService aisConsentConfirmationExpirationService;
     @Mock
     private ConsentJpaRepository consentJpaRepository;
+    @Mock
+    private AspspProfileService aspspProfileService;
+    @Mock
+    private ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
 
     @Captor
     private ArgumentCaptor<ArrayList<ConsentEntity>> consentsCaptor;
+    @Captor
+    private ArgumentCaptor<OffsetDateTime> createdBeforeCaptor;
 
     @Test
     void obsoleteNotConfirmedConsentIfExpired() {
@@ -58,8 +77,11 @@ class NotConfirmedConsentExpirationScheduleTaskTest {
         aisConsents.add(new ConsentEntity());
         aisConsents.add(new ConsentEntity());
 
-        when(consentJpaRepository.findByConsentStatusIn(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED)))
-            .thenReturn(aisConsents);
+        when(aspspProfileService.getAspspSettings()).thenReturn(buildAspspSettings());
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(consentJpaRepository.findConsentIdsCreatedBefore(eq(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED)), createdBeforeCaptor.capture(), eq(0L), eq(CHUNK)))
+            .thenReturn(CONSENT_IDS);
+        when(consentJpaRepository.findAllById(CONSENT_IDS)).thenReturn(aisConsents);
         when(aisConsentConfirmationExpirationService.isConfirmationExpired(any(ConsentEntity.class)))
             .thenReturn(true, false);
         when(aisConsentConfirmationExpirationService.updateConsentListOnConfirmationExpiration(consentsCaptor.capture()))
@@ -69,25 +91,38 @@ class NotConfirmedConsentExpirationScheduleTaskTest {
         scheduleTask.obsoleteNotConfirmedConsentIfExpired();
 
         // Then
-        verify(consentJpaRepository, times(1)).findByConsentStatusIn(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED));
+        verify(consentJpaRepository, never()).findByConsentStatusIn(any());
         verify(aisConsentConfirmationExpirationService, times(2)).isConfirmationExpired(any(ConsentEntity.class));
         verify(aisConsentConfirmationExpirationService, times(1)).updateConsentListOnConfirmationExpiration(anyList());
 
         assertEquals(1, consentsCaptor.getValue().size());
+        assertFalse(createdBeforeCaptor.getValue().isAfter(OffsetDateTime.now().minus(EXPIRATION_TIME_MS, ChronoUnit.MILLIS)));
     }
 
     @Test
     void obsoleteNotConfirmedConsentIfExpired_emptyList() {
         // Given
-        when(consentJpaRepository.findByConsentStatusIn(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED)))
-            .thenReturn(Collections.emptyList());
+        when(aspspProfileService.getAspspSettings()).thenReturn(buildAspspSettings());
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(consentJpaRepository.findConsentIdsCreatedBefore(eq(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED)), any(OffsetDateTime.class), eq(0L), eq(CHUNK)))
+            .thenReturn(CONSENT_IDS);
+        when(consentJpaRepository.findAllById(CONSENT_IDS)).thenReturn(Collections.emptyList());
 
         // When
         scheduleTask.obsoleteNotConfirmedConsentIfExpired();
 
         // Then
-        verify(consentJpaRepository, times(1)).findByConsentStatusIn(EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED));
         verify(aisConsentConfirmationExpirationService, never()).isConfirmationExpired(any(ConsentEntity.class));
         verify(aisConsentConfirmationExpirationService, never()).updateConsentListOnConfirmationExpiration(anyList());
     }
+
+    private long executeChunk(BiFunction<Long, Pageable, List<Long>> idLoader, Consumer<List<Long>> chunkProcessor) {
+        List<Long> ids = idLoader.apply(0L, CHUNK);
+        chunkProcessor.accept(ids);
+        return ids.size();
+    }
+
+    private AspspSettings buildAspspSettings() {
+        return new AspspSettings(new AisAspspProfileSetting(new ConsentTypeSetting(false, false, false, 0, EXPIRATION_TIME_MS, 0, false, false), null, null, null, null), null, null, null);
+    }
 }
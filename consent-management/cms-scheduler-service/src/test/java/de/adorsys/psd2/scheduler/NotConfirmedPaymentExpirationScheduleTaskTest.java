@@ -16,9 +16,13 @@
 
 package de.adorsys.psd2.scheduler;
 
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.aspsp.profile.domain.pis.PisAspspProfileSetting;
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
 import de.adorsys.psd2.consent.service.PisCommonPaymentConfirmationExpirationService;
+import de.adorsys.psd2.scheduler.service.ChunkedScheduleTaskExecutor;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,11 +31,13 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +46,10 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class NotConfirmedPaymentExpirationScheduleTaskTest {
+    private static final String TASK_NAME = "not-confirmed-payment-expiration";
+    private static final Pageable CHUNK = PageRequest.of(0, 2);
+    private static final List<Long> PAYMENT_IDS = Arrays.asList(1L, 2L);
+    private static final long EXPIRATION_TIME_MS = 1000L;
 
     @InjectMocks
     private NotConfirmedPaymentExpirationScheduleTask scheduleTask;
@@ -48,6 +58,10 @@ class NotConfirmedPaymentExpirationScheduleTaskTest {
     private PisCommonPaymentConfirmationExpirationService pisCommonPaymentConfirmationExpirationService;
     @Mock
     private PisCommonPaymentDataRepository paymentDataRepository;
+    @Mock
+    private AspspProfileService aspspProfileService;
+    @Mock
+    private ChunkedScheduleTaskExecutor chunkedScheduleTaskExecutor;
 
     @Captor
     private ArgumentCaptor<ArrayList<PisCommonPaymentData>> commonPaymentDataCaptor;
@@ -59,8 +73,11 @@ class NotConfirmedPaymentExpirationScheduleTaskTest {
         pisCommonPaymentDataList.add(new PisCommonPaymentData());
         pisCommonPaymentDataList.add(new PisCommonPaymentData());
 
-        when(paymentDataRepository.findByTransactionStatusIn(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC)))
-            .thenReturn(pisCommonPaymentDataList);
+        when(aspspProfileService.getAspspSettings()).thenReturn(buildAspspSettings());
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(paymentDataRepository.findPaymentIdsCreatedBefore(eq(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC)), any(OffsetDateTime.class), eq(0L), eq(CHUNK)))
+            .thenReturn(PAYMENT_IDS);
+        when(paymentDataRepository.findAllById(PAYMENT_IDS)).thenReturn(pisCommonPaymentDataList);
         when(pisCommonPaymentConfirmationExpirationService.isConfirmationExpired(any(PisCommonPaymentData.class)))
             .thenReturn(true, false);
         when(pisCommonPaymentConfirmationExpirationService.updatePaymentDataListOnConfirmationExpiration(commonPaymentDataCaptor.capture()))
@@ -70,7 +87,7 @@ class NotConfirmedPaymentExpirationScheduleTaskTest {
         scheduleTask.obsoleteNotConfirmedPaymentIfExpired();
 
         // Then
-        verify(paymentDataRepository, times(1)).findByTransactionStatusIn(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC));
+        verify(paymentDataRepository, never()).findByTransactionStatusIn(any());
         verify(pisCommonPaymentConfirmationExpirationService, times(2)).isConfirmationExpired(any(PisCommonPaymentData.class));
         verify(pisCommonPaymentConfirmationExpirationService, times(1)).updatePaymentDataListOnConfirmationExpiration(anyList());
 
@@ -80,15 +97,27 @@ class NotConfirmedPaymentExpirationScheduleTaskTest {
     @Test
     void obsoleteNotConfirmedPaymentIfExpired_emptyList() {
         // Given
-        when(paymentDataRepository.findByTransactionStatusIn(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC)))
-            .thenReturn(Collections.emptyList());
+        when(aspspProfileService.getAspspSettings()).thenReturn(buildAspspSettings());
+        when(chunkedScheduleTaskExecutor.execute(eq(TASK_NAME), any(), any())).thenAnswer(invocation -> executeChunk(invocation.getArgument(1), invocation.getArgument(2)));
+        when(paymentDataRepository.findPaymentIdsCreatedBefore(eq(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC)), any(OffsetDateTime.class), eq(0L), eq(CHUNK)))
+            .thenReturn(PAYMENT_IDS);
+        when(paymentDataRepository.findAllById(PAYMENT_IDS)).thenReturn(Collections.emptyList());
 
         // When
         scheduleTask.obsoleteNotConfirmedPaymentIfExpired();
 
         // Then
-        verify(paymentDataRepository, times(1)).findByTransactionStatusIn(EnumSet.of(TransactionStatus.RCVD, TransactionStatus.PATC));
         verify(pisCommonPaymentConfirmationExpirationService, never()).isConfirmationExpired(any(PisCommonPaymentData.class));
         verify(pisCommonPaymentConfirmationExpirationService, never()).updatePaymentDataListOnConfirmationExpiration(anyList());
     }
+
+    private long executeChunk(BiFunction<Long, Pageable, List<Long>> idLoader, Consumer<List<Long>> chunkProcessor) {
+        List<Long> ids = idLoader.apply(0L, CHUNK);
+        chunkProcessor.accept(ids);
+        return ids.size();
+    }
+
+    private AspspSettings buildAspspSettings() {
+        return new AspspSettings(null, new PisAspspProfileSetting(new HashMap<>(), 0, EXPIRATION_TIME_MS, true, null, "", null), null, null);
+    }
 }
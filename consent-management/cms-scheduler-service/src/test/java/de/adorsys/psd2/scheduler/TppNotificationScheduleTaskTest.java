@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler;
+
+import de.adorsys.psd2.scheduler.service.ScheduleTaskLockService;
+import de.adorsys.psd2.scheduler.service.TppNotificationDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TppNotificationScheduleTaskTest {
+    private static final String TASK_NAME = "tpp-notification";
+
+    @InjectMocks
+    private TppNotificationScheduleTask scheduleTask;
+
+    @Mock
+    private TppNotificationDispatcher tppNotificationDispatcher;
+    @Mock
+    private ScheduleTaskLockService scheduleTaskLockService;
+
+    @Test
+    void dispatchNotifications() {
+        // Given
+        when(tppNotificationDispatcher.isEnabled()).thenReturn(true);
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+
+        // When
+        scheduleTask.dispatchNotifications();
+
+        // Then
+        verify(tppNotificationDispatcher).dispatch();
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+    }
+
+    @Test
+    void dispatchNotifications_skippedByLock() {
+        // Given
+        when(tppNotificationDispatcher.isEnabled()).thenReturn(true);
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(false);
+
+        // When
+        scheduleTask.dispatchNotifications();
+
+        // Then
+        verify(tppNotificationDispatcher, never()).dispatch();
+        verify(scheduleTaskLockService, never()).releaseLock(TASK_NAME);
+    }
+
+    @Test
+    void dispatchNotifications_disabled() {
+        // Given
+        when(tppNotificationDispatcher.isEnabled()).thenReturn(false);
+
+        // When
+        scheduleTask.dispatchNotifications();
+
+        // Then
+        verify(tppNotificationDispatcher, never()).dispatch();
+        verifyNoInteractions(scheduleTaskLockService);
+    }
+}
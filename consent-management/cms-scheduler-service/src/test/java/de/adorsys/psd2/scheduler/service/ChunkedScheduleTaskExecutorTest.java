@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.scheduler.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedScheduleTaskExecutorTest {
+    private static final String TASK_NAME = "task";
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private ScheduleTaskLockService scheduleTaskLockService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkedScheduleTaskExecutor executor;
+    private MeterRegistry meterRegistry;
+    private List<Long> requestedLastIds;
+    private List<List<Long>> processedChunks;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ChunkedScheduleTaskExecutor(scheduleTaskLockService, transactionManager);
+        ReflectionTestUtils.setField(executor, "chunkSize", CHUNK_SIZE);
+        meterRegistry = new SimpleMeterRegistry();
+        executor.bindTo(meterRegistry);
+        requestedLastIds = new ArrayList<>();
+        processedChunks = new ArrayList<>();
+    }
+
+    @Test
+    void execute_processesChunksUntilLastIncompleteChunk() {
+        // Given
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+        List<List<Long>> chunks = Arrays.asList(Arrays.asList(1L, 3L), Arrays.asList(5L, 8L), Collections.singletonList(13L));
+
+        // When
+        long processed = executor.execute(TASK_NAME, (lastId, chunk) -> loadChunk(chunks, lastId, chunk), processedChunks::add);
+
+        // Then
+        assertEquals(5, processed);
+        assertEquals(Arrays.asList(0L, 3L, 8L), requestedLastIds);
+        assertEquals(chunks, processedChunks);
+        verify(transactionManager, times(3)).commit(any());
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+        assertEquals(5, meterRegistry.get("cms.scheduler.task.processed").tag("task", TASK_NAME).counter().count());
+        assertEquals(1, meterRegistry.get("cms.scheduler.task.duration").tag("task", TASK_NAME).timer().count());
+    }
+
+    @Test
+    void execute_stopsOnEmptyChunk() {
+        // Given
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+        List<List<Long>> chunks = Arrays.asList(Arrays.asList(1L, 2L), Collections.emptyList());
+
+        // When
+        long processed = executor.execute(TASK_NAME, (lastId, chunk) -> loadChunk(chunks, lastId, chunk), processedChunks::add);
+
+        // Then
+        assertEquals(2, processed);
+        assertEquals(Arrays.asList(0L, 2L), requestedLastIds);
+        assertEquals(Collections.singletonList(Arrays.asList(1L, 2L)), processedChunks);
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+    }
+
+    @Test
+    void execute_lockIsHeldByAnotherNode() {
+        // Given
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(false);
+
+        // When
+        long processed = executor.execute(TASK_NAME, (lastId, chunk) -> loadChunk(Collections.emptyList(), lastId, chunk), processedChunks::add);
+
+        // Then
+        assertEquals(-1, processed);
+        assertEquals(Collections.emptyList(), requestedLastIds);
+        verifyNoInteractions(transactionManager);
+        verify(scheduleTaskLockService, never()).releaseLock(any());
+    }
+
+    @Test
+    void execute_chunkProcessingFailed_shouldRollbackAndReleaseLock() {
+        // Given
+        when(scheduleTaskLockService.tryLock(TASK_NAME)).thenReturn(true);
+        RuntimeException exception = new IllegalStateException("Chunk processing failed");
+
+        // When
+        IllegalStateException actual = assertThrows(IllegalStateException.class,
+                                                    () -> executor.execute(TASK_NAME, (lastId, chunk) -> Arrays.asList(1L, 2L), ids -> {
+                                                        throw exception;
+                                                    }));
+
+        // Then
+        assertEquals(exception, actual);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(scheduleTaskLockService).releaseLock(TASK_NAME);
+    }
+
+    private List<Long> loadChunk(List<List<Long>> chunks, Long lastId, Pageable chunk) {
+        assertEquals(CHUNK_SIZE, chunk.getPageSize());
+        requestedLastIds.add(lastId);
+        return chunks.get(requestedLastIds.size() - 1);
+    }
+}
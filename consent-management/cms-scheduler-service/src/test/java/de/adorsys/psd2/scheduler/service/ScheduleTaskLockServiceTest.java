@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.scheduler.service;
+
+import de.adorsys.psd2.consent.domain.SchedulerLockEntity;
+import de.adorsys.psd2.consent.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleTaskLockServiceTest {
+    private static final String TASK_NAME = "task";
+    private static final long LOCK_MAX_DURATION_MS = 60000;
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<SchedulerLockEntity> lockCaptor;
+
+    private ScheduleTaskLockService scheduleTaskLockService;
+
+    @BeforeEach
+    void setUp() {
+        scheduleTaskLockService = new ScheduleTaskLockService(schedulerLockRepository, transactionManager);
+        ReflectionTestUtils.setField(scheduleTaskLockService, "lockMaxDurationMs", LOCK_MAX_DURATION_MS);
+    }
+
+    @Test
+    void tryLock_expiredLock_shouldAcquire() {
+        // Given
+        when(schedulerLockRepository.acquireLock(eq(TASK_NAME), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(1);
+
+        // When
+        boolean locked = scheduleTaskLockService.tryLock(TASK_NAME);
+
+        // Then
+        assertTrue(locked);
+        verify(schedulerLockRepository, never()).save(any());
+    }
+
+    @Test
+    void tryLock_heldByAnotherNode() {
+        // Given
+        when(schedulerLockRepository.acquireLock(eq(TASK_NAME), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(0);
+        when(schedulerLockRepository.existsById(TASK_NAME)).thenReturn(true);
+
+        // When
+        boolean locked = scheduleTaskLockService.tryLock(TASK_NAME);
+
+        // Then
+        assertFalse(locked);
+        verify(schedulerLockRepository, never()).save(any());
+    }
+
+    @Test
+    void tryLock_noLock_shouldCreate() {
+        // Given
+        when(schedulerLockRepository.acquireLock(eq(TASK_NAME), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(0);
+        when(schedulerLockRepository.existsById(TASK_NAME)).thenReturn(false);
+        when(schedulerLockRepository.save(lockCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        boolean locked = scheduleTaskLockService.tryLock(TASK_NAME);
+
+        // Then
+        assertTrue(locked);
+        SchedulerLockEntity lock = lockCaptor.getValue();
+        assertEquals(TASK_NAME, lock.getName());
+        assertTrue(lock.isNew());
+        assertEquals(LOCK_MAX_DURATION_MS, ChronoUnit.MILLIS.between(lock.getLockedAt(), lock.getLockedUntil()));
+    }
+
+    @Test
+    void tryLock_createdConcurrently() {
+        // Given
+        when(schedulerLockRepository.acquireLock(eq(TASK_NAME), anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class))).thenReturn(0);
+        when(schedulerLockRepository.existsById(TASK_NAME)).thenReturn(false);
+        when(schedulerLockRepository.save(any(SchedulerLockEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        boolean locked = scheduleTaskLockService.tryLock(TASK_NAME);
+
+        // Then
+        assertFalse(locked);
+    }
+
+    @Test
+    void releaseLock() {
+        // When
+        scheduleTaskLockService.releaseLock(TASK_NAME);
+
+        // Then
+        verify(schedulerLockRepository).releaseLock(eq(TASK_NAME), anyString(), any(OffsetDateTime.class));
+    }
+}
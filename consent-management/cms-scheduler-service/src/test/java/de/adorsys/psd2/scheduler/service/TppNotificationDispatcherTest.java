@@ -0,0 +1,273 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.scheduler.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.consent.repository.TppNotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.RequestMatcher;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class TppNotificationDispatcherTest {
+    private static final String TPP_NOTIFICATION_URI = "https://tpp.example.com/notifications";
+    private static final String OTHER_TPP_NOTIFICATION_URI = "https://other-tpp.example.com/notifications";
+
+    @Mock
+    private TppNotificationRepository tppNotificationRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TppNotificationDispatcher dispatcher;
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new TppNotificationDispatcher(tppNotificationRepository, transactionManager, 1000, 1000, 2);
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 500);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 5000L);
+        server = MockRestServiceServer.bindTo((RestTemplate) ReflectionTestUtils.getField(dispatcher, "restTemplate"))
+                     .ignoreExpectOrder(true)
+                     .build();
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_sendsBatchesPerUriAndRemovesDelivered() {
+        // Given
+        List<TppNotificationEntity> notifications = Arrays.asList(buildNotification(TPP_NOTIFICATION_URI, "1"),
+                                                                  buildNotification(OTHER_TPP_NOTIFICATION_URI, "2"),
+                                                                  buildNotification(TPP_NOTIFICATION_URI, "3"),
+                                                                  buildNotification(TPP_NOTIFICATION_URI, "4"));
+        when(tppNotificationRepository.findDueNotifications(any(), any())).thenReturn(notifications);
+        server.expect(postTo(TPP_NOTIFICATION_URI))
+            .andExpect(resourceIds("1", "3"))
+            .andRespond(withSuccess());
+        server.expect(postTo(TPP_NOTIFICATION_URI))
+            .andExpect(resourceIds("4"))
+            .andRespond(withSuccess());
+        server.expect(postTo(OTHER_TPP_NOTIFICATION_URI))
+            .andExpect(resourceIds("2"))
+            .andRespond(withSuccess());
+
+        // When
+        int dispatched = dispatcher.dispatch();
+
+        // Then
+        server.verify();
+        assertEquals(4, dispatched);
+        verify(tppNotificationRepository).deleteAll(Arrays.asList(notifications.get(0), notifications.get(2)));
+        verify(tppNotificationRepository).deleteAll(Collections.singletonList(notifications.get(3)));
+        verify(tppNotificationRepository).deleteAll(Collections.singletonList(notifications.get(1)));
+        assertEquals(4, meterRegistry.counter("cms.tpp.notifications", "outcome", "delivered").count());
+    }
+
+    @Test
+    void dispatch_failedRequest_schedulesRetry() {
+        // Given
+        TppNotificationEntity notification = buildNotification(TPP_NOTIFICATION_URI, "1");
+        notification.setAttempts(1);
+        when(tppNotificationRepository.findDueNotifications(any(), any())).thenReturn(Collections.singletonList(notification));
+        server.expect(postTo(TPP_NOTIFICATION_URI)).andRespond(withServerError());
+        OffsetDateTime before = OffsetDateTime.now();
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        server.verify();
+        assertEquals(2, notification.getAttempts());
+        assertFalse(notification.isFailed());
+        assertNotNull(notification.getLastError());
+        assertFalse(notification.getNextAttemptTimestamp().isBefore(before.plusSeconds(2)));
+        verify(tppNotificationRepository).saveAll(Collections.singletonList(notification));
+        verify(tppNotificationRepository).postponeNotifications(TPP_NOTIFICATION_URI, notification.getNextAttemptTimestamp());
+        verify(tppNotificationRepository, never()).deleteAll(any());
+        assertEquals(1, meterRegistry.counter("cms.tpp.notifications", "outcome", "retry").count());
+    }
+
+    @Test
+    void dispatch_failedRequest_backsOffWholeUri() {
+        // Given
+        List<TppNotificationEntity> notifications = Arrays.asList(buildNotification(TPP_NOTIFICATION_URI, "1"),
+                                                                  buildNotification(TPP_NOTIFICATION_URI, "2"),
+                                                                  buildNotification(TPP_NOTIFICATION_URI, "3"),
+                                                                  buildNotification(OTHER_TPP_NOTIFICATION_URI, "4"));
+        when(tppNotificationRepository.findDueNotifications(any(), any())).thenReturn(notifications);
+        when(tppNotificationRepository.postponeNotifications(eq(TPP_NOTIFICATION_URI), any())).thenReturn(1);
+        server.expect(postTo(TPP_NOTIFICATION_URI))
+            .andExpect(resourceIds("1", "2"))
+            .andRespond(withServerError());
+        server.expect(postTo(OTHER_TPP_NOTIFICATION_URI))
+            .andExpect(resourceIds("4"))
+            .andRespond(withSuccess());
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        server.verify();
+        verify(tppNotificationRepository).saveAll(notifications.subList(0, 2));
+        verify(tppNotificationRepository).postponeNotifications(TPP_NOTIFICATION_URI, notifications.get(0).getNextAttemptTimestamp());
+        verify(tppNotificationRepository).deleteAll(Collections.singletonList(notifications.get(3)));
+        assertEquals(0, notifications.get(2).getAttempts());
+        assertEquals(1, meterRegistry.counter("cms.tpp.notifications", "outcome", "postponed").count());
+    }
+
+    @Test
+    void dispatch_slowUri_otherUrisServedConcurrently() {
+        // Given
+        List<TppNotificationEntity> notifications = Arrays.asList(buildNotification(TPP_NOTIFICATION_URI, "1"),
+                                                                  buildNotification(OTHER_TPP_NOTIFICATION_URI, "2"));
+        when(tppNotificationRepository.findDueNotifications(any(), any())).thenReturn(notifications);
+        CountDownLatch otherUriServed = new CountDownLatch(1);
+        server.expect(postTo(TPP_NOTIFICATION_URI))
+            .andRespond(request -> {
+                // the slow URI is answered only after the other URI has been served
+                try {
+                    assertTrue(otherUriServed.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                return withSuccess().createResponse(request);
+            });
+        server.expect(postTo(OTHER_TPP_NOTIFICATION_URI))
+            .andRespond(request -> {
+                otherUriServed.countDown();
+                return withSuccess().createResponse(request);
+            });
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        server.verify();
+        verify(tppNotificationRepository).deleteAll(Collections.singletonList(notifications.get(0)));
+        verify(tppNotificationRepository).deleteAll(Collections.singletonList(notifications.get(1)));
+    }
+
+    @Test
+    void dispatch_maxAttemptsReached_markedFailed() {
+        // Given
+        TppNotificationEntity notification = buildNotification(TPP_NOTIFICATION_URI, "1");
+        notification.setAttempts(2);
+        when(tppNotificationRepository.findDueNotifications(any(), any())).thenReturn(Collections.singletonList(notification));
+        server.expect(postTo(TPP_NOTIFICATION_URI)).andRespond(withServerError());
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        assertTrue(notification.isFailed());
+        verify(tppNotificationRepository).saveAll(Collections.singletonList(notification));
+        assertEquals(1, meterRegistry.counter("cms.tpp.notifications", "outcome", "failed").count());
+    }
+
+    @Test
+    void dispatch_noDueNotifications() {
+        // Given
+        when(tppNotificationRepository.findDueNotifications(any(), eq(PageRequest.of(0, 500))))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        int dispatched = dispatcher.dispatch();
+
+        // Then
+        assertEquals(0, dispatched);
+        server.verify();
+    }
+
+    @Test
+    void getBackoffMs() {
+        assertEquals(1000, dispatcher.getBackoffMs(1));
+        assertEquals(2000, dispatcher.getBackoffMs(2));
+        assertEquals(4000, dispatcher.getBackoffMs(3));
+        assertEquals(5000, dispatcher.getBackoffMs(4));
+        assertEquals(5000, dispatcher.getBackoffMs(40));
+    }
+
+    private RequestMatcher postTo(String uri) {
+        return request -> {
+            assertEquals(URI.create(uri), request.getURI());
+            assertEquals(HttpMethod.POST, request.getMethod());
+        };
+    }
+
+    private RequestMatcher resourceIds(String... resourceIds) {
+        return request -> {
+            JsonNode messages = new ObjectMapper().readTree(((MockClientHttpRequest) request).getBodyAsString());
+            assertEquals(resourceIds.length, messages.size());
+            for (int i = 0; i < resourceIds.length; i++) {
+                assertEquals("PAYMENT", messages.get(i).get("resourceType").asText());
+                assertEquals(resourceIds[i], messages.get(i).get("resourceId").asText());
+                assertFalse(messages.get(i).has("authorisationId"));
+            }
+        };
+    }
+
+    private TppNotificationEntity buildNotification(String uri, String resourceId) {
+        TppNotificationEntity notification = new TppNotificationEntity();
+        notification.setTppNotificationUri(uri);
+        notification.setResourceType(TppNotificationResourceType.PAYMENT);
+        notification.setResourceId(resourceId);
+        notification.setStatus("ACSC");
+        notification.setStatusChangeTimestamp(OffsetDateTime.now());
+        return notification;
+    }
+}
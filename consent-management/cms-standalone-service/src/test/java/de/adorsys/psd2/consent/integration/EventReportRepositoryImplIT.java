@@ -37,6 +37,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -79,6 +80,16 @@ class EventReportRepositoryImplIT {
         assertEquals(expectedEvent, updateToUTC(eventsForPeriod.get(0)));
     }
 
+    @Test
+    void streamEventsForPeriod() {
+        List<ReportEvent> eventsForPeriod = new ArrayList<>();
+
+        repository.streamEventsForPeriod(START, END, INSTANCE_ID, eventsForPeriod::add);
+
+        assertEquals(1, eventsForPeriod.size());
+        assertEquals(expectedEvent, updateToUTC(eventsForPeriod.get(0)));
+    }
+
     @Test
     void getEventsForPeriodAndConsentId() {
         List<ReportEvent> eventsForPeriod = repository.getEventsForPeriodAndConsentId(START, END, CONSENT_ID, INSTANCE_ID);
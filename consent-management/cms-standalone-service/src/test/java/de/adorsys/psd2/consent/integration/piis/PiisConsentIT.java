@@ -20,6 +20,7 @@ package de.adorsys.psd2.consent.integration.piis;
 import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.ais.CmsConsent;
 import de.adorsys.psd2.consent.api.service.PiisConsentService;
+import de.adorsys.psd2.consent.aspsp.api.piis.CmsAspspPiisFundsExportService;
 import de.adorsys.psd2.consent.aspsp.api.piis.CmsAspspPiisService;
 import de.adorsys.psd2.consent.aspsp.api.piis.CreatePiisConsentRequest;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
@@ -77,6 +78,8 @@ public class PiisConsentIT {
     private ConsentJpaRepository consentJpaRepository;
     @Autowired
     private PiisConsentService piisConsentService;
+    @Autowired
+    private CmsAspspPiisFundsExportService cmsAspspPiisFundsExportService;
 
     @Test
     public void createPiisConsent_successWithNewStatus() {
@@ -132,6 +135,27 @@ public class PiisConsentIT {
         assertEquals("aspsp1", consentsAspsp1NoCorporateId.get(1).getPsuData().getPsuId());
     }
 
+    @Test
+    public void exportConsentsByTpp_severalChunks() {
+        // Given
+        CreatePiisConsentRequest request = buildCreatePiisConsentRequest();
+        Set<String> consentIds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            consentIds.add(cmsAspspPiisServiceInternal.createConsent(PSU_ID_DATA, request).orElseThrow());
+        }
+        flushAndClearPersistenceContext();
+
+        // When
+        Collection<CmsPiisConsent> exportedConsents = cmsAspspPiisFundsExportService.exportConsentsByTpp(TPP_AUTHORISATION_NUMBER, null, null,
+                                                                                                         null, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertEquals(5, exportedConsents.size());
+        Set<String> exportedConsentIds = new HashSet<>();
+        exportedConsents.forEach(consent -> exportedConsentIds.add(consent.getId()));
+        assertEquals(consentIds, exportedConsentIds);
+    }
+
     @Test
     public void getPiisConsentListByAccountIdentifier_Success() {
         // Given
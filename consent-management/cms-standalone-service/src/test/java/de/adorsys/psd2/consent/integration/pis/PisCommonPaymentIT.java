@@ -20,9 +20,11 @@ import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.consent.api.pis.proto.PisPaymentInfo;
 import de.adorsys.psd2.consent.api.service.PisCommonPaymentService;
+import de.adorsys.psd2.consent.domain.codec.LobCodec;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.consent.integration.config.IntegrationTestConfiguration;
 import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.service.migration.LobCodecMigrationService;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import de.adorsys.psd2.xs2a.core.profile.PaymentType;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -34,12 +36,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 
@@ -57,6 +63,7 @@ public class PisCommonPaymentIT {
     private static final String AUTHORITY_ID = "test authority ID";
     private static final PsuIdData PSU_DATA = new PsuIdData(null, null, null, null, null);
     private static final String PAYMENT_ID = "payment id";
+    private static final byte[] PAYMENT_DATA = "{\"endToEndIdentification\":\"WBG-123456789\"}".getBytes(StandardCharsets.UTF_8);
 
     @Autowired
     private PisCommonPaymentService pisCommonPaymentService;
@@ -64,6 +71,8 @@ public class PisCommonPaymentIT {
     private EntityManager entityManager;
     @Autowired
     private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    @Autowired
+    private LobCodecMigrationService lobCodecMigrationService;
     @MockBean
     private AspspProfileService aspspProfileService;
 
@@ -154,6 +163,58 @@ public class PisCommonPaymentIT {
         );
     }
 
+    @Test
+    public void createPisCommonPayment_paymentDataEncoded() throws SQLException {
+        // Given
+        PisPaymentInfo pisPaymentInfo = buildPisPaymentInfo();
+        pisPaymentInfo.setPaymentData(PAYMENT_DATA);
+
+        // When
+        pisCommonPaymentService.createCommonPayment(pisPaymentInfo);
+        flushAndClearPersistenceContext();
+
+        // Then
+        byte[] storedData = getStoredPaymentData();
+        assertTrue(LobCodec.isEncoded(storedData));
+        assertArrayEquals(PAYMENT_DATA, LobCodec.decode(storedData));
+
+        PisCommonPaymentData savedEntity = pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID).get();
+        assertArrayEquals(PAYMENT_DATA, savedEntity.getPayment());
+        assertEquals(LobCodec.VERSION, savedEntity.getLobCodecVersion());
+    }
+
+    @Test
+    public void migratePayments_plainJsonEncoded() throws SQLException {
+        // Given
+        PisPaymentInfo pisPaymentInfo = buildPisPaymentInfo();
+        pisPaymentInfo.setPaymentData(PAYMENT_DATA);
+        pisCommonPaymentService.createCommonPayment(pisPaymentInfo);
+        flushAndClearPersistenceContext();
+
+        entityManager.createNativeQuery("update pis_common_payment set payment = :payment, lob_codec_version = null where payment_id = :paymentId")
+            .setParameter("payment", PAYMENT_DATA)
+            .setParameter("paymentId", PAYMENT_ID)
+            .executeUpdate();
+        PisCommonPaymentData plainJsonEntity = pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID).get();
+        assertArrayEquals(PAYMENT_DATA, plainJsonEntity.getPayment());
+        assertFalse(LobCodec.isEncoded(getStoredPaymentData()));
+        List<Long> ids = pisCommonPaymentDataRepository.findPaymentIdsWithNotEncodedData(0L, PageRequest.of(0, 10));
+        assertEquals(Collections.singletonList(plainJsonEntity.getId()), ids);
+        entityManager.clear();
+
+        // When
+        int migrated = lobCodecMigrationService.migratePayments(ids);
+        flushAndClearPersistenceContext();
+
+        // Then
+        assertEquals(1, migrated);
+        assertTrue(LobCodec.isEncoded(getStoredPaymentData()));
+        PisCommonPaymentData migratedEntity = pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID).get();
+        assertArrayEquals(PAYMENT_DATA, migratedEntity.getPayment());
+        assertEquals(LobCodec.VERSION, migratedEntity.getLobCodecVersion());
+        assertTrue(pisCommonPaymentDataRepository.findPaymentIdsWithNotEncodedData(0L, PageRequest.of(0, 10)).isEmpty());
+    }
+
     private PisPaymentInfo buildPisPaymentInfo() {
         PisPaymentInfo pisPaymentInfo = new PisPaymentInfo();
         pisPaymentInfo.setPaymentProduct(PAYMENT_PRODUCT);
@@ -179,6 +240,17 @@ public class PisCommonPaymentIT {
     /**
      * Flush and clear the persistence context to force the call to the database
      */
+    private byte[] getStoredPaymentData() throws SQLException {
+        Object storedData = entityManager.createNativeQuery("select payment from pis_common_payment where payment_id = :paymentId")
+                                .setParameter("paymentId", PAYMENT_ID)
+                                .getSingleResult();
+        if (storedData instanceof Blob) {
+            Blob blob = (Blob) storedData;
+            return blob.getBytes(1, (int) blob.length());
+        }
+        return (byte[]) storedData;
+    }
+
     private void flushAndClearPersistenceContext() {
         entityManager.flush();
         entityManager.clear();
@@ -25,6 +25,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.function.Consumer;
 
 
 @NotNull
@@ -77,4 +78,56 @@ public interface CmsAspspAisExportService {
     Collection<CmsAisAccountConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
                                                                @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
                                                                @NotNull String instanceId);
+
+    /**
+     * Passes consents by given criteria to the consumer one by one, so that they are never loaded into memory at once.
+     * By inconsistent criteria no consents will be passed.
+     *
+     * @param tppAuthorisationNumber Mandatory TPP ID
+     * @param createDateFrom         Optional starting creation date criteria
+     * @param createDateTo           Optional ending creation date criteria
+     * @param psuIdData              Optional Psu information criteria
+     * @param instanceId             Mandatory id of particular service instance
+     * @param consumer               Consumer of the consents
+     */
+    default void streamConsentsByTpp(String tppAuthorisationNumber,
+                                     @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                     @Nullable PsuIdData psuIdData, @NotNull String instanceId,
+                                     @NotNull Consumer<CmsAisAccountConsent> consumer) {
+        exportConsentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId).forEach(consumer);
+    }
+
+    /**
+     * Passes consents by given criteria to the consumer one by one, so that they are never loaded into memory at once.
+     * By inconsistent criteria no consents will be passed.
+     *
+     * @param psuIdData      Mandatory Psu information criteria
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @param consumer       Consumer of the consents
+     */
+    default void streamConsentsByPsu(PsuIdData psuIdData,
+                                     @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                     @NotNull String instanceId,
+                                     @NotNull Consumer<CmsAisAccountConsent> consumer) {
+        exportConsentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId).forEach(consumer);
+    }
+
+    /**
+     * Passes consents by given criteria to the consumer one by one, so that they are never loaded into memory at once.
+     * By inconsistent criteria no consents will be passed.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @param consumer       Consumer of the consents
+     */
+    default void streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                           @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                           @NotNull String instanceId,
+                                           @NotNull Consumer<CmsAisAccountConsent> consumer) {
+        exportConsentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId).forEach(consumer);
+    }
 }
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.ais.CmsAisAccountConsent;
 import de.adorsys.psd2.consent.aspsp.api.ais.CmsAspspAisExportService;
 import de.adorsys.psd2.consent.web.aspsp.config.CmsAspspApiTagName;
@@ -23,12 +24,11 @@ import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import io.swagger.annotations.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Collection;
 
 @RestController
 @RequiredArgsConstructor
@@ -38,12 +38,13 @@ public class CmsAspspAisExportController {
     private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
 
     private final CmsAspspAisExportService cmsAspspAisExportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(path = "/tpp/{tpp-id}")
     @ApiOperation(value = "Returns a list of AIS consent objects by given mandatory TPP ID, optional creation date, PSU ID Data and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsAisAccountConsent>> getConsentsByTpp(
+        @ApiResponse(code = 200, message = "OK", response = CmsAisAccountConsent.class, responseContainer = "List")})
+    public void getConsentsByTpp(
         @ApiParam(value = "TPP ID", example = "12345987", required = true)
         @PathVariable("tpp-id") String tppId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -62,17 +63,18 @@ public class CmsAspspAisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsAisAccountConsent> consents = cmsAspspAisExportService.exportConsentsByTpp(tppId, start, end, psuIdData, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsAisAccountConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspAisExportService.streamConsentsByTpp(tppId, start, end, psuIdData, instanceId, consumer));
     }
 
     @GetMapping(path = "/psu")
     @ApiOperation(value = "Returns a list of AIS consent objects by given mandatory PSU ID Data, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsAisAccountConsent>> getConsentsByPsu(
+        @ApiResponse(code = 200, message = "OK", response = CmsAisAccountConsent.class, responseContainer = "List")})
+    public void getConsentsByPsu(
         @ApiParam(value = "Creation start date", example = "2010-01-01")
         @RequestHeader(value = "start-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
@@ -88,18 +90,19 @@ public class CmsAspspAisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsAisAccountConsent> consents = cmsAspspAisExportService.exportConsentsByPsu(psuIdData, start, end, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsAisAccountConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspAisExportService.streamConsentsByPsu(psuIdData, start, end, instanceId, consumer));
     }
 
 
     @GetMapping(path = "/account/{account-id}")
     @ApiOperation(value = "Returns a list of consents by given mandatory aspsp account id, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsAisAccountConsent>> getConsentsByAccount(
+        @ApiResponse(code = 200, message = "OK", response = CmsAisAccountConsent.class, responseContainer = "List")})
+    public void getConsentsByAccount(
         @ApiParam(value = "Bank specific account identifier.", required = true, example = "11111-99999")
         @PathVariable("account-id") String aspspAccountId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -109,8 +112,9 @@ public class CmsAspspAisExportController {
         @RequestHeader(value = "end-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
-        Collection<CmsAisAccountConsent> consents = cmsAspspAisExportService.exportConsentsByAccountId(aspspAccountId, start, end, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
+        JsonArrayResponseWriter.<CmsAisAccountConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspAisExportService.streamConsentsByAccountId(aspspAccountId, start, end, instanceId, consumer));
     }
 }
@@ -16,6 +16,8 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.web.aspsp.config.CmsAspspApiTagName;
 import de.adorsys.psd2.event.service.AspspEventService;
 import de.adorsys.psd2.event.service.model.AspspEvent;
@@ -29,6 +31,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.util.List;
 
@@ -37,7 +42,10 @@ import java.util.List;
 @RequestMapping(path = "aspsp-api/v1/events")
 @Api(value = "aspsp-api/v1/events", tags = CmsAspspApiTagName.ASPSP_EVENTS)
 public class CmsAspspEventController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final AspspEventService aspspEventService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(path = "/")
     @ApiOperation(value = "Returns a list of Event objects between two dates")
@@ -55,4 +63,40 @@ public class CmsAspspEventController {
         List<AspspEvent> events = aspspEventService.getEventsForPeriod(start, end, instanceId);
         return new ResponseEntity<>(events, HttpStatus.OK);
     }
+
+    @GetMapping(path = "/export", produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Exports Event objects between two dates as newline-delimited JSON, one event per line. " +
+                              "Events are written as soon as they are read from the database, so that long periods can be exported.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK")})
+    public void exportEventsForDates(
+        @ApiParam(value = "Start date", example = "2010-01-01T00:00:00Z", required = true)
+        @RequestHeader(value = "start-date")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime start,
+        @ApiParam(value = "End date", example = "2030-01-01T00:00:00Z", required = true)
+        @RequestHeader(value = "end-date")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime end,
+        @ApiParam(value = "Bank instance ID")
+        @RequestHeader(value = "instance-id", required = false, defaultValue = "UNDEFINED") String instanceId,
+        HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            aspspEventService.streamEventsForPeriod(start, end, instanceId, event -> writeLine(generator, event));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, AspspEvent event) {
+        try {
+            objectMapper.writeValue(generator, event);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
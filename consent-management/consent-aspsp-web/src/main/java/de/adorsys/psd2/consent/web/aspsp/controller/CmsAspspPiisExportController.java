@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.aspsp.api.piis.CmsAspspPiisFundsExportService;
 import de.adorsys.psd2.consent.web.aspsp.config.CmsAspspApiTagName;
 import de.adorsys.psd2.consent.api.piis.CmsPiisConsent;
@@ -23,12 +24,11 @@ import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import io.swagger.annotations.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Collection;
 
 @RestController
 @RequiredArgsConstructor
@@ -36,12 +36,13 @@ import java.util.Collection;
 @Api(value = "aspsp-api/v1/piis/consents", tags = CmsAspspApiTagName.ASPSP_PIIS_CONSENTS_EXPORT)
 public class CmsAspspPiisExportController {
     private final CmsAspspPiisFundsExportService cmsAspspPiisExportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(path = "/tpp/{tpp-id}")
     @ApiOperation(value = "Returns a list of consents by given mandatory TPP ID, optional creation date, PSU ID Data and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPiisConsent>> getConsentsByTpp(
+        @ApiResponse(code = 200, message = "OK", response = CmsPiisConsent.class, responseContainer = "List")})
+    public void getConsentsByTpp(
         @ApiParam(value = "TPP ID", required = true, example = "12345987")
         @PathVariable("tpp-id") String tppId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -60,17 +61,18 @@ public class CmsAspspPiisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsPiisConsent> consents = cmsAspspPiisExportService.exportConsentsByTpp(tppId, start, end, psuIdData, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsPiisConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPiisExportService.streamConsentsByTpp(tppId, start, end, psuIdData, instanceId, consumer));
     }
 
     @GetMapping(path = "/psu")
     @ApiOperation(value = "Returns a list of consents by given mandatory PSU ID Data, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPiisConsent>> getConsentsByPsu(
+        @ApiResponse(code = 200, message = "OK", response = CmsPiisConsent.class, responseContainer = "List")})
+    public void getConsentsByPsu(
         @ApiParam(value = "Creation start date", example = "2010-01-01")
         @RequestHeader(value = "start-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
@@ -86,17 +88,18 @@ public class CmsAspspPiisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsPiisConsent> consents = cmsAspspPiisExportService.exportConsentsByPsu(psuIdData, start, end, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsPiisConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPiisExportService.streamConsentsByPsu(psuIdData, start, end, instanceId, consumer));
     }
 
     @GetMapping(path = "/account/{account-id}")
     @ApiOperation(value = "Returns a list of consents by given mandatory aspsp account id, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPiisConsent>> getConsentsByAccountId(
+        @ApiResponse(code = 200, message = "OK", response = CmsPiisConsent.class, responseContainer = "List")})
+    public void getConsentsByAccountId(
         @ApiParam(value = "Bank specific account identifier.", required = true, example = "11111-99999")
         @PathVariable("account-id") String aspspAccountId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -106,8 +109,9 @@ public class CmsAspspPiisExportController {
         @RequestHeader(value = "end-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false) String instanceId) {
-        Collection<CmsPiisConsent> consents = cmsAspspPiisExportService.exportConsentsByAccountId(aspspAccountId, start, end, instanceId);
-        return new ResponseEntity<>(consents, HttpStatus.OK);
+        @RequestHeader(value = "instance-id", required = false) String instanceId,
+        HttpServletResponse response) throws IOException {
+        JsonArrayResponseWriter.<CmsPiisConsent>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPiisExportService.streamConsentsByAccountId(aspspAccountId, start, end, instanceId, consumer));
     }
 }
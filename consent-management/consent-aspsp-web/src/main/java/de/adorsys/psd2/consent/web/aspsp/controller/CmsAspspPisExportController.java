@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
 import de.adorsys.psd2.consent.aspsp.api.pis.CmsAspspPisExportService;
 import de.adorsys.psd2.consent.web.aspsp.config.CmsAspspApiTagName;
@@ -23,12 +24,11 @@ import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import io.swagger.annotations.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Collection;
 
 @RestController
 @RequiredArgsConstructor
@@ -38,12 +38,13 @@ public class CmsAspspPisExportController {
     private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
 
     private final CmsAspspPisExportService cmsAspspPisExportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(path = "/tpp/{tpp-id}")
     @ApiOperation(value = "Returns a list of payments by given mandatory TPP ID, optional creation date, PSU ID Data and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPayment>> getPaymentsByTpp(
+        @ApiResponse(code = 200, message = "OK", response = CmsPayment.class, responseContainer = "List")})
+    public void getPaymentsByTpp(
         @ApiParam(value = "TPP ID", required = true, example = "12345987")
         @PathVariable("tpp-id") String tppId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -62,17 +63,18 @@ public class CmsAspspPisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByTpp(tppId, start, end, psuIdData, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsPayment>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPisExportService.streamPaymentsByTpp(tppId, start, end, psuIdData, instanceId, consumer));
     }
 
     @GetMapping(path = "/psu")
     @ApiOperation(value = "Returns a list of payments by given mandatory PSU ID Data, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPayment>> getPaymentsByPsu(
+        @ApiResponse(code = 200, message = "OK", response = CmsPayment.class, responseContainer = "List")})
+    public void getPaymentsByPsu(
         @ApiParam(value = "Creation start date", example = "2010-01-01")
         @RequestHeader(value = "start-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
@@ -88,17 +90,18 @@ public class CmsAspspPisExportController {
         @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
         @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType, null);
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByPsu(psuIdData, start, end, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        JsonArrayResponseWriter.<CmsPayment>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPisExportService.streamPaymentsByPsu(psuIdData, start, end, instanceId, consumer));
     }
 
     @GetMapping(path = "/account/{account-id}")
     @ApiOperation(value = "Returns a list of payments by given mandatory aspsp account id, optional creation date and instance ID")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "OK")})
-    public ResponseEntity<Collection<CmsPayment>> getPaymentsByAccountId(
+        @ApiResponse(code = 200, message = "OK", response = CmsPayment.class, responseContainer = "List")})
+    public void getPaymentsByAccountId(
         @ApiParam(value = "Bank specific account identifier.", required = true, example = "11111-99999")
         @PathVariable("account-id") String aspspAccountId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -108,8 +111,9 @@ public class CmsAspspPisExportController {
         @RequestHeader(value = "end-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
         @ApiParam(value = "ID of the particular service instance")
-        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByAccountId(aspspAccountId, start, end, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        HttpServletResponse response) throws IOException {
+        JsonArrayResponseWriter.<CmsPayment>writeArray(objectMapper, response,
+                                                         consumer -> cmsAspspPisExportService.streamPaymentsByAccountId(aspspAccountId, start, end, instanceId, consumer));
     }
 }
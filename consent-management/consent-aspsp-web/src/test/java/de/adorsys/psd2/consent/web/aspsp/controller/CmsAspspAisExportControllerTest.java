@@ -24,9 +24,9 @@ import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -37,6 +37,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -62,9 +63,6 @@ class CmsAspspAisExportControllerTest {
     private PsuIdData psuIdData;
     private Collection<CmsAisAccountConsent> consents;
 
-    @InjectMocks
-    private CmsAspspAisExportController cmsAspspAisExportController;
-
     @Mock
     private CmsAspspAisExportService cmsAspspAisExportService;
 
@@ -83,15 +81,15 @@ class CmsAspspAisExportControllerTest {
         httpHeaders.add("instance-id", INSTANCE_ID);
 
         mockMvc = MockMvcBuilders
-                      .standaloneSetup(cmsAspspAisExportController)
+                      .standaloneSetup(new CmsAspspAisExportController(cmsAspspAisExportService, objectMapperTestConfig.getXs2aObjectMapper()))
                       .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapperTestConfig.getXs2aObjectMapper()))
                       .build();
     }
 
     @Test
     void getConsentsByTpp_Success() throws Exception {
-        when(cmsAspspAisExportService.exportConsentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID))
-            .thenReturn(consents);
+        doAnswer(streamOf(consents))
+            .when(cmsAspspAisExportService).streamConsentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_AIS_CONSENT_BY_TPP)
             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -99,13 +97,13 @@ class CmsAspspAisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_AIS_ACCOUNT_CONSENT_PATH)));
 
-        verify(cmsAspspAisExportService, times(1)).exportConsentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID);
+        verify(cmsAspspAisExportService, times(1)).streamConsentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getConsentsByPsu_Success() throws Exception {
-        when(cmsAspspAisExportService.exportConsentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(consents);
+        doAnswer(streamOf(consents))
+            .when(cmsAspspAisExportService).streamConsentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_AIS_CONSENT_BY_PSU)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -113,13 +111,13 @@ class CmsAspspAisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_AIS_ACCOUNT_CONSENT_PATH)));
 
-        verify(cmsAspspAisExportService, times(1)).exportConsentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspAisExportService, times(1)).streamConsentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getConsentsByAccount_Success() throws Exception {
-        when(cmsAspspAisExportService.exportConsentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(consents);
+        doAnswer(streamOf(consents))
+            .when(cmsAspspAisExportService).streamConsentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_AIS_CONSENT_BY_ACCOUNT)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -127,6 +125,14 @@ class CmsAspspAisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_AIS_ACCOUNT_CONSENT_PATH)));
 
-        verify(cmsAspspAisExportService, times(1)).exportConsentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspAisExportService, times(1)).streamConsentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
+    }
+
+    private Answer<Void> streamOf(Collection<CmsAisAccountConsent> elements) {
+        return invocation -> {
+            Consumer<CmsAisAccountConsent> consumer = invocation.getArgument(invocation.getArguments().length - 1);
+            elements.forEach(consumer);
+            return null;
+        };
     }
 }
@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.web.aspsp.controller;
 import de.adorsys.psd2.consent.web.aspsp.config.ObjectMapperTestConfig;
 import de.adorsys.psd2.event.service.AspspEventService;
 import de.adorsys.psd2.event.service.model.AspspEvent;
+import de.adorsys.psd2.mapper.Xs2aObjectMapper;
 import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,12 +30,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -47,6 +52,7 @@ class CmsAspspEventControllerTest {
     private static final String INSTANCE_ID = "UNDEFINED";
     private static final String EVENT_LIST_PATH = "json/list-aspsp-event.json";
     private static final String GET_ASPSP_EVENT_LIST_URL = "/aspsp-api/v1/events/";
+    private static final String EXPORT_ASPSP_EVENTS_URL = "/aspsp-api/v1/events/export";
 
     @Mock
     private AspspEventService aspspEventService;
@@ -55,10 +61,12 @@ class CmsAspspEventControllerTest {
     private HttpHeaders httpHeaders = new HttpHeaders();
     private MockMvc mockMvc;
     private List<AspspEvent> events;
+    private Xs2aObjectMapper xs2aObjectMapper;
 
     @BeforeEach
     void setUp() {
         ObjectMapperTestConfig objectMapperTestConfig = new ObjectMapperTestConfig();
+        xs2aObjectMapper = objectMapperTestConfig.getXs2aObjectMapper();
 
         AspspEvent event = jsonReader.getObjectFromFile("json/aspsp-event.json", AspspEvent.class);
         events = Collections.singletonList(event);
@@ -68,8 +76,8 @@ class CmsAspspEventControllerTest {
 
         MockitoAnnotations.initMocks(this);
         mockMvc = MockMvcBuilders
-                      .standaloneSetup(new CmsAspspEventController(aspspEventService))
-                      .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapperTestConfig.getXs2aObjectMapper()))
+                      .standaloneSetup(new CmsAspspEventController(aspspEventService, xs2aObjectMapper))
+                      .setMessageConverters(new MappingJackson2HttpMessageConverter(xs2aObjectMapper))
                       .build();
     }
 
@@ -103,4 +111,26 @@ class CmsAspspEventControllerTest {
 
         verify(aspspEventService, times(1)).getEventsForPeriod(eq(OffsetDateTime.parse(START)), eq(OffsetDateTime.parse(END)), eq(INSTANCE_ID));
     }
+
+    @Test
+    void exportEventsForDates_success() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<AspspEvent> consumer = invocation.getArgument(3);
+            consumer.accept(events.get(0));
+            consumer.accept(events.get(0));
+            return null;
+        }).when(aspspEventService).streamEventsForPeriod(eq(OffsetDateTime.parse(START)), eq(OffsetDateTime.parse(END)), eq(INSTANCE_ID), any());
+        String eventLine = xs2aObjectMapper.writeValueAsString(events.get(0));
+
+        // When
+        MvcResult result = mockMvc.perform(get(EXPORT_ASPSP_EVENTS_URL)
+                                               .headers(httpHeaders))
+                               .andExpect(status().is(HttpStatus.OK.value()))
+                               .andExpect(content().contentType("application/x-ndjson"))
+                               .andReturn();
+
+        // Then
+        assertEquals(eventLine + "\n" + eventLine + "\n", result.getResponse().getContentAsString());
+    }
 }
@@ -24,9 +24,9 @@ import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -37,6 +37,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -62,9 +63,6 @@ class CmsAspspPiisExportControllerTest {
     private PsuIdData psuIdData;
     private Collection<CmsPiisConsent> cmsPiisConsents;
 
-    @InjectMocks
-    private CmsAspspPiisExportController cmsAspspPiisExportController;
-
     @Mock
     private CmsAspspPiisFundsExportService cmsAspspPiisExportService;
 
@@ -83,15 +81,15 @@ class CmsAspspPiisExportControllerTest {
         httpHeaders.add("instance-id", INSTANCE_ID);
 
         mockMvc = MockMvcBuilders
-                      .standaloneSetup(cmsAspspPiisExportController)
+                      .standaloneSetup(new CmsAspspPiisExportController(cmsAspspPiisExportService, objectMapperTestConfig.getXs2aObjectMapper()))
                       .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapperTestConfig.getXs2aObjectMapper()))
                       .build();
     }
 
     @Test
     void getConsentsByTpp_Success() throws Exception {
-        when(cmsAspspPiisExportService.exportConsentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID))
-            .thenReturn(cmsPiisConsents);
+        doAnswer(streamOf(cmsPiisConsents))
+            .when(cmsAspspPiisExportService).streamConsentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIIS_CONSENT_BY_TPP)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -99,13 +97,13 @@ class CmsAspspPiisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPiisExportService, times(1)).exportConsentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID);
+        verify(cmsAspspPiisExportService, times(1)).streamConsentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getConsentsByPsu_Success() throws Exception {
-        when(cmsAspspPiisExportService.exportConsentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(cmsPiisConsents);
+        doAnswer(streamOf(cmsPiisConsents))
+            .when(cmsAspspPiisExportService).streamConsentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIIS_CONSENT_BY_PSU)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -113,13 +111,13 @@ class CmsAspspPiisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPiisExportService, times(1)).exportConsentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspPiisExportService, times(1)).streamConsentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getConsentsByAccount_Success() throws Exception {
-        when(cmsAspspPiisExportService.exportConsentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(cmsPiisConsents);
+        doAnswer(streamOf(cmsPiisConsents))
+            .when(cmsAspspPiisExportService).streamConsentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIIS_CONSENT_BY_ACCOUNT)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -127,6 +125,14 @@ class CmsAspspPiisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPiisExportService, times(1)).exportConsentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspPiisExportService, times(1)).streamConsentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
+    }
+
+    private Answer<Void> streamOf(Collection<CmsPiisConsent> elements) {
+        return invocation -> {
+            Consumer<CmsPiisConsent> consumer = invocation.getArgument(invocation.getArguments().length - 1);
+            elements.forEach(consumer);
+            return null;
+        };
     }
 }
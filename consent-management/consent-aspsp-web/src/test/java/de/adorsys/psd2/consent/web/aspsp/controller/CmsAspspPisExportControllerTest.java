@@ -27,9 +27,9 @@ import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -42,6 +42,7 @@ import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Currency;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -67,9 +68,6 @@ class CmsAspspPisExportControllerTest {
     private PsuIdData psuIdData;
     private Collection<CmsPayment> cmsPayments;
 
-    @InjectMocks
-    private CmsAspspPisExportController cmsAspspPisExportController;
-
     @Mock
     private CmsAspspPisExportService cmsAspspPisExportService;
 
@@ -87,15 +85,15 @@ class CmsAspspPisExportControllerTest {
         httpHeaders.add("End-Date", END_DATE.toString());
         httpHeaders.add("instance-id", INSTANCE_ID);
 
-        mockMvc = MockMvcBuilders.standaloneSetup(cmsAspspPisExportController)
+        mockMvc = MockMvcBuilders.standaloneSetup(new CmsAspspPisExportController(cmsAspspPisExportService, objectMapperTestConfig.getXs2aObjectMapper()))
                       .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapperTestConfig.getXs2aObjectMapper()))
                       .build();
     }
 
     @Test
     void getPaymentsByTpp() throws Exception {
-        when(cmsAspspPisExportService.exportPaymentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID))
-            .thenReturn(cmsPayments);
+        doAnswer(streamOf(cmsPayments))
+            .when(cmsAspspPisExportService).streamPaymentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIS_CONSENT_BY_TPP)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -103,13 +101,13 @@ class CmsAspspPisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPisExportService, times(1)).exportPaymentsByTpp(TPP_ID, START_DATE, END_DATE, psuIdData, INSTANCE_ID);
+        verify(cmsAspspPisExportService, times(1)).streamPaymentsByTpp(eq(TPP_ID), eq(START_DATE), eq(END_DATE), eq(psuIdData), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getPaymentsByPsu() throws Exception {
-        when(cmsAspspPisExportService.exportPaymentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(cmsPayments);
+        doAnswer(streamOf(cmsPayments))
+            .when(cmsAspspPisExportService).streamPaymentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIS_CONSENT_BY_PSU)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -117,13 +115,13 @@ class CmsAspspPisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPisExportService, times(1)).exportPaymentsByPsu(psuIdData, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspPisExportService, times(1)).streamPaymentsByPsu(eq(psuIdData), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
     }
 
     @Test
     void getPaymentsByAccountId() throws Exception {
-        when(cmsAspspPisExportService.exportPaymentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID))
-            .thenReturn(cmsPayments);
+        doAnswer(streamOf(cmsPayments))
+            .when(cmsAspspPisExportService).streamPaymentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
 
         mockMvc.perform(get(EXPORT_PIS_CONSENT_BY_ACCOUNT)
                             .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -131,7 +129,7 @@ class CmsAspspPisExportControllerTest {
             .andExpect(status().is(HttpStatus.OK.value()))
             .andExpect(content().json(jsonReader.getStringFromFile(LIST_OF_PIIS_CONSENTS_PATH)));
 
-        verify(cmsAspspPisExportService, times(1)).exportPaymentsByAccountId(ACCOUNT_ID, START_DATE, END_DATE, INSTANCE_ID);
+        verify(cmsAspspPisExportService, times(1)).streamPaymentsByAccountId(eq(ACCOUNT_ID), eq(START_DATE), eq(END_DATE), eq(INSTANCE_ID), any());
     }
 
     private CmsPayment getCmsPayment() {
@@ -145,4 +143,12 @@ class CmsAspspPisExportControllerTest {
         result.setRemittanceInformationUnstructured("remittanceInformationUnstructured");
         return result;
     }
+
+    private Answer<Void> streamOf(Collection<CmsPayment> elements) {
+        return invocation -> {
+            Consumer<CmsPayment> consumer = invocation.getArgument(invocation.getArguments().length - 1);
+            elements.forEach(consumer);
+            return null;
+        };
+    }
 }
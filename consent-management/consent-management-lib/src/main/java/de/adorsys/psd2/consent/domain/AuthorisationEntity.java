@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.domain;
 
+import de.adorsys.psd2.consent.service.notification.TppNotificationEntityListener;
 import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
 import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
@@ -32,6 +33,7 @@ import java.util.List;
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity(name = "authorisation")
+@EntityListeners(TppNotificationEntityListener.class)
 public class AuthorisationEntity extends InstanceDependableEntity {
     @Id
     @Column(name = "authorisation_id")
@@ -83,6 +85,14 @@ public class AuthorisationEntity extends InstanceDependableEntity {
     @Enumerated(EnumType.STRING)
     private AuthorisationType authorisationType;
 
+    @Transient
+    private ScaStatus previousScaStatus;
+
+    @PostLoad
+    public void authorisationPostLoad() {
+        previousScaStatus = scaStatus;
+    }
+
     public boolean isRedirectUrlNotExpired() {
         return redirectUrlExpirationTimestamp.isAfter(OffsetDateTime.now());
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.domain;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@Entity(name = "scheduler_lock")
+public class SchedulerLockEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "locked_at", nullable = false)
+    private OffsetDateTime lockedAt;
+
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Transient
+    private boolean newLock;
+
+    public SchedulerLockEntity(String name, OffsetDateTime lockedUntil, OffsetDateTime lockedAt, String lockedBy) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+        this.lockedAt = lockedAt;
+        this.lockedBy = lockedBy;
+        this.newLock = true;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    /**
+     * Locks are identified by the name of the task, so newly created lock should always be inserted instead of being
+     * merged into the possibly existing one, as otherwise lock, acquired concurrently by another node, would be overwritten.
+     *
+     * @return <code>true</code> if the lock was created by the constructor with all arguments and was not loaded from the database
+     */
+    @Override
+    public boolean isNew() {
+        return newLock;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void schedulerLockPostLoad() {
+        newLock = false;
+    }
+}
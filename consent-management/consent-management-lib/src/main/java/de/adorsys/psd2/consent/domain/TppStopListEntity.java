@@ -49,16 +49,30 @@ public class TppStopListEntity extends InstanceDependableEntity {
     @Column(name = "expiration_timestamp")
     private OffsetDateTime blockingExpirationTimestamp;
 
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @Column(name = "last_change_timestamp")
+    private OffsetDateTime lastChangeTimestamp;
+
     public void block(@Nullable Duration lockPeriod) {
         this.status = TppStatus.BLOCKED;
         this.blockingExpirationTimestamp = lockPeriod != null
                                                ? OffsetDateTime.now().plus(lockPeriod)
                                                : null;
+        this.lastChangeTimestamp = OffsetDateTime.now();
     }
 
     public void unblock() {
         this.status = TppStatus.ENABLED;
         this.blockingExpirationTimestamp = null;
+        this.lastChangeTimestamp = OffsetDateTime.now();
+    }
+
+    @PrePersist
+    public void tppStopListPrePersist() {
+        if (lastChangeTimestamp == null) {
+            lastChangeTimestamp = OffsetDateTime.now();
+        }
     }
 
     public boolean isBlocked() {
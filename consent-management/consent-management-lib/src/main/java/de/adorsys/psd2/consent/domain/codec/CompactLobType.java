@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.codec;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.internal.util.collections.ConcurrentReferenceHashMap;
+import org.hibernate.type.MaterializedBlobType;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Hibernate type for LOB columns with JSON data, that are stored with {@link LobCodec}.
+ * Binding of the column is delegated to the standard type of <code>@Lob byte[]</code> attributes, so the column is
+ * handled by all the databases the same way as before. Unlike JPA attribute converters, snapshots of the attribute
+ * for dirty checking are taken without encoding and decoding the data.
+ * <p>
+ * As entities are updated without <code>@DynamicUpdate</code>, the column is written on every update of the entity,
+ * even if only other attributes were changed. To avoid encoding unchanged data again, the encoded data is remembered
+ * for each array, that was read from or written to the database, until the array is garbage collected. It's reused
+ * only if the array still has the same length and hash code, otherwise the data is encoded again.
+ */
+public class CompactLobType implements UserType {
+    public static final String NAME = "de.adorsys.psd2.consent.domain.codec.CompactLobType";
+
+    private static final MaterializedBlobType BLOB_TYPE = MaterializedBlobType.INSTANCE;
+
+    private final Map<byte[], EncodedData> encodedData =
+        new ConcurrentReferenceHashMap<>(16, 0.75f, 16,
+                                         ConcurrentReferenceHashMap.ReferenceType.WEAK,
+                                         ConcurrentReferenceHashMap.ReferenceType.STRONG,
+                                         EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
+
+    @Override
+    public int[] sqlTypes() {
+        return new int[]{BLOB_TYPE.getSqlTypeDescriptor().getSqlType()};
+    }
+
+    @Override
+    public Class<?> returnedClass() {
+        return byte[].class;
+    }
+
+    @Override
+    public boolean equals(Object x, Object y) {
+        return Arrays.equals((byte[]) x, (byte[]) y);
+    }
+
+    @Override
+    public int hashCode(Object x) {
+        return Arrays.hashCode((byte[]) x);
+    }
+
+    @Override
+    public Object nullSafeGet(ResultSet rs, String[] names, SharedSessionContractImplementor session, Object owner) throws SQLException {
+        byte[] stored = BLOB_TYPE.nullSafeGet(rs, names[0], session);
+        byte[] data = LobCodec.decode(stored);
+        // data, stored before the format was introduced, has to be encoded on the next update
+        if (LobCodec.isEncoded(stored)) {
+            encodedData.put(data, new EncodedData(data, stored));
+        }
+        return data;
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, Object value, int index, SharedSessionContractImplementor session) throws SQLException {
+        BLOB_TYPE.nullSafeSet(st, encode((byte[]) value), index, session);
+    }
+
+    @Override
+    public Object deepCopy(Object value) {
+        return value == null ? null : ((byte[]) value).clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(Object value) {
+        return (Serializable) deepCopy(value);
+    }
+
+    @Override
+    public Object assemble(Serializable cached, Object owner) {
+        return deepCopy(cached);
+    }
+
+    @Override
+    public Object replace(Object original, Object target, Object owner) {
+        return deepCopy(original);
+    }
+
+    private byte[] encode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        EncodedData encoded = encodedData.get(data);
+        if (encoded != null && encoded.isEncodingOf(data)) {
+            return encoded.stored;
+        }
+
+        byte[] stored = LobCodec.encode(data);
+        encodedData.put(data, new EncodedData(data, stored));
+        return stored;
+    }
+
+    private static final class EncodedData {
+        private final int length;
+        private final int hashCode;
+        private final byte[] stored;
+
+        private EncodedData(byte[] data, byte[] stored) {
+            this.length = data.length;
+            this.hashCode = Arrays.hashCode(data);
+            this.stored = stored;
+        }
+
+        private boolean isEncodingOf(byte[] data) {
+            return data.length == length && Arrays.hashCode(data) == hashCode;
+        }
+    }
+}
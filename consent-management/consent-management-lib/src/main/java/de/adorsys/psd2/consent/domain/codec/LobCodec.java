@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.codec;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes JSON data of consents and payments, stored in LOB columns, into versioned self-describing format:
+ * <ul>
+ * <li>2 bytes - magic number <code>0x00 0x4C</code>, that can't be the beginning of JSON document</li>
+ * <li>1 byte - version of the format</li>
+ * <li>1 byte - type of the content (<code>1</code> - JSON)</li>
+ * <li>1 byte - compression (<code>0</code> - none, <code>1</code> - deflate)</li>
+ * <li>4 bytes - length of the content before compression</li>
+ * <li>content</li>
+ * </ul>
+ * Content is compressed only if it's larger than the threshold and compression makes it smaller.
+ * Data without the magic number is considered to be plain JSON, stored before the format was introduced.
+ */
+public final class LobCodec {
+    public static final int VERSION = 1;
+    static final int COMPRESSION_THRESHOLD = 1024;
+    // the smallest limit of LOB columns among supported databases (MEDIUMBLOB of MariaDB)
+    static final int MAX_LENGTH = (1 << 24) - 1;
+
+    private static final byte MAGIC_FIRST = 0x00;
+    private static final byte MAGIC_SECOND = 0x4C;
+    private static final byte CONTENT_TYPE_JSON = 1;
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final int VERSION_POSITION = 2;
+    private static final int CONTENT_TYPE_POSITION = 3;
+    private static final int COMPRESSION_POSITION = 4;
+    private static final int LENGTH_POSITION = 5;
+    private static final int HEADER_LENGTH = 9;
+
+    private LobCodec() {
+    }
+
+    /**
+     * Encodes the data into current version of the format
+     *
+     * @param data JSON data, may be <code>null</code>
+     * @return encoded data or <code>null</code> if the data is <code>null</code>
+     * @throws IllegalArgumentException if the data is larger than the LOB column can store
+     */
+    public static byte[] encode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("LOB data is too large: " + data.length + " bytes");
+        }
+
+        byte[] encoded = null;
+        if (data.length > COMPRESSION_THRESHOLD) {
+            encoded = compress(data);
+        }
+
+        if (encoded == null) {
+            encoded = new byte[HEADER_LENGTH + data.length];
+            System.arraycopy(data, 0, encoded, HEADER_LENGTH, data.length);
+            writeHeader(encoded, COMPRESSION_NONE, data.length);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes the data, stored in any version of the format or as plain JSON
+     *
+     * @param stored data, read from the database, may be <code>null</code>
+     * @return JSON data or <code>null</code> if the stored data is <code>null</code>
+     * @throws IllegalArgumentException if the data is encoded in unsupported version of the format or is corrupted
+     */
+    public static byte[] decode(byte[] stored) {
+        if (!isEncoded(stored)) {
+            return stored;
+        }
+
+        if (stored.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Encoded LOB data is truncated");
+        }
+        if (stored[VERSION_POSITION] != VERSION || stored[CONTENT_TYPE_POSITION] != CONTENT_TYPE_JSON) {
+            throw new IllegalArgumentException("Unsupported encoding of LOB data: version " + stored[VERSION_POSITION]
+                                                   + ", content type " + stored[CONTENT_TYPE_POSITION]);
+        }
+
+        int length = readLength(stored);
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Encoded LOB data has invalid length: " + length);
+        }
+        switch (stored[COMPRESSION_POSITION]) {
+            case COMPRESSION_NONE:
+                if (stored.length - HEADER_LENGTH != length) {
+                    throw new IllegalArgumentException("Encoded LOB data is corrupted");
+                }
+                return Arrays.copyOfRange(stored, HEADER_LENGTH, stored.length);
+            case COMPRESSION_DEFLATE:
+                return decompress(stored, length);
+            default:
+                throw new IllegalArgumentException("Unsupported compression of LOB data: " + stored[COMPRESSION_POSITION]);
+        }
+    }
+
+    /**
+     * Checks whether the data is stored in the format or as plain JSON
+     *
+     * @param stored data, read from the database
+     * @return <code>true</code> if the data starts with the magic number of the format
+     */
+    public static boolean isEncoded(byte[] stored) {
+        return stored != null
+                   && stored.length >= 2
+                   && stored[0] == MAGIC_FIRST
+                   && stored[1] == MAGIC_SECOND;
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            // compressed data, that is not smaller than the original, is not stored
+            byte[] buffer = new byte[HEADER_LENGTH + data.length];
+            int length = HEADER_LENGTH;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+
+            writeHeader(buffer, COMPRESSION_DEFLATE, data.length);
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] stored, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, HEADER_LENGTH, stored.length - HEADER_LENGTH);
+            byte[] data = new byte[length];
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int count = inflater.inflate(data, inflated, length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != length || !inflater.finished()) {
+                throw new IllegalArgumentException("Encoded LOB data is corrupted");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Encoded LOB data is corrupted: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeHeader(byte[] buffer, byte compression, int length) {
+        buffer[0] = MAGIC_FIRST;
+        buffer[1] = MAGIC_SECOND;
+        buffer[VERSION_POSITION] = VERSION;
+        buffer[CONTENT_TYPE_POSITION] = CONTENT_TYPE_JSON;
+        buffer[COMPRESSION_POSITION] = compression;
+        buffer[LENGTH_POSITION] = (byte) (length >>> 24);
+        buffer[LENGTH_POSITION + 1] = (byte) (length >>> 16);
+        buffer[LENGTH_POSITION + 2] = (byte) (length >>> 8);
+        buffer[LENGTH_POSITION + 3] = (byte) length;
+    }
+
+    private static int readLength(byte[] stored) {
+        return (stored[LENGTH_POSITION] & 0xFF) << 24
+                   | (stored[LENGTH_POSITION + 1] & 0xFF) << 16
+                   | (stored[LENGTH_POSITION + 2] & 0xFF) << 8
+                   | stored[LENGTH_POSITION + 3] & 0xFF;
+    }
+}
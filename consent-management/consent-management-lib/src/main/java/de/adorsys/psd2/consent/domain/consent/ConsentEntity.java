@@ -24,11 +24,15 @@ import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
 import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
 import de.adorsys.psd2.consent.domain.account.TppAccountAccess;
+import de.adorsys.psd2.consent.domain.codec.CompactLobType;
+import de.adorsys.psd2.consent.domain.codec.LobCodec;
+import de.adorsys.psd2.consent.service.notification.TppNotificationEntityListener;
 import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.apache.commons.collections4.CollectionUtils;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -42,6 +46,7 @@ import java.util.Objects;
 
 @Data
 @Entity(name = "consent")
+@EntityListeners(TppNotificationEntityListener.class)
 @EqualsAndHashCode(callSuper = true)
 public class ConsentEntity extends InstanceDependableEntity implements Authorisable {
 
@@ -75,10 +80,13 @@ public class ConsentEntity extends InstanceDependableEntity implements Authorisa
     @Column(name = "checksum")
     private byte[] checksum;
 
-    @Lob
+    @Type(type = CompactLobType.NAME)
     @Column(name = "data")
     private byte[] data;
 
+    @Column(name = "lob_codec_version")
+    private Integer lobCodecVersion;
+
     @Column(name = "creation_timestamp", nullable = false)
     private OffsetDateTime creationTimestamp = OffsetDateTime.now();
 
@@ -140,6 +148,7 @@ public class ConsentEntity extends InstanceDependableEntity implements Authorisa
 
     @PreUpdate
     public void consentPreUpdate() {
+        lobCodecVersion = LobCodec.VERSION;
         if (previousConsentStatus != consentStatus) {
             statusChangeTimestamp = OffsetDateTime.now();
         }
@@ -147,6 +156,7 @@ public class ConsentEntity extends InstanceDependableEntity implements Authorisa
 
     @PrePersist
     public void consentPrePersist() {
+        lobCodecVersion = LobCodec.VERSION;
         if (Objects.isNull(statusChangeTimestamp)) {
             statusChangeTimestamp = creationTimestamp;
         }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.notification;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Notification about the status change of payment, consent or authorisation, waiting to be sent to the TPP
+ * notification URI. Delivered notifications are removed, notifications that couldn't be delivered within
+ * the maximum number of attempts are marked as failed.
+ */
+@Data
+@Entity(name = "tpp_notification")
+@NoArgsConstructor
+public class TppNotificationEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tpp_notification_generator")
+    @SequenceGenerator(name = "tpp_notification_generator", sequenceName = "tpp_notification_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "tpp_ntfc_uri", nullable = false, length = 100)
+    private String tppNotificationUri;
+
+    @Column(name = "resource_type", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TppNotificationResourceType resourceType;
+
+    @Column(name = "resource_id", nullable = false)
+    private String resourceId;
+
+    @Column(name = "authorisation_id")
+    private String authorisationId;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "status_change_timestamp", nullable = false)
+    private OffsetDateTime statusChangeTimestamp;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_timestamp", nullable = false)
+    private OffsetDateTime nextAttemptTimestamp;
+
+    @Column(name = "failed", nullable = false)
+    private boolean failed;
+
+    @Column(name = "last_error")
+    private String lastError;
+}
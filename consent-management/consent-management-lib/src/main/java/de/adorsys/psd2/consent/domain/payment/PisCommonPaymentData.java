@@ -17,12 +17,16 @@
 package de.adorsys.psd2.consent.domain.payment;
 
 import de.adorsys.psd2.consent.domain.*;
+import de.adorsys.psd2.consent.domain.codec.CompactLobType;
+import de.adorsys.psd2.consent.domain.codec.LobCodec;
+import de.adorsys.psd2.consent.service.notification.TppNotificationEntityListener;
 import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import de.adorsys.psd2.xs2a.core.profile.NotificationSupportedMode;
 import de.adorsys.psd2.xs2a.core.profile.PaymentType;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import java.time.OffsetDateTime;
@@ -35,6 +39,7 @@ import java.util.Objects;
 @Data
 @EqualsAndHashCode
 @Entity(name = "pis_common_payment")
+@EntityListeners(TppNotificationEntityListener.class)
 public class PisCommonPaymentData extends InstanceDependableEntity implements Authorisable {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pis_common_payment_generator")
@@ -55,10 +60,13 @@ public class PisCommonPaymentData extends InstanceDependableEntity implements Au
     @Enumerated(value = EnumType.STRING)
     private TransactionStatus transactionStatus;
 
-    @Lob
+    @Type(type = CompactLobType.NAME)
     @Column(name = "payment")
     private byte[] payment;
 
+    @Column(name = "lob_codec_version")
+    private Integer lobCodecVersion;
+
     @OneToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "pis_common_payment_psu_data",
         joinColumns = @JoinColumn(name = "pis_common_payment_id"),
@@ -121,6 +129,7 @@ public class PisCommonPaymentData extends InstanceDependableEntity implements Au
 
     @PreUpdate
     public void pisCommonPaymentDataPreUpdate() {
+        lobCodecVersion = LobCodec.VERSION;
         if (previousTransactionStatus != transactionStatus) {
             statusChangeTimestamp = OffsetDateTime.now();
         }
@@ -128,6 +137,7 @@ public class PisCommonPaymentData extends InstanceDependableEntity implements Au
 
     @PrePersist
     public void pisCommonPaymentDataPrePersist() {
+        lobCodecVersion = LobCodec.VERSION;
         if (Objects.isNull(statusChangeTimestamp)) {
             statusChangeTimestamp = creationTimestamp;
         }
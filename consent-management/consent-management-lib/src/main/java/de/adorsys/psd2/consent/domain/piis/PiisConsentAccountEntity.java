@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.piis;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.Currency;
+
+/**
+ * Account identifier of PIIS consent, copied from the ASPSP account accesses of the consent, so that PIIS consents
+ * can be found by account identifier and currency without join of the consent with its accesses.
+ */
+@Data
+@Entity(name = "piis_consent_account")
+@NoArgsConstructor
+public class PiisConsentAccountEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "piis_consent_account_generator")
+    @SequenceGenerator(name = "piis_consent_account_generator", sequenceName = "piis_consent_account_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "consent_id", nullable = false)
+    private Long consentId;
+
+    @Column(name = "account_identifier", nullable = false, length = 100)
+    private String accountIdentifier;
+
+    @Column(name = "currency", length = 3)
+    private Currency currency;
+
+    public PiisConsentAccountEntity(Long consentId, String accountIdentifier, Currency currency) {
+        this.consentId = consentId;
+        this.accountIdentifier = accountIdentifier;
+        this.currency = currency;
+    }
+}
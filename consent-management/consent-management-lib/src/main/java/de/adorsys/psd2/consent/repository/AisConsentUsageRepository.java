@@ -19,7 +19,10 @@ package de.adorsys.psd2.consent.repository;
 import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import javax.persistence.LockModeType;
 import java.time.LocalDate;
@@ -33,5 +36,32 @@ public interface AisConsentUsageRepository extends CrudRepository<AisConsentUsag
     @Lock(value = LockModeType.OPTIMISTIC)
     List<AisConsentUsage> findReadByConsentAndUsageDate(ConsentEntity aisConsent, LocalDate usageDate);
 
+    List<AisConsentUsage> findAllByConsentAndUsageDate(ConsentEntity aisConsent, LocalDate usageDate);
+
     int countByConsentIdAndResourceId(Long consentId, String resourceId);
+
+    @Modifying
+    @Query(
+        "update ais_consent_usage u " +
+            "set u.usage = u.usage + :amount, u.resourceId = :resourceId, u.transactionId = :transactionId, u.version = u.version + 1 " +
+            "where u.consent.id = :consentId " +
+            "and u.requestUri = :requestUri " +
+            "and u.usageDate = :usageDate"
+    )
+    int addUsage(@Param("consentId") Long consentId,
+                 @Param("requestUri") String requestUri,
+                 @Param("usageDate") LocalDate usageDate,
+                 @Param("amount") int amount,
+                 @Param("resourceId") String resourceId,
+                 @Param("transactionId") String transactionId);
+
+    @Modifying
+    @Query(
+        "update ais_consent_usage u " +
+            "set u.usage = 0, u.version = u.version + 1 " +
+            "where u.consent.id = :consentId " +
+            "and u.usageDate = :usageDate"
+    )
+    int resetUsage(@Param("consentId") Long consentId,
+                   @Param("usageDate") LocalDate usageDate);
 }
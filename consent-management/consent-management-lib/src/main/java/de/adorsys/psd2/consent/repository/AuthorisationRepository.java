@@ -21,6 +21,7 @@ import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -35,6 +36,9 @@ public interface AuthorisationRepository extends CrudRepository<AuthorisationEnt
     List<AuthorisationEntity> findAllByParentExternalIdAndAuthorisationType(String parentExternalId,
                                                                             AuthorisationType authorisationType);
 
+    List<AuthorisationEntity> findAllByParentExternalIdInAndAuthorisationType(Collection<String> parentExternalIds,
+                                                                              AuthorisationType authorisationType);
+
     List<AuthorisationEntity> findAllByParentExternalIdAndAuthorisationTypeIn(String parentExternalId,
                                                                               Set<AuthorisationType> authorisationTypes);
 }
@@ -18,12 +18,15 @@ package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -57,4 +60,65 @@ public interface ConsentJpaRepository extends CrudRepository<ConsentEntity, Long
     )
     List<ConsentEntity> findUsedNonRecurringConsents(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
                                                      @Param("currentDate") LocalDate currentDate);
+
+    @Query(
+        "select c.id from consent c " +
+            "where c.consentStatus in :consentStatuses " +
+            "and c.validUntil < :currentDate " +
+            "and c.id > :lastId " +
+            "order by c.id"
+    )
+    List<Long> findExpiredByDateConsentIds(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
+                                           @Param("currentDate") LocalDate currentDate,
+                                           @Param("lastId") Long lastId,
+                                           Pageable pageable);
+
+    @Query(
+        "select c.id from consent c " +
+            "where c.consentStatus in :consentStatuses " +
+            "and c.creationTimestamp < :createdBefore " +
+            "and c.id > :lastId " +
+            "order by c.id"
+    )
+    List<Long> findConsentIdsCreatedBefore(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
+                                           @Param("createdBefore") OffsetDateTime createdBefore,
+                                           @Param("lastId") Long lastId,
+                                           Pageable pageable);
+
+    @Modifying
+    @Query(
+        "update consent c " +
+            "set c.consentStatus = :consentStatus, c.expireDate = :expireDate, c.statusChangeTimestamp = :statusChangeTimestamp " +
+            "where c.id in :ids"
+    )
+    int expireConsents(@Param("ids") List<Long> ids,
+                       @Param("consentStatus") ConsentStatus consentStatus,
+                       @Param("expireDate") LocalDate expireDate,
+                       @Param("statusChangeTimestamp") OffsetDateTime statusChangeTimestamp);
+
+    @Query(
+        "select c.externalId from consent c " +
+            "where c.id in :ids " +
+            "and c.tppInformation.tppNotificationUri is not null"
+    )
+    List<String> findExternalIdsWithTppNotificationUri(@Param("ids") List<Long> ids);
+
+    @Query(
+        "select c.id from consent c " +
+            "where c.lobCodecVersion is null " +
+            "and c.id > :lastId " +
+            "order by c.id"
+    )
+    List<Long> findConsentIdsWithNotEncodedData(@Param("lastId") Long lastId,
+                                                Pageable pageable);
+
+    @Modifying
+    @Query(
+        "update consent c " +
+            "set c.data = :data, c.lobCodecVersion = :lobCodecVersion " +
+            "where c.id = :id and c.lobCodecVersion is null"
+    )
+    int updateEncodedData(@Param("id") Long id,
+                          @Param("data") byte[] data,
+                          @Param("lobCodecVersion") Integer lobCodecVersion);
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository;
+
+import de.adorsys.psd2.consent.domain.piis.PiisConsentAccountEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Currency;
+import java.util.List;
+
+public interface PiisConsentAccountRepository extends CrudRepository<PiisConsentAccountEntity, Long> {
+    @Query(
+        "select distinct a.consentId from piis_consent_account a " +
+            "where a.accountIdentifier = :accountIdentifier"
+    )
+    List<Long> findConsentIdsByAccountIdentifier(@Param("accountIdentifier") String accountIdentifier);
+
+    @Query(
+        "select distinct a.consentId from piis_consent_account a " +
+            "where a.accountIdentifier = :accountIdentifier " +
+            "and a.currency = :currency"
+    )
+    List<Long> findConsentIdsByAccountIdentifierAndCurrency(@Param("accountIdentifier") String accountIdentifier,
+                                                            @Param("currency") Currency currency);
+}
@@ -18,9 +18,14 @@ package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -31,4 +36,35 @@ public interface PisCommonPaymentDataRepository extends CrudRepository<PisCommon
     Optional<PisCommonPaymentData> findByPaymentId(String paymentId);
 
     List<PisCommonPaymentData> findByTransactionStatusIn(Set<TransactionStatus> statuses);
+
+    @Query(
+        "select p.id from pis_common_payment p " +
+            "where p.transactionStatus in :transactionStatuses " +
+            "and p.creationTimestamp < :createdBefore " +
+            "and p.id > :lastId " +
+            "order by p.id"
+    )
+    List<Long> findPaymentIdsCreatedBefore(@Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                                           @Param("createdBefore") OffsetDateTime createdBefore,
+                                           @Param("lastId") Long lastId,
+                                           Pageable pageable);
+
+    @Query(
+        "select p.id from pis_common_payment p " +
+            "where p.lobCodecVersion is null " +
+            "and p.id > :lastId " +
+            "order by p.id"
+    )
+    List<Long> findPaymentIdsWithNotEncodedData(@Param("lastId") Long lastId,
+                                               Pageable pageable);
+
+    @Modifying
+    @Query(
+        "update pis_common_payment p " +
+            "set p.payment = :payment, p.lobCodecVersion = :lobCodecVersion " +
+            "where p.id = :id and p.lobCodecVersion is null"
+    )
+    int updateEncodedData(@Param("id") Long id,
+                          @Param("payment") byte[] payment,
+                          @Param("lobCodecVersion") Integer lobCodecVersion);
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.repository;
+
+import de.adorsys.psd2.consent.domain.SchedulerLockEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+
+public interface SchedulerLockRepository extends CrudRepository<SchedulerLockEntity, String> {
+    @Modifying
+    @Query(
+        "update scheduler_lock l " +
+            "set l.lockedUntil = :lockedUntil, l.lockedAt = :now, l.lockedBy = :lockedBy " +
+            "where l.name = :name " +
+            "and l.lockedUntil <= :now"
+    )
+    int acquireLock(@NotNull @Param("name") String name,
+                    @NotNull @Param("lockedBy") String lockedBy,
+                    @NotNull @Param("now") OffsetDateTime now,
+                    @NotNull @Param("lockedUntil") OffsetDateTime lockedUntil);
+
+    @Modifying
+    @Query(
+        "update scheduler_lock l " +
+            "set l.lockedUntil = :now " +
+            "where l.name = :name " +
+            "and l.lockedBy = :lockedBy"
+    )
+    int releaseLock(@NotNull @Param("name") String name,
+                    @NotNull @Param("lockedBy") String lockedBy,
+                    @NotNull @Param("now") OffsetDateTime now);
+}
@@ -28,5 +28,9 @@ import java.util.Optional;
 public interface TppStopListRepository extends CrudRepository<TppStopListEntity, Long> {
     Optional<TppStopListEntity> findByTppAuthorisationNumberAndInstanceId(@NotNull String tppAuthorisationNumber, @NotNull String instanceId);
 
+    List<TppStopListEntity> findAllByInstanceIdAndStatus(@NotNull String instanceId, @NotNull TppStatus tppStatus);
+
+    List<TppStopListEntity> findAllByInstanceIdAndLastChangeTimestampGreaterThanEqual(@NotNull String instanceId, @NotNull OffsetDateTime changedSince);
+
     List<TppStopListEntity> findAllByStatusAndBlockingExpirationTimestampLessThanEqual(@NotNull TppStatus tppStatus, @NotNull OffsetDateTime dateTimeToCompare);
 }
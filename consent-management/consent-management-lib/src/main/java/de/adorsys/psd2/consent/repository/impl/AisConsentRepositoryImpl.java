@@ -29,6 +29,7 @@ import de.adorsys.psd2.core.data.ais.AisConsent;
 import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.consent.ConsentType;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -86,13 +87,14 @@ public class AisConsentRepositoryImpl implements AisConsentVerifyingRepository {
 
         if (calculatingServiceOptional.isPresent()) {
             ChecksumCalculatingService calculatingService = calculatingServiceOptional.get();
+            ChecksumVerificationContext context = new ChecksumVerificationContext(consentEntity);
 
-            if (!isAisConsentChecksumCorrect(consentEntity, calculatingService)) {
+            if (!isAisConsentChecksumCorrect(context, calculatingService)) {
                 throw new WrongChecksumException();
             }
 
-            if (wasStatusSwitchedToValid(consentEntity)) {
-                byte[] newChecksum = calculatingService.calculateChecksumForConsent(mapToAisConsent(consentEntity));
+            if (wasStatusSwitchedToValid(context)) {
+                byte[] newChecksum = calculatingService.calculateChecksumForConsent(context.getAisConsent());
                 consentEntity.setChecksum(newChecksum);
             }
         }
@@ -105,13 +107,14 @@ public class AisConsentRepositoryImpl implements AisConsentVerifyingRepository {
 
         if (calculatingServiceOptional.isPresent()) {
             ChecksumCalculatingService calculatingService = calculatingServiceOptional.get();
+            ChecksumVerificationContext context = new ChecksumVerificationContext(entity);
 
-            if (!isAisConsentChecksumCorrect(entity, calculatingService)) {
+            if (!isAisConsentChecksumCorrect(context, calculatingService)) {
                 throw new WrongChecksumException();
             }
 
             if (entity.getConsentStatus() == VALID) {
-                byte[] newChecksum = calculatingService.calculateChecksumForConsent(mapToAisConsent(entity));
+                byte[] newChecksum = calculatingService.calculateChecksumForConsent(context.getAisConsent());
                 entity.setChecksum(newChecksum);
             }
         }
@@ -119,26 +122,28 @@ public class AisConsentRepositoryImpl implements AisConsentVerifyingRepository {
         return aisConsentRepository.save(entity);
     }
 
-    private boolean isAisConsentChecksumCorrect(ConsentEntity entity, ChecksumCalculatingService calculatingService) {
+    private boolean isAisConsentChecksumCorrect(ChecksumVerificationContext context, ChecksumCalculatingService calculatingService) {
+        ConsentEntity entity = context.getEntity();
         byte[] checksumFromDb = entity.getChecksum();
 
         if (checksumFromDb != null
-                && wasStatusHoldBefore(entity)
-                && !calculatingService.verifyConsentWithChecksum(mapToAisConsent(entity), checksumFromDb)) {
+                && wasStatusHoldBefore(context)
+                && !calculatingService.verifyConsentWithChecksum(context.getAisConsent(), checksumFromDb)) {
             log.warn("AIS consent checksum verification failed! AIS consent ID: [{}]. Contact ASPSP for details.", entity.getExternalId());
             return false;
         }
         return true;
     }
 
-    private boolean wasStatusSwitchedToValid(ConsentEntity entity) {
-        return entity.getConsentStatus() == VALID
-                   && EnumSet.of(RECEIVED, PARTIALLY_AUTHORISED).contains(getPreviousConsentStatus(entity));
+    private boolean wasStatusSwitchedToValid(ChecksumVerificationContext context) {
+        return context.getEntity().getConsentStatus() == VALID
+                   && EnumSet.of(RECEIVED, PARTIALLY_AUTHORISED).contains(context.getPreviousConsentStatus());
     }
 
-    private boolean wasStatusHoldBefore(ConsentEntity entity) {
-        return getPreviousConsentStatus(entity) == VALID
-                   || isFinalisedStatus(entity);
+    private boolean wasStatusHoldBefore(ChecksumVerificationContext context) {
+        ConsentStatus previousConsentStatus = context.getPreviousConsentStatus();
+        return previousConsentStatus == VALID
+                   || previousConsentStatus != null && previousConsentStatus.isFinalisedStatus();
     }
 
     private AisConsent mapToAisConsent(ConsentEntity entity) {
@@ -157,8 +162,30 @@ public class AisConsentRepositoryImpl implements AisConsentVerifyingRepository {
 
     }
 
-    private boolean isFinalisedStatus(ConsentEntity entity) {
-        ConsentStatus previousConsentStatus = getPreviousConsentStatus(entity);
-        return previousConsentStatus !=null && previousConsentStatus.isFinalisedStatus();
+    /**
+     * Loads previous status and mapped AIS consent lazily and at most once per verification of the entity
+     */
+    @RequiredArgsConstructor
+    private class ChecksumVerificationContext {
+        @Getter
+        private final ConsentEntity entity;
+        private AisConsent aisConsent;
+        private ConsentStatus previousConsentStatus;
+        private boolean previousConsentStatusLoaded;
+
+        private AisConsent getAisConsent() {
+            if (aisConsent == null) {
+                aisConsent = mapToAisConsent(entity);
+            }
+            return aisConsent;
+        }
+
+        private ConsentStatus getPreviousConsentStatus() {
+            if (!previousConsentStatusLoaded) {
+                previousConsentStatus = AisConsentRepositoryImpl.this.getPreviousConsentStatus(entity);
+                previousConsentStatusLoaded = true;
+            }
+            return previousConsentStatus;
+        }
     }
 }
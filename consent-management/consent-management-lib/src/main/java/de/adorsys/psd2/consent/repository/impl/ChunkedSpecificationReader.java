@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository.impl;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads entities, matching the specification, in chunks ordered by their identifiers (keyset pagination), so that
+ * large results are never loaded into the persistence context at once. Every entity is read once, even if the
+ * specification joins its collections. After every processed chunk the persistence context is flushed and cleared.
+ */
+@Component
+public class ChunkedSpecificationReader {
+    private static final String ID_ATTRIBUTE = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cms.export.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Reads all entities, matching the specification, chunk by chunk. Must be called within a transaction.
+     *
+     * @param entityClass    class of the entity with <code>id</code> attribute
+     * @param specification  specification of the entities to read
+     * @param idExtractor    provides identifier of the entity
+     * @param chunkProcessor processes one chunk of entities
+     * @param <T>            type of the entity
+     */
+    public <T> void read(@NotNull Class<T> entityClass, @NotNull Specification<T> specification,
+                         @NotNull Function<T, Long> idExtractor, @NotNull Consumer<List<T>> chunkProcessor) {
+        Long lastId = null;
+        List<T> chunk;
+        do {
+            chunk = readChunk(entityClass, specification, lastId);
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            lastId = idExtractor.apply(chunk.get(chunk.size() - 1));
+            chunkProcessor.accept(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        } while (chunk.size() == chunkSize);
+    }
+
+    private <T> List<T> readChunk(Class<T> entityClass, Specification<T> specification, Long lastId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (lastId != null) {
+            Predicate afterLastId = criteriaBuilder.greaterThan(root.get(ID_ATTRIBUTE), lastId);
+            predicate = predicate == null
+                            ? afterLastId
+                            : criteriaBuilder.and(predicate, afterLastId);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root)
+            .distinct(true)
+            .orderBy(criteriaBuilder.asc(root.get(ID_ATTRIBUTE)));
+
+        return entityManager.createQuery(query)
+                   .setMaxResults(chunkSize)
+                   .getResultList();
+    }
+}
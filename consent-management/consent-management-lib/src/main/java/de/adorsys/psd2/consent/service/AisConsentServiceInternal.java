@@ -24,9 +24,11 @@ import de.adorsys.psd2.consent.api.ais.CmsConsent;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
 import de.adorsys.psd2.consent.domain.AuthorisationEntity;
 import de.adorsys.psd2.consent.domain.account.AisConsentAction;
+import de.adorsys.psd2.consent.domain.account.AisConsentTransaction;
 import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AisConsentActionRepository;
+import de.adorsys.psd2.consent.repository.AisConsentTransactionRepository;
 import de.adorsys.psd2.consent.repository.AisConsentVerifyingRepository;
 import de.adorsys.psd2.consent.repository.AuthorisationRepository;
 import de.adorsys.psd2.consent.service.account.AccountAccessUpdater;
@@ -58,6 +60,7 @@ import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.EXPIRED;
 public class AisConsentServiceInternal implements AisConsentService {
     private final AisConsentVerifyingRepository aisConsentRepository;
     private final AisConsentActionRepository aisConsentActionRepository;
+    private final AisConsentTransactionRepository aisConsentTransactionRepository;
     private final AuthorisationRepository authorisationRepository;
     private final AisConsentConfirmationExpirationService aisConsentConfirmationExpirationService;
     private final AisConsentUsageService aisConsentUsageService;
@@ -68,6 +71,7 @@ public class AisConsentServiceInternal implements AisConsentService {
 
     /**
      * Saves information about consent usage and consent's sub-resources usage.
+     * Number of transactions, if provided in the request, is saved before the usage is updated.
      *
      * @param request {@link AisConsentActionRequest} needed parameters for logging usage AIS consent
      */
@@ -79,6 +83,7 @@ public class AisConsentServiceInternal implements AisConsentService {
             ConsentEntity consent = consentOpt.get();
             aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(consent);
             checkAndUpdateOnExpiration(consent);
+            saveNumberOfTransactions(consent, request);
             updateAisConsentUsage(consent, request);
             logConsentAction(consent.getExternalId(), resolveConsentActionStatus(request, consent), request.getTppId());
         }
@@ -140,6 +145,18 @@ public class AisConsentServiceInternal implements AisConsentService {
         return consent;
     }
 
+    private void saveNumberOfTransactions(ConsentEntity consent, AisConsentActionRequest request) {
+        if (request.getNumberOfTransactions() == null) {
+            return;
+        }
+
+        AisConsentTransaction aisConsentTransaction = new AisConsentTransaction();
+        aisConsentTransaction.setConsentId(consent);
+        aisConsentTransaction.setResourceId(request.getResourceId());
+        aisConsentTransaction.setNumberOfTransactions(request.getNumberOfTransactions());
+        aisConsentTransactionRepository.save(aisConsentTransaction);
+    }
+
     private void updateAisConsentUsage(ConsentEntity consent, AisConsentActionRequest request) throws WrongChecksumException {
         if (!request.isUpdateUsage()) {
             return;
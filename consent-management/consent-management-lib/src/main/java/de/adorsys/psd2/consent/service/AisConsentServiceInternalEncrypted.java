@@ -60,7 +60,8 @@ public class AisConsentServiceInternalEncrypted implements AisConsentServiceEncr
                                                                                encryptedRequest.getRequestUri(),
                                                                                encryptedRequest.isUpdateUsage(),
                                                                                encryptedRequest.getResourceId(),
-                                                                               encryptedRequest.getTransactionId());
+                                                                               encryptedRequest.getTransactionId(),
+                                                                               encryptedRequest.getNumberOfTransactions());
         return aisConsentService.checkConsentAndSaveActionLog(decryptedRequest);
     }
 
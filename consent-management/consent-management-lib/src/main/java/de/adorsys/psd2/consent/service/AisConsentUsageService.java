@@ -20,11 +20,13 @@ import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
 import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import de.adorsys.psd2.consent.service.usage.AisConsentUsageCounter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -33,9 +35,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AisConsentUsageService {
     private final AisConsentUsageRepository aisConsentUsageRepository;
+    private final AisConsentUsageCounter aisConsentUsageCounter;
 
     @Transactional
     public void incrementUsage(ConsentEntity consent, AisConsentActionRequest request) {
+        if (isCountedInMemory(consent)) {
+            aisConsentUsageCounter.incrementUsage(consent.getId(), request.getRequestUri(), request.getResourceId(), request.getTransactionId());
+            return;
+        }
+
         AisConsentUsage aisConsentUsage = getUsage(consent, request.getRequestUri());
         int usage = aisConsentUsage.getUsage();
         aisConsentUsage.setUsage(++usage);
@@ -46,6 +54,13 @@ public class AisConsentUsageService {
 
     @Transactional
     public void resetUsage(ConsentEntity consent) {
+        if (isCountedInMemory(consent)) {
+            LocalDate now = LocalDate.now();
+            aisConsentUsageCounter.discardUsage(consent.getId(), now);
+            aisConsentUsageRepository.resetUsage(consent.getId(), now);
+            return;
+        }
+
         List<AisConsentUsage> aisConsentUsageList = aisConsentUsageRepository.findReadByConsentAndUsageDate(consent, LocalDate.now());
         aisConsentUsageList.forEach(acu -> acu.setUsage(0));
         aisConsentUsageRepository.saveAll(aisConsentUsageList);
@@ -53,12 +68,32 @@ public class AisConsentUsageService {
 
     @Transactional
     public Map<String, Integer> getUsageCounterMap(ConsentEntity consent) {
+        if (isCountedInMemory(consent)) {
+            LocalDate now = LocalDate.now();
+            // Not stored usages are read first, as they may be stored in the meantime
+            Map<String, Integer> usage = new HashMap<>(aisConsentUsageCounter.getUnflushedUsage(consent.getId(), now));
+            aisConsentUsageRepository.findAllByConsentAndUsageDate(consent, now)
+                .forEach(u -> usage.merge(u.getRequestUri(), u.getUsage(), Integer::sum));
+            return usage.entrySet()
+                       .stream()
+                       .collect(Collectors.toMap(Map.Entry::getKey,
+                                                 e -> Math.max(consent.getFrequencyPerDay() - e.getValue(), 0)));
+        }
+
         return aisConsentUsageRepository.findReadByConsentAndUsageDate(consent, LocalDate.now())
                    .stream()
                    .collect(Collectors.toMap(AisConsentUsage::getRequestUri,
                                              u -> Math.max(consent.getFrequencyPerDay() - u.getUsage(), 0)));
     }
 
+    /**
+     * Usages of recurring consents are counted in memory and stored in background. Usages of non-recurring consents
+     * are stored immediately, as they are checked within the same request for expiration of the consent.
+     */
+    private boolean isCountedInMemory(ConsentEntity consent) {
+        return aisConsentUsageCounter.isEnabled() && consent.isRecurringIndicator();
+    }
+
     private AisConsentUsage getUsage(ConsentEntity consent, String requestUri) {
         return aisConsentUsageRepository.findWriteByConsentAndUsageDateAndRequestUri(consent, LocalDate.now(), requestUri)
                    .orElseGet(() -> {
@@ -25,7 +25,9 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -36,22 +38,34 @@ public class EventServiceEncryptedImpl implements Xs2aEventServiceEncrypted {
     @Override
     @Transactional
     public boolean recordEvent(@NotNull EventBO event) {
+        return eventService.recordEvent(decryptEvent(event));
+    }
+
+    @Override
+    @Transactional
+    public boolean recordEvents(@NotNull List<EventBO> events) {
+        List<EventBO> decryptedEvents = events.stream()
+                                            .map(this::decryptEvent)
+                                            .collect(Collectors.toList());
+        return eventService.recordEvents(decryptedEvents);
+    }
+
+    private EventBO decryptEvent(EventBO event) {
         String decryptedConsentId = decryptId(event.getConsentId());
         String decryptedPaymentId = decryptId(event.getPaymentId());
 
-        EventBO decryptedEvent = EventBO.builder()
-                                   .timestamp(event.getTimestamp())
-                                   .consentId(decryptedConsentId)
-                                   .paymentId(decryptedPaymentId)
-                                   .payload(event.getPayload())
-                                   .eventOrigin(event.getEventOrigin())
-                                   .eventType(event.getEventType())
-                                   .psuIdData(event.getPsuIdData())
-                                   .tppAuthorisationNumber(event.getTppAuthorisationNumber())
-                                   .xRequestId(event.getXRequestId())
-                                     .internalRequestId(event.getInternalRequestId())
-                                   .build();
-        return eventService.recordEvent(decryptedEvent);
+        return EventBO.builder()
+                   .timestamp(event.getTimestamp())
+                   .consentId(decryptedConsentId)
+                   .paymentId(decryptedPaymentId)
+                   .payload(event.getPayload())
+                   .eventOrigin(event.getEventOrigin())
+                   .eventType(event.getEventType())
+                   .psuIdData(event.getPsuIdData())
+                   .tppAuthorisationNumber(event.getTppAuthorisationNumber())
+                   .xRequestId(event.getXRequestId())
+                   .internalRequestId(event.getInternalRequestId())
+                   .build();
     }
 
     private String decryptId(String id) {
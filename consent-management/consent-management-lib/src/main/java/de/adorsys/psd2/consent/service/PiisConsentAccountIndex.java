@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.api.piis.PiisConsentChangedEvent;
+import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.piis.PiisConsentAccountEntity;
+import de.adorsys.psd2.consent.repository.PiisConsentAccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the lookup table of account identifiers of PIIS consents (<code>piis_consent_account</code>), used for
+ * finding PIIS consents by account identifier and currency in funds confirmation.
+ * <p>
+ * Account identifiers are stored once on creation of the consent, as ASPSP account accesses of PIIS consents are never
+ * changed afterwards. Entries are kept after revocation or termination of the consent, so that the lookup returns
+ * the same consents as before and the status of the consent is still checked by XS2A.
+ * Each change of PIIS consents is announced by {@link PiisConsentChangedEvent} after the commit of the transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class PiisConsentAccountIndex {
+    private final PiisConsentAccountRepository piisConsentAccountRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Stores account identifiers of the newly created PIIS consent
+     *
+     * @param consent saved PIIS consent
+     */
+    public void addConsent(@NotNull ConsentEntity consent) {
+        List<PiisConsentAccountEntity> accounts = consent.getAspspAccountAccesses().stream()
+                                                      .filter(access -> access.getAccountIdentifier() != null)
+                                                      .map(access -> new PiisConsentAccountEntity(consent.getId(), access.getAccountIdentifier(), access.getCurrency()))
+                                                      .collect(Collectors.toList());
+        piisConsentAccountRepository.saveAll(accounts);
+        publishChange(Collections.singletonList(consent));
+    }
+
+    /**
+     * Announces the change of the status of given PIIS consents
+     *
+     * @param consents changed PIIS consents
+     */
+    public void consentsChanged(@NotNull Collection<ConsentEntity> consents) {
+        publishChange(consents);
+    }
+
+    /**
+     * Finds identifiers of PIIS consents by account identifier and optional currency
+     *
+     * @param currency          currency of the account, all currencies are matched if <code>null</code>
+     * @param accountIdentifier account identifier
+     * @return identifiers of the consents, never <code>null</code>
+     */
+    public @NotNull List<Long> findConsentIds(@Nullable Currency currency, @NotNull String accountIdentifier) {
+        return currency == null
+                   ? piisConsentAccountRepository.findConsentIdsByAccountIdentifier(accountIdentifier)
+                   : piisConsentAccountRepository.findConsentIdsByAccountIdentifierAndCurrency(accountIdentifier, currency);
+    }
+
+    private void publishChange(Collection<ConsentEntity> consents) {
+        Set<String> accountIdentifiers = consents.stream()
+                                             .flatMap(consent -> consent.getAspspAccountAccesses().stream())
+                                             .map(AspspAccountAccess::getAccountIdentifier)
+                                             .filter(Objects::nonNull)
+                                             .collect(Collectors.toSet());
+        if (accountIdentifiers.isEmpty()) {
+            return;
+        }
+
+        PiisConsentChangedEvent event = new PiisConsentChangedEvent(accountIdentifiers);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    applicationEventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -21,7 +21,7 @@ import de.adorsys.psd2.consent.aspsp.api.ais.CmsAspspAisExportService;
 import de.adorsys.psd2.consent.domain.AuthorisationEntity;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AuthorisationRepository;
-import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.AisConsentLazyMigrationService;
@@ -37,9 +37,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -48,7 +47,7 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CmsAspspAisExportServiceInternal implements CmsAspspAisExportService {
     private final AisConsentSpecification aisConsentSpecification;
-    private final ConsentJpaRepository consentJpaRepository;
+    private final ChunkedSpecificationReader chunkedSpecificationReader;
     private final AisConsentMapper aisConsentMapper;
     private final AuthorisationRepository authorisationRepository;
     private final AisConsentLazyMigrationService aisConsentLazyMigrationService;
@@ -59,77 +58,109 @@ public class CmsAspspAisExportServiceInternal implements CmsAspspAisExportServic
                                                                 @Nullable LocalDate createDateFrom,
                                                                 @Nullable LocalDate createDateTo,
                                                                 @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+        List<CmsAisAccountConsent> consents = new ArrayList<>();
+        streamConsentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public Collection<CmsAisAccountConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                                @Nullable LocalDate createDateTo,
+                                                                @NotNull String instanceId) {
+        List<CmsAisAccountConsent> consents = new ArrayList<>();
+        streamConsentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public Collection<CmsAisAccountConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                                      @Nullable LocalDate createDateFrom,
+                                                                      @Nullable LocalDate createDateTo,
+                                                                      @NotNull String instanceId) {
+        List<CmsAisAccountConsent> consents = new ArrayList<>();
+        streamConsentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public void streamConsentsByTpp(String tppAuthorisationNumber,
+                                    @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                    @Nullable PsuIdData psuIdData, @NotNull String instanceId,
+                                    @NotNull Consumer<CmsAisAccountConsent> consumer) {
         if (StringUtils.isBlank(tppAuthorisationNumber) || StringUtils.isBlank(instanceId)) {
             log.info("TPP ID: [{}], InstanceId: [{}]. Export Consents by TPP: Some of these two values are empty", tppAuthorisationNumber, instanceId);
-            return Collections.emptyList();
+            return;
         }
 
-        return consentJpaRepository.findAll(aisConsentSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(
-            tppAuthorisationNumber,
-            createDateFrom,
-            createDateTo,
-            psuIdData,
-            instanceId
-        ))
-                   .stream()
-                   .map(aisConsentLazyMigrationService::migrateIfNeeded)
-                   .map(this::mapToCmsAisAccountConsentWithAuthorisations)
-                   .collect(Collectors.toList());
+        exportConsents(aisConsentSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber,
+                                                                                                 createDateFrom,
+                                                                                                 createDateTo,
+                                                                                                 psuIdData,
+                                                                                                 instanceId),
+                       consumer);
     }
 
     @Override
     @Transactional
-    public Collection<CmsAisAccountConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
-                                                                @Nullable LocalDate createDateTo,
-                                                                @NotNull String instanceId) {
+    public void streamConsentsByPsu(PsuIdData psuIdData,
+                                    @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                    @NotNull String instanceId,
+                                    @NotNull Consumer<CmsAisAccountConsent> consumer) {
         if (psuIdData == null || psuIdData.isEmpty() || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}]. Export consents by Psu failed, psuIdData or instanceId is empty or null.",
                      instanceId);
-            return Collections.emptyList();
+            return;
         }
 
-        return consentJpaRepository.findAll(aisConsentSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData,
-                                                                                                              createDateFrom,
-                                                                                                              createDateTo,
-                                                                                                              instanceId
-        ))
-                   .stream()
-                   .map(aisConsentLazyMigrationService::migrateIfNeeded)
-                   .map(this::mapToCmsAisAccountConsentWithAuthorisations)
-                   .collect(Collectors.toList());
+        exportConsents(aisConsentSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData,
+                                                                                         createDateFrom,
+                                                                                         createDateTo,
+                                                                                         instanceId),
+                       consumer);
     }
 
     @Override
     @Transactional
-    public Collection<CmsAisAccountConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
-                                                                      @Nullable LocalDate createDateFrom,
-                                                                      @Nullable LocalDate createDateTo,
-                                                                      @NotNull String instanceId) {
-
+    public void streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                          @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                          @NotNull String instanceId,
+                                          @NotNull Consumer<CmsAisAccountConsent> consumer) {
         if (StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], aspspAccountId: [{}]. Export consents by accountId failed, instanceId is empty or null.",
                      instanceId, aspspAccountId);
-            return Collections.emptyList();
+            return;
         }
 
-        Specification<ConsentEntity> specification = aisConsentSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId,
-                                                                                                                            createDateFrom,
-                                                                                                                            createDateTo,
-                                                                                                                            instanceId);
-        List<ConsentEntity> consents = consentJpaRepository.findAll(specification)
-                                           .stream()
+        exportConsents(aisConsentSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId,
+                                                                                              createDateFrom,
+                                                                                              createDateTo,
+                                                                                              instanceId),
+                       consumer);
+    }
+
+    private void exportConsents(Specification<ConsentEntity> specification, Consumer<CmsAisAccountConsent> consumer) {
+        chunkedSpecificationReader.read(ConsentEntity.class, specification, ConsentEntity::getId,
+                                        chunk -> exportChunk(chunk, consumer));
+    }
+
+    private void exportChunk(List<ConsentEntity> chunk, Consumer<CmsAisAccountConsent> consumer) {
+        List<ConsentEntity> consents = chunk.stream()
                                            .map(aisConsentLazyMigrationService::migrateIfNeeded)
                                            .collect(Collectors.toList());
 
-        return consents
-                   .stream()
-                   .map(this::mapToCmsAisAccountConsentWithAuthorisations)
-                   .collect(Collectors.toList());
-    }
+        Set<String> consentIds = consents.stream()
+                                     .map(ConsentEntity::getExternalId)
+                                     .collect(Collectors.toSet());
+        Map<String, List<AuthorisationEntity>> authorisationsByConsentId =
+            authorisationRepository.findAllByParentExternalIdInAndAuthorisationType(consentIds, AuthorisationType.AIS).stream()
+                .collect(Collectors.groupingBy(AuthorisationEntity::getParentExternalId));
 
-    private CmsAisAccountConsent mapToCmsAisAccountConsentWithAuthorisations(ConsentEntity aisConsentEntity) {
-        List<AuthorisationEntity> authorisations =
-            authorisationRepository.findAllByParentExternalIdAndAuthorisationType(aisConsentEntity.getExternalId(), AuthorisationType.AIS);
-        return aisConsentMapper.mapToCmsAisAccountConsent(aisConsentEntity, authorisations);
+        consents.forEach(consent -> {
+            List<AuthorisationEntity> authorisations = authorisationsByConsentId.getOrDefault(consent.getExternalId(), Collections.emptyList());
+            consumer.accept(aisConsentMapper.mapToCmsAisAccountConsent(consent, authorisations));
+        });
     }
 }
@@ -19,7 +19,7 @@ package de.adorsys.psd2.consent.service.aspsp;
 import de.adorsys.psd2.consent.api.piis.CmsPiisConsent;
 import de.adorsys.psd2.consent.aspsp.api.piis.CmsAspspPiisFundsExportService;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
-import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
@@ -34,9 +34,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -45,7 +46,7 @@ import java.util.List;
 public class CmsAspspPiisFundsExportServiceInternal implements CmsAspspPiisFundsExportService {
     private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
 
-    private final ConsentJpaRepository consentJpaRepository;
+    private final ChunkedSpecificationReader chunkedSpecificationReader;
     private final PiisConsentEntitySpecification piisConsentEntitySpecification;
     private final PiisConsentMapper piisConsentMapper;
     private final PiisConsentLazyMigrationService piisConsentLazyMigrationService;
@@ -56,50 +57,87 @@ public class CmsAspspPiisFundsExportServiceInternal implements CmsAspspPiisFunds
                                                           @Nullable LocalDate createDateFrom,
                                                           @Nullable LocalDate createDateTo, @Nullable PsuIdData psuIdData,
                                                           @Nullable String instanceId) {
+        List<CmsPiisConsent> consents = new ArrayList<>();
+        streamConsentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public Collection<CmsPiisConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                          @Nullable LocalDate createDateTo, @Nullable String instanceId) {
+        List<CmsPiisConsent> consents = new ArrayList<>();
+        streamConsentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public Collection<CmsPiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                                @Nullable LocalDate createDateFrom,
+                                                                @Nullable LocalDate createDateTo,
+                                                                @Nullable String instanceId) {
+        List<CmsPiisConsent> consents = new ArrayList<>();
+        streamConsentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId, consents::add);
+        return consents;
+    }
+
+    @Override
+    @Transactional
+    public void streamConsentsByTpp(String tppAuthorisationNumber,
+                                    @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                    @Nullable PsuIdData psuIdData, @Nullable String instanceId,
+                                    @NotNull Consumer<CmsPiisConsent> consumer) {
         if (StringUtils.isBlank(tppAuthorisationNumber)) {
             log.info("TPP ID: [{}], instanceId: [{}]. Export consents by TPP failed, TPP ID is empty or null.",
                      tppAuthorisationNumber, instanceId);
-            return Collections.emptyList();
+            return;
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        return findAllBySpecification(piisConsentEntitySpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, actualInstanceId));
+        exportConsents(piisConsentEntitySpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, actualInstanceId), consumer);
     }
 
     @Override
     @Transactional
-    public Collection<CmsPiisConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
-                                                          @Nullable LocalDate createDateTo, @Nullable String instanceId) {
+    public void streamConsentsByPsu(PsuIdData psuIdData,
+                                    @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                    @Nullable String instanceId,
+                                    @NotNull Consumer<CmsPiisConsent> consumer) {
         if (psuIdData == null || psuIdData.isEmpty()) {
             log.info("InstanceId: [{}]. Export consents by psu failed, psuIdData is empty or null.", instanceId);
-            return Collections.emptyList();
+            return;
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        return findAllBySpecification(piisConsentEntitySpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, actualInstanceId));
+        exportConsents(piisConsentEntitySpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, actualInstanceId), consumer);
     }
 
     @Override
     @Transactional
-    public Collection<CmsPiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
-                                                                @Nullable LocalDate createDateFrom,
-                                                                @Nullable LocalDate createDateTo,
-                                                                @Nullable String instanceId) {
+    public void streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                          @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                          @Nullable String instanceId,
+                                          @NotNull Consumer<CmsPiisConsent> consumer) {
         if (StringUtils.isBlank(aspspAccountId)) {
             log.info("InstanceId: [{}]. Export consents by accountId failed, aspspAccountId is empty or null.", instanceId);
-            return Collections.emptyList();
+            return;
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        return findAllBySpecification(piisConsentEntitySpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, actualInstanceId));
+        exportConsents(piisConsentEntitySpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, actualInstanceId), consumer);
+    }
+
+    private void exportConsents(Specification<ConsentEntity> specification, Consumer<CmsPiisConsent> consumer) {
+        chunkedSpecificationReader.read(ConsentEntity.class, specification, ConsentEntity::getId,
+                                        chunk -> exportChunk(chunk, consumer));
     }
 
-    private Collection<CmsPiisConsent> findAllBySpecification(Specification<ConsentEntity> specification) {
-        List<ConsentEntity> piisConsentEntities = consentJpaRepository.findAll(specification);
-        piisConsentLazyMigrationService.migrateIfNeeded(piisConsentEntities);
-        return piisConsentMapper.mapToCmsPiisConsentList(piisConsentEntities);
+    private void exportChunk(List<ConsentEntity> consents, Consumer<CmsPiisConsent> consumer) {
+        piisConsentLazyMigrationService.migrateIfNeeded(consents);
+        consents.forEach(consent -> consumer.accept(piisConsentMapper.mapToCmsPiisConsent(consent)));
     }
 }
@@ -23,6 +23,7 @@ import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
 import de.adorsys.psd2.consent.repository.TppInfoRepository;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
+import de.adorsys.psd2.consent.service.PiisConsentAccountIndex;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
@@ -56,6 +57,7 @@ public class CmsAspspPiisServiceInternal implements CmsAspspPiisService {
     private final PiisConsentEntitySpecification piisConsentEntitySpecification;
     private final PiisConsentMapper piisConsentMapper;
     private final PiisConsentLazyMigrationService piisConsentLazyMigrationService;
+    private final PiisConsentAccountIndex piisConsentAccountIndex;
 
     @Override
     @Transactional
@@ -72,6 +74,7 @@ public class CmsAspspPiisServiceInternal implements CmsAspspPiisService {
         ConsentEntity savedConsent = consentJpaRepository.save(consent);
 
         if (savedConsent.getId() != null) {
+            piisConsentAccountIndex.addConsent(savedConsent);
             return Optional.ofNullable(savedConsent.getExternalId());
         } else {
             log.info("External Consent ID: [{}]. PIIS consent cannot be created, because when saving to DB got null ID",
@@ -111,6 +114,7 @@ public class CmsAspspPiisServiceInternal implements CmsAspspPiisService {
 
         entity = piisConsentLazyMigrationService.migrateIfNeeded(entity);
         consentJpaRepository.save(entity);
+        piisConsentAccountIndex.consentsChanged(Collections.singletonList(entity));
 
         return true;
     }
@@ -127,6 +131,7 @@ public class CmsAspspPiisServiceInternal implements CmsAspspPiisService {
         consentsToRevoke.forEach(entity -> changeStatusAndLastActionDate(entity, REVOKED_BY_PSU));
 
         consentJpaRepository.saveAll(consentsToRevoke);
+        piisConsentAccountIndex.consentsChanged(consentsToRevoke);
     }
 
     private void changeStatusAndLastActionDate(ConsentEntity consentEntity, ConsentStatus consentStatus) {
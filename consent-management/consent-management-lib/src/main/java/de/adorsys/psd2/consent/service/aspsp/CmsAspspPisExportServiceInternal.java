@@ -19,7 +19,7 @@ package de.adorsys.psd2.consent.service.aspsp;
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
 import de.adorsys.psd2.consent.aspsp.api.pis.CmsAspspPisExportService;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
-import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentDataSpecification;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -28,13 +28,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -42,43 +44,69 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class CmsAspspPisExportServiceInternal implements CmsAspspPisExportService {
     private final PisCommonPaymentDataSpecification pisCommonPaymentDataSpecification;
-    private final PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private final ChunkedSpecificationReader chunkedSpecificationReader;
     private final CmsPsuPisMapper cmsPsuPisMapper;
 
 
     @Override
     public Collection<CmsPayment> exportPaymentsByTpp(String tppAuthorisationNumber, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+        List<CmsPayment> payments = new ArrayList<>();
+        streamPaymentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId, payments::add);
+        return payments;
+    }
+
+    @Override
+    public Collection<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+        List<CmsPayment> payments = new ArrayList<>();
+        streamPaymentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId, payments::add);
+        return payments;
+    }
+
+    @Override
+    public Collection<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+        List<CmsPayment> payments = new ArrayList<>();
+        streamPaymentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId, payments::add);
+        return payments;
+    }
+
+    @Override
+    public void streamPaymentsByTpp(String tppAuthorisationNumber, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @Nullable PsuIdData psuIdData, @NotNull String instanceId,
+                                    @NotNull Consumer<CmsPayment> consumer) {
         if (StringUtils.isBlank(tppAuthorisationNumber) || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], TPP ID: [{}]. Export payments by TPP failed, TPP ID or instanceId is empty or null.", instanceId,
                      tppAuthorisationNumber);
-            return Collections.emptyList();
+            return;
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        exportPayments(pisCommonPaymentDataSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId), consumer);
     }
 
     @Override
-    public Collection<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+    public void streamPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId,
+                                    @NotNull Consumer<CmsPayment> consumer) {
         if (psuIdData == null || psuIdData.isEmpty() || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}]. Export payments by psu failed, psuIdData or instanceId is empty or null.",
                      instanceId);
-            return Collections.emptyList();
+            return;
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        exportPayments(pisCommonPaymentDataSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId), consumer);
     }
 
     @Override
-    public Collection<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+    public void streamPaymentsByAccountId(@NotNull String aspspAccountId, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId,
+                                          @NotNull Consumer<CmsPayment> consumer) {
         if (StringUtils.isBlank(aspspAccountId) || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], aspspAccountId: [{}]. Export payments by accountId failed, aspspAccountId or instanceId is empty or null.",
                      instanceId, aspspAccountId);
-            return Collections.emptyList();
+            return;
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        exportPayments(pisCommonPaymentDataSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId), consumer);
+    }
+
+    private void exportPayments(Specification<PisCommonPaymentData> specification, Consumer<CmsPayment> consumer) {
+        chunkedSpecificationReader.read(PisCommonPaymentData.class, specification, PisCommonPaymentData::getId,
+                                        chunk -> chunk.forEach(payment -> consumer.accept(cmsPsuPisMapper.mapPaymentDataToCmsPayment(payment))));
     }
 }
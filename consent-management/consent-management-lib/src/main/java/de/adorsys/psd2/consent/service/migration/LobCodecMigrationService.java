@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.migration;
+
+import de.adorsys.psd2.consent.domain.codec.LobCodec;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Migrates data of consents and payments, stored as plain JSON, into the format of {@link LobCodec}.
+ * Records are updated only if they still are not encoded, so the data, changed meanwhile by other requests,
+ * is not overwritten.
+ */
+@Service
+@RequiredArgsConstructor
+public class LobCodecMigrationService {
+    private final ConsentJpaRepository consentJpaRepository;
+    private final PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+
+    /**
+     * Encodes data of consents with given identifiers
+     *
+     * @param ids identifiers of consents
+     * @return number of migrated consents
+     */
+    @Transactional
+    public int migrateConsents(List<Long> ids) {
+        int migrated = 0;
+        for (ConsentEntity consent : consentJpaRepository.findAllById(ids)) {
+            migrated += consentJpaRepository.updateEncodedData(consent.getId(), consent.getData(), LobCodec.VERSION);
+        }
+        return migrated;
+    }
+
+    /**
+     * Encodes data of payments with given identifiers
+     *
+     * @param ids identifiers of payments
+     * @return number of migrated payments
+     */
+    @Transactional
+    public int migratePayments(List<Long> ids) {
+        int migrated = 0;
+        for (PisCommonPaymentData payment : pisCommonPaymentDataRepository.findAllById(ids)) {
+            migrated += pisCommonPaymentDataRepository.updateEncodedData(payment.getId(), payment.getPayment(), LobCodec.VERSION);
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.notification;
+
+import de.adorsys.psd2.consent.domain.AuthorisationEntity;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostUpdate;
+import java.time.OffsetDateTime;
+
+/**
+ * Registers status changes of payments, consents and authorisations in {@link TppNotificationOutbox}.
+ * The previous status of the entity is reset after the change is registered, so that the change is registered only once,
+ * even if the entity is flushed several times within the transaction.
+ */
+@RequiredArgsConstructor
+public class TppNotificationEntityListener {
+    // resolved lazily, as listeners are created along with the entity manager factory, required by the outbox
+    private final ObjectProvider<TppNotificationOutbox> tppNotificationOutboxProvider;
+
+    @PostUpdate
+    public void registerStatusChange(Object entity) {
+        TppNotificationOutbox tppNotificationOutbox = tppNotificationOutboxProvider.getObject();
+        if (!tppNotificationOutbox.isEnabled()) {
+            return;
+        }
+
+        if (entity instanceof PisCommonPaymentData) {
+            registerPaymentStatusChange((PisCommonPaymentData) entity, tppNotificationOutbox);
+        } else if (entity instanceof ConsentEntity) {
+            registerConsentStatusChange((ConsentEntity) entity, tppNotificationOutbox);
+        } else if (entity instanceof AuthorisationEntity) {
+            registerScaStatusChange((AuthorisationEntity) entity, tppNotificationOutbox);
+        }
+    }
+
+    private void registerPaymentStatusChange(PisCommonPaymentData payment, TppNotificationOutbox tppNotificationOutbox) {
+        if (payment.getTransactionStatus() == null || payment.getPreviousTransactionStatus() == payment.getTransactionStatus()) {
+            return;
+        }
+
+        payment.setPreviousTransactionStatus(payment.getTransactionStatus());
+        tppNotificationOutbox.registerStatusChange(new TppStatusChange(TppNotificationResourceType.PAYMENT, payment.getPaymentId(),
+                                                                       null, null,
+                                                                       payment.getTransactionStatus().name(),
+                                                                       payment.getTransactionStatus().isFinalisedStatus(),
+                                                                       payment.getStatusChangeTimestamp()));
+    }
+
+    private void registerConsentStatusChange(ConsentEntity consent, TppNotificationOutbox tppNotificationOutbox) {
+        if (consent.getConsentStatus() == null || consent.getPreviousConsentStatus() == consent.getConsentStatus()) {
+            return;
+        }
+
+        consent.setPreviousConsentStatus(consent.getConsentStatus());
+        tppNotificationOutbox.registerStatusChange(new TppStatusChange(TppNotificationResourceType.CONSENT, consent.getExternalId(),
+                                                                       null, null,
+                                                                       consent.getConsentStatus().getValue(),
+                                                                       consent.getConsentStatus().isFinalisedStatus(),
+                                                                       consent.getStatusChangeTimestamp()));
+    }
+
+    private void registerScaStatusChange(AuthorisationEntity authorisation, TppNotificationOutbox tppNotificationOutbox) {
+        if (authorisation.getScaStatus() == null || authorisation.getPreviousScaStatus() == authorisation.getScaStatus()) {
+            return;
+        }
+
+        authorisation.setPreviousScaStatus(authorisation.getScaStatus());
+        tppNotificationOutbox.registerStatusChange(new TppStatusChange(TppNotificationResourceType.AUTHORISATION, authorisation.getParentExternalId(),
+                                                                       authorisation.getExternalId(), authorisation.getAuthorisationType(),
+                                                                       authorisation.getScaStatus().getValue(),
+                                                                       authorisation.getScaStatus().isFinalisedStatus(),
+                                                                       OffsetDateTime.now()));
+    }
+}
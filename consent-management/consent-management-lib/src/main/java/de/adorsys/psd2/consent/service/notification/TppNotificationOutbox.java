@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.notification;
+
+import de.adorsys.psd2.consent.domain.notification.TppNotificationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.repository.TppNotificationRepository;
+import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.profile.NotificationSupportedMode;
+import lombok.RequiredArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Stores notifications about status changes of payments, consents and authorisations in the <code>tpp_notification</code>
+ * table (transactional outbox), so that they are sent to the TPP only if the change itself has been committed.
+ * <p>
+ * Status changes are collected during the transaction and are turned into notifications right before the commit,
+ * according to the TPP notification URI and content preferred, provided by the TPP for the payment or consent:
+ * <ul>
+ * <li><code>SCA</code> - every change of SCA status of the authorisation</li>
+ * <li><code>PROCESS</code> - every change of transaction status of the payment or consent status</li>
+ * <li><code>LAST</code> - change of transaction status of the payment or consent status to the final one</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TppNotificationOutbox {
+    private final TppNotificationRepository tppNotificationRepository;
+    private final ConsentJpaRepository consentJpaRepository;
+    private final PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cms.tpp-notification.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registers the status change within the current transaction, changes outside of transactions are ignored
+     *
+     * @param statusChange status change of payment, consent or authorisation
+     */
+    @SuppressWarnings("unchecked")
+    public void registerStatusChange(TppStatusChange statusChange) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.debug("Status change of {} [{}] is not registered, as there is no transaction", statusChange.getResourceType(), statusChange.getResourceId());
+            return;
+        }
+
+        List<TppStatusChange> statusChanges = (List<TppStatusChange>) TransactionSynchronizationManager.getResource(this);
+        if (statusChanges == null) {
+            statusChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, statusChanges);
+            TransactionSynchronizationManager.registerSynchronization(new OutboxSynchronization(statusChanges));
+        }
+        statusChanges.add(statusChange);
+    }
+
+    /**
+     * Registers the change of status of consents, made by bulk update in the database, within the current transaction.
+     * Bulk updates bypass entity listeners, so the caller has to register them explicitly.
+     *
+     * @param consentIds            internal IDs of updated consents
+     * @param consentStatus         new status of the consents
+     * @param statusChangeTimestamp timestamp of the status change
+     */
+    public void registerConsentStatusChanges(List<Long> consentIds, ConsentStatus consentStatus, OffsetDateTime statusChangeTimestamp) {
+        if (!enabled || consentIds.isEmpty()) {
+            return;
+        }
+
+        consentJpaRepository.findExternalIdsWithTppNotificationUri(consentIds)
+            .forEach(externalId -> registerStatusChange(new TppStatusChange(TppNotificationResourceType.CONSENT, externalId,
+                                                                            null, null,
+                                                                            consentStatus.getValue(),
+                                                                            consentStatus.isFinalisedStatus(),
+                                                                            statusChangeTimestamp)));
+    }
+
+    void storeNotifications(List<TppStatusChange> statusChanges) {
+        // entities, flushed on commit, may register further changes
+        entityManager.flush();
+        while (!statusChanges.isEmpty()) {
+            List<TppStatusChange> changes = new ArrayList<>(statusChanges);
+            statusChanges.clear();
+
+            List<TppNotificationEntity> notifications = changes.stream()
+                                                            .map(this::toNotification)
+                                                            .flatMap(Optional::stream)
+                                                            .collect(Collectors.toList());
+            if (!notifications.isEmpty()) {
+                tppNotificationRepository.saveAll(notifications);
+            }
+            entityManager.flush();
+        }
+    }
+
+    private Optional<TppNotificationEntity> toNotification(TppStatusChange statusChange) {
+        NotificationTarget target = getNotificationTarget(statusChange);
+        if (StringUtils.isBlank(target.getUri()) || !isNotificationRequired(statusChange, target.getModes())) {
+            return Optional.empty();
+        }
+
+        TppNotificationEntity notification = new TppNotificationEntity();
+        notification.setTppNotificationUri(target.getUri());
+        notification.setResourceType(statusChange.getResourceType());
+        notification.setResourceId(statusChange.getResourceId());
+        notification.setAuthorisationId(statusChange.getAuthorisationId());
+        notification.setStatus(statusChange.getStatus());
+        notification.setStatusChangeTimestamp(statusChange.getStatusChangeTimestamp());
+        notification.setNextAttemptTimestamp(OffsetDateTime.now());
+        return Optional.of(notification);
+    }
+
+    private NotificationTarget getNotificationTarget(TppStatusChange statusChange) {
+        if (isPaymentRelated(statusChange)) {
+            return pisCommonPaymentDataRepository.findByPaymentId(statusChange.getResourceId())
+                       .map(p -> new NotificationTarget(p.getTppNotificationUri(), p.getTppNotificationContentPreferred()))
+                       .orElse(NotificationTarget.EMPTY);
+        }
+
+        return consentJpaRepository.findByExternalId(statusChange.getResourceId())
+                   .map(c -> new NotificationTarget(c.getTppInformation().getTppNotificationUri(),
+                                                    c.getTppInformation().getTppNotificationContentPreferred()))
+                   .orElse(NotificationTarget.EMPTY);
+    }
+
+    private boolean isPaymentRelated(TppStatusChange statusChange) {
+        if (statusChange.getResourceType() == TppNotificationResourceType.AUTHORISATION) {
+            return statusChange.getAuthorisationType() != AuthorisationType.AIS;
+        }
+        return statusChange.getResourceType() == TppNotificationResourceType.PAYMENT;
+    }
+
+    private boolean isNotificationRequired(TppStatusChange statusChange, List<NotificationSupportedMode> modes) {
+        if (statusChange.getResourceType() == TppNotificationResourceType.AUTHORISATION) {
+            return modes.contains(NotificationSupportedMode.SCA);
+        }
+        return modes.contains(NotificationSupportedMode.PROCESS)
+                   || modes.contains(NotificationSupportedMode.LAST) && statusChange.isFinalised();
+    }
+
+    @Getter
+    private static class NotificationTarget {
+        private static final NotificationTarget EMPTY = new NotificationTarget(null, Collections.emptyList());
+
+        private String uri;
+        private List<NotificationSupportedMode> modes;
+
+        private NotificationTarget(String uri, List<NotificationSupportedMode> modes) {
+            this.uri = uri;
+            this.modes = modes == null ? Collections.emptyList() : modes;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class OutboxSynchronization extends TransactionSynchronizationAdapter {
+        private final List<TppStatusChange> statusChanges;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            storeNotifications(statusChanges);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TppNotificationOutbox.this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.notification;
+
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
+import lombok.Value;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Status change of payment, consent or authorisation, that may require notification of the TPP
+ */
+@Value
+public class TppStatusChange {
+    private TppNotificationResourceType resourceType;
+    private String resourceId;
+    @Nullable
+    private String authorisationId;
+    @Nullable
+    private AuthorisationType authorisationType;
+    private String status;
+    private boolean finalised;
+    private OffsetDateTime statusChangeTimestamp;
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.security.provider;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of secret keys, derived from passwords by crypto providers.
+ * <p>
+ * Key derivation (i.e. PBKDF2 with tens of thousands of iterations) is by far the most expensive part of encryption
+ * and decryption, while the set of passwords used by CMS is small. Derived keys are kept by crypto provider ID and
+ * SHA-256 fingerprint of the password (the password itself is never stored), the least recently used key is evicted
+ * once the maximum size is reached, and keys older than time to live are derived again.
+ * Key material of evicted keys is overwritten with zeros.
+ */
+public class DerivedKeyCache {
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final long DEFAULT_TIME_TO_LIVE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    private static final String KEY_ALGORITHM = "AES";
+
+    private final int maxSize;
+    private final long timeToLiveMs;
+    private final Map<String, CachedKey> cachedKeys;
+
+    public DerivedKeyCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE_MS);
+    }
+
+    public DerivedKeyCache(int maxSize, long timeToLiveMs) {
+        this.maxSize = maxSize;
+        this.timeToLiveMs = timeToLiveMs;
+        this.cachedKeys = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns secret key for given password, deriving it only if there is no valid cached key
+     *
+     * @param cryptoProviderId Id of crypto provider, that uses the key
+     * @param password         Password to derive the key from
+     * @param keyDerivation    Function deriving raw key bytes from the password
+     * @return Secret key
+     * @throws GeneralSecurityException if the key couldn't be derived
+     */
+    public SecretKey getSecretKey(String cryptoProviderId, String password, KeyDerivation keyDerivation) throws GeneralSecurityException {
+        String cacheKey = cryptoProviderId + ":" + fingerprint(password);
+
+        SecretKey secretKey = getCachedKey(cacheKey);
+        if (secretKey != null) {
+            return secretKey;
+        }
+
+        byte[] derivedKey = keyDerivation.deriveKey(password);
+        try {
+            putKey(cacheKey, derivedKey);
+            return new SecretKeySpec(derivedKey, KEY_ALGORITHM);
+        } finally {
+            Arrays.fill(derivedKey, (byte) 0);
+        }
+    }
+
+    /**
+     * Removes all keys from the cache, overwriting their key material
+     */
+    public synchronized void clear() {
+        cachedKeys.values().forEach(CachedKey::destroy);
+        cachedKeys.clear();
+    }
+
+    synchronized int size() {
+        return cachedKeys.size();
+    }
+
+    private synchronized SecretKey getCachedKey(String cacheKey) {
+        CachedKey cachedKey = cachedKeys.get(cacheKey);
+        if (cachedKey == null) {
+            return null;
+        }
+
+        if (cachedKey.isExpired(System.currentTimeMillis(), timeToLiveMs)) {
+            cachedKeys.remove(cacheKey);
+            cachedKey.destroy();
+            return null;
+        }
+        return new SecretKeySpec(cachedKey.keyMaterial, KEY_ALGORITHM);
+    }
+
+    private synchronized void putKey(String cacheKey, byte[] derivedKey) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        CachedKey previousKey = cachedKeys.put(cacheKey, new CachedKey(derivedKey.clone(), System.currentTimeMillis()));
+        if (previousKey != null) {
+            previousKey.destroy();
+        }
+
+        Iterator<CachedKey> iterator = cachedKeys.values().iterator();
+        while (cachedKeys.size() > maxSize && iterator.hasNext()) {
+            iterator.next().destroy();
+            iterator.remove();
+        }
+    }
+
+    private String fingerprint(String password) throws GeneralSecurityException {
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM).digest(passwordBytes);
+            return Base64.getEncoder().encodeToString(digest);
+        } finally {
+            Arrays.fill(passwordBytes, (byte) 0);
+        }
+    }
+
+    @FunctionalInterface
+    public interface KeyDerivation {
+        /**
+         * Derives raw key bytes from the password
+         *
+         * @param password Password to derive the key from
+         * @return Raw key bytes
+         * @throws GeneralSecurityException if the key couldn't be derived
+         */
+        byte[] deriveKey(String password) throws GeneralSecurityException;
+    }
+
+    private static class CachedKey {
+        private final byte[] keyMaterial;
+        private final long createdAt;
+
+        private CachedKey(byte[] keyMaterial, long createdAt) {
+            this.keyMaterial = keyMaterial;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isExpired(long currentTimeMillis, long timeToLiveMs) {
+            return currentTimeMillis - createdAt >= timeToLiveMs;
+        }
+
+        private void destroy() {
+            Arrays.fill(keyMaterial, (byte) 0);
+        }
+    }
+}
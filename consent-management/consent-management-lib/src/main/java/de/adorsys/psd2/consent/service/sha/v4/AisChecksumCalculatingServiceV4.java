@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.sha.v4;
+
+import de.adorsys.psd2.consent.service.sha.ChecksumCalculatingService;
+import de.adorsys.psd2.consent.service.sha.ChecksumConstant;
+import de.adorsys.psd2.core.data.AccountAccess;
+import de.adorsys.psd2.core.data.Consent;
+import de.adorsys.psd2.core.data.ais.AisConsent;
+import de.adorsys.psd2.xs2a.core.consent.ConsentType;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceType;
+import de.adorsys.psd2.xs2a.core.profile.AdditionalInformationAccess;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Calculates checksum of AIS consent from the canonical binary encoding of its fields.
+ * <p>
+ * Consent fields are streamed directly into SHA-512 digest (see {@link ChecksumFieldEncoder}). Calculated digests are
+ * memoised within the current transaction by the values of checksum-relevant consent fields, so that verifying and
+ * recalculating checksum of the same consent version doesn't hash it again.
+ */
+@Service
+public class AisChecksumCalculatingServiceV4 implements ChecksumCalculatingService {
+    private static final String VERSION = "004";
+    private static final String ACCESS_DELIMITER = ",";
+    private static final String ACCESS_TYPE_DELIMITER = ":";
+    private static final Comparator<AccountReference> REFERENCE_ORDER =
+        Comparator.comparing(AccountReference::getIban, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(AccountReference::getBban, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AccountReference::getPan, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AccountReference::getMaskedPan, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AccountReference::getMsisdn, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(acc -> Optional.ofNullable(acc.getCurrency())
+                                      .map(Currency::getCurrencyCode)
+                                      .orElse(null), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AccountReference::getResourceId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(AccountReference::getAspspAccountId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Override
+    public boolean verifyConsentWithChecksum(Consent<?> consent, byte[] checksum) {
+        if (consent == null || checksum == null) {
+            return false;
+        }
+
+        if (ConsentType.AIS == consent.getConsentType()) {
+            return verifyConsentWithChecksumForAisConsent((AisConsent) consent, checksum);
+        }
+
+        return false;
+    }
+
+    @Override
+    public byte[] calculateChecksumForConsent(Consent<?> consent) {
+        if (consent == null) {
+            return new byte[0];
+        }
+
+        if (ConsentType.AIS == consent.getConsentType()) {
+            return calculateChecksumForAisConsent((AisConsent) consent);
+        }
+
+        return new byte[0];
+    }
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    private boolean verifyConsentWithChecksumForAisConsent(AisConsent aisConsent, byte[] checksum) {
+        String[] elements = new String(checksum).split(ChecksumConstant.DELIMITER);
+
+        if (elements.length == 1) {
+            return false;
+        }
+
+        ConsentDigest consentDigest = getConsentDigest(aisConsent);
+        if (!elements[ChecksumConstant.CONSENT_CHECKSUM_START_POSITION].equals(consentDigest.getConsentChecksum())) {
+            return false;
+        }
+
+        if (elements.length > 2) {
+            Map<AccountReferenceType, String> accessChecksumsFromDb = decodeAccessChecksums(elements[ChecksumConstant.ASPSP_ACCESS_CHECKSUM_START_POSITION]);
+            return accessChecksumsFromDb != null
+                       && areCurrentAccessesValid(accessChecksumsFromDb, consentDigest.getAspspAccessChecksums());
+        }
+
+        return true;
+    }
+
+    private byte[] calculateChecksumForAisConsent(AisConsent aisConsent) {
+        ConsentDigest consentDigest = getConsentDigest(aisConsent);
+        StringBuilder sb = new StringBuilder(VERSION)
+                               .append(ChecksumConstant.DELIMITER)
+                               .append(consentDigest.getConsentChecksum());
+
+        AccountAccess aspspAccountAccess = aisConsent.getAspspAccountAccesses();
+        if (aspspAccountAccess != null && aspspAccountAccess.isNotEmpty(aisConsent.getConsentData())) {
+            Map<AccountReferenceType, String> accessChecksums = consentDigest.getAspspAccessChecksums();
+
+            if (!accessChecksums.isEmpty()) {
+                sb.append(ChecksumConstant.DELIMITER);
+                sb.append(encodeAccessChecksums(accessChecksums));
+            }
+        }
+
+        return sb.toString().getBytes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConsentDigest getConsentDigest(AisConsent aisConsent) {
+        ChecksumSource source = new ChecksumSource(aisConsent);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new ConsentDigest(source);
+        }
+
+        Map<ChecksumSource, ConsentDigest> digests = (Map<ChecksumSource, ConsentDigest>) TransactionSynchronizationManager.getResource(this);
+        if (digests == null) {
+            digests = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, digests);
+            TransactionSynchronizationManager.registerSynchronization(new DigestCleanupSynchronization());
+        }
+        return digests.computeIfAbsent(source, ConsentDigest::new);
+    }
+
+    private String encodeAccessChecksums(Map<AccountReferenceType, String> accessChecksums) {
+        return accessChecksums.entrySet().stream()
+                   .map(e -> e.getKey().getValue() + ACCESS_TYPE_DELIMITER + e.getValue())
+                   .collect(Collectors.joining(ACCESS_DELIMITER));
+    }
+
+    private Map<AccountReferenceType, String> decodeAccessChecksums(String encodedAccessChecksums) {
+        Map<AccountReferenceType, String> accessChecksums = new EnumMap<>(AccountReferenceType.class);
+
+        for (String encodedAccessChecksum : encodedAccessChecksums.split(ACCESS_DELIMITER)) {
+            String[] parts = encodedAccessChecksum.split(ACCESS_TYPE_DELIMITER, 2);
+            Optional<AccountReferenceType> type = AccountReferenceType.getByValue(parts[0]);
+
+            if (parts.length < 2 || type.isEmpty()) {
+                return null;
+            }
+            accessChecksums.put(type.get(), parts[1]);
+        }
+
+        return accessChecksums;
+    }
+
+    private boolean areCurrentAccessesValid(Map<AccountReferenceType, String> accessMapFromDB, Map<AccountReferenceType, String> currentAccessMap) {
+        return accessMapFromDB.entrySet().stream()
+                   .allMatch(ent -> ent.getValue().equals(currentAccessMap.get(ent.getKey())));
+    }
+
+    private static String calculateChecksumForConsentCommon(ChecksumSource source) {
+        ChecksumFieldEncoder encoder = new ChecksumFieldEncoder();
+        encoder.writeBoolean(source.isRecurringIndicator());
+        encoder.writeBoolean(source.isCombinedServiceIndicator());
+        encoder.writeDate(source.getValidUntil());
+        encoder.writeInteger(source.getFrequencyPerDay());
+
+        AccountAccess tppAccess = source.getTppAccountAccess();
+        encoder.writeBoolean(tppAccess != null);
+        if (tppAccess != null) {
+            encoder.writeReferences(tppAccess.getAccounts());
+            encoder.writeReferences(tppAccess.getBalances());
+            encoder.writeReferences(tppAccess.getTransactions());
+
+            AdditionalInformationAccess additionalInformationAccess = tppAccess.getAdditionalInformationAccess();
+            encoder.writeBoolean(additionalInformationAccess != null);
+            if (additionalInformationAccess != null) {
+                encoder.writeReferences(additionalInformationAccess.getOwnerName());
+            }
+        }
+
+        return Base64.getEncoder().encodeToString(encoder.digest());
+    }
+
+    private static Map<AccountReferenceType, String> calculateChecksumMapByReferenceType(AccountAccess aspspAccess) {
+        if (aspspAccess == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<AccountReferenceType, List<AccountReference>> referencesByType = new EnumMap<>(AccountReferenceType.class);
+        Stream.of(aspspAccess.getAccounts(), aspspAccess.getBalances(), aspspAccess.getTransactions())
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .filter(Objects::nonNull)
+            .distinct()
+            .filter(acc -> StringUtils.isNotBlank(acc.getResourceId()) || StringUtils.isNotBlank(acc.getAspspAccountId()))
+            .forEach(acc -> referencesByType.computeIfAbsent(acc.getAccountReferenceType(), t -> new ArrayList<>()).add(acc));
+
+        Map<AccountReferenceType, String> checksumMap = new EnumMap<>(AccountReferenceType.class);
+        referencesByType.forEach((type, references) -> {
+            references.sort(REFERENCE_ORDER);
+            ChecksumFieldEncoder encoder = new ChecksumFieldEncoder();
+            encoder.writeReferences(references);
+            checksumMap.put(type, Base64.getEncoder().encodeToString(encoder.digest()));
+        });
+
+        return checksumMap;
+    }
+
+    /**
+     * Copy of checksum-relevant consent fields, used as key of memoised digests
+     */
+    @Getter
+    @EqualsAndHashCode
+    private static class ChecksumSource {
+        private final boolean recurringIndicator;
+        private final boolean combinedServiceIndicator;
+        private final LocalDate validUntil;
+        private final Integer frequencyPerDay;
+        private final AccountAccess tppAccountAccess;
+        private final AccountAccess aspspAccountAccess;
+
+        private ChecksumSource(AisConsent aisConsent) {
+            recurringIndicator = aisConsent.isRecurringIndicator();
+            combinedServiceIndicator = aisConsent.getConsentData() != null && aisConsent.getConsentData().isCombinedServiceIndicator();
+            validUntil = aisConsent.getValidUntil();
+            frequencyPerDay = aisConsent.getFrequencyPerDay();
+            tppAccountAccess = copyOf(aisConsent.getTppAccountAccesses());
+            aspspAccountAccess = copyOf(aisConsent.getAspspAccountAccesses());
+        }
+
+        private static AccountAccess copyOf(AccountAccess access) {
+            if (access == null) {
+                return null;
+            }
+
+            AdditionalInformationAccess additionalInformationAccess = access.getAdditionalInformationAccess();
+            return new AccountAccess(copyOf(access.getAccounts()), copyOf(access.getBalances()), copyOf(access.getTransactions()),
+                                     additionalInformationAccess == null
+                                         ? null
+                                         : new AdditionalInformationAccess(copyOf(additionalInformationAccess.getOwnerName())));
+        }
+
+        private static List<AccountReference> copyOf(List<AccountReference> references) {
+            if (references == null) {
+                return null;
+            }
+
+            List<AccountReference> copy = new ArrayList<>(references.size());
+            for (AccountReference ref : references) {
+                copy.add(ref == null
+                             ? null
+                             : new AccountReference(ref.getAspspAccountId(), ref.getResourceId(), ref.getIban(), ref.getBban(),
+                                                    ref.getPan(), ref.getMaskedPan(), ref.getMsisdn(), ref.getCurrency()));
+            }
+            return copy;
+        }
+    }
+
+    private static class ConsentDigest {
+        private final ChecksumSource source;
+        @Getter
+        private final String consentChecksum;
+        private Map<AccountReferenceType, String> aspspAccessChecksums;
+
+        private ConsentDigest(ChecksumSource source) {
+            this.source = source;
+            this.consentChecksum = calculateChecksumForConsentCommon(source);
+        }
+
+        private Map<AccountReferenceType, String> getAspspAccessChecksums() {
+            if (aspspAccessChecksums == null) {
+                aspspAccessChecksums = calculateChecksumMapByReferenceType(source.getAspspAccountAccess());
+            }
+            return aspspAccessChecksums;
+        }
+    }
+
+    private class DigestCleanupSynchronization extends TransactionSynchronizationAdapter {
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AisChecksumCalculatingServiceV4.this);
+        }
+    }
+}
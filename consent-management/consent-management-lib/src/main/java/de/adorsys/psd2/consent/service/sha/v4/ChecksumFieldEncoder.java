@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.sha.v4;
+
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Writes consent fields in canonical binary form directly into the message digest, so that checksum is calculated
+ * without serialising the consent into intermediate strings or byte arrays.
+ * <p>
+ * Every nullable value is prefixed with presence marker, strings and lists are prefixed with their length, so that
+ * different values never result in the same sequence of bytes.
+ */
+final class ChecksumFieldEncoder {
+    private static final String ALGORITHM = "SHA-512";
+    private static final int BUFFER_SIZE = 256;
+    private static final byte NULL_MARKER = 0;
+    private static final byte VALUE_MARKER = 1;
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    ChecksumFieldEncoder() {
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("No such hashing algorithm: " + ALGORITHM);
+        }
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? VALUE_MARKER : NULL_MARKER);
+    }
+
+    void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeInteger(Integer value) {
+        if (writePresence(value)) {
+            writeInt(value);
+        }
+    }
+
+    void writeDate(LocalDate value) {
+        if (writePresence(value)) {
+            long epochDay = value.toEpochDay();
+            writeInt((int) (epochDay >>> 32));
+            writeInt((int) epochDay);
+        }
+    }
+
+    void writeString(String value) {
+        if (!writePresence(value)) {
+            return;
+        }
+
+        int length = value.length();
+        writeInt(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            ensureCapacity(Character.BYTES);
+            buffer[position++] = (byte) (c >>> 8);
+            buffer[position++] = (byte) c;
+        }
+    }
+
+    void writeCurrency(Currency value) {
+        writeString(value == null ? null : value.getCurrencyCode());
+    }
+
+    void writeReferences(List<AccountReference> references) {
+        if (!writePresence(references)) {
+            return;
+        }
+
+        writeInt(references.size());
+        for (AccountReference reference : references) {
+            writeReference(reference);
+        }
+    }
+
+    void writeReference(AccountReference reference) {
+        if (!writePresence(reference)) {
+            return;
+        }
+
+        writeString(reference.getAspspAccountId());
+        writeString(reference.getResourceId());
+        writeString(reference.getIban());
+        writeString(reference.getBban());
+        writeString(reference.getPan());
+        writeString(reference.getMaskedPan());
+        writeString(reference.getMsisdn());
+        writeCurrency(reference.getCurrency());
+    }
+
+    /**
+     * Completes the calculation, the encoder should not be used afterwards
+     *
+     * @return SHA-512 hash of all written values
+     */
+    byte[] digest() {
+        flush();
+        return digest.digest();
+    }
+
+    private boolean writePresence(Object value) {
+        writeByte(value == null ? NULL_MARKER : VALUE_MARKER);
+        return value != null;
+    }
+
+    private void writeByte(byte value) {
+        ensureCapacity(1);
+        buffer[position++] = value;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        digest.update(buffer, 0, position);
+        position = 0;
+    }
+}
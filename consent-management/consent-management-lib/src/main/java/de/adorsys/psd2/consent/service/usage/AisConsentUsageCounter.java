@@ -0,0 +1,231 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.usage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts usages of AIS consents in memory and stores them in {@link AisConsentUsageStore} periodically in background
+ * (write-behind), so that parallel requests with the same consent don't wait for each other on locks of the usage rows.
+ * Usages are counted per consent, date and request URI by striped {@link LongAdder} counters, each counter remembers
+ * the number of already stored usages, so only the difference is stored on flush. Usages, that couldn't be stored,
+ * remain not flushed and are stored during the next flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AisConsentUsageCounter {
+    private final AisConsentUsageStore aisConsentUsageStore;
+    private final Map<ConsentUsageDay, Map<String, UsageCounter>> usages = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flushExecutor;
+
+    @Value("${cms.ais-consent-usage.flush-interval.ms:1000}")
+    private long flushIntervalMs;
+
+    @PostConstruct
+    public void startFlushing() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ais-consent-usage-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopFlushing() throws InterruptedException {
+        if (flushExecutor == null) {
+            return;
+        }
+
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    /**
+     * Checks whether usages are counted in memory
+     *
+     * @return <code>false</code> if the flush interval is set to <code>0</code> and usages should be stored synchronously
+     */
+    public boolean isEnabled() {
+        return flushIntervalMs > 0;
+    }
+
+    /**
+     * Counts the usage of the consent. If called within the transaction, the usage is counted only after its commit.
+     *
+     * @param consentId     internal ID of the consent
+     * @param requestUri    URI of the request
+     * @param resourceId    ID of the accessed account
+     * @param transactionId ID of the accessed transaction
+     */
+    public void incrementUsage(@NotNull Long consentId, @NotNull String requestUri, @Nullable String resourceId, @Nullable String transactionId) {
+        ConsentUsageDay usageDay = new ConsentUsageDay(consentId, LocalDate.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    getCounter(usageDay, requestUri).increment(resourceId, transactionId);
+                }
+            });
+        } else {
+            getCounter(usageDay, requestUri).increment(resourceId, transactionId);
+        }
+    }
+
+    /**
+     * Returns usages of the consent on given date, that are not stored yet
+     *
+     * @param consentId internal ID of the consent
+     * @param usageDate date of the usages
+     * @return number of usages by request URI
+     */
+    @NotNull
+    public Map<String, Integer> getUnflushedUsage(@Nullable Long consentId, @NotNull LocalDate usageDate) {
+        Map<String, UsageCounter> counters = usages.get(new ConsentUsageDay(consentId, usageDate));
+        if (counters == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Integer> unflushedUsage = new HashMap<>();
+        counters.forEach((requestUri, counter) -> {
+            long unflushed = counter.getUnflushed();
+            if (unflushed > 0) {
+                unflushedUsage.put(requestUri, (int) unflushed);
+            }
+        });
+        return unflushedUsage;
+    }
+
+    /**
+     * Discards usages of the consent on given date, that are not stored yet
+     *
+     * @param consentId internal ID of the consent
+     * @param usageDate date of the usages
+     */
+    public void discardUsage(@Nullable Long consentId, @NotNull LocalDate usageDate) {
+        synchronized (flushLock) {
+            Map<String, UsageCounter> counters = usages.get(new ConsentUsageDay(consentId, usageDate));
+            if (counters != null) {
+                counters.values().forEach(counter -> counter.flushed = counter.count.sum());
+            }
+        }
+    }
+
+    /**
+     * Stores all counted usages in {@link AisConsentUsageStore}
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            // Usages of previous days are kept for one more day, as requests started before midnight may still count them
+            LocalDate evictionDate = LocalDate.now().minusDays(1);
+            for (Map.Entry<ConsentUsageDay, Map<String, UsageCounter>> entry : usages.entrySet()) {
+                ConsentUsageDay usageDay = entry.getKey();
+                Map<String, UsageCounter> counters = entry.getValue();
+                boolean flushed = flush(usageDay, counters);
+
+                if (flushed && usageDay.getUsageDate().isBefore(evictionDate)) {
+                    usages.remove(usageDay, counters);
+                }
+            }
+        }
+    }
+
+    private UsageCounter getCounter(ConsentUsageDay usageDay, String requestUri) {
+        return usages.computeIfAbsent(usageDay, day -> new ConcurrentHashMap<>())
+                   .computeIfAbsent(requestUri, UsageCounter::new);
+    }
+
+    private boolean flush(ConsentUsageDay usageDay, Map<String, UsageCounter> counters) {
+        Map<UsageCounter, Long> counted = new HashMap<>();
+        List<AisConsentUsageDelta> deltas = new ArrayList<>();
+        for (UsageCounter counter : counters.values()) {
+            long count = counter.count.sum();
+            if (count > counter.flushed) {
+                counted.put(counter, count);
+                deltas.add(new AisConsentUsageDelta(counter.requestUri, (int) (count - counter.flushed), counter.resourceId, counter.transactionId));
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            return true;
+        }
+
+        try {
+            aisConsentUsageStore.addUsage(usageDay.getConsentId(), usageDay.getUsageDate(), deltas);
+        } catch (RuntimeException e) {
+            log.warn("Usage of consent with internal ID [{}] couldn't be stored and will be retried: {}", usageDay.getConsentId(), e.getMessage());
+            return false;
+        }
+
+        counted.forEach((counter, count) -> counter.flushed = count);
+        return true;
+    }
+
+    @lombok.Value
+    private static class ConsentUsageDay {
+        private Long consentId;
+        private LocalDate usageDate;
+    }
+
+    @RequiredArgsConstructor
+    private static class UsageCounter {
+        private final String requestUri;
+        private final LongAdder count = new LongAdder();
+        // Changed only while holding the flush lock
+        private volatile long flushed;
+        private volatile String resourceId;
+        private volatile String transactionId;
+
+        private void increment(String resourceId, String transactionId) {
+            this.resourceId = resourceId;
+            this.transactionId = transactionId;
+            count.increment();
+        }
+
+        private long getUnflushed() {
+            // Number of stored usages is read first, as the usages may be stored in the meantime
+            long alreadyFlushed = flushed;
+            return count.sum() - alreadyFlushed;
+        }
+    }
+}
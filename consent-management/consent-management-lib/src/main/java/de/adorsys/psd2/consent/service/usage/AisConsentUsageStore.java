@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.usage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Persistent storage of AIS consent usages, shared by all CMS instances.
+ * Implementations must add the deltas atomically to the stored values, as several instances may store the usages
+ * of the same consent simultaneously. The default implementation stores usages in CMS database, ASPSP may provide
+ * its own implementation (e.g. based on distributed cache) as a primary bean.
+ */
+public interface AisConsentUsageStore {
+    /**
+     * Adds usages of the consent on given date to the stored ones
+     *
+     * @param consentId   internal ID of the consent
+     * @param usageDate   date of the usages
+     * @param usageDeltas usages to be added, one per request URI
+     */
+    void addUsage(@NotNull Long consentId, @NotNull LocalDate usageDate, @NotNull List<AisConsentUsageDelta> usageDeltas);
+}
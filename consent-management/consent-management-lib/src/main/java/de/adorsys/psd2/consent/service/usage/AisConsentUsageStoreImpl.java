@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.usage;
+
+import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AisConsentUsageStoreImpl implements AisConsentUsageStore {
+    private final AisConsentUsageRepository aisConsentUsageRepository;
+    private final ConsentJpaRepository consentJpaRepository;
+
+    @Override
+    @Transactional
+    public void addUsage(@NotNull Long consentId, @NotNull LocalDate usageDate, @NotNull List<AisConsentUsageDelta> usageDeltas) {
+        for (AisConsentUsageDelta delta : usageDeltas) {
+            int updatedUsages = aisConsentUsageRepository.addUsage(consentId, delta.getRequestUri(), usageDate,
+                                                                   delta.getAmount(), delta.getResourceId(), delta.getTransactionId());
+            if (updatedUsages == 0) {
+                createUsage(consentId, usageDate, delta);
+            }
+        }
+    }
+
+    private void createUsage(Long consentId, LocalDate usageDate, AisConsentUsageDelta delta) {
+        Optional<ConsentEntity> consent = consentJpaRepository.findById(consentId);
+        if (consent.isEmpty()) {
+            log.info("Consent with internal ID [{}] was not found, its usage is not stored", consentId);
+            return;
+        }
+
+        AisConsentUsage usage = new AisConsentUsage(consent.get(), delta.getRequestUri());
+        usage.setUsageDate(usageDate);
+        usage.setUsage(delta.getAmount());
+        usage.setResourceId(delta.getResourceId());
+        usage.setTransactionId(delta.getTransactionId());
+        aisConsentUsageRepository.save(usage);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.codec;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.rowset.serial.SerialBlob;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompactLobTypeTest {
+    private static final String COLUMN = "data";
+    private static final int INDEX = 1;
+    private static final byte[] JSON = "{\"combinedServiceIndicator\":false}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CHANGED_JSON = "{\"combinedServiceIndicator\":true }".getBytes(StandardCharsets.UTF_8);
+
+    private final CompactLobType compactLobType = new CompactLobType();
+
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private SharedSessionContractImplementor session;
+
+    @BeforeEach
+    void setUp() {
+        when(session.remapSqlTypeDescriptor(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void nullSafeSet_unchangedData_storedDataReused() throws SQLException {
+        // Given
+        byte[] data = read(LobCodec.encode(JSON));
+        compactLobType.nullSafeSet(preparedStatement, data, INDEX, session);
+
+        // When
+        compactLobType.nullSafeSet(preparedStatement, data, INDEX, session);
+
+        // Then
+        ArgumentCaptor<byte[]> storedCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(preparedStatement, times(2)).setBytes(eq(INDEX), storedCaptor.capture());
+        assertSame(storedCaptor.getAllValues().get(0), storedCaptor.getAllValues().get(1));
+        assertArrayEquals(LobCodec.encode(JSON), storedCaptor.getValue());
+    }
+
+    @Test
+    void nullSafeSet_dataChangedInPlace_encodedAgain() throws SQLException {
+        // Given
+        byte[] data = read(LobCodec.encode(JSON));
+        System.arraycopy(CHANGED_JSON, 0, data, 0, data.length);
+
+        // When
+        compactLobType.nullSafeSet(preparedStatement, data, INDEX, session);
+
+        // Then
+        ArgumentCaptor<byte[]> storedCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(preparedStatement).setBytes(eq(INDEX), storedCaptor.capture());
+        assertArrayEquals(CHANGED_JSON, LobCodec.decode(storedCaptor.getValue()));
+    }
+
+    @Test
+    void nullSafeSet_plainJson_encoded() throws SQLException {
+        // Given
+        byte[] data = read(JSON.clone());
+
+        // When
+        compactLobType.nullSafeSet(preparedStatement, data, INDEX, session);
+
+        // Then
+        ArgumentCaptor<byte[]> storedCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(preparedStatement).setBytes(eq(INDEX), storedCaptor.capture());
+        assertArrayEquals(LobCodec.encode(JSON), storedCaptor.getValue());
+    }
+
+    private byte[] read(byte[] stored) throws SQLException {
+        when(resultSet.getBlob(COLUMN)).thenReturn(new SerialBlob(stored));
+        byte[] data = (byte[]) compactLobType.nullSafeGet(resultSet, new String[]{COLUMN}, session, null);
+        assertArrayEquals(LobCodec.decode(stored), data);
+        return data;
+    }
+}
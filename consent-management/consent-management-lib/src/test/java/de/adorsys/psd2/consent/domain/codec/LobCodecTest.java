@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobCodecTest {
+    private static final byte[] JSON = "{\"combinedServiceIndicator\":false}".getBytes(StandardCharsets.UTF_8);
+    private static final int HEADER_LENGTH = 9;
+    private static final int COMPRESSION_POSITION = 4;
+    private static final int LENGTH_POSITION = 5;
+
+    @Test
+    void encode_smallData_notCompressed() {
+        // When
+        byte[] encoded = LobCodec.encode(JSON);
+
+        // Then
+        assertTrue(LobCodec.isEncoded(encoded));
+        assertEquals(HEADER_LENGTH + JSON.length, encoded.length);
+        assertEquals(0, encoded[COMPRESSION_POSITION]);
+        assertArrayEquals(JSON, LobCodec.decode(encoded));
+    }
+
+    @Test
+    void encode_largeData_compressed() {
+        // Given
+        byte[] json = buildLargeJson();
+
+        // When
+        byte[] encoded = LobCodec.encode(json);
+
+        // Then
+        assertTrue(LobCodec.isEncoded(encoded));
+        assertEquals(1, encoded[COMPRESSION_POSITION]);
+        assertTrue(encoded.length < json.length / 2);
+        assertArrayEquals(json, LobCodec.decode(encoded));
+    }
+
+    @Test
+    void encode_largeIncompressibleData_notCompressed() {
+        // Given
+        byte[] data = new byte[LobCodec.COMPRESSION_THRESHOLD * 2];
+        new Random(42).nextBytes(data);
+
+        // When
+        byte[] encoded = LobCodec.encode(data);
+
+        // Then
+        assertEquals(HEADER_LENGTH + data.length, encoded.length);
+        assertEquals(0, encoded[COMPRESSION_POSITION]);
+        assertArrayEquals(data, LobCodec.decode(encoded));
+    }
+
+    @Test
+    void encode_null() {
+        // When
+        byte[] encoded = LobCodec.encode(null);
+
+        // Then
+        assertNull(encoded);
+        assertNull(LobCodec.decode(null));
+    }
+
+    @Test
+    void decode_plainJson() {
+        // When
+        byte[] decoded = LobCodec.decode(JSON);
+
+        // Then
+        assertFalse(LobCodec.isEncoded(JSON));
+        assertSame(JSON, decoded);
+    }
+
+    @Test
+    void decode_unsupportedVersion() {
+        // Given
+        byte[] encoded = LobCodec.encode(JSON);
+        encoded[2] = 99;
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_corruptedData() {
+        // Given
+        byte[] encoded = LobCodec.encode(buildLargeJson());
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.decode(truncated));
+    }
+
+    @Test
+    void decode_truncatedUncompressedData() {
+        // Given
+        byte[] encoded = LobCodec.encode(JSON);
+        byte[] truncated = new byte[encoded.length - 1];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.decode(truncated));
+    }
+
+    @Test
+    void decode_negativeLength() {
+        // Given
+        byte[] encoded = LobCodec.encode(buildLargeJson());
+        encoded[LENGTH_POSITION] = (byte) 0x80;
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_lengthAboveLimit() {
+        // Given
+        byte[] encoded = LobCodec.encode(buildLargeJson());
+        encoded[LENGTH_POSITION] = 0x01;
+        encoded[LENGTH_POSITION + 1] = 0x00;
+        encoded[LENGTH_POSITION + 2] = 0x00;
+        encoded[LENGTH_POSITION + 3] = 0x00;
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.decode(encoded));
+    }
+
+    @Test
+    void encode_dataAboveLimit() {
+        // Given
+        byte[] data = new byte[LobCodec.MAX_LENGTH + 1];
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LobCodec.encode(data));
+    }
+
+    private byte[] buildLargeJson() {
+        StringBuilder sb = new StringBuilder("{\"payments\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"endToEndIdentification\":\"WBG-123456789-").append(i)
+                .append("\",\"instructedAmount\":{\"currency\":\"EUR\",\"amount\":\"").append(i).append(".00\"}")
+                .append(",\"creditorAccount\":{\"iban\":\"DE15500105172295759744\",\"currency\":\"EUR\"}}");
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -179,6 +179,9 @@ class AisConsentRepositoryImplTest {
         // Then
         assertEquals(consentEntity, actualResult);
         verify(aisConsentRepository, times(1)).save(consentEntity);
+        verify(checksumCalculatingService).calculateChecksumForConsent(aisConsent);
+        verify(aisConsentMapper, times(1)).mapToAisConsent(eq(consentEntity), any());
+        verify(aisConsentRepository, times(1)).findByExternalId(consentEntity.getExternalId());
     }
 
     @Test
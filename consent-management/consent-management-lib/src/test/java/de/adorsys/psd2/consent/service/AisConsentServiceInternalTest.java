@@ -25,9 +25,11 @@ import de.adorsys.psd2.consent.api.ais.AdditionalAccountInformationType;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
 import de.adorsys.psd2.consent.api.ais.CmsConsent;
 import de.adorsys.psd2.consent.domain.account.AisConsentAction;
+import de.adorsys.psd2.consent.domain.account.AisConsentTransaction;
 import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AisConsentActionRepository;
+import de.adorsys.psd2.consent.repository.AisConsentTransactionRepository;
 import de.adorsys.psd2.consent.repository.AisConsentVerifyingRepository;
 import de.adorsys.psd2.consent.repository.AuthorisationRepository;
 import de.adorsys.psd2.consent.service.account.AccountAccessUpdater;
@@ -39,6 +41,7 @@ import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -55,6 +58,7 @@ class AisConsentServiceInternalTest {
     private static final String CONSENT_ID = "4b112130-6a96-4941-a220-2da8a4af2c65";
     private static final String TPP_ID = "TPP ID";
     private static final String REQUEST_URI = "/v1/accounts";
+    private static final String RESOURCE_ID = "resource ID";
 
     private JsonReader jsonReader = new JsonReader();
 
@@ -63,6 +67,8 @@ class AisConsentServiceInternalTest {
     @Mock
     private AisConsentActionRepository aisConsentActionRepository;
     @Mock
+    private AisConsentTransactionRepository aisConsentTransactionRepository;
+    @Mock
     private AuthorisationRepository authorisationRepository;
     @Mock
     private AisConsentConfirmationExpirationService aisConsentConfirmationExpirationService;
@@ -97,6 +103,37 @@ class AisConsentServiceInternalTest {
         assertEquals(ActionStatus.SUCCESS, capturedAction.getActionStatus());
     }
 
+    @Test
+    void checkConsentAndSaveActionLog_withNumberOfTransactions_shouldSaveNumberOfTransactions() throws WrongChecksumException {
+        AisConsentActionRequest aisConsentActionRequest = new AisConsentActionRequest(TPP_ID, CONSENT_ID, ActionStatus.SUCCESS, REQUEST_URI, true, RESOURCE_ID, null, 5);
+        ConsentEntity consentEntity = jsonReader.getObjectFromFile("json/service/ais-consent-service/consent-entity.json", ConsentEntity.class);
+        when(aisConsentRepository.getActualAisConsent(CONSENT_ID)).thenReturn(Optional.of(consentEntity));
+        ArgumentCaptor<AisConsentTransaction> aisConsentTransactionCaptor = ArgumentCaptor.forClass(AisConsentTransaction.class);
+
+        CmsResponse<CmsResponse.VoidResponse> response = aisConsentServiceInternal.checkConsentAndSaveActionLog(aisConsentActionRequest);
+
+        assertTrue(response.isSuccessful());
+        InOrder inOrder = inOrder(aisConsentTransactionRepository, aisConsentUsageService);
+        inOrder.verify(aisConsentTransactionRepository).save(aisConsentTransactionCaptor.capture());
+        inOrder.verify(aisConsentUsageService).incrementUsage(consentEntity, aisConsentActionRequest);
+        AisConsentTransaction capturedTransaction = aisConsentTransactionCaptor.getValue();
+        assertEquals(consentEntity, capturedTransaction.getConsentId());
+        assertEquals(RESOURCE_ID, capturedTransaction.getResourceId());
+        assertEquals(5, capturedTransaction.getNumberOfTransactions());
+        verify(aisConsentActionRepository).save(any(AisConsentAction.class));
+    }
+
+    @Test
+    void checkConsentAndSaveActionLog_withoutNumberOfTransactions_shouldNotSaveNumberOfTransactions() throws WrongChecksumException {
+        AisConsentActionRequest aisConsentActionRequest = new AisConsentActionRequest(TPP_ID, CONSENT_ID, ActionStatus.SUCCESS, REQUEST_URI, true, RESOURCE_ID, null);
+        ConsentEntity consentEntity = jsonReader.getObjectFromFile("json/service/ais-consent-service/consent-entity.json", ConsentEntity.class);
+        when(aisConsentRepository.getActualAisConsent(CONSENT_ID)).thenReturn(Optional.of(consentEntity));
+
+        aisConsentServiceInternal.checkConsentAndSaveActionLog(aisConsentActionRequest);
+
+        verify(aisConsentTransactionRepository, never()).save(any());
+    }
+
     @Test
     void checkConsentAndSaveActionLog_noConsent() throws WrongChecksumException {
         AisConsentActionRequest aisConsentActionRequest = new AisConsentActionRequest(TPP_ID, CONSENT_ID, ActionStatus.SUCCESS, REQUEST_URI, true, null, null);
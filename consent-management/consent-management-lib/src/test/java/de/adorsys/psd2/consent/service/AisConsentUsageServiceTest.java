@@ -21,6 +21,7 @@ import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
 import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import de.adorsys.psd2.consent.service.usage.AisConsentUsageCounter;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -30,6 +31,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,8 +39,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AisConsentUsageServiceTest {
@@ -46,6 +47,8 @@ class AisConsentUsageServiceTest {
     private AisConsentUsageService aisConsentUsageService;
     @Mock
     private AisConsentUsageRepository aisConsentUsageRepository;
+    @Mock
+    private AisConsentUsageCounter aisConsentUsageCounter;
 
     @Test
     void incrementUsage_getUsageFromRepository() {
@@ -115,6 +118,71 @@ class AisConsentUsageServiceTest {
         aisConsentUsageList.forEach(aisConsentUsage -> assertEquals(frequencyPerDay - aisConsentUsage.getUsage(), usageCounterMap.get(aisConsentUsage.getRequestUri())));
     }
 
+    @Test
+    void incrementUsage_recurringConsent_shouldCountInMemory() {
+        //Given
+        ConsentEntity consentEntity = buildRecurringConsent();
+        AisConsentActionRequest aisConsentActionRequest = new AisConsentActionRequest("tppId", "consentId", ActionStatus.SUCCESS, "requestUri", true, "resourceId", "transactionId");
+        when(aisConsentUsageCounter.isEnabled()).thenReturn(true);
+        //When
+        aisConsentUsageService.incrementUsage(consentEntity, aisConsentActionRequest);
+        //Then
+        verify(aisConsentUsageCounter).incrementUsage(consentEntity.getId(), "requestUri", "resourceId", "transactionId");
+        verifyNoInteractions(aisConsentUsageRepository);
+    }
+
+    @Test
+    void incrementUsage_nonRecurringConsent_shouldStoreImmediately() {
+        //Given
+        ConsentEntity consentEntity = new ConsentEntity();
+        AisConsentActionRequest aisConsentActionRequest = new AisConsentActionRequest("tppId", "consentId", ActionStatus.SUCCESS, "requestUri", true, "resourceId", "transactionId");
+        when(aisConsentUsageCounter.isEnabled()).thenReturn(true);
+        when(aisConsentUsageRepository.findWriteByConsentAndUsageDateAndRequestUri(eq(consentEntity), any(LocalDate.class), eq(aisConsentActionRequest.getRequestUri()))).thenReturn(Optional.empty());
+        //When
+        aisConsentUsageService.incrementUsage(consentEntity, aisConsentActionRequest);
+        //Then
+        verify(aisConsentUsageRepository).save(any(AisConsentUsage.class));
+        verify(aisConsentUsageCounter, never()).incrementUsage(any(), any(), any(), any());
+    }
+
+    @Test
+    void resetUsage_recurringConsent() {
+        //Given
+        ConsentEntity consentEntity = buildRecurringConsent();
+        when(aisConsentUsageCounter.isEnabled()).thenReturn(true);
+        //When
+        aisConsentUsageService.resetUsage(consentEntity);
+        //Then
+        verify(aisConsentUsageCounter).discardUsage(consentEntity.getId(), LocalDate.now());
+        verify(aisConsentUsageRepository).resetUsage(consentEntity.getId(), LocalDate.now());
+        verify(aisConsentUsageRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void getUsageCounterMap_recurringConsent_shouldIncludeUnflushedUsage() {
+        //Given
+        int frequencyPerDay = 30;
+        ConsentEntity consentEntity = buildRecurringConsent();
+        consentEntity.setFrequencyPerDay(frequencyPerDay);
+        when(aisConsentUsageCounter.isEnabled()).thenReturn(true);
+        when(aisConsentUsageCounter.getUnflushedUsage(consentEntity.getId(), LocalDate.now())).thenReturn(Collections.singletonMap("uri_1", 3));
+        when(aisConsentUsageRepository.findAllByConsentAndUsageDate(consentEntity, LocalDate.now()))
+            .thenReturn(Arrays.asList(buildAisConsentUsage(5, "uri_1"), buildAisConsentUsage(40, "uri_2")));
+        //When
+        Map<String, Integer> usageCounterMap = aisConsentUsageService.getUsageCounterMap(consentEntity);
+        //Then
+        assertEquals(2, usageCounterMap.size());
+        assertEquals(frequencyPerDay - 8, usageCounterMap.get("uri_1"));
+        assertEquals(0, usageCounterMap.get("uri_2"));
+    }
+
+    private ConsentEntity buildRecurringConsent() {
+        ConsentEntity consentEntity = new ConsentEntity();
+        consentEntity.setId(1L);
+        consentEntity.setRecurringIndicator(true);
+        return consentEntity;
+    }
+
     private AisConsentUsage buildAisConsentUsage(int usage) {
         AisConsentUsage aisConsentUsage = new AisConsentUsage();
         aisConsentUsage.setUsage(usage);
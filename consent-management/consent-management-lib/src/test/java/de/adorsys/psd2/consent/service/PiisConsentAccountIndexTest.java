@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.api.TypeAccess;
+import de.adorsys.psd2.consent.api.piis.PiisConsentChangedEvent;
+import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.piis.PiisConsentAccountEntity;
+import de.adorsys.psd2.consent.repository.PiisConsentAccountRepository;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PiisConsentAccountIndexTest {
+    private static final Long CONSENT_ID = 1L;
+    private static final String IBAN = "DE62500105179972514662";
+    private static final String PAN = "1111222233334444";
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @InjectMocks
+    private PiisConsentAccountIndex piisConsentAccountIndex;
+
+    @Mock
+    private PiisConsentAccountRepository piisConsentAccountRepository;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Test
+    void addConsent_savesAccountIdentifiersAndPublishesEvent() {
+        // Given
+        ConsentEntity consent = buildConsent(IBAN, PAN);
+
+        // When
+        piisConsentAccountIndex.addConsent(consent);
+
+        // Then
+        List<PiisConsentAccountEntity> expectedAccounts = Arrays.asList(new PiisConsentAccountEntity(CONSENT_ID, IBAN, EUR),
+                                                                        new PiisConsentAccountEntity(CONSENT_ID, PAN, EUR));
+        verify(piisConsentAccountRepository).saveAll(expectedAccounts);
+        verify(applicationEventPublisher).publishEvent(new PiisConsentChangedEvent(new HashSet<>(Arrays.asList(IBAN, PAN))));
+    }
+
+    @Test
+    void consentsChanged_withinTransaction_publishesEventAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            piisConsentAccountIndex.consentsChanged(Collections.singletonList(buildConsent(IBAN)));
+
+            // Then
+            verify(applicationEventPublisher, never()).publishEvent(any());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.get(0).afterCommit();
+            verify(applicationEventPublisher).publishEvent(new PiisConsentChangedEvent(Collections.singleton(IBAN)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void consentsChanged_noAccountIdentifiers_noEvent() {
+        // When
+        piisConsentAccountIndex.consentsChanged(Collections.singletonList(buildConsent()));
+
+        // Then
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void findConsentIds_withCurrency() {
+        // Given
+        when(piisConsentAccountRepository.findConsentIdsByAccountIdentifierAndCurrency(IBAN, EUR))
+            .thenReturn(Collections.singletonList(CONSENT_ID));
+
+        // When
+        List<Long> actual = piisConsentAccountIndex.findConsentIds(EUR, IBAN);
+
+        // Then
+        assertEquals(Collections.singletonList(CONSENT_ID), actual);
+        verify(piisConsentAccountRepository, never()).findConsentIdsByAccountIdentifier(any());
+    }
+
+    @Test
+    void findConsentIds_withoutCurrency() {
+        // Given
+        when(piisConsentAccountRepository.findConsentIdsByAccountIdentifier(IBAN))
+            .thenReturn(Collections.singletonList(CONSENT_ID));
+
+        // When
+        List<Long> actual = piisConsentAccountIndex.findConsentIds(null, IBAN);
+
+        // Then
+        assertEquals(Collections.singletonList(CONSENT_ID), actual);
+        verify(piisConsentAccountRepository, never()).findConsentIdsByAccountIdentifierAndCurrency(any(), any());
+    }
+
+    private ConsentEntity buildConsent(String... accountIdentifiers) {
+        ConsentEntity consent = new ConsentEntity();
+        consent.setId(CONSENT_ID);
+        List<AspspAccountAccess> accesses = new ArrayList<>();
+        for (String accountIdentifier : accountIdentifiers) {
+            accesses.add(new AspspAccountAccess(accountIdentifier, TypeAccess.ACCOUNT, AccountReferenceType.IBAN, EUR, null, null));
+        }
+        consent.setAspspAccountAccesses(accesses);
+        return consent;
+    }
+}
@@ -21,7 +21,6 @@ import de.adorsys.psd2.consent.api.ais.CmsConsent;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
-import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
 import de.adorsys.psd2.consent.service.mapper.CmsConsentMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
@@ -33,7 +32,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -42,7 +40,7 @@ import java.util.Currency;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PiisConsentServiceInternalTest {
@@ -55,8 +53,7 @@ class PiisConsentServiceInternalTest {
     private static final String PSU_CORPORATE_ID_TYPE = "Some corporate id type";
     private static final String PSU_IP_ADDRESS = "Some ip address";
     private static final OffsetDateTime CREATION_TIMESTAMP = OffsetDateTime.of(2019, 2, 4, 12, 0, 0, 0, ZoneOffset.UTC);
-    private static final AccountReferenceSelector SELECTOR_IBAN = new AccountReferenceSelector(AccountReferenceType.IBAN, IBAN);
-    private static final Specification<ConsentEntity> SPECIFICATION_IBAN = (root, cq, cb) -> null;
+    private static final Long CONSENT_ID = 1L;
 
     @InjectMocks
     private PiisConsentServiceInternal piisConsentServiceInternal;
@@ -66,17 +63,17 @@ class PiisConsentServiceInternalTest {
     @Mock
     private CmsConsentMapper cmsConsentMapper;
     @Mock
-    private PiisConsentEntitySpecification piisConsentEntitySpecification;
+    private PiisConsentAccountIndex piisConsentAccountIndex;
     @Mock
     private PiisConsentLazyMigrationService piisConsentLazyMigrationService;
 
     @Test
     void getPiisConsentListByAccountIdentifier() {
         // Given
-        when(piisConsentEntitySpecification.byCurrencyAndAccountReferenceSelector(CURRENCY, SELECTOR_IBAN))
-            .thenReturn(SPECIFICATION_IBAN);
+        when(piisConsentAccountIndex.findConsentIds(CURRENCY, IBAN))
+            .thenReturn(Collections.singletonList(CONSENT_ID));
         ConsentEntity validConsentEntity = buildConsentEntity();
-        when(consentJpaRepository.findAll(SPECIFICATION_IBAN))
+        when(consentJpaRepository.findAllById(Collections.singletonList(CONSENT_ID)))
             .thenReturn(Collections.singletonList(validConsentEntity));
         CmsConsent validConsent = buildCmsConsent();
         when(cmsConsentMapper.mapToCmsConsent(validConsentEntity, Collections.emptyList(), Collections.emptyMap()))
@@ -99,10 +96,10 @@ class PiisConsentServiceInternalTest {
     @Test
     void getPiisConsentListByAccountIdentifier_noCurrency() {
         // Given
-        when(piisConsentEntitySpecification.byAccountReferenceSelector(SELECTOR_IBAN))
-            .thenReturn(SPECIFICATION_IBAN);
+        when(piisConsentAccountIndex.findConsentIds(null, IBAN))
+            .thenReturn(Collections.singletonList(CONSENT_ID));
         ConsentEntity validConsentEntity = buildConsentEntity();
-        when(consentJpaRepository.findAll(SPECIFICATION_IBAN))
+        when(consentJpaRepository.findAllById(Collections.singletonList(CONSENT_ID)))
             .thenReturn(Collections.singletonList(validConsentEntity));
         CmsConsent validConsent = buildCmsConsent();
         when(cmsConsentMapper.mapToCmsConsent(validConsentEntity, Collections.emptyList(), Collections.emptyMap()))
@@ -124,11 +121,16 @@ class PiisConsentServiceInternalTest {
 
     @Test
     void getPiisConsentListByAccountIdentifier_wrongIban() {
+        // Given
+        when(piisConsentAccountIndex.findConsentIds(CURRENCY, WRONG_IBAN))
+            .thenReturn(Collections.emptyList());
+
         // When
         CmsResponse<List<CmsConsent>> piisConsentsResponse = piisConsentServiceInternal.getPiisConsentListByAccountIdentifier(CURRENCY,
                                                                                                                               new AccountReferenceSelector(AccountReferenceType.IBAN, WRONG_IBAN));
         // Then
         assertTrue(piisConsentsResponse.getPayload().isEmpty());
+        verify(consentJpaRepository, never()).findAllById(any());
     }
 
     private ConsentEntity buildConsentEntity() {
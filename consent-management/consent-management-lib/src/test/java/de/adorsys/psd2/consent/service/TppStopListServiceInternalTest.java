@@ -17,18 +17,25 @@
 package de.adorsys.psd2.consent.service;
 
 import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
 import de.adorsys.psd2.consent.domain.TppStopListEntity;
 import de.adorsys.psd2.consent.repository.TppStopListRepository;
+import de.adorsys.psd2.consent.service.mapper.TppStopListMapper;
+import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppStopListRecord;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.OffsetDateTime;
+import java.util.Collections;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +52,8 @@ class TppStopListServiceInternalTest {
 
     @Mock
     private TppStopListEntity tppStopListEntity;
+    @Mock
+    private TppStopListMapper tppStopListMapper;
 
     @Test
     void checkIfTppBlocked_Fail_EmptyStopList() {
@@ -87,5 +96,45 @@ class TppStopListServiceInternalTest {
 
         assertTrue(isTppBlocked.getPayload());
     }
-}
 
+    @Test
+    void getTppStopListChanges_withoutChangedSince_shouldReturnBlockedTpps() {
+        // Given
+        TppStopListRecord record = new TppStopListRecord();
+        when(tppStopListRepository.findAllByInstanceIdAndStatus(INSTANCE_ID, TppStatus.BLOCKED))
+            .thenReturn(Collections.singletonList(tppStopListEntity));
+        when(tppStopListMapper.mapToTppStopListRecord(tppStopListEntity))
+            .thenReturn(record);
+        OffsetDateTime requestTime = OffsetDateTime.now();
+
+        // When
+        CmsResponse<TppStopListChanges> response = tppStopListService.getTppStopListChanges(null);
+
+        // Then
+        assertTrue(response.isSuccessful());
+        assertEquals(Collections.singletonList(record), response.getPayload().getRecords());
+        assertFalse(response.getPayload().getSyncTimestamp().isBefore(requestTime));
+        verify(tppStopListRepository).findAllByInstanceIdAndStatus(INSTANCE_ID, TppStatus.BLOCKED);
+        verifyNoMoreInteractions(tppStopListRepository);
+    }
+
+    @Test
+    void getTppStopListChanges_withChangedSince_shouldReturnChangedTpps() {
+        // Given
+        OffsetDateTime changedSince = OffsetDateTime.now().minusMinutes(1);
+        TppStopListRecord record = new TppStopListRecord();
+        when(tppStopListRepository.findAllByInstanceIdAndLastChangeTimestampGreaterThanEqual(INSTANCE_ID, changedSince))
+            .thenReturn(Collections.singletonList(tppStopListEntity));
+        when(tppStopListMapper.mapToTppStopListRecord(tppStopListEntity))
+            .thenReturn(record);
+
+        // When
+        CmsResponse<TppStopListChanges> response = tppStopListService.getTppStopListChanges(changedSince);
+
+        // Then
+        assertTrue(response.isSuccessful());
+        assertEquals(Collections.singletonList(record), response.getPayload().getRecords());
+        verify(tppStopListRepository).findAllByInstanceIdAndLastChangeTimestampGreaterThanEqual(INSTANCE_ID, changedSince);
+        verifyNoMoreInteractions(tppStopListRepository);
+    }
+}
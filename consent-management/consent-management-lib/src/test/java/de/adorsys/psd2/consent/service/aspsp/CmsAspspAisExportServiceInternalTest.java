@@ -20,7 +20,7 @@ import de.adorsys.psd2.consent.api.ais.CmsAisAccountConsent;
 import de.adorsys.psd2.consent.domain.AuthorisationEntity;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.AuthorisationRepository;
-import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.AisConsentLazyMigrationService;
@@ -33,13 +33,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -69,7 +69,7 @@ class CmsAspspAisExportServiceInternalTest {
     @Mock
     private AisConsentSpecification aisConsentSpecification;
     @Mock
-    private ConsentJpaRepository consentJpaRepository;
+    private ChunkedSpecificationReader chunkedSpecificationReader;
     @Mock
     private AisConsentMapper aisConsentMapper;
     @Mock
@@ -95,13 +95,11 @@ class CmsAspspAisExportServiceInternalTest {
             psuIdData,
             DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(consentEntity));
+        mockChunkedReading(consentEntity);
         CmsAisAccountConsent expectedConsent = buildAisAccountConsent();
 
-        List<AuthorisationEntity> authorisations = Collections.singletonList(new AuthorisationEntity());
-        when(authorisationRepository.findAllByParentExternalIdAndAuthorisationType(EXTERNAL_CONSENT_ID, AuthorisationType.AIS))
+        List<AuthorisationEntity> authorisations = Collections.singletonList(buildAuthorisationEntity());
+        when(authorisationRepository.findAllByParentExternalIdInAndAuthorisationType(Collections.singleton(EXTERNAL_CONSENT_ID), AuthorisationType.AIS))
             .thenReturn(authorisations);
         when(aisConsentLazyMigrationService.migrateIfNeeded(consentEntity))
             .thenReturn(consentEntity);
@@ -159,11 +157,11 @@ class CmsAspspAisExportServiceInternalTest {
                                                                                CREATION_DATE_TO,
                                                                                DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        when(consentJpaRepository.findAll(any())).thenReturn(Collections.singletonList(consentEntity));
+        mockChunkedReading(consentEntity);
         CmsAisAccountConsent expectedConsent = buildAisAccountConsent();
 
-        List<AuthorisationEntity> authorisations = Collections.singletonList(new AuthorisationEntity());
-        when(authorisationRepository.findAllByParentExternalIdAndAuthorisationType(EXTERNAL_CONSENT_ID, AuthorisationType.AIS))
+        List<AuthorisationEntity> authorisations = Collections.singletonList(buildAuthorisationEntity());
+        when(authorisationRepository.findAllByParentExternalIdInAndAuthorisationType(Collections.singleton(EXTERNAL_CONSENT_ID), AuthorisationType.AIS))
             .thenReturn(authorisations);
         when(aisConsentMapper.mapToCmsAisAccountConsent(consentEntity, authorisations))
             .thenReturn(buildAisAccountConsent());
@@ -232,10 +230,9 @@ class CmsAspspAisExportServiceInternalTest {
                                                                                     DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         ConsentEntity consentEntity = buildConsentEntity();
-        when(consentJpaRepository.findAll(any()))
-            .thenReturn(Collections.singletonList(consentEntity));
-        List<AuthorisationEntity> authorisations = Collections.singletonList(new AuthorisationEntity());
-        when(authorisationRepository.findAllByParentExternalIdAndAuthorisationType(EXTERNAL_CONSENT_ID, AuthorisationType.AIS))
+        mockChunkedReading(consentEntity);
+        List<AuthorisationEntity> authorisations = Collections.singletonList(buildAuthorisationEntity());
+        when(authorisationRepository.findAllByParentExternalIdInAndAuthorisationType(Collections.singleton(EXTERNAL_CONSENT_ID), AuthorisationType.AIS))
             .thenReturn(authorisations);
         when(aisConsentLazyMigrationService.migrateIfNeeded(consentEntity))
             .thenReturn(consentEntity);
@@ -291,4 +288,18 @@ class CmsAspspAisExportServiceInternalTest {
     private ConsentEntity buildConsentEntity() {
         return jsonReader.getObjectFromFile("json/consent-entity.json", ConsentEntity.class);
     }
+
+    private void mockChunkedReading(ConsentEntity consentEntity) {
+        doAnswer(invocation -> {
+            Consumer<List<ConsentEntity>> chunkProcessor = invocation.getArgument(3);
+            chunkProcessor.accept(Collections.singletonList(consentEntity));
+            return null;
+        }).when(chunkedSpecificationReader).read(eq(ConsentEntity.class), any(), any(), any());
+    }
+
+    private AuthorisationEntity buildAuthorisationEntity() {
+        AuthorisationEntity authorisationEntity = new AuthorisationEntity();
+        authorisationEntity.setParentExternalId(EXTERNAL_CONSENT_ID);
+        return authorisationEntity;
+    }
 }
@@ -18,7 +18,7 @@ package de.adorsys.psd2.consent.service.aspsp;
 
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
-import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
@@ -30,13 +30,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -62,7 +63,7 @@ class CmsAspspPiisFundsExportServiceInternalTest {
     @InjectMocks
     private CmsAspspPiisFundsExportServiceInternal cmsAspspPiisFundsExportServiceInternal;
     @Mock
-    private ConsentJpaRepository consentJpaRepository;
+    private ChunkedSpecificationReader chunkedSpecificationReader;
     @Mock
     private PiisConsentEntitySpecification piisConsentEntitySpecification;
     @Mock
@@ -87,12 +88,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                               CREATION_DATE_TO,
                                                                                               psuIdData,
                                                                                               SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -115,12 +114,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                               CREATION_DATE_TO,
                                                                                               psuIdData,
                                                                                               DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -184,12 +181,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                       CREATION_DATE_FROM,
                                                                                       CREATION_DATE_TO,
                                                                                       SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -211,12 +206,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                       CREATION_DATE_FROM,
                                                                                       CREATION_DATE_TO,
                                                                                       DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -280,12 +273,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                            CREATION_DATE_FROM,
                                                                                            CREATION_DATE_TO,
                                                                                            SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -307,12 +298,10 @@ class CmsAspspPiisFundsExportServiceInternalTest {
                                                                                            CREATION_DATE_FROM,
                                                                                            CREATION_DATE_TO,
                                                                                            DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(consentJpaRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        mockChunkedReading(buildPiisConsentEntity());
         CmsPiisConsent expectedConsent = buildCmsPiisConsent();
-        when(piisConsentMapper.mapToCmsPiisConsentList(Collections.singletonList(buildPiisConsentEntity())))
-            .thenReturn(Collections.singletonList(buildCmsPiisConsent()));
+        when(piisConsentMapper.mapToCmsPiisConsent(buildPiisConsentEntity()))
+            .thenReturn(buildCmsPiisConsent());
 
         // When
         Collection<CmsPiisConsent> piisConsents =
@@ -383,4 +372,12 @@ class CmsAspspPiisFundsExportServiceInternalTest {
     }
 
 
+
+    private void mockChunkedReading(ConsentEntity entity) {
+        doAnswer(invocation -> {
+            Consumer<List<ConsentEntity>> chunkProcessor = invocation.getArgument(3);
+            chunkProcessor.accept(Collections.singletonList(entity));
+            return null;
+        }).when(chunkedSpecificationReader).read(eq(ConsentEntity.class), any(), any(), any());
+    }
 }
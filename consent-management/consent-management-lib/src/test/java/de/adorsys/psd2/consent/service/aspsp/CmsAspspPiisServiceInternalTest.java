@@ -26,6 +26,7 @@ import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
 import de.adorsys.psd2.consent.repository.TppInfoRepository;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
+import de.adorsys.psd2.consent.service.PiisConsentAccountIndex;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
 import de.adorsys.psd2.core.data.piis.v1.PiisConsentData;
@@ -87,6 +88,8 @@ class CmsAspspPiisServiceInternalTest {
     private PiisConsentMapper piisConsentMapper;
     @Mock
     private PiisConsentEntitySpecification piisConsentEntitySpecification;
+    @Mock
+    private PiisConsentAccountIndex piisConsentAccountIndex;
     @InjectMocks
     private CmsAspspPiisServiceInternal cmsAspspPiisServiceInternal;
     private PsuIdData psuIdData;
@@ -121,6 +124,7 @@ class CmsAspspPiisServiceInternalTest {
         assertEquals(Collections.singletonList(buildAspspAccountAccess(buildAccountReference())), piisConsent.getAspspAccountAccesses());
         assertEquals(VALID_UNTIL_DATE, piisConsent.getValidUntil());
         assertEquals(DATA, piisConsent.getData());
+        verify(piisConsentAccountIndex).addConsent(piisConsentEntity);
     }
 
     @Test
@@ -380,6 +384,7 @@ class CmsAspspPiisServiceInternalTest {
         assertEquals(ConsentStatus.TERMINATED_BY_ASPSP, argumentCaptor.getValue().getConsentStatus());
         verify(piisConsentEntitySpecification, times(1))
             .byConsentIdAndInstanceId(CONSENT_EXTERNAL_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(piisConsentAccountIndex).consentsChanged(Collections.singletonList(modified));
     }
 
     @Test
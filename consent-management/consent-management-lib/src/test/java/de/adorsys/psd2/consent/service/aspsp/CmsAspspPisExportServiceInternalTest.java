@@ -21,7 +21,7 @@ import de.adorsys.psd2.consent.api.pis.CmsSinglePayment;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.consent.domain.payment.PisPaymentData;
-import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.repository.impl.ChunkedSpecificationReader;
 import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentDataSpecification;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
@@ -33,7 +33,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -43,6 +42,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -72,7 +72,7 @@ class CmsAspspPisExportServiceInternalTest {
     @Mock
     private PisCommonPaymentDataSpecification pisCommonPaymentDataSpecification;
     @Mock
-    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private ChunkedSpecificationReader chunkedSpecificationReader;
     @Mock
     private CmsPsuPisMapper cmsPsuPisMapper;
 
@@ -90,12 +90,10 @@ class CmsAspspPisExportServiceInternalTest {
                                                                                                  CREATION_DATE_TO,
                                                                                                  psuIdData,
                                                                                                  DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        mockChunkedReading(buildPisCommonPaymentData());
         CmsPayment expectedPayment = buildCmsPayment();
-        when(cmsPsuPisMapper.mapPaymentDataToCmsPayments(Collections.singletonList(buildPisCommonPaymentData())))
-            .thenReturn(Collections.singletonList(buildCmsPayment()));
+        when(cmsPsuPisMapper.mapPaymentDataToCmsPayment(buildPisCommonPaymentData()))
+            .thenReturn(buildCmsPayment());
 
         // When
         Collection<CmsPayment> payments =
@@ -149,12 +147,10 @@ class CmsAspspPisExportServiceInternalTest {
                                                                                          CREATION_DATE_FROM,
                                                                                          CREATION_DATE_TO,
                                                                                          DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        mockChunkedReading(buildPisCommonPaymentData());
         CmsPayment expectedPayment = buildCmsPayment();
-        when(cmsPsuPisMapper.mapPaymentDataToCmsPayments(Collections.singletonList(buildPisCommonPaymentData())))
-            .thenReturn(Collections.singletonList(buildCmsPayment()));
+        when(cmsPsuPisMapper.mapPaymentDataToCmsPayment(buildPisCommonPaymentData()))
+            .thenReturn(buildCmsPayment());
 
         // When
         Collection<CmsPayment> payments =
@@ -221,12 +217,10 @@ class CmsAspspPisExportServiceInternalTest {
                                                                                               CREATION_DATE_FROM,
                                                                                               CREATION_DATE_TO,
                                                                                               DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        mockChunkedReading(buildPisCommonPaymentData());
         CmsPayment expectedPayment = buildCmsPayment();
-        when(cmsPsuPisMapper.mapPaymentDataToCmsPayments(Collections.singletonList(buildPisCommonPaymentData())))
-            .thenReturn(Collections.singletonList(buildCmsPayment()));
+        when(cmsPsuPisMapper.mapPaymentDataToCmsPayment(buildPisCommonPaymentData()))
+            .thenReturn(buildCmsPayment());
 
         // When
         Collection<CmsPayment> payments =
@@ -309,4 +303,12 @@ class CmsAspspPisExportServiceInternalTest {
 
         return Collections.singletonList(pisPaymentData);
     }
+
+    private void mockChunkedReading(PisCommonPaymentData entity) {
+        doAnswer(invocation -> {
+            Consumer<List<PisCommonPaymentData>> chunkProcessor = invocation.getArgument(3);
+            chunkProcessor.accept(Collections.singletonList(entity));
+            return null;
+        }).when(chunkedSpecificationReader).read(eq(PisCommonPaymentData.class), any(), any(), any());
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.migration;
+
+import de.adorsys.psd2.consent.domain.codec.LobCodec;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LobCodecMigrationServiceTest {
+    private static final List<Long> IDS = Arrays.asList(1L, 2L);
+    private static final byte[] DATA = "{}".getBytes();
+
+    @InjectMocks
+    private LobCodecMigrationService lobCodecMigrationService;
+
+    @Mock
+    private ConsentJpaRepository consentJpaRepository;
+    @Mock
+    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+
+    @Test
+    void migrateConsents() {
+        // Given
+        when(consentJpaRepository.findAllById(IDS)).thenReturn(Arrays.asList(buildConsent(1L), buildConsent(2L)));
+        when(consentJpaRepository.updateEncodedData(1L, DATA, LobCodec.VERSION)).thenReturn(1);
+        // consent, updated meanwhile by another request
+        when(consentJpaRepository.updateEncodedData(2L, DATA, LobCodec.VERSION)).thenReturn(0);
+
+        // When
+        int actual = lobCodecMigrationService.migrateConsents(IDS);
+
+        // Then
+        assertEquals(1, actual);
+    }
+
+    @Test
+    void migratePayments() {
+        // Given
+        when(pisCommonPaymentDataRepository.findAllById(IDS)).thenReturn(Collections.singletonList(buildPayment(1L)));
+        when(pisCommonPaymentDataRepository.updateEncodedData(1L, DATA, LobCodec.VERSION)).thenReturn(1);
+
+        // When
+        int actual = lobCodecMigrationService.migratePayments(IDS);
+
+        // Then
+        assertEquals(1, actual);
+    }
+
+    private ConsentEntity buildConsent(Long id) {
+        ConsentEntity consent = new ConsentEntity();
+        consent.setId(id);
+        consent.setData(DATA);
+        return consent;
+    }
+
+    private PisCommonPaymentData buildPayment(Long id) {
+        PisCommonPaymentData payment = new PisCommonPaymentData();
+        payment.setId(id);
+        payment.setPayment(DATA);
+        return payment;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.notification;
+
+import de.adorsys.psd2.consent.domain.AuthorisationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TppNotificationEntityListenerTest {
+    private static final String PAYMENT_ID = "payment id";
+    private static final String AUTHORISATION_ID = "authorisation id";
+
+    @InjectMocks
+    private TppNotificationEntityListener tppNotificationEntityListener;
+
+    @Mock
+    private ObjectProvider<TppNotificationOutbox> tppNotificationOutboxProvider;
+    @Mock
+    private TppNotificationOutbox tppNotificationOutbox;
+
+    @BeforeEach
+    void setUp() {
+        when(tppNotificationOutboxProvider.getObject()).thenReturn(tppNotificationOutbox);
+    }
+
+    @Test
+    void registerStatusChange_paymentStatusChanged() {
+        // Given
+        when(tppNotificationOutbox.isEnabled()).thenReturn(true);
+        PisCommonPaymentData payment = new PisCommonPaymentData();
+        payment.setPaymentId(PAYMENT_ID);
+        payment.setPreviousTransactionStatus(TransactionStatus.RCVD);
+        payment.setTransactionStatus(TransactionStatus.ACSC);
+
+        // When
+        tppNotificationEntityListener.registerStatusChange(payment);
+        tppNotificationEntityListener.registerStatusChange(payment);
+
+        // Then
+        ArgumentCaptor<TppStatusChange> captor = ArgumentCaptor.forClass(TppStatusChange.class);
+        verify(tppNotificationOutbox).registerStatusChange(captor.capture());
+        TppStatusChange statusChange = captor.getValue();
+        assertEquals(TppNotificationResourceType.PAYMENT, statusChange.getResourceType());
+        assertEquals(PAYMENT_ID, statusChange.getResourceId());
+        assertEquals("ACSC", statusChange.getStatus());
+        assertEquals(true, statusChange.isFinalised());
+    }
+
+    @Test
+    void registerStatusChange_scaStatusChanged() {
+        // Given
+        when(tppNotificationOutbox.isEnabled()).thenReturn(true);
+        AuthorisationEntity authorisation = new AuthorisationEntity();
+        authorisation.setExternalId(AUTHORISATION_ID);
+        authorisation.setParentExternalId(PAYMENT_ID);
+        authorisation.setAuthorisationType(AuthorisationType.PIS_CREATION);
+        authorisation.setPreviousScaStatus(ScaStatus.RECEIVED);
+        authorisation.setScaStatus(ScaStatus.PSUIDENTIFIED);
+
+        // When
+        tppNotificationEntityListener.registerStatusChange(authorisation);
+
+        // Then
+        ArgumentCaptor<TppStatusChange> captor = ArgumentCaptor.forClass(TppStatusChange.class);
+        verify(tppNotificationOutbox).registerStatusChange(captor.capture());
+        assertEquals(TppNotificationResourceType.AUTHORISATION, captor.getValue().getResourceType());
+        assertEquals(AUTHORISATION_ID, captor.getValue().getAuthorisationId());
+        assertEquals(AuthorisationType.PIS_CREATION, captor.getValue().getAuthorisationType());
+    }
+
+    @Test
+    void registerStatusChange_disabled() {
+        // Given
+        when(tppNotificationOutbox.isEnabled()).thenReturn(false);
+        PisCommonPaymentData payment = new PisCommonPaymentData();
+        payment.setTransactionStatus(TransactionStatus.ACSC);
+
+        // When
+        tppNotificationEntityListener.registerStatusChange(payment);
+
+        // Then
+        verify(tppNotificationOutbox, never()).registerStatusChange(any());
+    }
+}
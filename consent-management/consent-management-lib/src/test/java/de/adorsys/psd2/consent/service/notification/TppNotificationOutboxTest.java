@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.notification;
+
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.domain.consent.ConsentTppInformationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationEntity;
+import de.adorsys.psd2.consent.domain.notification.TppNotificationResourceType;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.repository.TppNotificationRepository;
+import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.profile.NotificationSupportedMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TppNotificationOutboxTest {
+    private static final String PAYMENT_ID = "payment id";
+    private static final String CONSENT_ID = "consent id";
+    private static final String AUTHORISATION_ID = "authorisation id";
+    private static final String TPP_NOTIFICATION_URI = "https://tpp.example.com/notifications";
+    private static final OffsetDateTime STATUS_CHANGE_TIMESTAMP = OffsetDateTime.now();
+    private static final List<Long> CONSENT_IDS = List.of(1L, 2L);
+
+    @InjectMocks
+    private TppNotificationOutbox tppNotificationOutbox;
+
+    @Mock
+    private TppNotificationRepository tppNotificationRepository;
+    @Mock
+    private ConsentJpaRepository consentJpaRepository;
+    @Mock
+    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tppNotificationOutbox, "entityManager", entityManager);
+    }
+
+    @Test
+    void registerStatusChange_storesNotificationBeforeCommit() {
+        // Given
+        when(pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID))
+            .thenReturn(Optional.of(buildPayment(NotificationSupportedMode.PROCESS)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            tppNotificationOutbox.registerStatusChange(paymentStatusChange("ACCP", false));
+            tppNotificationOutbox.registerStatusChange(paymentStatusChange("ACSC", true));
+            verifyNoInteractions(tppNotificationRepository);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.forEach(s -> s.beforeCommit(false));
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Then
+            List<TppNotificationEntity> notifications = captureSavedNotifications();
+            assertEquals(2, notifications.size());
+            TppNotificationEntity notification = notifications.get(1);
+            assertEquals(TPP_NOTIFICATION_URI, notification.getTppNotificationUri());
+            assertEquals(TppNotificationResourceType.PAYMENT, notification.getResourceType());
+            assertEquals(PAYMENT_ID, notification.getResourceId());
+            assertEquals("ACSC", notification.getStatus());
+            assertEquals(STATUS_CHANGE_TIMESTAMP, notification.getStatusChangeTimestamp());
+            assertNotNull(notification.getNextAttemptTimestamp());
+            assertNull(TransactionSynchronizationManager.getResource(tppNotificationOutbox));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void registerStatusChange_noTransaction_ignored() {
+        // When
+        tppNotificationOutbox.registerStatusChange(paymentStatusChange("ACSC", true));
+
+        // Then
+        verifyNoInteractions(tppNotificationRepository, pisCommonPaymentDataRepository, entityManager);
+    }
+
+    @Test
+    void registerConsentStatusChanges_lastMode_storesExpiredNotification() {
+        // Given
+        ReflectionTestUtils.setField(tppNotificationOutbox, "enabled", true);
+        when(consentJpaRepository.findExternalIdsWithTppNotificationUri(CONSENT_IDS)).thenReturn(Collections.singletonList(CONSENT_ID));
+        when(consentJpaRepository.findByExternalId(CONSENT_ID)).thenReturn(Optional.of(buildConsent(NotificationSupportedMode.LAST)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            tppNotificationOutbox.registerConsentStatusChanges(CONSENT_IDS, ConsentStatus.EXPIRED, STATUS_CHANGE_TIMESTAMP);
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+            // Then
+            List<TppNotificationEntity> notifications = captureSavedNotifications();
+            assertEquals(1, notifications.size());
+            assertEquals(TppNotificationResourceType.CONSENT, notifications.get(0).getResourceType());
+            assertEquals(CONSENT_ID, notifications.get(0).getResourceId());
+            assertEquals("expired", notifications.get(0).getStatus());
+            assertEquals(STATUS_CHANGE_TIMESTAMP, notifications.get(0).getStatusChangeTimestamp());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void registerConsentStatusChanges_disabled_ignored() {
+        // When
+        tppNotificationOutbox.registerConsentStatusChanges(CONSENT_IDS, ConsentStatus.EXPIRED, STATUS_CHANGE_TIMESTAMP);
+
+        // Then
+        verifyNoInteractions(consentJpaRepository, tppNotificationRepository);
+    }
+
+    @Test
+    void storeNotifications_lastMode_onlyFinalisedStatus() {
+        // Given
+        when(pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID))
+            .thenReturn(Optional.of(buildPayment(NotificationSupportedMode.LAST)));
+
+        // When
+        tppNotificationOutbox.storeNotifications(new ArrayList<>(List.of(paymentStatusChange("ACCP", false),
+                                                                         paymentStatusChange("ACSC", true))));
+
+        // Then
+        List<TppNotificationEntity> notifications = captureSavedNotifications();
+        assertEquals(1, notifications.size());
+        assertEquals("ACSC", notifications.get(0).getStatus());
+    }
+
+    @Test
+    void storeNotifications_consentAuthorisation_scaMode() {
+        // Given
+        when(consentJpaRepository.findByExternalId(CONSENT_ID)).thenReturn(Optional.of(buildConsent(NotificationSupportedMode.SCA)));
+
+        // When
+        tppNotificationOutbox.storeNotifications(new ArrayList<>(List.of(
+            new TppStatusChange(TppNotificationResourceType.CONSENT, CONSENT_ID, null, null, "valid", false, STATUS_CHANGE_TIMESTAMP),
+            new TppStatusChange(TppNotificationResourceType.AUTHORISATION, CONSENT_ID, AUTHORISATION_ID, AuthorisationType.AIS,
+                                "finalised", true, STATUS_CHANGE_TIMESTAMP))));
+
+        // Then
+        List<TppNotificationEntity> notifications = captureSavedNotifications();
+        assertEquals(1, notifications.size());
+        assertEquals(TppNotificationResourceType.AUTHORISATION, notifications.get(0).getResourceType());
+        assertEquals(AUTHORISATION_ID, notifications.get(0).getAuthorisationId());
+        verifyNoInteractions(pisCommonPaymentDataRepository);
+    }
+
+    @Test
+    void storeNotifications_noNotificationUri_skipped() {
+        // Given
+        PisCommonPaymentData payment = buildPayment(NotificationSupportedMode.PROCESS);
+        payment.setTppNotificationUri(null);
+        when(pisCommonPaymentDataRepository.findByPaymentId(PAYMENT_ID)).thenReturn(Optional.of(payment));
+
+        // When
+        tppNotificationOutbox.storeNotifications(new ArrayList<>(List.of(paymentStatusChange("ACSC", true))));
+
+        // Then
+        verify(tppNotificationRepository, never()).saveAll(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TppNotificationEntity> captureSavedNotifications() {
+        ArgumentCaptor<List<TppNotificationEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(tppNotificationRepository, atLeastOnce()).saveAll(captor.capture());
+        List<TppNotificationEntity> notifications = new ArrayList<>();
+        captor.getAllValues().forEach(notifications::addAll);
+        return notifications;
+    }
+
+    private TppStatusChange paymentStatusChange(String status, boolean finalised) {
+        return new TppStatusChange(TppNotificationResourceType.PAYMENT, PAYMENT_ID, null, null, status, finalised, STATUS_CHANGE_TIMESTAMP);
+    }
+
+    private PisCommonPaymentData buildPayment(NotificationSupportedMode mode) {
+        PisCommonPaymentData payment = new PisCommonPaymentData();
+        payment.setPaymentId(PAYMENT_ID);
+        payment.setTppNotificationUri(TPP_NOTIFICATION_URI);
+        payment.setTppNotificationContentPreferred(Collections.singletonList(mode));
+        return payment;
+    }
+
+    private ConsentEntity buildConsent(NotificationSupportedMode mode) {
+        ConsentEntity consent = new ConsentEntity();
+        ConsentTppInformationEntity tppInformation = new ConsentTppInformationEntity();
+        tppInformation.setTppNotificationUri(TPP_NOTIFICATION_URI);
+        tppInformation.setTppNotificationContentPreferred(Collections.singletonList(mode));
+        consent.setTppInformation(tppInformation);
+        return consent;
+    }
+}
@@ -21,6 +21,7 @@ import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
 import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
+import de.adorsys.psd2.consent.service.PiisConsentAccountIndex;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.consent.service.migration.PiisConsentLazyMigrationService;
@@ -68,6 +69,8 @@ class CmsPsuPiisServiceInternalTest {
     private PsuDataMapper psuDataMapper;
     @Mock
     private PiisConsentLazyMigrationService piisConsentLazyMigrationService;
+    @Mock
+    private PiisConsentAccountIndex piisConsentAccountIndex;
 
     private JsonReader jsonReader = new JsonReader();
 
@@ -214,6 +217,7 @@ class CmsPsuPiisServiceInternalTest {
         ConsentEntity capturedConsentEntity = consentEntityCaptor.getValue();
         assertNotNull(capturedConsentEntity.getLastActionDate());
         assertEquals(ConsentStatus.REVOKED_BY_PSU, capturedConsentEntity.getConsentStatus());
+        verify(piisConsentAccountIndex).consentsChanged(Collections.singletonList(capturedConsentEntity));
     }
 
     @Test
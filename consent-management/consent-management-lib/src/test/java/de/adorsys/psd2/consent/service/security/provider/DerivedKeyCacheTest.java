@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.security.provider;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DerivedKeyCacheTest {
+    private static final String PROVIDER_ID = "bS6p6XvTWI";
+    private static final String ANOTHER_PROVIDER_ID = "gQ8wkMeo93";
+    private static final String PASSWORD = "mvLBiZsiTbGwrfJB";
+    private static final String ANOTHER_PASSWORD = "wrong_password";
+
+    private final AtomicInteger derivationCounter = new AtomicInteger();
+
+    @Test
+    void getSecretKey_samePassword_derivesKeyOnce() throws GeneralSecurityException {
+        // Given
+        DerivedKeyCache derivedKeyCache = new DerivedKeyCache();
+
+        // When
+        SecretKey first = derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+        SecretKey second = derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // Then
+        assertEquals(1, derivationCounter.get());
+        assertArrayEquals(first.getEncoded(), second.getEncoded());
+        assertArrayEquals(PASSWORD.getBytes(StandardCharsets.UTF_8), second.getEncoded());
+    }
+
+    @Test
+    void getSecretKey_differentPasswordsAndProviders_derivesKeyForEach() throws GeneralSecurityException {
+        // Given
+        DerivedKeyCache derivedKeyCache = new DerivedKeyCache();
+
+        // When
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+        derivedKeyCache.getSecretKey(PROVIDER_ID, ANOTHER_PASSWORD, this::deriveKey);
+        derivedKeyCache.getSecretKey(ANOTHER_PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // Then
+        assertEquals(3, derivationCounter.get());
+        assertEquals(3, derivedKeyCache.size());
+    }
+
+    @Test
+    void getSecretKey_maxSizeReached_evictsLeastRecentlyUsedKey() throws GeneralSecurityException {
+        // Given
+        DerivedKeyCache derivedKeyCache = new DerivedKeyCache(1, 60000);
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // When
+        derivedKeyCache.getSecretKey(PROVIDER_ID, ANOTHER_PASSWORD, this::deriveKey);
+        SecretKey secretKey = derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // Then
+        assertEquals(3, derivationCounter.get());
+        assertEquals(1, derivedKeyCache.size());
+        assertArrayEquals(PASSWORD.getBytes(StandardCharsets.UTF_8), secretKey.getEncoded());
+    }
+
+    @Test
+    void getSecretKey_expiredKey_derivesKeyAgain() throws GeneralSecurityException {
+        // Given
+        DerivedKeyCache derivedKeyCache = new DerivedKeyCache(10, 0);
+
+        // When
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // Then
+        assertEquals(2, derivationCounter.get());
+    }
+
+    @Test
+    void clear_removesAllKeys() throws GeneralSecurityException {
+        // Given
+        DerivedKeyCache derivedKeyCache = new DerivedKeyCache();
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // When
+        derivedKeyCache.clear();
+        derivedKeyCache.getSecretKey(PROVIDER_ID, PASSWORD, this::deriveKey);
+
+        // Then
+        assertEquals(2, derivationCounter.get());
+    }
+
+    private byte[] deriveKey(String password) {
+        derivationCounter.incrementAndGet();
+        return password.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -18,6 +18,7 @@ package de.adorsys.psd2.consent.service.sha;
 
 
 import de.adorsys.psd2.consent.service.sha.v3.AisChecksumCalculatingServiceV3;
+import de.adorsys.psd2.consent.service.sha.v4.AisChecksumCalculatingServiceV4;
 import de.adorsys.psd2.xs2a.core.consent.ConsentType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +35,7 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class ChecksumCalculatingFactoryTest {
     private static final byte[] CHECKSUM_AIS_V3 = getCorrectChecksum().getBytes();
+    private static final byte[] CHECKSUM_AIS_V4 = "004_%_consent_checksum".getBytes();
     private static final byte[] WRONG_CHECKSUM = "wrong checksum in consent".getBytes();
     private static final ConsentType AIS_TYPE = ConsentType.AIS;
 
@@ -43,12 +45,16 @@ class ChecksumCalculatingFactoryTest {
     @Mock
     private AisChecksumCalculatingServiceV3 aisV3;
 
+    @Mock
+    private AisChecksumCalculatingServiceV4 aisV4;
+
     @Mock
     private NoProcessingChecksumService noProcessingChecksumService;
 
     @BeforeEach
     void init() {
         when(aisV3.getVersion()).thenReturn("003");
+        when(aisV4.getVersion()).thenReturn("004");
         factory.init();
     }
 
@@ -62,6 +68,16 @@ class ChecksumCalculatingFactoryTest {
         assertEquals(aisV3.getVersion(), actualResult.get().getVersion());
     }
 
+    @Test
+    void getServiceByChecksum_ais_v4_success() {
+        // When
+        Optional<ChecksumCalculatingService> actualResult = factory.getServiceByChecksum(CHECKSUM_AIS_V4, AIS_TYPE);
+
+        // Then
+        assertTrue(actualResult.isPresent());
+        assertEquals(aisV4.getVersion(), actualResult.get().getVersion());
+    }
+
     @Test
     void getServiceByChecksum_ais_noProcessingV001_success() {
         // When
@@ -116,7 +132,7 @@ class ChecksumCalculatingFactoryTest {
 
         // Then
         assertTrue(actualResult.isPresent());
-        assertEquals(aisV3.getVersion(), actualResult.get().getVersion());
+        assertEquals(aisV4.getVersion(), actualResult.get().getVersion());
     }
 
     private static String getCorrectChecksum() {
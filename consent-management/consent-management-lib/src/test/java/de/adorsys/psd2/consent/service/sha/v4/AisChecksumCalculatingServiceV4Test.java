@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.sha.v4;
+
+import de.adorsys.psd2.consent.service.sha.ChecksumConstant;
+import de.adorsys.psd2.core.data.ais.AisConsent;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AisChecksumCalculatingServiceV4Test {
+    private static final String VERSION_04 = "004";
+    private static final byte[] WRONG_CHECKSUM = "checksum in consent".getBytes();
+
+    private JsonReader jsonReader = new JsonReader();
+
+    private final AisChecksumCalculatingServiceV4 aisChecksumCalculatingServiceV4 = new AisChecksumCalculatingServiceV4();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void calculateChecksumForConsent_tppAccesses() {
+        // Given
+        AisConsent aisConsent = buildConsentTppIbanAndMaskedPan();
+
+        // When
+        byte[] actualResult = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(aisConsent);
+
+        // Then
+        String[] elements = new String(actualResult).split(ChecksumConstant.DELIMITER);
+        assertEquals(2, elements.length);
+        assertEquals(VERSION_04, elements[ChecksumConstant.VERSION_START_POSITION]);
+        assertTrue(aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentTppIbanAndMaskedPan(), actualResult));
+    }
+
+    @Test
+    void calculateChecksumForConsent_aspspAccesses() {
+        // Given
+        AisConsent aisConsent = buildConsentAspspIbanAndMaskedPan();
+
+        // When
+        byte[] actualResult = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(aisConsent);
+
+        // Then
+        String[] elements = new String(actualResult).split(ChecksumConstant.DELIMITER);
+        assertEquals(3, elements.length);
+        assertTrue(elements[ChecksumConstant.ASPSP_ACCESS_CHECKSUM_START_POSITION].startsWith("iban:"));
+        assertTrue(elements[ChecksumConstant.ASPSP_ACCESS_CHECKSUM_START_POSITION].contains(",maskedPan:"));
+        assertTrue(aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentAspspIbanAndMaskedPan(), actualResult));
+    }
+
+    @Test
+    void calculateChecksumForConsent_aspspAccessesOrderIndependent() {
+        // Given
+        AisConsent aisConsent = buildConsentAspspIbanAndMaskedPan();
+        byte[] checksum = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(aisConsent);
+        AisConsent reorderedConsent = buildConsentAspspIbanAndMaskedPan();
+        Collections.reverse(reorderedConsent.getAspspAccountAccesses().getAccounts());
+        Collections.reverse(reorderedConsent.getAspspAccountAccesses().getBalances());
+
+        // When
+        byte[] actualResult = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(reorderedConsent);
+
+        // Then
+        assertArrayEquals(checksum, actualResult);
+    }
+
+    @Test
+    void verifyConsentWithChecksum_changedConsent() {
+        // Given
+        byte[] checksum = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(buildConsentAspspIbanAndMaskedPan());
+        AisConsent aisConsent = buildConsentAspspIbanAndMaskedPan();
+        aisConsent.setFrequencyPerDay(100);
+
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(aisConsent, checksum);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void verifyConsentWithChecksum_changedAspspAccess() {
+        // Given
+        byte[] checksum = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(buildConsentAspspIbanAndMaskedPan());
+        AisConsent aisConsent = buildConsentAspspIbanAndMaskedPan();
+        aisConsent.getAspspAccountAccesses().getTransactions().get(0).setResourceId("22222-999999999");
+
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(aisConsent, checksum);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void verifyConsentWithChecksum_malformedAspspAccessChecksum() {
+        // Given
+        String checksum = new String(aisChecksumCalculatingServiceV4.calculateChecksumForConsent(buildConsentTppIbanAndMaskedPan()));
+        byte[] malformedChecksum = (checksum + ChecksumConstant.DELIMITER + "unknown:value").getBytes();
+
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentAspspIbanAndMaskedPan(), malformedChecksum);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void verifyConsentWithChecksum_wrongChecksum() {
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentTppIbanAndMaskedPan(), WRONG_CHECKSUM);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void calculateChecksumForConsent_memoisedWithinTransaction() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        AisConsent aisConsent = buildConsentAspspIbanAndMaskedPan();
+        byte[] checksum = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(aisConsent);
+        aisConsent.getAspspAccountAccesses().getTransactions().get(0).setResourceId("22222-999999999");
+
+        // When
+        byte[] actualResult = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(aisConsent);
+
+        // Then
+        assertFalse(aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(aisConsent, checksum));
+        assertTrue(aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(aisConsent, actualResult));
+        assertTrue(aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentAspspIbanAndMaskedPan(), checksum));
+        assertTrue(TransactionSynchronizationManager.hasResource(aisChecksumCalculatingServiceV4));
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(TransactionSynchronizationManager.hasResource(aisChecksumCalculatingServiceV4));
+    }
+
+    @Test
+    void verifyConsentWithChecksum_consent_is_null() {
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(null, WRONG_CHECKSUM);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void verifyConsentWithChecksum_checksum_is_null() {
+        // When
+        boolean actualResult = aisChecksumCalculatingServiceV4.verifyConsentWithChecksum(buildConsentAspspIbanAndMaskedPan(), null);
+
+        // Then
+        assertFalse(actualResult);
+    }
+
+    @Test
+    void calculateChecksumForConsent_consent_is_null() {
+        // When
+        byte[] actualResult = aisChecksumCalculatingServiceV4.calculateChecksumForConsent(null);
+
+        // Then
+        assertArrayEquals(new byte[0], actualResult);
+    }
+
+    @Test
+    void getVersion() {
+        // When
+        String actualResult = aisChecksumCalculatingServiceV4.getVersion();
+
+        // Then
+        assertEquals(VERSION_04, actualResult);
+    }
+
+    private AisConsent buildConsentTppIbanAndMaskedPan() {
+        return jsonReader.getObjectFromFile("json/dedicated-ais-consent_tpp_access_iban&maskedpan.json", AisConsent.class);
+    }
+
+    private AisConsent buildConsentAspspIbanAndMaskedPan() {
+        return jsonReader.getObjectFromFile("json/dedicated-ais-consent_aspsp_access_iban&maskedpan.json", AisConsent.class);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.usage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AisConsentUsageCounterTest {
+    private static final Long CONSENT_ID = 1L;
+    private static final String REQUEST_URI = "/v1/accounts/account-id/balances";
+    private static final String RESOURCE_ID = "resource id";
+    private static final String TRANSACTION_ID = "transaction id";
+
+    @InjectMocks
+    private AisConsentUsageCounter aisConsentUsageCounter;
+
+    @Mock
+    private AisConsentUsageStore aisConsentUsageStore;
+
+    @Captor
+    private ArgumentCaptor<List<AisConsentUsageDelta>> deltasCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(aisConsentUsageCounter, "flushIntervalMs", 1000L);
+    }
+
+    @Test
+    void isEnabled_zeroFlushInterval() {
+        // Given
+        ReflectionTestUtils.setField(aisConsentUsageCounter, "flushIntervalMs", 0L);
+
+        // When
+        boolean enabled = aisConsentUsageCounter.isEnabled();
+
+        // Then
+        assertFalse(enabled);
+    }
+
+    @Test
+    void incrementUsage_shouldBeStoredOnFlush() {
+        // Given
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, null, null);
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, RESOURCE_ID, TRANSACTION_ID);
+
+        // When
+        Map<String, Integer> unflushedUsage = aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now());
+        aisConsentUsageCounter.flush();
+
+        // Then
+        assertEquals(Collections.singletonMap(REQUEST_URI, 2), unflushedUsage);
+        verify(aisConsentUsageStore).addUsage(eq(CONSENT_ID), eq(LocalDate.now()), deltasCaptor.capture());
+        assertEquals(Collections.singletonList(new AisConsentUsageDelta(REQUEST_URI, 2, RESOURCE_ID, TRANSACTION_ID)), deltasCaptor.getValue());
+        assertEquals(Collections.emptyMap(), aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now()));
+    }
+
+    @Test
+    void flush_nothingCounted() {
+        // When
+        aisConsentUsageCounter.flush();
+
+        // Then
+        verifyNoInteractions(aisConsentUsageStore);
+    }
+
+    @Test
+    void flush_storeFailed_shouldBeRetried() {
+        // Given
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, null, null);
+        doThrow(new IllegalStateException("Store is not available"))
+            .doNothing()
+            .when(aisConsentUsageStore).addUsage(eq(CONSENT_ID), eq(LocalDate.now()), anyList());
+
+        // When
+        aisConsentUsageCounter.flush();
+        Map<String, Integer> unflushedUsage = aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now());
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, RESOURCE_ID, TRANSACTION_ID);
+        aisConsentUsageCounter.flush();
+
+        // Then
+        assertEquals(Collections.singletonMap(REQUEST_URI, 1), unflushedUsage);
+        verify(aisConsentUsageStore, times(2)).addUsage(eq(CONSENT_ID), eq(LocalDate.now()), deltasCaptor.capture());
+        assertEquals(Collections.singletonList(new AisConsentUsageDelta(REQUEST_URI, 2, RESOURCE_ID, TRANSACTION_ID)), deltasCaptor.getValue());
+    }
+
+    @Test
+    void incrementUsage_withinTransaction_shouldBeCountedAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, null, null);
+
+            // When
+            Map<String, Integer> usageBeforeCommit = aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Map<String, Integer> usageAfterCommit = aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now());
+
+            // Then
+            assertEquals(Collections.emptyMap(), usageBeforeCommit);
+            assertEquals(Collections.singletonMap(REQUEST_URI, 1), usageAfterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void discardUsage() {
+        // Given
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, null, null);
+
+        // When
+        aisConsentUsageCounter.discardUsage(CONSENT_ID, LocalDate.now());
+        aisConsentUsageCounter.flush();
+
+        // Then
+        assertEquals(Collections.emptyMap(), aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now()));
+        verifyNoInteractions(aisConsentUsageStore);
+    }
+
+    @Test
+    void incrementUsage_concurrentlyWithFlush_shouldNotLoseUsages() throws Exception {
+        // Given
+        int threads = 8;
+        int incrementsPerThread = 2000;
+        AtomicInteger storedUsage = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<AisConsentUsageDelta> deltas = invocation.getArgument(2);
+            deltas.forEach(delta -> storedUsage.addAndGet(delta.getAmount()));
+            return null;
+        }).when(aisConsentUsageStore).addUsage(any(), any(), anyList());
+        ExecutorService executorService = Executors.newFixedThreadPool(threads + 1);
+
+        // When
+        List<Future<?>> increments = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            increments.add(executorService.submit(() -> {
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, null, null);
+                }
+            }));
+        }
+        Future<?> flushes = executorService.submit(() -> {
+            while (increments.stream().anyMatch(future -> !future.isDone())) {
+                aisConsentUsageCounter.flush();
+            }
+        });
+        for (Future<?> increment : increments) {
+            increment.get();
+        }
+        flushes.get();
+        executorService.shutdown();
+        aisConsentUsageCounter.flush();
+
+        // Then
+        assertEquals(threads * incrementsPerThread, storedUsage.get());
+        assertEquals(Collections.emptyMap(), aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now()));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.usage;
+
+import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
+import de.adorsys.psd2.consent.domain.consent.ConsentEntity;
+import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import de.adorsys.psd2.consent.repository.ConsentJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AisConsentUsageStoreImplTest {
+    private static final Long CONSENT_ID = 1L;
+    private static final LocalDate USAGE_DATE = LocalDate.of(2020, 4, 3);
+    private static final String REQUEST_URI = "/v1/accounts";
+    private static final String OTHER_REQUEST_URI = "/v1/accounts/account-id/balances";
+    private static final String RESOURCE_ID = "resource id";
+
+    @InjectMocks
+    private AisConsentUsageStoreImpl aisConsentUsageStore;
+
+    @Mock
+    private AisConsentUsageRepository aisConsentUsageRepository;
+    @Mock
+    private ConsentJpaRepository consentJpaRepository;
+
+    @Captor
+    private ArgumentCaptor<AisConsentUsage> usageCaptor;
+
+    @Test
+    void addUsage_existingUsage_shouldBeUpdated() {
+        // Given
+        when(aisConsentUsageRepository.addUsage(CONSENT_ID, REQUEST_URI, USAGE_DATE, 3, RESOURCE_ID, null)).thenReturn(1);
+        when(aisConsentUsageRepository.addUsage(CONSENT_ID, OTHER_REQUEST_URI, USAGE_DATE, 1, null, null)).thenReturn(1);
+
+        // When
+        aisConsentUsageStore.addUsage(CONSENT_ID, USAGE_DATE, Arrays.asList(new AisConsentUsageDelta(REQUEST_URI, 3, RESOURCE_ID, null),
+                                                                          new AisConsentUsageDelta(OTHER_REQUEST_URI, 1, null, null)));
+
+        // Then
+        verify(aisConsentUsageRepository, never()).save(any());
+        verifyNoInteractions(consentJpaRepository);
+    }
+
+    @Test
+    void addUsage_noUsage_shouldBeCreated() {
+        // Given
+        ConsentEntity consent = new ConsentEntity();
+        when(aisConsentUsageRepository.addUsage(CONSENT_ID, REQUEST_URI, USAGE_DATE, 3, RESOURCE_ID, null)).thenReturn(0);
+        when(consentJpaRepository.findById(CONSENT_ID)).thenReturn(Optional.of(consent));
+
+        // When
+        aisConsentUsageStore.addUsage(CONSENT_ID, USAGE_DATE, Collections.singletonList(new AisConsentUsageDelta(REQUEST_URI, 3, RESOURCE_ID, null)));
+
+        // Then
+        verify(aisConsentUsageRepository).save(usageCaptor.capture());
+        AisConsentUsage usage = usageCaptor.getValue();
+        assertSame(consent, usage.getConsent());
+        assertEquals(REQUEST_URI, usage.getRequestUri());
+        assertEquals(USAGE_DATE, usage.getUsageDate());
+        assertEquals(3, usage.getUsage());
+        assertEquals(RESOURCE_ID, usage.getResourceId());
+    }
+
+    @Test
+    void addUsage_consentNotFound() {
+        // Given
+        when(aisConsentUsageRepository.addUsage(CONSENT_ID, REQUEST_URI, USAGE_DATE, 1, null, null)).thenReturn(0);
+        when(consentJpaRepository.findById(CONSENT_ID)).thenReturn(Optional.empty());
+
+        // When
+        aisConsentUsageStore.addUsage(CONSENT_ID, USAGE_DATE, Collections.singletonList(new AisConsentUsageDelta(REQUEST_URI, 1, null, null)));
+
+        // Then
+        verify(aisConsentUsageRepository, never()).save(any());
+    }
+}
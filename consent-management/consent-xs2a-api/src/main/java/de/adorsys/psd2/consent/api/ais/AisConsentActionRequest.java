@@ -33,4 +33,13 @@ public class AisConsentActionRequest {
     // ID and/or transaction ID in path parameters.
     private String resourceId;
     private String transactionId;
+
+    // Optional number of transactions, read from the account with given resource ID. Is stored along with the action,
+    // so that reading of transaction list requires only one call to CMS after the request to ASPSP.
+    private Integer numberOfTransactions;
+
+    public AisConsentActionRequest(String tppId, String consentId, ActionStatus actionStatus, String requestUri, boolean updateUsage,
+                                   String resourceId, String transactionId) {
+        this(tppId, consentId, actionStatus, requestUri, updateUsage, resourceId, transactionId, null);
+    }
 }
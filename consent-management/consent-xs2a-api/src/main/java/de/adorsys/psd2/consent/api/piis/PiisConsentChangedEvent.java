@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.api.piis;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Application event, published by CMS after PIIS consents with given account identifiers have been created or
+ * their status has been changed. Consumers that keep a local copy of PIIS consents for these accounts (e.g. for funds
+ * confirmation) should drop it on receiving this event.
+ */
+@Value
+public class PiisConsentChangedEvent {
+    private Set<String> accountIdentifiers;
+}
@@ -18,6 +18,7 @@ package de.adorsys.psd2.consent.api.service;
 
 import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.ais.CmsConsent;
+import de.adorsys.psd2.consent.api.piis.PiisConsentChangedEvent;
 import de.adorsys.psd2.xs2a.core.profile.AccountReferenceSelector;
 import org.jetbrains.annotations.Nullable;
 
@@ -34,4 +35,14 @@ public interface PiisConsentService {
      * @return PIIS consents
      */
     CmsResponse<List<CmsConsent>> getPiisConsentListByAccountIdentifier(@Nullable Currency currency, AccountReferenceSelector accountIdentifierName);
+
+    /**
+     * Checks whether changes of PIIS consents are announced by {@link PiisConsentChangedEvent} in the application
+     * context of the caller, which is the case only if CMS runs in the same application.
+     *
+     * @return <code>true</code> if the events are published to the caller, <code>false</code> otherwise
+     */
+    default boolean isPiisConsentChangedEventPublished() {
+        return false;
+    }
 }
@@ -17,6 +17,10 @@
 package de.adorsys.psd2.consent.api.service;
 
 import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.OffsetDateTime;
 
 public interface TppStopListService {
 
@@ -27,4 +31,12 @@ public interface TppStopListService {
      * @return <code>true</code> if TPP is found and has status BLOCKED, <code>false</code> if TPP is not found or its status is not BLOCKED
      */
     CmsResponse<Boolean> checkIfTppBlocked(String tppAuthorisationNumber);
+
+    /**
+     * Returns changes of the TPP stop list, made since the given moment of time.
+     *
+     * @param changedSince moment of time to look for changes from. If <code>null</code>, all currently blocked TPPs are returned
+     * @return changed stop list records and the moment of time to be used in the next request for changes
+     */
+    CmsResponse<TppStopListChanges> getTppStopListChanges(@Nullable OffsetDateTime changedSince);
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.api.tpp;
+
+import de.adorsys.psd2.xs2a.core.tpp.TppStopListRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Changes of the TPP stop list since the given moment of time
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TppStopListChanges {
+    /**
+     * Moment of time on CMS side, at which the changes were collected.
+     * Should be used as a starting point for the next request of changes.
+     */
+    private OffsetDateTime syncTimestamp;
+
+    /**
+     * Stop list records, changed since the requested moment of time, or all blocked records if no moment was given
+     */
+    private List<TppStopListRecord> records;
+}
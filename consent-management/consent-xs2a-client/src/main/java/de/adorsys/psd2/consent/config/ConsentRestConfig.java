@@ -16,7 +16,12 @@
 
 package de.adorsys.psd2.consent.config;
 
+import de.adorsys.psd2.http.client.HttpClientPoolMetrics;
+import de.adorsys.psd2.http.client.HttpClientPoolProperties;
+import de.adorsys.psd2.http.client.HttpClientRequestMetrics;
+import de.adorsys.psd2.http.client.PooledClientHttpRequestFactory;
 import de.adorsys.psd2.logger.web.LoggingContextInterceptor;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -35,20 +40,65 @@ public class ConsentRestConfig {
     private int readTimeout;
     @Value("${rest-consent-config.connection-timeout.ms:10000}")
     private int connectionTimeout;
+    @Value("${rest-consent-config.pool.enabled:true}")
+    private boolean poolEnabled;
+    @Value("${rest-consent-config.pool.max-total:100}")
+    private int poolMaxTotal;
+    @Value("${rest-consent-config.pool.max-per-route:20}")
+    private int poolMaxPerRoute;
+    @Value("${rest-consent-config.pool.connection-request-timeout.ms:5000}")
+    private int poolConnectionRequestTimeout;
+    @Value("${rest-consent-config.pool.keep-alive.ms:30000}")
+    private long poolKeepAlive;
+    @Value("${rest-consent-config.pool.idle-eviction.ms:60000}")
+    private long poolIdleEviction;
+    @Value("${rest-consent-config.compression.enabled:true}")
+    private boolean compressionEnabled;
+    @Value("${rest-consent-config.metrics.percentile-histogram:true}")
+    private boolean metricsPercentileHistogram;
 
     @Bean
     public RestTemplate consentRestTemplate() {
-        RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
+        RestTemplate rest = new RestTemplate(consentClientHttpRequestFactory());
         rest.getMessageConverters().removeIf(m -> m.getClass().isAssignableFrom(MappingJackson2XmlHttpMessageConverter.class));
         rest.setErrorHandler(new ConsentRestErrorHandler());
         rest.getInterceptors().add(loggingContextInterceptor);
+        consentHttpClientRequestMetrics().instrument(rest);
         return rest;
     }
 
-    private ClientHttpRequestFactory clientHttpRequestFactory() {
+    @Bean
+    public ClientHttpRequestFactory consentClientHttpRequestFactory() {
+        if (poolEnabled) {
+            return new PooledClientHttpRequestFactory("consentRestTemplate", poolProperties());
+        }
+
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setReadTimeout(readTimeout);
         factory.setConnectTimeout(connectionTimeout);
         return factory;
     }
+
+    @Bean
+    public MeterBinder consentHttpClientPoolMetrics() {
+        return new HttpClientPoolMetrics(consentClientHttpRequestFactory());
+    }
+
+    @Bean
+    public HttpClientRequestMetrics consentHttpClientRequestMetrics() {
+        return new HttpClientRequestMetrics("consentRestTemplate", metricsPercentileHistogram);
+    }
+
+    private HttpClientPoolProperties poolProperties() {
+        HttpClientPoolProperties properties = new HttpClientPoolProperties();
+        properties.setMaxTotal(poolMaxTotal);
+        properties.setMaxPerRoute(poolMaxPerRoute);
+        properties.setConnectionTimeout(connectionTimeout);
+        properties.setReadTimeout(readTimeout);
+        properties.setConnectionRequestTimeout(poolConnectionRequestTimeout);
+        properties.setKeepAliveMs(poolKeepAlive);
+        properties.setIdleEvictionMs(poolIdleEviction);
+        properties.setCompressionEnabled(compressionEnabled);
+        return properties;
+    }
 }
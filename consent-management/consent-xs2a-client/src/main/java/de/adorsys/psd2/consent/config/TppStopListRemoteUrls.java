@@ -32,4 +32,22 @@ public class TppStopListRemoteUrls {
     public String checkIfTppBlocked() {
         return consentServiceBaseUrl + "/tpp/stop-list";
     }
+
+    /**
+     * Returns URL-string to CMS endpoint that gets changes of TPP stop list
+     *
+     * @return String
+     */
+    public String getTppStopListChanges() {
+        return consentServiceBaseUrl + "/tpp/stop-list/changes";
+    }
+
+    /**
+     * Returns URL-string to CMS endpoint that gets changes of TPP stop list since the given moment of time
+     *
+     * @return String
+     */
+    public String getTppStopListChangesSince() {
+        return consentServiceBaseUrl + "/tpp/stop-list/changes?changedSince={changed-since}";
+    }
 }
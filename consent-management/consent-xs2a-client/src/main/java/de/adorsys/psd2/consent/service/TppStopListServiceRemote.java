@@ -18,8 +18,10 @@ package de.adorsys.psd2.consent.service;
 
 import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.service.TppStopListService;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
 import de.adorsys.psd2.consent.config.TppStopListRemoteUrls;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -30,6 +32,8 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.OffsetDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class TppStopListServiceRemote implements TppStopListService {
@@ -53,4 +57,15 @@ public class TppStopListServiceRemote implements TppStopListService {
                    .payload(body)
                    .build();
     }
+
+    @Override
+    public CmsResponse<TppStopListChanges> getTppStopListChanges(@Nullable OffsetDateTime changedSince) {
+        TppStopListChanges body = changedSince == null
+                                      ? consentRestTemplate.getForEntity(tppStopListRemoteUrls.getTppStopListChanges(), TppStopListChanges.class).getBody()
+                                      : consentRestTemplate.getForEntity(tppStopListRemoteUrls.getTppStopListChangesSince(), TppStopListChanges.class, changedSince.toInstant()).getBody();
+
+        return CmsResponse.<TppStopListChanges>builder()
+                   .payload(body)
+                   .build();
+    }
 }
@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.web.xs2a.controller;
 import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.service.TppService;
 import de.adorsys.psd2.consent.api.service.TppStopListService;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
 import de.adorsys.psd2.consent.web.xs2a.config.InternalCmsXs2aApiTagName;
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import io.swagger.annotations.Api;
@@ -26,10 +27,13 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "api/v1/tpp")
@@ -55,4 +59,18 @@ public class TppController {
         CmsResponse<Boolean> response = tppStopListService.checkIfTppBlocked(tppAuthorisationNumber);
         return new ResponseEntity<>(response.isSuccessful() && response.getPayload(), HttpStatus.OK);
     }
+
+    @GetMapping(path = "/stop-list/changes")
+    @ApiOperation(value = "Gets changes of TPP stop list since the given moment of time")
+    @ApiResponse(code = 200, message = "OK")
+    public ResponseEntity<TppStopListChanges> getTppStopListChanges(
+        @ApiParam(value = "Moment of time to look for changes from. If omitted, all blocked TPPs are returned", example = "2020-01-01T15:30:35.035Z")
+        @RequestParam(value = "changedSince", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime changedSince) {
+        CmsResponse<TppStopListChanges> response = tppStopListService.getTppStopListChanges(changedSince);
+        if (response.hasError()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(response.getPayload(), HttpStatus.OK);
+    }
 }
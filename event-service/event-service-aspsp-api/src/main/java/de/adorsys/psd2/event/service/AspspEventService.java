@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Base version of AspspEventService that contains all method declarations.
@@ -41,6 +42,18 @@ public interface AspspEventService {
      */
     List<AspspEvent> getEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId);
 
+    /**
+     * Passes Event objects, recorded in given time period, one by one to the given consumer without loading all of them
+     * into memory. Intended for exports of long periods.
+     *
+     * @param start      First date of the period
+     * @param end        Last date of the period
+     * @param instanceId The id of particular service instance
+     * @param consumer   Consumer of Event objects, ordered by the time of the event
+     */
+    void streamEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId,
+                               @NotNull Consumer<AspspEvent> consumer);
+
     /**
      * Returns a list of Event objects, recorded in given time period and with the given consentId
      *
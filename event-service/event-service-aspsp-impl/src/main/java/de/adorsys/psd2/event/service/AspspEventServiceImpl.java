@@ -29,6 +29,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -42,6 +43,13 @@ public class AspspEventServiceImpl implements AspspEventService {
         return eventBOMapper.toAspspEventList(events);
     }
 
+    @Override
+    public void streamEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId,
+                                      @NotNull Consumer<AspspEvent> consumer) {
+        eventReportRepository.streamEventsForPeriod(start, end, instanceId,
+                                                    event -> consumer.accept(eventBOMapper.toAspspEvent(event)));
+    }
+
     @Override
     public List<AspspEvent> getEventsForPeriodAndConsentId(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @NotNull String consentId, @Nullable String instanceId) {
         List<ReportEvent> result = eventReportRepository.getEventsForPeriodAndConsentId(start, end, consentId, instanceId);
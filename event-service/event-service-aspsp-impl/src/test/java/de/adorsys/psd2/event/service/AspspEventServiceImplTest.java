@@ -19,7 +19,9 @@ package de.adorsys.psd2.event.service;
 import de.adorsys.psd2.event.core.model.EventOrigin;
 import de.adorsys.psd2.event.core.model.EventType;
 import de.adorsys.psd2.event.persist.EventReportRepository;
+import de.adorsys.psd2.event.persist.model.ReportEvent;
 import de.adorsys.psd2.event.service.mapper.AspspEventMapper;
+import de.adorsys.psd2.event.service.model.AspspEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
@@ -29,8 +31,13 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +66,26 @@ class AspspEventServiceImplTest {
         verify(eventReportRepository, times(1)).getEventsForPeriod(eq(START), eq(END), eq(INSTANCE_ID));
     }
 
+    @Test
+    void streamEventsForPeriod() {
+        // Given
+        ReportEvent reportEvent = new ReportEvent();
+        AspspEvent aspspEvent = AspspEvent.builder().consentId(CONSENT_ID).build();
+        doReturn(aspspEvent).when(mapper).toAspspEvent(reportEvent);
+        doAnswer(invocation -> {
+            Consumer<ReportEvent> consumer = invocation.getArgument(3);
+            consumer.accept(reportEvent);
+            return null;
+        }).when(eventReportRepository).streamEventsForPeriod(eq(START), eq(END), eq(INSTANCE_ID), any());
+        List<AspspEvent> events = new ArrayList<>();
+
+        // When
+        aspspEventService.streamEventsForPeriod(START, END, INSTANCE_ID, events::add);
+
+        // Then
+        assertEquals(Collections.singletonList(aspspEvent), events);
+    }
+
     @Test
     void getEventsForPeriodAndConsentId() {
         when(eventReportRepository.getEventsForPeriodAndConsentId(START, END, CONSENT_ID, INSTANCE_ID)).thenReturn(Collections.emptyList());
@@ -31,6 +31,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -45,6 +46,15 @@ public class EventReportRepositoryImpl implements EventReportRepository {
         return eventReportDBMapper.mapToAspspReportEvents(events);
     }
 
+    @Override
+    public void streamEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId,
+                                      @NotNull Consumer<ReportEvent> consumer) {
+        ReportEventMergingConsumer mergingConsumer = new ReportEventMergingConsumer(consumer);
+        eventReportJPARepository.streamEventsForPeriod(start, end, instanceId,
+                                                       event -> mergingConsumer.accept(eventReportDBMapper.mapToReportEvent(event)));
+        mergingConsumer.finish();
+    }
+
     @Override
     public List<ReportEvent> getEventsForPeriodAndConsentId(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @NotNull String consentId, @Nullable String instanceId) {
         List<EventEntityForReport> events = eventReportJPARepository.findByTimestampBetweenAndConsentIdAndInstanceIdOrderByTimestampAsc(start, end, consentId, instanceId);
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.report;
+
+import de.adorsys.psd2.event.persist.model.ReportEvent;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Merges report rows of the same event (one row per PSU of the consent or payment) before passing the event further.
+ * Rows are expected to be ordered by timestamp, so only the events with the current timestamp are kept in memory.
+ * Events of the last timestamp are passed on {@link #finish()}.
+ */
+class ReportEventMergingConsumer implements Consumer<ReportEvent> {
+    private final Consumer<ReportEvent> downstream;
+    private final Map<Long, ReportEvent> pendingEvents = new LinkedHashMap<>();
+    private OffsetDateTime pendingTimestamp;
+
+    ReportEventMergingConsumer(Consumer<ReportEvent> downstream) {
+        this.downstream = downstream;
+    }
+
+    @Override
+    public void accept(ReportEvent event) {
+        if (!Objects.equals(pendingTimestamp, event.getTimestamp())) {
+            flush();
+            pendingTimestamp = event.getTimestamp();
+        }
+        pendingEvents.merge(event.getId(), event, ReportEvent::merge);
+    }
+
+    void finish() {
+        flush();
+    }
+
+    private void flush() {
+        pendingEvents.values().forEach(downstream);
+        pendingEvents.clear();
+    }
+}
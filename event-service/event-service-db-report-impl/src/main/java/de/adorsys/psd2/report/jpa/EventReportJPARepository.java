@@ -22,20 +22,34 @@ import de.adorsys.psd2.report.entity.EventEntityForReport;
 import de.adorsys.psd2.report.jpa.builder.EventReportSqlParameterSourceBuilder;
 import de.adorsys.psd2.report.jpa.builder.SqlEventReportBuilder;
 import lombok.RequiredArgsConstructor;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @Repository
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class EventReportJPARepository {
+    private static final RowMapper<EventEntityForReport> ROW_MAPPER = new EventEntityForReportRowMapper();
+
     private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final SqlEventReportBuilder sqlEventReportBuilder;
+    private final Map<EventReportQuery, String> queries = new ConcurrentHashMap<>();
+
+    @Value("${cms.event-report.fetch-size:500}")
+    private int fetchSize;
+    private volatile NamedParameterJdbcTemplate streamingJdbcTemplate;
 
     public List<EventEntityForReport> getEventsForPeriod(OffsetDateTime periodFrom, OffsetDateTime periodTo, String instanceId) {
         EventReportSqlParameterSourceBuilder parameters = new EventReportSqlParameterSourceBuilder()
@@ -44,13 +58,27 @@ public class EventReportJPARepository {
                                                               .instanceId(instanceId)
                                                               .build();
 
-        String sqlRequest = sqlEventReportBuilder
-                                .baseRequest()
-                                .period()
-                                .instanceId()
-                                .build();
+        return namedParameterJdbcTemplate.query(getQuery(EventReportQuery.PERIOD), parameters, ROW_MAPPER);
+    }
+
+    /**
+     * Reads events, recorded in given time period, by a database cursor and passes every read row to the given consumer,
+     * so that only the rows of one fetch are kept in memory at the same time
+     *
+     * @param periodFrom first date of the period
+     * @param periodTo   last date of the period
+     * @param instanceId the id of particular service instance
+     * @param consumer   consumer of the rows, ordered by timestamp
+     */
+    public void streamEventsForPeriod(OffsetDateTime periodFrom, OffsetDateTime periodTo, String instanceId, Consumer<EventEntityForReport> consumer) {
+        EventReportSqlParameterSourceBuilder parameters = new EventReportSqlParameterSourceBuilder()
+                                                              .periodFrom(periodFrom)
+                                                              .periodTo(periodTo)
+                                                              .instanceId(instanceId)
+                                                              .build();
 
-        return namedParameterJdbcTemplate.query(sqlRequest, parameters, new BeanPropertyRowMapper<>(EventEntityForReport.class));
+        RowCallbackHandler rowCallbackHandler = rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        getStreamingJdbcTemplate().query(getQuery(EventReportQuery.PERIOD), parameters, rowCallbackHandler);
     }
 
     public List<EventEntityForReport> findByTimestampBetweenAndConsentIdAndInstanceIdOrderByTimestampAsc(OffsetDateTime periodFrom, OffsetDateTime periodTo, String consentId, String instanceId) {
@@ -61,14 +89,7 @@ public class EventReportJPARepository {
                                                               .consentId(consentId)
                                                               .build();
 
-        String sqlRequest = sqlEventReportBuilder
-                                .baseRequest()
-                                .period()
-                                .instanceId()
-                                .consentId()
-                                .build();
-
-        return namedParameterJdbcTemplate.query(sqlRequest, parameters, new BeanPropertyRowMapper<>(EventEntityForReport.class));
+        return namedParameterJdbcTemplate.query(getQuery(EventReportQuery.CONSENT_ID), parameters, ROW_MAPPER);
     }
 
     public List<EventEntityForReport> findByTimestampBetweenAndPaymentIdAndInstanceIdOrderByTimestampAsc(OffsetDateTime periodFrom, OffsetDateTime periodTo, String paymentId, String instanceId) {
@@ -79,14 +100,7 @@ public class EventReportJPARepository {
                                                               .paymentId(paymentId)
                                                               .build();
 
-        String sqlRequest = sqlEventReportBuilder
-                                .baseRequest()
-                                .period()
-                                .instanceId()
-                                .paymentId()
-                                .build();
-
-        return namedParameterJdbcTemplate.query(sqlRequest, parameters, new BeanPropertyRowMapper<>(EventEntityForReport.class));
+        return namedParameterJdbcTemplate.query(getQuery(EventReportQuery.PAYMENT_ID), parameters, ROW_MAPPER);
     }
 
     public List<EventEntityForReport> findByTimestampBetweenAndEventTypeAndInstanceIdOrderByTimestampAsc(OffsetDateTime periodFrom, OffsetDateTime periodTo, EventType eventType, String instanceId) {
@@ -97,14 +111,7 @@ public class EventReportJPARepository {
                                                               .eventType(eventType)
                                                               .build();
 
-        String sqlRequest = sqlEventReportBuilder
-                                .baseRequest()
-                                .period()
-                                .instanceId()
-                                .eventType()
-                                .build();
-
-        return namedParameterJdbcTemplate.query(sqlRequest, parameters, new BeanPropertyRowMapper<>(EventEntityForReport.class));
+        return namedParameterJdbcTemplate.query(getQuery(EventReportQuery.EVENT_TYPE), parameters, ROW_MAPPER);
     }
 
     public List<EventEntityForReport> findByTimestampBetweenAndEventOriginAndInstanceIdOrderByTimestampAsc(OffsetDateTime periodFrom, OffsetDateTime periodTo, EventOrigin eventOrigin, String instanceId) {
@@ -115,13 +122,39 @@ public class EventReportJPARepository {
                                                               .eventOrigin(eventOrigin)
                                                               .build();
 
-        String sqlRequest = sqlEventReportBuilder
-                                .baseRequest()
-                                .period()
-                                .instanceId()
-                                .eventOrigin()
-                                .build();
+        return namedParameterJdbcTemplate.query(getQuery(EventReportQuery.EVENT_ORIGIN), parameters, ROW_MAPPER);
+    }
+
+    private String getQuery(EventReportQuery query) {
+        return queries.computeIfAbsent(query, q -> q.filter
+                                                       .apply(sqlEventReportBuilder.baseRequest()
+                                                                  .period()
+                                                                  .instanceId())
+                                                       .build());
+    }
+
+    private NamedParameterJdbcTemplate getStreamingJdbcTemplate() {
+        NamedParameterJdbcTemplate template = streamingJdbcTemplate;
+        if (template == null) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(namedParameterJdbcTemplate.getJdbcTemplate().getDataSource());
+            jdbcTemplate.setFetchSize(fetchSize);
+            template = new NamedParameterJdbcTemplate(jdbcTemplate);
+            streamingJdbcTemplate = template;
+        }
+        return template;
+    }
+
+    private enum EventReportQuery {
+        PERIOD(UnaryOperator.identity()),
+        CONSENT_ID(SqlEventReportBuilder::consentId),
+        PAYMENT_ID(SqlEventReportBuilder::paymentId),
+        EVENT_TYPE(SqlEventReportBuilder::eventType),
+        EVENT_ORIGIN(SqlEventReportBuilder::eventOrigin);
+
+        private final UnaryOperator<SqlEventReportBuilder> filter;
 
-        return namedParameterJdbcTemplate.query(sqlRequest, parameters, new BeanPropertyRowMapper<>(EventEntityForReport.class));
+        EventReportQuery(UnaryOperator<SqlEventReportBuilder> filter) {
+            this.filter = filter;
+        }
     }
 }
@@ -23,7 +23,14 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Builder of SQL queries for event reports. The component itself is never changed: {@link #baseRequest()} returns
+ * a new builder for every query, so the component can be safely shared between threads. The base part of the query is
+ * read from the classpath only once.
+ */
 @Slf4j
 @Component
 public class SqlEventReportBuilder extends MapSqlParameterSource {
@@ -33,21 +40,36 @@ public class SqlEventReportBuilder extends MapSqlParameterSource {
     private String schemaName;
     @Value("base_event_report_db.sql")
     private String sqlRequestFileName;
+    private volatile String basePartOfRequest;
     private StringBuilder sqlRequest;
     private StringBuilder filterRequest;
 
+    public SqlEventReportBuilder() {
+    }
+
+    private SqlEventReportBuilder(String basePartOfRequest) {
+        this.sqlRequest = new StringBuilder(basePartOfRequest);
+        this.filterRequest = new StringBuilder();
+    }
+
     public String getBasePartOfRequest() throws IOException {
-        return IOUtils.toString(getClass().getClassLoader().getResource(sqlRequestFileName).openStream()).replace(PLACEHOLDER, schemaName);
+        String request = basePartOfRequest;
+        if (request == null) {
+            try (InputStream inputStream = getClass().getClassLoader().getResource(sqlRequestFileName).openStream()) {
+                request = IOUtils.toString(inputStream, StandardCharsets.UTF_8).replace(PLACEHOLDER, schemaName);
+            }
+            basePartOfRequest = request;
+        }
+        return request;
     }
 
     public SqlEventReportBuilder baseRequest() {
         try {
-            sqlRequest = new StringBuilder(getBasePartOfRequest());
+            return new SqlEventReportBuilder(getBasePartOfRequest());
         } catch (IOException e) {
             log.error("Request query was not found!");
+            return new SqlEventReportBuilder("");
         }
-        filterRequest = new StringBuilder();
-        return this;
     }
 
     public SqlEventReportBuilder period() {
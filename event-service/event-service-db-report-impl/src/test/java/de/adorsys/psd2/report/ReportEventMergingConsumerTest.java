@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.report;
+
+import de.adorsys.psd2.event.persist.model.PsuIdDataPO;
+import de.adorsys.psd2.event.persist.model.ReportEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportEventMergingConsumerTest {
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.parse("2020-03-31T10:00:00Z");
+
+    private List<ReportEvent> events = new ArrayList<>();
+    private ReportEventMergingConsumer consumer = new ReportEventMergingConsumer(events::add);
+
+    @Test
+    void accept_rowsOfSameEvent_merged() {
+        // Given
+        ReportEvent first = buildReportEvent(1L, TIMESTAMP, "PSU-1");
+        ReportEvent second = buildReportEvent(2L, TIMESTAMP, "PSU-1");
+
+        // When
+        consumer.accept(first);
+        consumer.accept(second);
+        consumer.accept(buildReportEvent(1L, TIMESTAMP, "PSU-2"));
+        consumer.accept(buildReportEvent(2L, TIMESTAMP, "PSU-3"));
+        consumer.finish();
+
+        // Then
+        assertEquals(Arrays.asList(first, second), events);
+        assertEquals(2, events.get(0).getPsuIdData().size());
+        assertEquals(2, events.get(1).getPsuIdData().size());
+    }
+
+    @Test
+    void accept_timestampChanged_previousEventsPassed() {
+        // Given
+        ReportEvent first = buildReportEvent(1L, TIMESTAMP, "PSU-1");
+        ReportEvent second = buildReportEvent(2L, TIMESTAMP.plusSeconds(1), "PSU-1");
+
+        // When
+        consumer.accept(first);
+        consumer.accept(second);
+
+        // Then
+        assertEquals(Arrays.asList(first), events);
+
+        // When
+        consumer.finish();
+
+        // Then
+        assertEquals(Arrays.asList(first, second), events);
+    }
+
+    @Test
+    void finish_noEvents() {
+        // When
+        consumer.finish();
+
+        // Then
+        assertTrue(events.isEmpty());
+    }
+
+    private ReportEvent buildReportEvent(Long id, OffsetDateTime timestamp, String psuId) {
+        ReportEvent reportEvent = new ReportEvent();
+        reportEvent.setId(id);
+        reportEvent.setTimestamp(timestamp);
+        PsuIdDataPO psuIdDataPO = new PsuIdDataPO();
+        psuIdDataPO.setPsuId(psuId);
+        reportEvent.getPsuIdData().add(psuIdDataPO);
+        return reportEvent;
+    }
+}
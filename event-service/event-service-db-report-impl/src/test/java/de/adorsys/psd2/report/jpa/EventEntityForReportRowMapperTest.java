@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.report.jpa;
+
+import de.adorsys.psd2.report.entity.EventEntityForReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventEntityForReportRowMapperTest {
+    private static final OffsetDateTime TIMESTAMP = OffsetDateTime.parse("2020-03-31T23:59:59.123456Z");
+    private static final byte[] PAYLOAD = "payload".getBytes();
+
+    @Mock
+    private ResultSet resultSet;
+
+    private EventEntityForReportRowMapper rowMapper = new EventEntityForReportRowMapper();
+
+    @Test
+    void mapRow() throws SQLException {
+        // Given
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.wasNull()).thenReturn(false);
+        when(resultSet.getObject("timestamp", OffsetDateTime.class)).thenReturn(TIMESTAMP);
+        when(resultSet.getBytes("payload")).thenReturn(PAYLOAD);
+        when(resultSet.getString(anyString())).thenAnswer(invocation -> "value of " + invocation.getArgument(0));
+
+        // When
+        EventEntityForReport actual = rowMapper.mapRow(resultSet, 1);
+
+        // Then
+        assertEquals(1L, actual.getId());
+        assertEquals(TIMESTAMP, actual.getTimestamp());
+        assertArrayEquals(PAYLOAD, actual.getPayload());
+        assertEquals("value of consent_id", actual.getConsentId());
+        assertEquals("value of payment_id", actual.getPaymentId());
+        assertEquals("value of event_origin", actual.getEventOrigin());
+        assertEquals("value of event_type", actual.getEventType());
+        assertEquals("value of instance_id", actual.getInstanceId());
+        assertEquals("value of psu_id", actual.getPsuId());
+        assertEquals("value of psu_id_type", actual.getPsuIdType());
+        assertEquals("value of psu_corporate_id", actual.getPsuCorporateId());
+        assertEquals("value of psu_corporate_id_type", actual.getPsuCorporateIdType());
+        assertEquals("value of tpp_authorisation_number", actual.getTppAuthorisationNumber());
+        assertEquals("value of internal_request_id", actual.getInternalRequestId());
+        assertEquals("value of x_request_id", actual.getXRequestId());
+        assertEquals("value of psu_ex_id", actual.getPsuExId());
+        assertEquals("value of psu_ex_id_type", actual.getPsuExIdType());
+        assertEquals("value of psu_ex_corporate_id", actual.getPsuExCorporateId());
+        assertEquals("value of psu_ex_corporate_id_type", actual.getPsuExCorporateIdType());
+    }
+
+    @Test
+    void mapRow_nullId() throws SQLException {
+        // Given
+        when(resultSet.getLong("id")).thenReturn(0L);
+        when(resultSet.wasNull()).thenReturn(true);
+
+        // When
+        EventEntityForReport actual = rowMapper.mapRow(resultSet, 1);
+
+        // Then
+        assertNull(actual.getId());
+    }
+}
@@ -130,4 +130,21 @@ class SqlEventReportBuilderTest {
         assertEquals(expectedSql, actualSql);
     }
 
+    @Test
+    void baseRequest_newBuilderForEveryRequest() {
+        // Given
+        SqlEventReportBuilder periodBuilder = builder.baseRequest().period();
+
+        // When
+        String consentIdSql = builder.baseRequest()
+                                  .consentId()
+                                  .build();
+        String periodSql = periodBuilder.build();
+
+        // Then
+        assertEquals("select * from event\n" +
+                         "where ev.consent_id = :consentId order by timestamp ", consentIdSql);
+        assertEquals("select * from event\n" +
+                         "where timestamp between :periodFrom and :periodTo order by timestamp ", periodSql);
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains time-based partitions of stored events: creates partitions ahead of time and removes partitions,
+ * that are older than the retention period
+ */
+public interface EventPartitionRepository {
+
+    /**
+     * Creates partitions for the period, containing given date, and for the configured number of following periods,
+     * if they don't exist yet
+     *
+     * @param currentDate current date
+     * @return number of created partitions
+     */
+    int createPartitions(LocalDate currentDate);
+
+    /**
+     * Removes events of the periods, that ended before the retention period, archiving them first, if archiving is enabled
+     *
+     * @param currentDate current date
+     * @return number of removed periods
+     */
+    int removeExpiredPartitions(LocalDate currentDate);
+}
@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EventReportRepository {
 
@@ -37,6 +38,20 @@ public interface EventReportRepository {
      */
     List<ReportEvent> getEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId);
 
+    /**
+     * Passes Event objects, recorded in given time period, one by one to the given consumer without loading all of them
+     * into memory. Default implementation reads the whole list by {@link #getEventsForPeriod(OffsetDateTime, OffsetDateTime, String)}.
+     *
+     * @param start      First date of the period
+     * @param end        Last date of the period
+     * @param instanceId The id of particular service instance
+     * @param consumer   Consumer of Event objects, ordered by the time of the event
+     */
+    default void streamEventsForPeriod(@NotNull OffsetDateTime start, @NotNull OffsetDateTime end, @Nullable String instanceId,
+                                       @NotNull Consumer<ReportEvent> consumer) {
+        getEventsForPeriod(start, end, instanceId).forEach(consumer);
+    }
+
     /**
      * Returns a list of Event objects, recorded in given time period and with the given consentId
      *
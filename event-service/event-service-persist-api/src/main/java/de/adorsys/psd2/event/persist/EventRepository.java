@@ -18,6 +18,9 @@ package de.adorsys.psd2.event.persist;
 
 import de.adorsys.psd2.event.persist.model.EventPO;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface EventRepository {
 
     /**
@@ -25,4 +28,16 @@ public interface EventRepository {
      * @return identifier of saved event
      */
     Long save(EventPO eventPO);
+
+    /**
+     * Saves several events at once. Default implementation saves the events one by one by {@link #save(EventPO)}.
+     *
+     * @param eventPOs list of {@link EventPO} objects for saving
+     * @return identifiers of saved events
+     */
+    default List<Long> saveAll(List<EventPO> eventPOs) {
+        return eventPOs.stream()
+                   .map(this::save)
+                   .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist;
+
+import de.adorsys.psd2.event.persist.jpa.EventPartitionJdbcRepository;
+import de.adorsys.psd2.event.persist.partition.EventArchiveWriter;
+import de.adorsys.psd2.event.persist.partition.EventPartition;
+import de.adorsys.psd2.event.persist.partition.EventPartitionInterval;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains partitions of <code>event</code> table. If the table isn't partitioned, expired events are removed
+ * from the table period by period, the same way as expired partitions are.
+ */
+@Slf4j
+@Service
+public class EventPartitionRepositoryImpl implements EventPartitionRepository {
+    private static final String EVENT_TABLE = "event";
+
+    private final EventPartitionJdbcRepository eventPartitionJdbcRepository;
+    private final EventArchiveWriter eventArchiveWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cms.event.partitioning.interval:MONTHLY}")
+    private EventPartitionInterval interval;
+    @Value("${cms.event.partitioning.create-ahead:2}")
+    private int createAhead;
+    @Value("${cms.event.retention.days:0}")
+    private int retentionDays;
+    @Value("${cms.event.retention.archive-directory:}")
+    private String archiveDirectory;
+
+    public EventPartitionRepositoryImpl(EventPartitionJdbcRepository eventPartitionJdbcRepository,
+                                        EventArchiveWriter eventArchiveWriter,
+                                        PlatformTransactionManager transactionManager) {
+        this.eventPartitionJdbcRepository = eventPartitionJdbcRepository;
+        this.eventArchiveWriter = eventArchiveWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public int createPartitions(LocalDate currentDate) {
+        if (!eventPartitionJdbcRepository.isPartitioned()) {
+            return 0;
+        }
+
+        Set<String> existingPartitions = new HashSet<>(eventPartitionJdbcRepository.getPartitionNames());
+        int created = 0;
+        EventPartition partition = interval.partitionOf(currentDate);
+        for (int index = 0; index <= createAhead; index++) {
+            if (!existingPartitions.contains(partition.getName()) && createPartition(partition)) {
+                created++;
+            }
+            partition = interval.partitionOf(partition.getEnd());
+        }
+        return created;
+    }
+
+    @Override
+    public int removeExpiredPartitions(LocalDate currentDate) {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+
+        LocalDate retentionStart = currentDate.minusDays(retentionDays);
+        int removed = 0;
+        if (eventPartitionJdbcRepository.isPartitioned()) {
+            List<EventPartition> expiredPartitions = eventPartitionJdbcRepository.getPartitionNames().stream()
+                                                         .map(EventPartitionInterval::parse)
+                                                         .flatMap(Optional::stream)
+                                                         .filter(p -> !p.getEnd().isAfter(retentionStart))
+                                                         .sorted(Comparator.comparing(EventPartition::getStart))
+                                                         .collect(Collectors.toList());
+            for (EventPartition partition : expiredPartitions) {
+                transactionTemplate.execute(status -> {
+                    archive(partition.getName(), partition);
+                    eventPartitionJdbcRepository.dropPartition(partition);
+                    return null;
+                });
+                log.info("Expired partition of events [{}] is dropped", partition.getName());
+                removed++;
+            }
+        }
+
+        // Events, stored out of dedicated partitions
+        Optional<EventPartition> expiredPeriod;
+        while ((expiredPeriod = findOldestExpiredPeriod(retentionStart)).isPresent()) {
+            EventPartition period = expiredPeriod.get();
+            Integer deleted = transactionTemplate.execute(status -> {
+                archive(EVENT_TABLE, period);
+                return eventPartitionJdbcRepository.deleteEvents(period);
+            });
+            if (deleted == null || deleted == 0) {
+                log.warn("No expired events of the period [{}] were deleted", period.getName());
+                break;
+            }
+            log.info("{} expired events of the period [{}] are deleted", deleted, period.getName());
+            removed++;
+        }
+        return removed;
+    }
+
+    private boolean createPartition(EventPartition partition) {
+        if (eventPartitionJdbcRepository.existEventsInDefaultPartition(partition)) {
+            log.info("Partition of events [{}] isn't created, as its events are already stored in default partition", partition.getName());
+            return false;
+        }
+
+        try {
+            eventPartitionJdbcRepository.createPartition(partition);
+            log.info("Partition of events [{}] is created", partition.getName());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Partition of events [{}] couldn't be created: {}", partition.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Optional<EventPartition> findOldestExpiredPeriod(LocalDate retentionStart) {
+        return eventPartitionJdbcRepository.findOldestEventDate()
+                   .map(interval::partitionOf)
+                   .filter(p -> !p.getEnd().isAfter(retentionStart));
+    }
+
+    private void archive(String tableName, EventPartition partition) {
+        if (StringUtils.isBlank(archiveDirectory)) {
+            return;
+        }
+
+        Path archive = eventArchiveWriter.write(Paths.get(archiveDirectory), partition.getName(),
+                                                rowCallbackHandler -> eventPartitionJdbcRepository.readEvents(tableName, partition, rowCallbackHandler));
+        log.info("Events of the period [{}] are archived to [{}]", partition.getName(), archive);
+    }
+}
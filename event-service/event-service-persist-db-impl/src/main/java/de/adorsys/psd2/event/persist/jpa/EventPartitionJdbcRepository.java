@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist.jpa;
+
+import de.adorsys.psd2.event.persist.partition.EventPartition;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Executes statements for maintenance of the <code>event</code> table and its partitions.
+ * Partitions are supported only by PostgreSQL, if <code>event</code> table was converted to the partitioned table
+ * by the database migration, other databases store all events in one table.
+ */
+@Repository
+public class EventPartitionJdbcRepository {
+    private static final String EVENT_TABLE = "event";
+    private static final String DEFAULT_PARTITION = "event_default";
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final String PARTITIONED_TABLE_KIND = "p";
+    private static final int ARCHIVE_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate archiveJdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.default_schema:}")
+    private String schemaName;
+
+    public EventPartitionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.archiveJdbcTemplate.setFetchSize(ARCHIVE_FETCH_SIZE);
+    }
+
+    public boolean isPartitioned() {
+        Boolean postgreSql = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgreSql)) {
+            return false;
+        }
+
+        List<String> tableKinds = jdbcTemplate.queryForList("select c.relkind from pg_class c " +
+                                                                "join pg_namespace n on n.oid = c.relnamespace " +
+                                                                "where c.relname = ? and n.nspname = coalesce(nullif(?, ''), current_schema())",
+                                                            String.class, EVENT_TABLE, StringUtils.defaultString(schemaName));
+        return tableKinds.contains(PARTITIONED_TABLE_KIND);
+    }
+
+    public List<String> getPartitionNames() {
+        return jdbcTemplate.queryForList("select c.relname from pg_inherits i " +
+                                             "join pg_class c on c.oid = i.inhrelid " +
+                                             "join pg_class p on p.oid = i.inhparent " +
+                                             "join pg_namespace n on n.oid = p.relnamespace " +
+                                             "where p.relname = ? and n.nspname = coalesce(nullif(?, ''), current_schema())",
+                                         String.class, EVENT_TABLE, StringUtils.defaultString(schemaName));
+    }
+
+    public boolean existEventsInDefaultPartition(EventPartition partition) {
+        return !jdbcTemplate.queryForList("select 1 from " + qualify(DEFAULT_PARTITION) + " where timestamp >= ? and timestamp < ? limit 1",
+                                          Integer.class, toTimestamp(partition.getStart()), toTimestamp(partition.getEnd()))
+                    .isEmpty();
+    }
+
+    public void createPartition(EventPartition partition) {
+        jdbcTemplate.execute("create table if not exists " + qualify(partition.getName()) + " partition of " + qualify(EVENT_TABLE) +
+                                 " for values from ('" + partition.getStart() + "') to ('" + partition.getEnd() + "')");
+    }
+
+    public void dropPartition(EventPartition partition) {
+        jdbcTemplate.execute("drop table " + qualify(partition.getName()));
+    }
+
+    public Optional<LocalDate> findOldestEventDate() {
+        Timestamp oldest = jdbcTemplate.queryForObject("select min(timestamp) from " + qualify(EVENT_TABLE), Timestamp.class);
+        return Optional.ofNullable(oldest)
+                   .map(timestamp -> timestamp.toLocalDateTime().toLocalDate());
+    }
+
+    /**
+     * Reads events of the partition by a database cursor
+     *
+     * @param tableName          name of the table to read events from, either the partition table or <code>event</code>
+     * @param partition          partition, which period events are read for
+     * @param rowCallbackHandler handler of the read rows, ordered by id
+     */
+    public void readEvents(String tableName, EventPartition partition, RowCallbackHandler rowCallbackHandler) {
+        archiveJdbcTemplate.query("select * from " + qualify(tableName) + " where timestamp >= ? and timestamp < ? order by id",
+                                  rowCallbackHandler, toTimestamp(partition.getStart()), toTimestamp(partition.getEnd()));
+    }
+
+    public int deleteEvents(EventPartition partition) {
+        return jdbcTemplate.update("delete from " + qualify(EVENT_TABLE) + " where timestamp >= ? and timestamp < ?",
+                                   toTimestamp(partition.getStart()), toTimestamp(partition.getEnd()));
+    }
+
+    private String qualify(String tableName) {
+        return StringUtils.isBlank(schemaName)
+                   ? tableName
+                   : schemaName + "." + tableName;
+    }
+
+    private Timestamp toTimestamp(LocalDate date) {
+        return Timestamp.valueOf(date.atStartOfDay());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist.partition;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes archives of removed events: gzip-compressed files with one JSON object per row, keyed by column names.
+ * Binary columns are written in Base64, timestamps - in ISO-8601 format without offset, as they are stored.
+ */
+@Component
+public class EventArchiveWriter {
+    private static final String ARCHIVE_EXTENSION = ".ndjson.gz";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Writes the archive with given name into the directory. The archive becomes visible in the directory only after
+     * all rows were written, existing archives are never overwritten.
+     *
+     * @param directory  directory of archives, created if it doesn't exist
+     * @param name       name of the archive without extension
+     * @param rowsReader reads the rows to be archived into given row handler
+     * @return path of written archive
+     */
+    public Path write(Path directory, String name, Consumer<RowCallbackHandler> rowsReader) {
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = directory.resolve(name + TEMPORARY_EXTENSION);
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile));
+                 JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                rowsReader.accept(rs -> writeRow(generator, rs));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+            return Files.move(temporaryFile, availableArchivePath(directory, name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Archive of events " + name + " couldn't be written", e);
+        }
+    }
+
+    private Path availableArchivePath(Path directory, String name) {
+        Path path = directory.resolve(name + ARCHIVE_EXTENSION);
+        for (int index = 1; Files.exists(path); index++) {
+            path = directory.resolve(name + "-" + index + ARCHIVE_EXTENSION);
+        }
+        return path;
+    }
+
+    private void writeRow(JsonGenerator generator, ResultSet rs) throws SQLException {
+        try {
+            ResultSetMetaData metaData = rs.getMetaData();
+            generator.writeStartObject();
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                generator.writeFieldName(metaData.getColumnLabel(column).toLowerCase(Locale.ROOT));
+                writeValue(generator, rs, column, metaData.getColumnType(column));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeValue(JsonGenerator generator, ResultSet rs, int column, int type) throws SQLException, IOException {
+        switch (type) {
+            case Types.BLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                writeBinary(generator, rs.getBytes(column));
+                break;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                Timestamp timestamp = rs.getTimestamp(column);
+                writeString(generator, timestamp == null ? null : timestamp.toLocalDateTime().toString());
+                break;
+            case Types.BIGINT:
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                String number = rs.getString(column);
+                if (number == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(number);
+                }
+                break;
+            default:
+                writeString(generator, rs.getString(column));
+        }
+    }
+
+    private void writeBinary(JsonGenerator generator, byte[] value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBinary(value);
+        }
+    }
+
+    private void writeString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist.partition;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Period of time, events of which are stored in one partition
+ */
+@Value
+public class EventPartition {
+    /**
+     * Name of the partition table
+     */
+    private String name;
+    /**
+     * First date of the period, inclusive
+     */
+    private LocalDate start;
+    /**
+     * First date after the period, exclusive
+     */
+    private LocalDate end;
+}
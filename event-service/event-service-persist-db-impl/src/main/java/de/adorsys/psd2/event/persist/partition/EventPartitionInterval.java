@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Optional;
+
+/**
+ * Length of the period, events of which are stored in one partition.
+ * Partition tables are named after the first date of the period, e.g. <code>event_p2020_04</code> for monthly
+ * and <code>event_p2020_04_15</code> for daily partitions.
+ */
+public enum EventPartitionInterval {
+    DAILY(ChronoUnit.DAYS, "yyyy_MM_dd"),
+    MONTHLY(ChronoUnit.MONTHS, "yyyy_MM");
+
+    private static final String PARTITION_PREFIX = "event_p";
+
+    private final ChronoUnit unit;
+    private final int suffixLength;
+    private final DateTimeFormatter formatter;
+
+    EventPartitionInterval(ChronoUnit unit, String pattern) {
+        this.unit = unit;
+        this.suffixLength = pattern.length();
+        this.formatter = new DateTimeFormatterBuilder()
+                             .appendPattern(pattern)
+                             .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+                             .toFormatter();
+    }
+
+    /**
+     * @param date any date
+     * @return partition for the period, containing given date
+     */
+    public EventPartition partitionOf(LocalDate date) {
+        LocalDate start = unit == ChronoUnit.MONTHS
+                              ? date.with(TemporalAdjusters.firstDayOfMonth())
+                              : date;
+        return new EventPartition(PARTITION_PREFIX + formatter.format(start), start, start.plus(1, unit));
+    }
+
+    /**
+     * Restores the partition from the name of its table
+     *
+     * @param name name of the partition table
+     * @return partition or empty value, if the table isn't named after any interval
+     */
+    public static Optional<EventPartition> parse(String name) {
+        if (name == null || !name.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+
+        String suffix = name.substring(PARTITION_PREFIX.length());
+        for (EventPartitionInterval interval : values()) {
+            if (suffix.length() == interval.suffixLength) {
+                return interval.parseSuffix(suffix);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Optional<EventPartition> parseSuffix(String suffix) {
+        try {
+            return Optional.of(partitionOf(LocalDate.parse(suffix, formatter)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.event.persist.jpa.EventJPARepository;
+import de.adorsys.psd2.event.persist.model.EventPO;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@ContextConfiguration(classes = TestDBConfiguration.class)
+class EventPartitionRepositoryImplIT {
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2020, 4, 15);
+    private static final byte[] PAYLOAD = "payload".getBytes();
+
+    @Autowired
+    private EventPartitionRepositoryImpl eventPartitionRepository;
+    @Autowired
+    private EventRepositoryImpl eventRepository;
+    @Autowired
+    private EventJPARepository eventJPARepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    private JsonReader jsonReader = new JsonReader();
+
+    @TempDir
+    Path archiveDirectory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(eventPartitionRepository, "retentionDays", 30);
+        ReflectionTestUtils.setField(eventPartitionRepository, "archiveDirectory", archiveDirectory.toString());
+
+        saveEvent(OffsetDateTime.parse("2020-01-10T10:00:00Z"));
+        saveEvent(OffsetDateTime.parse("2020-01-20T10:00:00Z"));
+        saveEvent(OffsetDateTime.parse("2020-02-20T10:00:00Z"));
+        saveEvent(OffsetDateTime.parse("2020-04-10T10:00:00Z"));
+        entityManager.flush();
+    }
+
+    @Test
+    void createPartitions_notPartitioned() {
+        // When
+        int actual = eventPartitionRepository.createPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(0, actual);
+    }
+
+    @Test
+    void removeExpiredPartitions() throws IOException {
+        // When
+        int actual = eventPartitionRepository.removeExpiredPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(2, actual);
+        assertEquals(1, eventJPARepository.count());
+
+        List<JsonNode> january = readArchive(archiveDirectory.resolve("event_p2020_01.ndjson.gz"));
+        assertEquals(2, january.size());
+        assertArrayEquals(PAYLOAD, january.get(0).get("payload").binaryValue());
+        assertEquals(1, readArchive(archiveDirectory.resolve("event_p2020_02.ndjson.gz")).size());
+    }
+
+    @Test
+    void removeExpiredPartitions_withoutArchive() {
+        // Given
+        ReflectionTestUtils.setField(eventPartitionRepository, "archiveDirectory", "");
+
+        // When
+        int actual = eventPartitionRepository.removeExpiredPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(2, actual);
+        assertEquals(1, eventJPARepository.count());
+    }
+
+    private void saveEvent(OffsetDateTime timestamp) {
+        EventPO eventPO = jsonReader.getObjectFromFile("json/event.json", EventPO.class);
+        eventPO.setTimestamp(timestamp);
+        eventPO.setPayload(PAYLOAD);
+        eventRepository.save(eventPO);
+    }
+
+    private List<JsonNode> readArchive(Path archive) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                       .map(line -> {
+                           try {
+                               return objectMapper.readTree(line);
+                           } catch (IOException e) {
+                               throw new IllegalStateException(e);
+                           }
+                       })
+                       .collect(Collectors.toList());
+        }
+    }
+}
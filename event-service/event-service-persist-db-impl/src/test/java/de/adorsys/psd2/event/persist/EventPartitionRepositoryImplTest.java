@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist;
+
+import de.adorsys.psd2.event.persist.jpa.EventPartitionJdbcRepository;
+import de.adorsys.psd2.event.persist.partition.EventArchiveWriter;
+import de.adorsys.psd2.event.persist.partition.EventPartition;
+import de.adorsys.psd2.event.persist.partition.EventPartitionInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPartitionRepositoryImplTest {
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2020, 4, 15);
+    private static final EventPartition APRIL = EventPartitionInterval.MONTHLY.partitionOf(CURRENT_DATE);
+    private static final EventPartition MAY = EventPartitionInterval.MONTHLY.partitionOf(APRIL.getEnd());
+    private static final EventPartition JUNE = EventPartitionInterval.MONTHLY.partitionOf(MAY.getEnd());
+    private static final EventPartition JANUARY = EventPartitionInterval.MONTHLY.partitionOf(LocalDate.of(2020, 1, 20));
+    private static final EventPartition FEBRUARY = EventPartitionInterval.MONTHLY.partitionOf(LocalDate.of(2020, 2, 20));
+    private static final String ARCHIVE_DIRECTORY = "archive";
+
+    @Mock
+    private EventPartitionJdbcRepository eventPartitionJdbcRepository;
+    @Mock
+    private EventArchiveWriter eventArchiveWriter;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EventPartitionRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new EventPartitionRepositoryImpl(eventPartitionJdbcRepository, eventArchiveWriter, transactionManager);
+        ReflectionTestUtils.setField(repository, "interval", EventPartitionInterval.MONTHLY);
+        ReflectionTestUtils.setField(repository, "createAhead", 2);
+        ReflectionTestUtils.setField(repository, "retentionDays", 60);
+        ReflectionTestUtils.setField(repository, "archiveDirectory", ARCHIVE_DIRECTORY);
+    }
+
+    @Test
+    void createPartitions() {
+        // Given
+        when(eventPartitionJdbcRepository.isPartitioned()).thenReturn(true);
+        when(eventPartitionJdbcRepository.getPartitionNames()).thenReturn(Arrays.asList("event_default", APRIL.getName()));
+
+        // When
+        int actual = repository.createPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(2, actual);
+        verify(eventPartitionJdbcRepository).createPartition(MAY);
+        verify(eventPartitionJdbcRepository).createPartition(JUNE);
+        verify(eventPartitionJdbcRepository, never()).createPartition(APRIL);
+    }
+
+    @Test
+    void createPartitions_notPartitioned() {
+        // Given
+        when(eventPartitionJdbcRepository.isPartitioned()).thenReturn(false);
+
+        // When
+        int actual = repository.createPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(0, actual);
+        verify(eventPartitionJdbcRepository, never()).createPartition(any());
+    }
+
+    @Test
+    void createPartitions_eventsInDefaultPartition() {
+        // Given
+        when(eventPartitionJdbcRepository.isPartitioned()).thenReturn(true);
+        when(eventPartitionJdbcRepository.getPartitionNames()).thenReturn(Collections.singletonList("event_default"));
+        when(eventPartitionJdbcRepository.existEventsInDefaultPartition(any())).thenAnswer(invocation -> APRIL.equals(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            if (JUNE.equals(invocation.getArgument(0))) {
+                throw new DataIntegrityViolationException("exists");
+            }
+            return null;
+        }).when(eventPartitionJdbcRepository).createPartition(any());
+
+        // When
+        int actual = repository.createPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(1, actual);
+        verify(eventPartitionJdbcRepository, never()).createPartition(APRIL);
+        verify(eventPartitionJdbcRepository).createPartition(MAY);
+    }
+
+    @Test
+    void removeExpiredPartitions_partitioned() {
+        // Given
+        when(eventPartitionJdbcRepository.isPartitioned()).thenReturn(true);
+        when(eventPartitionJdbcRepository.getPartitionNames()).thenReturn(Arrays.asList("event_default", FEBRUARY.getName(), JANUARY.getName(), APRIL.getName()));
+        when(eventPartitionJdbcRepository.findOldestEventDate()).thenReturn(Optional.of(APRIL.getStart()));
+        when(eventArchiveWriter.write(eq(Paths.get(ARCHIVE_DIRECTORY)), any(), any())).thenReturn(Paths.get(ARCHIVE_DIRECTORY));
+
+        // When
+        int actual = repository.removeExpiredPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(1, actual);
+        verify(eventArchiveWriter).write(eq(Paths.get(ARCHIVE_DIRECTORY)), eq(JANUARY.getName()), any());
+        verify(eventPartitionJdbcRepository).dropPartition(JANUARY);
+        verify(eventPartitionJdbcRepository, never()).dropPartition(FEBRUARY);
+        verify(eventPartitionJdbcRepository, never()).deleteEvents(any());
+    }
+
+    @Test
+    void removeExpiredPartitions_notPartitioned() {
+        // Given
+        when(eventPartitionJdbcRepository.isPartitioned()).thenReturn(false);
+        when(eventPartitionJdbcRepository.findOldestEventDate()).thenReturn(Optional.of(LocalDate.of(2020, 1, 20)), Optional.of(FEBRUARY.getStart()));
+        when(eventPartitionJdbcRepository.deleteEvents(JANUARY)).thenReturn(10);
+        ReflectionTestUtils.setField(repository, "archiveDirectory", "");
+
+        // When
+        int actual = repository.removeExpiredPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(1, actual);
+        verify(eventPartitionJdbcRepository).deleteEvents(JANUARY);
+        verifyNoInteractions(eventArchiveWriter);
+    }
+
+    @Test
+    void removeExpiredPartitions_retentionDisabled() {
+        // Given
+        ReflectionTestUtils.setField(repository, "retentionDays", 0);
+
+        // When
+        int actual = repository.removeExpiredPartitions(CURRENT_DATE);
+
+        // Then
+        assertEquals(0, actual);
+        verifyNoInteractions(eventPartitionJdbcRepository, eventArchiveWriter);
+    }
+}
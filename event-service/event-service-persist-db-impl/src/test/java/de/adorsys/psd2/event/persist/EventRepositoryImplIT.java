@@ -18,6 +18,7 @@ package de.adorsys.psd2.event.persist;
 
 import de.adorsys.psd2.event.persist.model.EventPO;
 import de.adorsys.xs2a.reader.JsonReader;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,7 +28,10 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @ExtendWith(SpringExtension.class)
@@ -57,4 +61,17 @@ class EventRepositoryImplIT {
     void save() {
         assertNotNull(savedId);
     }
+
+    @Test
+    void saveAll() {
+        EventPO first = jsonReader.getObjectFromFile("json/event.json", EventPO.class);
+        first.setTimestamp(CREATED_DATETIME);
+        EventPO second = jsonReader.getObjectFromFile("json/event.json", EventPO.class);
+        second.setTimestamp(CREATED_DATETIME);
+
+        List<Long> savedIds = repository.saveAll(Arrays.asList(first, second));
+
+        assertEquals(2, savedIds.size());
+        savedIds.forEach(Assertions::assertNotNull);
+    }
 }
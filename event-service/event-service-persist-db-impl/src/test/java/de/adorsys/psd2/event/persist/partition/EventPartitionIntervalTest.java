@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.event.persist.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class EventPartitionIntervalTest {
+    private static final LocalDate DATE = LocalDate.of(2020, 4, 15);
+
+    @Test
+    void partitionOf_monthly() {
+        // When
+        EventPartition actual = EventPartitionInterval.MONTHLY.partitionOf(DATE);
+
+        // Then
+        assertEquals(new EventPartition("event_p2020_04", LocalDate.of(2020, 4, 1), LocalDate.of(2020, 5, 1)), actual);
+    }
+
+    @Test
+    void partitionOf_monthly_endOfYear() {
+        // When
+        EventPartition actual = EventPartitionInterval.MONTHLY.partitionOf(LocalDate.of(2020, 12, 31));
+
+        // Then
+        assertEquals(new EventPartition("event_p2020_12", LocalDate.of(2020, 12, 1), LocalDate.of(2021, 1, 1)), actual);
+    }
+
+    @Test
+    void partitionOf_daily() {
+        // When
+        EventPartition actual = EventPartitionInterval.DAILY.partitionOf(DATE);
+
+        // Then
+        assertEquals(new EventPartition("event_p2020_04_15", DATE, LocalDate.of(2020, 4, 16)), actual);
+    }
+
+    @Test
+    void parse() {
+        // When
+        Optional<EventPartition> monthly = EventPartitionInterval.parse("event_p2020_04");
+        Optional<EventPartition> daily = EventPartitionInterval.parse("event_p2020_04_15");
+
+        // Then
+        assertEquals(Optional.of(EventPartitionInterval.MONTHLY.partitionOf(DATE)), monthly);
+        assertEquals(Optional.of(EventPartitionInterval.DAILY.partitionOf(DATE)), daily);
+    }
+
+    @Test
+    void parse_notPartitionName() {
+        // When
+        // Then
+        assertFalse(EventPartitionInterval.parse("event_default").isPresent());
+        assertFalse(EventPartitionInterval.parse("event_p2020_13").isPresent());
+        assertFalse(EventPartitionInterval.parse("event_p2020_04_1").isPresent());
+        assertFalse(EventPartitionInterval.parse(null).isPresent());
+    }
+}
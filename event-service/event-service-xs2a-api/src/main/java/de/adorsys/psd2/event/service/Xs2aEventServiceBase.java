@@ -19,6 +19,8 @@ package de.adorsys.psd2.event.service;
 import de.adorsys.psd2.event.service.model.EventBO;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public interface Xs2aEventServiceBase {
     /**
      * Records new Event in the CMS
@@ -27,4 +29,19 @@ public interface Xs2aEventServiceBase {
      * @return <code>true</code> if the event was recorded. <code>false</code> otherwise.
      */
     boolean recordEvent(@NotNull EventBO event);
+
+    /**
+     * Records several new Events in the CMS at once. Default implementation records the events one by one by
+     * {@link #recordEvent(EventBO)}.
+     *
+     * @param events Events to be recorded
+     * @return <code>true</code> if all the events were recorded. <code>false</code> otherwise.
+     */
+    default boolean recordEvents(@NotNull List<EventBO> events) {
+        boolean allRecorded = true;
+        for (EventBO event : events) {
+            allRecorded &= recordEvent(event);
+        }
+        return allRecorded;
+    }
 }
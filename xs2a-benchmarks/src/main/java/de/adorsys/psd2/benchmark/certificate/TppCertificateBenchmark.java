@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.certificate;
+
+import de.adorsys.psd2.validator.certificate.util.CertificateExtractorUtil;
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import de.adorsys.psd2.validator.signature.SignatureVerifier;
+import de.adorsys.psd2.validator.signature.impl.SignatureVerifierImpl;
+import de.adorsys.xs2a.reader.JsonReader;
+import no.difi.certvalidator.api.CertificateValidationException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the processing of TPP certificates, done on every request: extraction of TPP data from QWAC certificate
+ * and verification of the request signature with TPP signature certificate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TppCertificateBenchmark {
+    private static final String METHOD = "POST";
+    private static final String URI = "/request-uri/example";
+
+    private final SignatureVerifier signatureVerifier = new SignatureVerifierImpl();
+    private String qwacCertificate;
+    private String signatureCertificate;
+    private String signature;
+    private Map<String, String> headers;
+
+    @Setup
+    public void setUp() {
+        JsonReader jsonReader = new JsonReader();
+        qwacCertificate = jsonReader.getStringFromFile("certificate/qwac-certificate.crt");
+        signatureCertificate = jsonReader.getStringFromFile("certificate/tpp-signature-certificate.txt");
+        signature = jsonReader.getStringFromFile("certificate/signature.txt");
+
+        headers = new HashMap<>();
+        headers.put("accept", "application/json");
+        headers.put("psu-ip-address", "1.1.1.1");
+        headers.put("psu-id", "anton.brueckner");
+        headers.put("x-request-id", "2f77a125-aa7a-45c0-b414-cea25a116035");
+        headers.put("signature", signature);
+        headers.put("digest", "SHA-256=cE4iyBDKyP5qdfUyHuB4eZf5iqA5pSAjTzl8l89Oh20=");
+        headers.put("date", "Sun, 06 Aug 2019 15:02:37 GMT");
+        headers.put("tpp-signature-certificate", signatureCertificate);
+
+        if (!verifySignature()) {
+            throw new IllegalStateException("Signature is expected to be valid");
+        }
+    }
+
+    @Benchmark
+    public TppCertificateData extractCertificateData() throws CertificateValidationException {
+        return CertificateExtractorUtil.extract(qwacCertificate);
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        return signatureVerifier.verify(signature, signatureCertificate, headers, METHOD, URI);
+    }
+}
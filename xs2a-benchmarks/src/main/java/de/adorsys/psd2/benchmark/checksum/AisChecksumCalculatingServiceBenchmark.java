@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.checksum;
+
+import de.adorsys.psd2.consent.service.sha.ChecksumCalculatingService;
+import de.adorsys.psd2.consent.service.sha.v3.AisChecksumCalculatingServiceV3;
+import de.adorsys.psd2.consent.service.sha.v4.AisChecksumCalculatingServiceV4;
+import de.adorsys.psd2.core.data.ais.AisConsent;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures calculation and verification of the checksum of AIS consent with TPP and ASPSP accesses by IBAN and masked
+ * PAN. Verification is measured outside of the transaction, so the checksum of version 4 is calculated on each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AisChecksumCalculatingServiceBenchmark {
+    @Param({"003", "004"})
+    private String checksumVersion;
+
+    private ChecksumCalculatingService checksumCalculatingService;
+    private AisConsent aisConsent;
+    private byte[] checksum;
+
+    @Setup
+    public void setUp() {
+        checksumCalculatingService = "003".equals(checksumVersion)
+                                         ? new AisChecksumCalculatingServiceV3()
+                                         : new AisChecksumCalculatingServiceV4();
+        aisConsent = new JsonReader().getObjectFromFile("json/ais-consent.json", AisConsent.class);
+        checksum = checksumCalculatingService.calculateChecksumForConsent(aisConsent);
+    }
+
+    @Benchmark
+    public byte[] calculateChecksumForConsent() {
+        return checksumCalculatingService.calculateChecksumForConsent(aisConsent);
+    }
+
+    @Benchmark
+    public boolean verifyConsentWithChecksum() {
+        return checksumCalculatingService.verifyConsentWithChecksum(aisConsent, checksum);
+    }
+}
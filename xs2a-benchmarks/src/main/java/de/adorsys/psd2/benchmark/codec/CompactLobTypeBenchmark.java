@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.codec;
+
+import de.adorsys.psd2.consent.domain.codec.CompactLobType;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.annotations.Type;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.openjdk.jmh.annotations.*;
+
+import javax.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures reading and updating of an entity with JSON data in LOB column, mapped as plain <code>@Lob byte[]</code>
+ * and with {@link CompactLobType}, in in-memory H2 database. The data of single payment is stored uncompressed, the data
+ * of AIS consent is compressed. Updates of the status write the unchanged LOB again, as entities are updated without
+ * <code>@DynamicUpdate</code>, updates of the data replace the LOB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactLobTypeBenchmark {
+    private static final Long ENTITY_ID = 1L;
+    private static final Map<String, String> DATA_FILES = new HashMap<>();
+
+    static {
+        DATA_FILES.put("single-payment", "json/payment/single-payment.json");
+        DATA_FILES.put("ais-consent", "json/ais-consent.json");
+    }
+
+    @Param({"plain", "compact"})
+    private String lobType;
+    @Param({"single-payment", "ais-consent"})
+    private String dataType;
+
+    private SessionFactory sessionFactory;
+    private Class<? extends LobEntity> entityClass;
+    private byte[] data;
+    private byte[] changedData;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, "jdbc:h2:mem:lob-benchmark;DB_CLOSE_DELAY=-1")
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .build())
+                             .addAnnotatedClass(PlainLobEntity.class)
+                             .addAnnotatedClass(CompactLobEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityClass = "plain".equals(lobType) ? PlainLobEntity.class : CompactLobEntity.class;
+        data = new JsonReader().getStringFromFile(DATA_FILES.get(dataType)).getBytes(StandardCharsets.UTF_8);
+        // trailing whitespace keeps the data valid JSON
+        changedData = Arrays.copyOf(data, data.length + 1);
+        changedData[data.length] = ' ';
+
+        LobEntity entity = entityClass.getDeclaredConstructor().newInstance();
+        entity.setId(ENTITY_ID);
+        entity.setData(data.clone());
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.persist(entity);
+            transaction.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public byte[] read() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.get(entityClass, ENTITY_ID).getData();
+        }
+    }
+
+    @Benchmark
+    public void updateStatus() {
+        update(entity -> entity.setStatus(entity.getStatus() + 1));
+    }
+
+    @Benchmark
+    public void updateData() {
+        update(entity -> entity.setData(entity.getData().length == data.length ? changedData.clone() : data.clone()));
+    }
+
+    private void update(Consumer<LobEntity> change) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            change.accept(session.get(entityClass, ENTITY_ID));
+            transaction.commit();
+        }
+    }
+
+    @MappedSuperclass
+    public abstract static class LobEntity {
+        @Id
+        private Long id;
+
+        @Column(name = "status", nullable = false)
+        private int status;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public abstract byte[] getData();
+
+        public abstract void setData(byte[] data);
+    }
+
+    @Entity(name = "plain_lob_entity")
+    public static class PlainLobEntity extends LobEntity {
+        @Lob
+        @Column(name = "data")
+        private byte[] data;
+
+        @Override
+        public byte[] getData() {
+            return data;
+        }
+
+        @Override
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    @Entity(name = "compact_lob_entity")
+    public static class CompactLobEntity extends LobEntity {
+        @Type(type = CompactLobType.NAME)
+        @Column(name = "data")
+        private byte[] data;
+
+        @Override
+        public byte[] getData() {
+            return data;
+        }
+
+        @Override
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.crypto;
+
+import de.adorsys.psd2.consent.service.security.EncryptedData;
+import de.adorsys.psd2.consent.service.security.provider.CryptoProvider;
+import de.adorsys.psd2.consent.service.security.provider.DerivedKeyCache;
+import de.adorsys.psd2.consent.service.security.provider.aes.AesEcbCryptoProviderImpl;
+import de.adorsys.psd2.consent.service.security.provider.jwe.JweCryptoProviderImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encryption and decryption of a consent ID with and without caching of derived keys
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoProviderBenchmark {
+    private static final String PASSWORD = "mvLBiZsiTbGwrfJB";
+    private static final byte[] DATA = "2d3b8b3e-25a6-4b2e-a1b4-3ef1a4ae1ad1_E8F2pXmLcHM3r4Sb".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"AES", "JWE"})
+    private String algorithm;
+
+    @Param({"true", "false"})
+    private boolean keyCacheEnabled;
+
+    private CryptoProvider cryptoProvider;
+    private byte[] encryptedData;
+
+    @Setup
+    public void setUp() {
+        DerivedKeyCache derivedKeyCache = keyCacheEnabled
+                                              ? new DerivedKeyCache()
+                                              : new DerivedKeyCache(0, 0);
+        cryptoProvider = "AES".equals(algorithm)
+                             ? new AesEcbCryptoProviderImpl("bS6p6XvTWI", "AES/ECB/PKCS5Padding", 256, 65536, "PBKDF2WithHmacSHA256", derivedKeyCache)
+                             : new JweCryptoProviderImpl("JcHZwvJMuc", 256, 65536, "PBKDF2WithHmacSHA256", derivedKeyCache);
+        encryptedData = cryptoProvider.encryptData(DATA, PASSWORD)
+                            .map(EncryptedData::getData)
+                            .orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Object encryptData() {
+        return cryptoProvider.encryptData(DATA, PASSWORD);
+    }
+
+    @Benchmark
+    public Object decryptData() {
+        return cryptoProvider.decryptData(encryptedData, PASSWORD);
+    }
+}
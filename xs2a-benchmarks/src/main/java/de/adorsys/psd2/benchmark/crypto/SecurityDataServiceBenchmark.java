@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.crypto;
+
+import de.adorsys.psd2.consent.service.security.SecurityDataService;
+import de.adorsys.psd2.consent.service.security.provider.CryptoProvider;
+import de.adorsys.psd2.consent.service.security.provider.CryptoProviderHolder;
+import de.adorsys.psd2.consent.service.security.provider.aes.AesEcbInstanceFactoryImpl;
+import de.adorsys.psd2.consent.service.security.provider.jwe.JweGsmInstanceFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encryption and decryption of external consent and payment IDs by {@link SecurityDataService} with crypto
+ * providers, configured in the same way as the default ID and data providers of CMS database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityDataServiceBenchmark {
+    private static final String ID_PROVIDER_ID = "psGLvQpt9Q";
+    private static final String DATA_PROVIDER_ID = "JcHZwvJMuc";
+    private static final String ORIGINAL_ID = "2d3b8b3e-25a6-4b2e-a1b4-3ef1a4ae1ad1";
+
+    private SecurityDataService securityDataService;
+    private String encryptedId;
+
+    @Setup
+    public void setUp() {
+        Map<String, CryptoProvider> providers = new HashMap<>();
+        providers.put(ID_PROVIDER_ID, new AesEcbInstanceFactoryImpl()
+                                          .initProvider(ID_PROVIDER_ID, "AES/ECB/PKCS5Padding_#_5_#_256_#_1024_#_PBKDF2WithHmacSHA256"));
+        providers.put(DATA_PROVIDER_ID, new JweGsmInstanceFactoryImpl()
+                                            .initProvider(DATA_PROVIDER_ID, "JWE/GCM/256_#_6_#_256_#_1024_#_PBKDF2WithHmacSHA256"));
+
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources()
+            .addFirst(new MapPropertySource("benchmark", Collections.singletonMap("server_key", "my-secret-server-key")));
+
+        securityDataService = new SecurityDataService(environment, new CryptoProviderHolder(providers, DATA_PROVIDER_ID, ID_PROVIDER_ID));
+        encryptedId = securityDataService.encryptId(ORIGINAL_ID)
+                          .orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Object encryptId() {
+        return securityDataService.encryptId(ORIGINAL_ID);
+    }
+
+    @Benchmark
+    public Object decryptId() {
+        return securityDataService.decryptId(encryptedId);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.benchmark.link;
+
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.core.profile.ScaRedirectFlow;
+import de.adorsys.psd2.xs2a.domain.HrefType;
+import de.adorsys.psd2.xs2a.domain.Links;
+import de.adorsys.psd2.xs2a.domain.pis.PaymentInitiationParameters;
+import de.adorsys.psd2.xs2a.domain.pis.SinglePaymentInitiationResponse;
+import de.adorsys.psd2.xs2a.service.ScaApproachResolver;
+import de.adorsys.psd2.xs2a.web.aspect.UrlHolder;
+import de.adorsys.psd2.xs2a.web.link.PaymentInitiationLinks;
+import de.adorsys.psd2.xs2a.web.link.TransactionsReportAccountLinks;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building of hypermedia links for payment initiation and transactions report responses by compiled link
+ * templates in comparison with building of every link by {@link UriComponentsBuilder}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinksBenchmark {
+    private static final String HTTP_URL = "https://xs2a.example.com:8443/";
+    private static final String PAYMENT_SERVICE = "payments";
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String PAYMENT_ID = "j5drwApSajpoFP1h5_pYxh9ftC4ogs6_6emI06HD6O_pllrbeOyAHl4YXhAXbDTnk0TyKYKH8uiQvSrzLsiMcs_aJzS3dI_tse0HueAjChY=_=_psGLvQpt9Q";
+    private static final String AUTHORISATION_ID = "8ac4ca34-8dbf-4b50-9a8b-2d31c3e1b4e5";
+    private static final String ACCOUNT_ID = "3b8b3e25-a6b4-4ea1-b43e-f1a4ae1ad12d";
+
+    private ScaApproachResolver scaApproachResolver;
+    private PaymentInitiationParameters paymentInitiationParameters;
+    private SinglePaymentInitiationResponse paymentInitiationResponse;
+
+    @Setup
+    public void setUp() {
+        scaApproachResolver = new ScaApproachResolver(null, null, null, null, null) {
+            @Override
+            public ScaApproach getScaApproach(@NotNull String authorisationId) {
+                return ScaApproach.EMBEDDED;
+            }
+        };
+
+        paymentInitiationParameters = new PaymentInitiationParameters();
+        paymentInitiationParameters.setPaymentType(PaymentType.SINGLE);
+        paymentInitiationParameters.setPaymentProduct(PAYMENT_PRODUCT);
+
+        paymentInitiationResponse = new SinglePaymentInitiationResponse();
+        paymentInitiationResponse.setTransactionStatus(TransactionStatus.RCVD);
+        paymentInitiationResponse.setPaymentId(PAYMENT_ID);
+        paymentInitiationResponse.setAuthorizationId(AUTHORISATION_ID);
+    }
+
+    @Benchmark
+    public Object paymentInitiationLinks() {
+        return new PaymentInitiationLinks(HTTP_URL, scaApproachResolver, null, null,
+                                          paymentInitiationParameters, paymentInitiationResponse,
+                                          false, false, ScaRedirectFlow.REDIRECT, false);
+    }
+
+    @Benchmark
+    public Object paymentInitiationLinksByUriComponentsBuilder() {
+        Links links = new Links();
+        links.setSelf(buildPath(UrlHolder.PAYMENT_LINK_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID));
+        links.setStatus(buildPath(UrlHolder.PAYMENT_STATUS_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID));
+        links.setScaStatus(buildPath(UrlHolder.PIS_AUTHORISATION_LINK_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID));
+        links.setUpdatePsuAuthentication(buildPath(UrlHolder.PIS_AUTHORISATION_LINK_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID));
+        return links;
+    }
+
+    @Benchmark
+    public Object transactionsReportAccountLinks() {
+        return new TransactionsReportAccountLinks(HTTP_URL, ACCOUNT_ID, true);
+    }
+
+    @Benchmark
+    public Object transactionsReportAccountLinksByUriComponentsBuilder() {
+        Links links = new Links();
+        links.setAccount(buildPath(UrlHolder.ACCOUNT_LINK_URL, ACCOUNT_ID));
+        links.setBalances(buildPath(UrlHolder.ACCOUNT_BALANCES_URL, ACCOUNT_ID));
+        return links;
+    }
+
+    private HrefType buildPath(String path, Object... params) {
+        return new HrefType(UriComponentsBuilder.fromHttpUrl(HTTP_URL)
+                                .path(path)
+                                .buildAndExpand(params)
+                                .toUriString());
+    }
+}
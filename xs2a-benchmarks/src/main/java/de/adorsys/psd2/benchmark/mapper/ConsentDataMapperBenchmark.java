@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.mapper;
+
+import de.adorsys.psd2.core.data.ais.AisConsentData;
+import de.adorsys.psd2.core.data.piis.v1.PiisConsentData;
+import de.adorsys.psd2.core.mapper.ConsentDataMapper;
+import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialisation and deserialisation of AIS and PIIS consent data, stored in CMS as a byte array and read
+ * on every mapping of the consent entity
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsentDataMapperBenchmark {
+    private final ConsentDataMapper consentDataMapper = new ConsentDataMapper();
+    private AisConsentData aisConsentData;
+    private byte[] aisConsentDataBytes;
+    private byte[] piisConsentDataBytes;
+
+    @Setup
+    public void setUp() {
+        aisConsentData = new AisConsentData(AccountAccessType.ALL_ACCOUNTS, null, null, true);
+        aisConsentDataBytes = consentDataMapper.getBytesFromConsentData(aisConsentData);
+        piisConsentDataBytes = consentDataMapper.getBytesFromConsentData(
+            new PiisConsentData("1234567891234", LocalDate.of(2025, 12, 31), "MyMerchant", "Card1234"));
+    }
+
+    @Benchmark
+    public AisConsentData mapToAisConsentData() {
+        return consentDataMapper.mapToAisConsentData(aisConsentDataBytes);
+    }
+
+    @Benchmark
+    public PiisConsentData mapToPiisConsentData() {
+        return consentDataMapper.mapToPiisConsentData(piisConsentDataBytes);
+    }
+
+    @Benchmark
+    public byte[] getBytesFromAisConsentData() {
+        return consentDataMapper.getBytesFromConsentData(aisConsentData);
+    }
+}
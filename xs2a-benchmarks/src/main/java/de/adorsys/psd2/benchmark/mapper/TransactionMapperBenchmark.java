@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.mapper;
+
+import de.adorsys.psd2.mapper.Xs2aObjectMapper;
+import de.adorsys.psd2.mapper.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.domain.Transactions;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.service.mapper.AccountModelMapper;
+import de.adorsys.psd2.xs2a.service.mapper.AccountModelMapperImpl;
+import de.adorsys.psd2.xs2a.service.mapper.AmountModelMapper;
+import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.*;
+import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.psd2.xs2a.web.mapper.HrefLinkMapper;
+import de.adorsys.psd2.xs2a.web.mapper.PurposeCodeMapperImpl;
+import de.adorsys.psd2.xs2a.web.mapper.Xs2aAddressMapperImpl;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures MapStruct mapping of the transactions report from SPI to XS2A domain and from XS2A domain to the response
+ * model. Mappers are created by Spring, as the generated implementations get their dependencies by field injection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMapperBenchmark {
+    @Param({"10", "1000"})
+    private int transactionsCount;
+
+    private AnnotationConfigApplicationContext context;
+    private SpiToXs2aTransactionMapper spiToXs2aTransactionMapper;
+    private AccountModelMapper accountModelMapper;
+    private List<SpiTransaction> spiTransactions;
+    private Xs2aTransactionsReport transactionsReport;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(Xs2aObjectMapper.class, () -> new ObjectMapperConfig().xs2aObjectMapper());
+        context.registerBean(AspspProfileServiceWrapper.class, () -> new AspspProfileServiceWrapper(null));
+        context.registerBean(AmountModelMapper.class, () -> new AmountModelMapper(null));
+        context.register(HrefLinkMapper.class, PurposeCodeMapperImpl.class, Xs2aAddressMapperImpl.class, AccountModelMapperImpl.class,
+                         SpiToXs2aAmountMapperImpl.class, SpiToXs2aBalanceMapperImpl.class, SpiToXs2aExchangeRateMapperImpl.class,
+                         SpiToXs2aAccountReferenceMapperImpl.class, SpiToXs2aTransactionMapperImpl.class);
+        context.refresh();
+        spiToXs2aTransactionMapper = context.getBean(SpiToXs2aTransactionMapper.class);
+        accountModelMapper = context.getBean(AccountModelMapper.class);
+
+        SpiTransaction spiTransaction = new JsonReader().getObjectFromFile("json/spi-transaction.json", SpiTransaction.class);
+        spiTransactions = Collections.nCopies(transactionsCount, spiTransaction);
+
+        List<Transactions> transactions = spiToXs2aTransactionMapper.mapToXs2aTransactionList(spiTransactions);
+        transactionsReport = new Xs2aTransactionsReport();
+        transactionsReport.setAccountReport(new Xs2aAccountReport(transactions, Collections.emptyList(), null, null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object mapSpiTransactionsToXs2a() {
+        return spiToXs2aTransactionMapper.mapToXs2aTransactionList(spiTransactions);
+    }
+
+    @Benchmark
+    public Object mapTransactionsReportToResponse() {
+        return accountModelMapper.mapToTransactionsResponse200Json(transactionsReport);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.benchmark.usage;
+
+import de.adorsys.psd2.consent.service.usage.AisConsentUsageCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures counting of usages of one AIS consent by parallel requests: in memory with write-behind store and
+ * synchronously under the exclusive lock, that emulates the lock of the usage row in database held during
+ * the round trip to the database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class AisConsentUsageCounterBenchmark {
+    private static final Long CONSENT_ID = 1L;
+    private static final String REQUEST_URI = "/v1/accounts/account-id/balances";
+    private static final String RESOURCE_ID = "resource id";
+
+    /**
+     * Amount of work, emulating the round trip to the database, in JMH tokens
+     */
+    @Param({"0", "10000"})
+    private long roundTripTokens;
+
+    private final Map<String, Integer> lockedUsage = new HashMap<>();
+    private AisConsentUsageCounter aisConsentUsageCounter;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        aisConsentUsageCounter = new AisConsentUsageCounter((consentId, usageDate, usageDeltas) -> Blackhole.consumeCPU(roundTripTokens));
+        Field flushIntervalMs = AisConsentUsageCounter.class.getDeclaredField("flushIntervalMs");
+        flushIntervalMs.setAccessible(true);
+        flushIntervalMs.setLong(aisConsentUsageCounter, 100);
+        aisConsentUsageCounter.startFlushing();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        aisConsentUsageCounter.stopFlushing();
+    }
+
+    @Benchmark
+    public void inMemoryCounter() {
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, RESOURCE_ID, null);
+    }
+
+    @Benchmark
+    public Object inMemoryCounterWithRead() {
+        aisConsentUsageCounter.incrementUsage(CONSENT_ID, REQUEST_URI, RESOURCE_ID, null);
+        return aisConsentUsageCounter.getUnflushedUsage(CONSENT_ID, LocalDate.now());
+    }
+
+    @Benchmark
+    public void lockedCounter() {
+        synchronized (lockedUsage) {
+            Blackhole.consumeCPU(roundTripTokens);
+            lockedUsage.merge(REQUEST_URI, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.benchmark.validator;
+
+import de.adorsys.psd2.mapper.Xs2aObjectMapper;
+import de.adorsys.psd2.mapper.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.core.error.ErrorType;
+import de.adorsys.psd2.xs2a.core.error.MessageError;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.service.ScaApproachResolver;
+import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.profile.StandardPaymentProductsResolver;
+import de.adorsys.psd2.xs2a.validator.payment.CountryPaymentValidatorResolver;
+import de.adorsys.psd2.xs2a.validator.payment.DefaultPaymentValidatorHolder;
+import de.adorsys.psd2.xs2a.web.PathParameterExtractor;
+import de.adorsys.psd2.xs2a.web.converter.LocalDateConverter;
+import de.adorsys.psd2.xs2a.web.mapper.PurposeCodeMapperImpl;
+import de.adorsys.psd2.xs2a.web.mapper.RemittanceMapperImpl;
+import de.adorsys.psd2.xs2a.web.validator.ErrorBuildingService;
+import de.adorsys.psd2.xs2a.web.validator.body.*;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.PaymentBodyValidatorImpl;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.handler.DefaultPaymentBodyFieldsValidatorImpl;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.handler.type.BulkPaymentTypeValidatorImpl;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.handler.type.PaymentTypeValidatorContext;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.handler.type.PeriodicPaymentTypeValidatorImpl;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.handler.type.SinglePaymentTypeValidatorImpl;
+import de.adorsys.psd2.xs2a.web.validator.body.payment.mapper.PaymentMapper;
+import de.adorsys.psd2.xs2a.web.validator.body.raw.FieldExtractor;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validation of valid single, bulk and periodic payment initiation bodies by {@link PaymentBodyValidatorImpl}
+ * with default (German) payment validators and embedded SCA approach. The request is created on each invocation,
+ * as the parsed body is kept in the request attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentBodyValidatorBenchmark {
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final Map<String, String> PAYMENT_BODY_FILES = new HashMap<>();
+
+    static {
+        PAYMENT_BODY_FILES.put("payments", "json/payment/single-payment.json");
+        PAYMENT_BODY_FILES.put("bulk-payments", "json/payment/bulk-payment.json");
+        PAYMENT_BODY_FILES.put("periodic-payments", "json/payment/periodic-payment.json");
+    }
+
+    @Param({"payments", "bulk-payments", "periodic-payments"})
+    private String paymentService;
+
+    private PaymentBodyValidatorImpl paymentBodyValidator;
+    private Map<String, String> pathParameters;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        Xs2aObjectMapper xs2aObjectMapper = new ObjectMapperConfig().xs2aObjectMapper();
+        ErrorBuildingService errorBuildingService = new ErrorBuildingService(null, null, null, xs2aObjectMapper);
+        AspspProfileServiceWrapper aspspProfileServiceWrapper = new AspspProfileServiceWrapper(null) {
+            @Override
+            public String getSupportedPaymentCountryValidation() {
+                return "DE";
+            }
+        };
+        ScaApproachResolver scaApproachResolver = new ScaApproachResolver(null, null, null, null, null) {
+            @Override
+            public ScaApproach resolveScaApproach() {
+                return ScaApproach.EMBEDDED;
+            }
+        };
+
+        FieldExtractor fieldExtractor = new FieldExtractor(errorBuildingService, xs2aObjectMapper);
+        PaymentMapper paymentMapper = new PaymentMapper(xs2aObjectMapper, new PurposeCodeMapperImpl(), new RemittanceMapperImpl());
+        AmountValidator amountValidator = new AmountValidator(errorBuildingService);
+        IbanValidator ibanValidator = new IbanValidator(errorBuildingService);
+        PaymentTypeValidatorContext paymentTypeValidatorContext = new PaymentTypeValidatorContext(Arrays.asList(
+            new SinglePaymentTypeValidatorImpl(errorBuildingService, xs2aObjectMapper, paymentMapper, amountValidator, ibanValidator),
+            new BulkPaymentTypeValidatorImpl(errorBuildingService, xs2aObjectMapper, paymentMapper, amountValidator, ibanValidator),
+            new PeriodicPaymentTypeValidatorImpl(errorBuildingService, xs2aObjectMapper, paymentMapper, amountValidator, ibanValidator)));
+        DefaultPaymentBodyFieldsValidatorImpl paymentBodyFieldsValidator = new DefaultPaymentBodyFieldsValidatorImpl(paymentTypeValidatorContext, fieldExtractor);
+        CountryPaymentValidatorResolver countryPaymentValidatorResolver =
+            new CountryPaymentValidatorResolver(aspspProfileServiceWrapper,
+                                                Collections.singletonList(new DefaultPaymentValidatorHolder(paymentBodyFieldsValidator, null)));
+
+        paymentBodyValidator = new PaymentBodyValidatorImpl(errorBuildingService, xs2aObjectMapper,
+                                                            new StandardPaymentProductsResolver(),
+                                                            new TppRedirectUriBodyValidatorImpl(scaApproachResolver, aspspProfileServiceWrapper, errorBuildingService),
+                                                            new DateFieldValidator(errorBuildingService, new LocalDateConverter(), fieldExtractor),
+                                                            fieldExtractor, new CurrencyValidator(errorBuildingService),
+                                                            new PathParameterExtractor(), countryPaymentValidatorResolver);
+
+        pathParameters = new HashMap<>();
+        pathParameters.put("payment-service", paymentService);
+        pathParameters.put("payment-product", PAYMENT_PRODUCT);
+        body = new JsonReader().getStringFromFile(PAYMENT_BODY_FILES.get(paymentService))
+                   .getBytes(StandardCharsets.UTF_8);
+
+        MessageError messageError = validate();
+        if (!messageError.getTppMessages().isEmpty()) {
+            throw new IllegalStateException("Payment body is expected to be valid: " + messageError.getTppMessages());
+        }
+    }
+
+    @Benchmark
+    public MessageError validate() {
+        MockHttpServletRequest request = new MockHttpServletRequest(HttpMethod.POST.name(), "/v1/" + paymentService + "/" + PAYMENT_PRODUCT);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, pathParameters);
+        return paymentBodyValidator.validate(request, new MessageError(ErrorType.PIS_400));
+    }
+}
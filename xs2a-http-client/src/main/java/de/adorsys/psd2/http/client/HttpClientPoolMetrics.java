@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.lang.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.http.pool.PoolStats;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exports statistics of the connection pool as {@code http.client.pool.*} gauges.
+ * Does nothing if the given request factory isn't pooled.
+ */
+@RequiredArgsConstructor
+public class HttpClientPoolMetrics implements MeterBinder {
+    private static final String POOL_TAG = "pool";
+
+    private final ClientHttpRequestFactory requestFactory;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        if (!(requestFactory instanceof PooledClientHttpRequestFactory)) {
+            return;
+        }
+
+        PooledClientHttpRequestFactory pooledFactory = (PooledClientHttpRequestFactory) requestFactory;
+        registerGauge(registry, pooledFactory, "http.client.pool.leased", "Number of connections, currently in use", PoolStats::getLeased);
+        registerGauge(registry, pooledFactory, "http.client.pool.available", "Number of idle connections, kept alive in the pool", PoolStats::getAvailable);
+        registerGauge(registry, pooledFactory, "http.client.pool.pending", "Number of requests, waiting for a connection", PoolStats::getPending);
+        registerGauge(registry, pooledFactory, "http.client.pool.max", "Maximum number of connections in the pool", PoolStats::getMax);
+    }
+
+    private void registerGauge(MeterRegistry registry, PooledClientHttpRequestFactory pooledFactory, String name,
+                               String description, ToDoubleFunction<PoolStats> statistic) {
+        Gauge.builder(name, pooledFactory, f -> statistic.applyAsDouble(f.getPoolStats()))
+            .description(description)
+            .tag(POOL_TAG, pooledFactory.getPoolName())
+            .register(registry);
+    }
+}
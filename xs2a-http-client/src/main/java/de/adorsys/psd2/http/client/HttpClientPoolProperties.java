@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import lombok.Data;
+
+/**
+ * Settings of the pool of HTTP connections, used by {@link PooledClientHttpRequestFactory}
+ */
+@Data
+public class HttpClientPoolProperties {
+    private int maxTotal = 100;
+    private int maxPerRoute = 20;
+    private int connectionTimeout = 10000;
+    private int readTimeout = 10000;
+    private int connectionRequestTimeout = 5000;
+    private long keepAliveMs = 30000;
+    private long idleEvictionMs = 60000;
+    private boolean compressionEnabled = true;
+}
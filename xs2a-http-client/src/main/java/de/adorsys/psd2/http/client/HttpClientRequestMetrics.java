@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.lang.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriTemplateHandler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Records duration of requests, sent by the instrumented {@link RestTemplate}, as {@code xs2a.http.client.requests} timer,
+ * tagged with the client name, HTTP method, URI template and response status.
+ * Does nothing until bound to the meter registry.
+ */
+@RequiredArgsConstructor
+public class HttpClientRequestMetrics implements ClientHttpRequestInterceptor, MeterBinder {
+    private static final String METRIC_NAME = "xs2a.http.client.requests";
+    private static final String NONE = "none";
+    private static final String IO_ERROR = "IO_ERROR";
+
+    private final String clientName;
+    private final boolean percentileHistogram;
+    private final ThreadLocal<String> uriTemplate = new ThreadLocal<>();
+    private volatile MeterRegistry registry;
+
+    /**
+     * Adds this interceptor to the given template and captures URI templates of its requests for the {@code uri} tag
+     *
+     * @param restTemplate template to be instrumented
+     */
+    public void instrument(RestTemplate restTemplate) {
+        restTemplate.setUriTemplateHandler(new UriTemplateCapturingHandler(restTemplate.getUriTemplateHandler()));
+        restTemplate.getInterceptors().add(0, this);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @NonNull
+    @Override
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+                                        @NonNull ClientHttpRequestExecution execution) throws IOException {
+        String uri = uriTemplate.get();
+        uriTemplate.remove();
+
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return execution.execute(request, body);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = IO_ERROR;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = String.valueOf(response.getRawStatusCode());
+            return response;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                            .description("Duration of HTTP requests, sent by XS2A")
+                            .tag("client", clientName)
+                            .tag("method", request.getMethodValue())
+                            .tag("uri", uri == null ? NONE : stripHost(uri))
+                            .tag("status", status)
+                            .publishPercentileHistogram(percentileHistogram)
+                            .register(meterRegistry));
+        }
+    }
+
+    private String stripHost(String uri) {
+        return uri.replaceFirst("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/]*", "");
+    }
+
+    @RequiredArgsConstructor
+    private class UriTemplateCapturingHandler implements UriTemplateHandler {
+        private final UriTemplateHandler delegate;
+
+        @NonNull
+        @Override
+        public URI expand(@NonNull String template, @NonNull Map<String, ?> uriVariables) {
+            uriTemplate.set(template);
+            return delegate.expand(template, uriVariables);
+        }
+
+        @NonNull
+        @Override
+        public URI expand(@NonNull String template, @NonNull Object... uriVariables) {
+            uriTemplate.set(template);
+            return delegate.expand(template, uriVariables);
+        }
+    }
+}
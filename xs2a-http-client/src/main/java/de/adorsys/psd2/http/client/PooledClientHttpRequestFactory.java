@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import lombok.Getter;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request factory, that reuses keep-alive connections from the pool instead of opening new connection for every request.
+ * Closes the pool on destroy, so should be registered as a Spring bean.
+ */
+public class PooledClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+    private static final String KEEP_ALIVE_TIMEOUT_PARAMETER = "timeout";
+
+    @Getter
+    private final String poolName;
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public PooledClientHttpRequestFactory(String poolName, HttpClientPoolProperties properties) {
+        this(poolName, properties, createConnectionManager(properties));
+    }
+
+    private PooledClientHttpRequestFactory(String poolName, HttpClientPoolProperties properties,
+                                           PoolingHttpClientConnectionManager connectionManager) {
+        super(createHttpClient(properties, connectionManager));
+        this.poolName = poolName;
+        this.connectionManager = connectionManager;
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        try {
+            super.destroy();
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    private static PoolingHttpClientConnectionManager createConnectionManager(HttpClientPoolProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        return connectionManager;
+    }
+
+    private static CloseableHttpClient createHttpClient(HttpClientPoolProperties properties,
+                                                        PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                                          .setConnectTimeout(properties.getConnectionTimeout())
+                                          .setSocketTimeout(properties.getReadTimeout())
+                                          .setConnectionRequestTimeout(properties.getConnectionRequestTimeout())
+                                          .build();
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                                        .setConnectionManager(connectionManager)
+                                        .setDefaultRequestConfig(requestConfig)
+                                        .setKeepAliveStrategy(keepAliveStrategy(properties.getKeepAliveMs()))
+                                        .evictExpiredConnections()
+                                        .evictIdleConnections(properties.getIdleEvictionMs(), TimeUnit.MILLISECONDS)
+                                        .disableCookieManagement();
+
+        if (!properties.isCompressionEnabled()) {
+            builder.disableContentCompression();
+        }
+
+        return builder.build();
+    }
+
+    static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMs) {
+        return (HttpResponse response, HttpContext context) -> {
+            BasicHeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (iterator.hasNext()) {
+                HeaderElement element = iterator.nextElement();
+                if (KEEP_ALIVE_TIMEOUT_PARAMETER.equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException e) {
+                        return defaultKeepAliveMs;
+                    }
+                }
+            }
+            return defaultKeepAliveMs;
+        };
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HttpClientRequestMetricsTest {
+    private static final String CLIENT_NAME = "consentRestTemplate";
+    private static final String URI_TEMPLATE = "http://localhost:38080/api/v1/ais/consent/{consent-id}/status";
+
+    @Mock
+    private ClientHttpRequestFactory requestFactory;
+    @Mock
+    private ClientHttpRequest request;
+    @Mock
+    private ClientHttpResponse response;
+
+    private MeterRegistry registry;
+    private RestTemplate restTemplate;
+    private HttpClientRequestMetrics requestMetrics;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new SimpleMeterRegistry();
+        restTemplate = new RestTemplate(requestFactory);
+        requestMetrics = new HttpClientRequestMetrics(CLIENT_NAME, false);
+        requestMetrics.instrument(restTemplate);
+
+        when(requestFactory.createRequest(any(URI.class), any(HttpMethod.class))).thenReturn(request);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+    }
+
+    @Test
+    void intercept_shouldRecordTimerWithUriTemplate() throws IOException {
+        // Given
+        requestMetrics.bindTo(registry);
+        when(request.execute()).thenReturn(response);
+        when(response.getRawStatusCode()).thenReturn(200);
+
+        // When
+        restTemplate.execute(URI_TEMPLATE, HttpMethod.GET, null, null, "consent id 1");
+        restTemplate.execute(URI_TEMPLATE, HttpMethod.GET, null, null, "consent id 2");
+
+        // Then
+        Timer timer = registry.find("xs2a.http.client.requests")
+                          .tags("client", CLIENT_NAME, "method", "GET", "uri", "/api/v1/ais/consent/{consent-id}/status", "status", "200")
+                          .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void intercept_ioError_shouldRecordIoErrorStatus() throws IOException {
+        // Given
+        requestMetrics.bindTo(registry);
+        when(request.execute()).thenThrow(new IOException("Connection refused"));
+
+        // When
+        assertThrows(ResourceAccessException.class, () -> restTemplate.execute(URI_TEMPLATE, HttpMethod.PUT, null, null, "consent id"));
+
+        // Then
+        Timer timer = registry.find("xs2a.http.client.requests").tags("method", "PUT", "status", "IO_ERROR").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void intercept_notBound_shouldOnlyExecuteRequest() throws IOException {
+        // Given
+        when(request.execute()).thenReturn(response);
+        when(response.getRawStatusCode()).thenReturn(200);
+
+        // When
+        restTemplate.execute(URI_TEMPLATE, HttpMethod.GET, null, null, "consent id");
+
+        // Then
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.http.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PooledClientHttpRequestFactoryTest {
+    private static final String POOL_NAME = "test-pool";
+    private static final long DEFAULT_KEEP_ALIVE_MS = 30000;
+
+    private PooledClientHttpRequestFactory requestFactory;
+
+    @BeforeEach
+    void setUp() {
+        HttpClientPoolProperties properties = new HttpClientPoolProperties();
+        properties.setMaxTotal(50);
+        properties.setMaxPerRoute(10);
+        requestFactory = new PooledClientHttpRequestFactory(POOL_NAME, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
+    }
+
+    @Test
+    void getPoolStats_shouldReflectConfiguredLimits() {
+        // When
+        int max = requestFactory.getPoolStats().getMax();
+
+        // Then
+        assertEquals(50, max);
+        assertEquals(0, requestFactory.getPoolStats().getLeased());
+    }
+
+    @Test
+    void keepAliveStrategy_withoutKeepAliveHeader_shouldReturnDefault() {
+        // Given
+        ConnectionKeepAliveStrategy strategy = PooledClientHttpRequestFactory.keepAliveStrategy(DEFAULT_KEEP_ALIVE_MS);
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+
+        // When
+        long keepAlive = strategy.getKeepAliveDuration(response, new BasicHttpContext());
+
+        // Then
+        assertEquals(DEFAULT_KEEP_ALIVE_MS, keepAlive);
+    }
+
+    @Test
+    void keepAliveStrategy_withKeepAliveTimeout_shouldUseServerValue() {
+        // Given
+        ConnectionKeepAliveStrategy strategy = PooledClientHttpRequestFactory.keepAliveStrategy(DEFAULT_KEEP_ALIVE_MS);
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        response.addHeader("Keep-Alive", "timeout=5, max=100");
+
+        // When
+        long keepAlive = strategy.getKeepAliveDuration(response, new BasicHttpContext());
+
+        // Then
+        assertEquals(5000, keepAlive);
+    }
+
+    @Test
+    void bindTo_pooledFactory_shouldRegisterGauges() {
+        // Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        new HttpClientPoolMetrics(requestFactory).bindTo(registry);
+
+        // Then
+        assertEquals(50, registry.get("http.client.pool.max").tag("pool", POOL_NAME).gauge().value());
+        assertEquals(0, registry.get("http.client.pool.leased").tag("pool", POOL_NAME).gauge().value());
+    }
+
+    @Test
+    void bindTo_simpleFactory_shouldNotRegisterGauges() {
+        // Given
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        new HttpClientPoolMetrics(new SimpleClientHttpRequestFactory()).bindTo(registry);
+
+        // Then
+        assertNull(registry.find("http.client.pool.max").gauge());
+    }
+}
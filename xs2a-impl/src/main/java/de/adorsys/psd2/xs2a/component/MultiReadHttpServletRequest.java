@@ -28,7 +28,7 @@ import java.io.*;
  * This class decorates incoming HttpServletRequest, caches its body and is used by spring framework further
  */
 public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
-    private ByteArrayOutputStream cachedBytes;
+    private byte[] cachedBody;
 
     public MultiReadHttpServletRequest(HttpServletRequest request) {
         super(request);
@@ -36,11 +36,7 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (cachedBytes == null) {
-            cacheInputStream();
-        }
-
-        return new CachedServletInputStream();
+        return new CachedServletInputStream(getCachedBody());
     }
 
     @Override
@@ -48,16 +44,26 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
         return new BufferedReader(new InputStreamReader(getInputStream()));
     }
 
-    private void cacheInputStream() throws IOException {
-        cachedBytes = new ByteArrayOutputStream();
-        IOUtils.copy(super.getInputStream(), cachedBytes);
+    /**
+     * Returns body of the request, read only once from the original request. Returned array is shared between all
+     * callers and must not be modified.
+     *
+     * @return cached body of the request
+     * @throws IOException if the body couldn't be read from the original request
+     */
+    public byte[] getCachedBody() throws IOException {
+        if (cachedBody == null) {
+            cachedBody = IOUtils.toByteArray(super.getInputStream());
+        }
+
+        return cachedBody;
     }
 
-    private class CachedServletInputStream extends ServletInputStream {
-        private ByteArrayInputStream input;
+    private static class CachedServletInputStream extends ServletInputStream {
+        private final ByteArrayInputStream input;
 
-        public CachedServletInputStream() {
-            input = new ByteArrayInputStream(cachedBytes.toByteArray());
+        CachedServletInputStream(byte[] body) {
+            input = new ByteArrayInputStream(body);
         }
 
         @Override
@@ -65,21 +71,37 @@ public class MultiReadHttpServletRequest extends HttpServletRequestWrapper {
             return input.read();
         }
 
-		@Override
-		public boolean isFinished() {
-			// TODO Auto-generated method stub
-			return false;
-		}
-
-		@Override
-		public boolean isReady() {
-			// TODO Auto-generated method stub
-			return false;
-		}
-
-		@Override
-		public void setReadListener(ReadListener readListener) {
-			// TODO Auto-generated method stub
-		}
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return input.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return input.available();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * Cached body is always available, so the listener is notified immediately on the calling thread.
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.component;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * HttpServletResponse wrapper that writes response content directly to the original response, keeping only the size
+ * of the content and its first bytes for logging purposes
+ */
+public class StreamingHttpServletResponse extends HttpServletResponseWrapper {
+    private final int headSize;
+    private final ByteArrayOutputStream head;
+    private long contentSize;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Create a new StreamingHttpServletResponse for the given servlet response.
+     *
+     * @param response the original servlet response
+     * @param headSize maximum number of bytes from the beginning of the content to be kept
+     */
+    public StreamingHttpServletResponse(HttpServletResponse response, int headSize) {
+        super(response);
+        this.headSize = Math.max(headSize, 0);
+        this.head = new ByteArrayOutputStream(this.headSize);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new StreamingServletOutputStream(getResponse().getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()), true);
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Returns number of bytes, written to the response
+     *
+     * @return size of the response content
+     */
+    public long getContentSize() {
+        return contentSize;
+    }
+
+    /**
+     * Returns first bytes of the response content, but not more than the head size given on creation
+     *
+     * @return beginning of the response content
+     */
+    public byte[] getContentHead() {
+        return head.toByteArray();
+    }
+
+    private void captureHead(byte[] bytes, int offset, int length) {
+        int remaining = headSize - head.size();
+        if (remaining > 0) {
+            head.write(bytes, offset, Math.min(remaining, length));
+        }
+    }
+
+    private class StreamingServletOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private StreamingServletOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            contentSize++;
+            if (head.size() < headSize) {
+                head.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            contentSize += len;
+            captureHead(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
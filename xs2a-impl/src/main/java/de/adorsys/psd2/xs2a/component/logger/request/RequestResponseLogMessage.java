@@ -18,10 +18,10 @@ package de.adorsys.psd2.xs2a.component.logger.request;
 
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletRequest;
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletResponse;
+import de.adorsys.psd2.xs2a.component.StreamingHttpServletResponse;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
-import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.web.util.WebUtils;
@@ -61,6 +61,7 @@ public class RequestResponseLogMessage {
         private static final String MULTIPART_FORM_DATA = "multipart/form-data";
         private static final String MULTIPART_VALUES_SEPARATOR = "&";
         private static final String QUERY_SEPARATOR = "?";
+        private static final String STREAMED_BODY_FORMAT = "%d bytes streamed, head: %s";
 
         private Map<String, String> logParams = new LinkedHashMap<>();
         private final HttpServletRequest request;
@@ -147,7 +148,7 @@ public class RequestResponseLogMessage {
          * Adds response body to the log message
          * <p>
          * No message will be added to the log if body isn't present in the response or if it couldn't be
-         * extracted.
+         * extracted. For streamed responses only the size of the body and its beginning are added.
          *
          * @return builder
          */
@@ -190,7 +191,7 @@ public class RequestResponseLogMessage {
                 WebUtils.getNativeRequest(request, MultiReadHttpServletRequest.class);
             if (wrapper != null) {
                 try {
-                    byte[] requestBytes = IOUtils.toByteArray(wrapper.getInputStream());
+                    byte[] requestBytes = wrapper.getCachedBody();
                     return extractBody(requestBytes);
                 } catch (IOException e) {
                     return null;
@@ -219,6 +220,14 @@ public class RequestResponseLogMessage {
                 return extractBody(cachedContent);
             }
 
+            StreamingHttpServletResponse streamingWrapper =
+                WebUtils.getNativeResponse(response, StreamingHttpServletResponse.class);
+
+            if (streamingWrapper != null) {
+                String head = extractBody(streamingWrapper.getContentHead());
+                return String.format(STREAMED_BODY_FORMAT, streamingWrapper.getContentSize(), head);
+            }
+
             return null;
         }
 
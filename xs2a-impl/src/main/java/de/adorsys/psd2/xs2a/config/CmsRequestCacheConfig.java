@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import de.adorsys.psd2.consent.api.service.*;
+import de.adorsys.psd2.xs2a.service.consent.CmsRequestCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Puts {@link CmsRequestCache} in front of CMS services, used by XS2A.
+ * <p>
+ * Services, that only write data to CMS, are wrapped as well, so that their calls drop cached responses of the request.
+ */
+@Configuration
+public class CmsRequestCacheConfig {
+
+    @Bean
+    @Primary
+    public ConsentServiceEncrypted requestCachedConsentServiceEncrypted(ConsentServiceEncrypted consentServiceEncrypted,
+                                                                       CmsRequestCache cmsRequestCache) {
+        return cmsRequestCache.wrap(ConsentServiceEncrypted.class, consentServiceEncrypted,
+                                    "getConsentStatusById", "getConsentById", "getPsuDataByConsentId");
+    }
+
+    @Bean
+    @Primary
+    public PisCommonPaymentServiceEncrypted requestCachedPisCommonPaymentServiceEncrypted(PisCommonPaymentServiceEncrypted pisCommonPaymentServiceEncrypted,
+                                                                                         CmsRequestCache cmsRequestCache) {
+        return cmsRequestCache.wrap(PisCommonPaymentServiceEncrypted.class, pisCommonPaymentServiceEncrypted,
+                                    "getPisCommonPaymentStatusById", "getCommonPaymentById", "getPsuDataListByPaymentId", "getDecryptedId");
+    }
+
+    @Bean
+    @Primary
+    public AuthorisationServiceEncrypted requestCachedAuthorisationServiceEncrypted(AuthorisationServiceEncrypted authorisationServiceEncrypted,
+                                                                                   CmsRequestCache cmsRequestCache) {
+        return cmsRequestCache.wrap(AuthorisationServiceEncrypted.class, authorisationServiceEncrypted,
+                                    "getAuthorisationById", "getAuthorisationsByParentId", "getAuthorisationScaStatus",
+                                    "isAuthenticationMethodDecoupled", "getAuthorisationScaApproach");
+    }
+
+    @Bean
+    @Primary
+    public AisConsentServiceEncrypted requestCachedAisConsentServiceEncrypted(AisConsentServiceEncrypted aisConsentServiceEncrypted,
+                                                                             CmsRequestCache cmsRequestCache) {
+        return cmsRequestCache.wrap(AisConsentServiceEncrypted.class, aisConsentServiceEncrypted);
+    }
+
+    @Bean
+    @Primary
+    public UpdatePaymentAfterSpiServiceEncrypted requestCachedUpdatePaymentAfterSpiServiceEncrypted(UpdatePaymentAfterSpiServiceEncrypted updatePaymentAfterSpiServiceEncrypted,
+                                                                                                   CmsRequestCache cmsRequestCache) {
+        return cmsRequestCache.wrap(UpdatePaymentAfterSpiServiceEncrypted.class, updatePaymentAfterSpiServiceEncrypted);
+    }
+}
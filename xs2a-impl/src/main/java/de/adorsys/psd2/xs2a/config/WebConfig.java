@@ -16,7 +16,6 @@
 
 package de.adorsys.psd2.xs2a.config;
 
-import de.adorsys.psd2.consent.api.service.TppStopListService;
 import de.adorsys.psd2.logger.context.LoggingContextService;
 import de.adorsys.psd2.mapper.Xs2aObjectMapper;
 import de.adorsys.psd2.validator.signature.DigestVerifier;
@@ -31,6 +30,7 @@ import de.adorsys.psd2.xs2a.domain.RedirectIdHolder;
 import de.adorsys.psd2.xs2a.domain.ScaApproachHolder;
 import de.adorsys.psd2.xs2a.service.RedirectIdService;
 import de.adorsys.psd2.xs2a.service.TppService;
+import de.adorsys.psd2.xs2a.service.TppStopListReplica;
 import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorMapperContainer;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
@@ -40,6 +40,7 @@ import de.adorsys.psd2.xs2a.web.advice.Xs2aRestExceptionHandler;
 import de.adorsys.psd2.xs2a.web.interceptor.validator.PaymentParametersValidationInterceptor;
 import de.adorsys.psd2.xs2a.web.interceptor.validator.RequestValidationInterceptor;
 import de.adorsys.psd2.xs2a.web.interceptor.logging.*;
+import de.adorsys.psd2.xs2a.web.interceptor.status.StatusETagInterceptor;
 import de.adorsys.psd2.xs2a.web.interceptor.tpp.TppStopListInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -72,7 +73,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Qualifier("xs2aCorsConfigProperties")
     private final CorsConfigurationProperties corsConfigurationProperties;
     private final TppService tppService;
-    private final TppStopListService tppStopListService;
+    private final TppStopListReplica tppStopListReplica;
     private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
     private final ServiceTypeToErrorTypeMapper errorTypeMapper;
     private final ErrorMapperContainer errorMapperContainer;
@@ -84,6 +85,7 @@ public class WebConfig implements WebMvcConfigurer {
     private final PathParameterExtractor pathParameterExtractor;
     private final Xs2aRestExceptionHandler xs2aRestExceptionHandler;
     private final PaymentParametersValidationInterceptor paymentParametersValidationInterceptor;
+    private final StatusETagInterceptor statusETagInterceptor;
 
     @Override
     public void extendHandlerExceptionResolvers(List<HandlerExceptionResolver> resolvers) {
@@ -106,13 +108,15 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addInterceptor(new PaymentLoggingInterceptor(tppService, redirectIdService, loggingContextService, pathParameterExtractor)).addPathPatterns(SINGLE_PAYMENTS_PATH, BULK_PAYMENTS_PATH, PERIODIC_PAYMENTS_PATH);
         registry.addInterceptor(new SigningBasketLoggingInterceptor(tppService, redirectIdService, pathParameterExtractor)).addPathPatterns(SIGNING_BASKETS_PATH);
         registry.addInterceptor(new RequestResponseLoggingInterceptor(requestResponseLogger)).addPathPatterns(getAllXs2aEndpointPaths());
-        registry.addInterceptor(new TppStopListInterceptor(errorMapperContainer, tppService, tppStopListService, serviceTypeDiscoveryService, errorTypeMapper, xs2aObjectMapper))
+        registry.addInterceptor(new TppStopListInterceptor(errorMapperContainer, tppService, tppStopListReplica, serviceTypeDiscoveryService, errorTypeMapper, xs2aObjectMapper))
             .addPathPatterns(getAllXs2aEndpointPaths());
 
         // This interceptor cannot use some definite path from constants, as payment services have nothing common in
         // their URLs (and 'payment-service' or 'payment-type' can be broken).
         registry.addInterceptor(paymentParametersValidationInterceptor).addPathPatterns(GLOBAL_PATH);
         registry.addInterceptor(requestValidationInterceptor).addPathPatterns(getAllXs2aEndpointPaths());
+        // Status ETag interceptor has to be the last one, as it answers unchanged statuses without invoking the controller
+        registry.addInterceptor(statusETagInterceptor).addPathPatterns(getStatusXs2aEndpointPaths());
     }
 
     @Bean
@@ -26,10 +26,28 @@ public class Xs2aEndpointPathConstant {
     public static final String PERIODIC_PAYMENTS_PATH = "/v1/periodic-payments/**";
     public static final String SIGNING_BASKETS_PATH = "/v1/signing-baskets/**";
     public static final String GLOBAL_PATH= "/v1/**";
+    public static final String ACCOUNT_TRANSACTIONS_DOWNLOAD_PATH = "/v1/accounts/*/transactions/download/*";
+    public static final String CARD_ACCOUNT_TRANSACTIONS_DOWNLOAD_PATH = "/v1/card-accounts/*/transactions/download/*";
+    public static final String PAYMENT_STATUS_PATH = "/v1/{payment-service:payments|bulk-payments|periodic-payments}/*/*/status";
+    public static final String PAYMENT_SCA_STATUS_PATH = "/v1/{payment-service:payments|bulk-payments|periodic-payments}/*/*/authorisations/*";
+    public static final String PAYMENT_CANCELLATION_SCA_STATUS_PATH = "/v1/{payment-service:payments|bulk-payments|periodic-payments}/*/*/cancellation-authorisations/*";
+    public static final String CONSENT_STATUS_PATH = "/v1/consents/*/status";
+    public static final String CONSENT_SCA_STATUS_PATH = "/v1/consents/*/authorisations/*";
+    public static final String SIGNING_BASKET_STATUS_PATH = "/v1/signing-baskets/*/status";
+    public static final String SIGNING_BASKET_SCA_STATUS_PATH = "/v1/signing-baskets/*/authorisations/*";
 
     private Xs2aEndpointPathConstant() {}
 
     public static String[] getAllXs2aEndpointPaths() {
         return new String[]{ACCOUNTS_PATH, CARD_ACCOUNTS_PATH, CONSENTS_PATH, FUNDS_CONFIRMATION_PATH, SINGLE_PAYMENTS_PATH, BULK_PAYMENTS_PATH, PERIODIC_PAYMENTS_PATH, SIGNING_BASKETS_PATH};
     }
+
+    public static String[] getStreamingXs2aEndpointPaths() {
+        return new String[]{ACCOUNT_TRANSACTIONS_DOWNLOAD_PATH, CARD_ACCOUNT_TRANSACTIONS_DOWNLOAD_PATH};
+    }
+
+    public static String[] getStatusXs2aEndpointPaths() {
+        return new String[]{PAYMENT_STATUS_PATH, PAYMENT_SCA_STATUS_PATH, PAYMENT_CANCELLATION_SCA_STATUS_PATH, CONSENT_STATUS_PATH,
+                            CONSENT_SCA_STATUS_PATH, SIGNING_BASKET_STATUS_PATH, SIGNING_BASKET_SCA_STATUS_PATH};
+    }
 }
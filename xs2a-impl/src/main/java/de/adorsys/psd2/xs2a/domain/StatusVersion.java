@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.domain;
+
+import lombok.Value;
+
+/**
+ * Cheap version of the status, read from CMS without calling the SPI
+ */
+@Value
+public class StatusVersion {
+    /**
+     * Strong ETag, calculated from the request path, the requested content type and the status stored in CMS
+     */
+    private String eTag;
+    /**
+     * Whether the status can't be changed by the SPI call of the status endpoint, so that the ETag of the version
+     * can be used as the ETag of the response
+     */
+    private boolean authoritative;
+    /**
+     * Whether the status is final and won't be changed anymore
+     */
+    private boolean finalised;
+}
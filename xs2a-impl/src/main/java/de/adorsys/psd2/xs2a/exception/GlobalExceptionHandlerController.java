@@ -119,6 +119,13 @@ public class GlobalExceptionHandlerController {
         return responseErrorMapper.generateServiceUnavailableErrorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(value = SpiExecutionUnavailableException.class)
+    public ResponseEntity spiExecutionUnavailableException(SpiExecutionUnavailableException ex, HandlerMethod handlerMethod) {
+        log.warn("SpiExecutionUnavailableException handled in controller: {}, message: {}",
+                 handlerMethod.getMethod().getDeclaringClass().getSimpleName(), ex.getMessage());
+        return responseErrorMapper.generateServiceUnavailableErrorResponse(ex.getMessage());
+    }
+
     @ExceptionHandler(value = MethodArgumentNotValidException.class)
     public ResponseEntity requestBodyValidationException(MethodArgumentNotValidException ex,
                                                          HandlerMethod handlerMethod) {
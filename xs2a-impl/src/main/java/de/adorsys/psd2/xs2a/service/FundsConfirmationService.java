@@ -18,7 +18,6 @@ package de.adorsys.psd2.xs2a.service;
 
 import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.ais.CmsConsent;
-import de.adorsys.psd2.consent.api.service.PiisConsentService;
 import de.adorsys.psd2.core.data.piis.v1.PiisConsent;
 import de.adorsys.psd2.event.core.model.EventType;
 import de.adorsys.psd2.xs2a.core.domain.ErrorHolder;
@@ -32,6 +31,7 @@ import de.adorsys.psd2.xs2a.domain.ResponseObject;
 import de.adorsys.psd2.xs2a.domain.fund.FundsConfirmationRequest;
 import de.adorsys.psd2.xs2a.domain.fund.FundsConfirmationResponse;
 import de.adorsys.psd2.xs2a.domain.fund.PiisConsentValidationResult;
+import de.adorsys.psd2.xs2a.service.consent.Xs2aPiisConsentService;
 import de.adorsys.psd2.xs2a.service.context.SpiContextDataProvider;
 import de.adorsys.psd2.xs2a.service.event.Xs2aEventService;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aPiisConsentMapper;
@@ -71,7 +71,7 @@ public class FundsConfirmationService {
     private final Xs2aToSpiFundsConfirmationRequestMapper xs2aToSpiFundsConfirmationRequestMapper;
     private final SpiToXs2aFundsConfirmationMapper spiToXs2aFundsConfirmationMapper;
     private final PiisConsentValidation piisConsentValidation;
-    private final PiisConsentService piisConsentService;
+    private final Xs2aPiisConsentService xs2aPiisConsentService;
     private final Xs2aEventService xs2aEventService;
     private final SpiErrorMapper spiErrorMapper;
     private final RequestProviderService requestProviderService;
@@ -137,7 +137,7 @@ public class FundsConfirmationService {
                                                        .build());
         }
 
-        CmsResponse<List<CmsConsent>> cmsResponse = piisConsentService.getPiisConsentListByAccountIdentifier(accountReference.getCurrency(),
+        CmsResponse<List<CmsConsent>> cmsResponse = xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(accountReference.getCurrency(),
                                                                                                              selector);
         List<CmsConsent> response = cmsResponse.isSuccessful()
                                         ? cmsResponse.getPayload()
@@ -16,13 +16,13 @@
 
 package de.adorsys.psd2.xs2a.service;
 
-import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
 import de.adorsys.psd2.xs2a.core.sca.AuthorisationScaApproachResponse;
 import de.adorsys.psd2.xs2a.service.authorization.pis.PisAuthorisationService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
 import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
+import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.annotation.Lazy;
@@ -39,13 +39,13 @@ public class ScaApproachResolver {
     private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
     private final Xs2aAisConsentService xs2aAisConsentService;
     private final PisAuthorisationService pisAuthorisationService;
-    private final AspspProfileService aspspProfileService;
+    private final AspspProfileServiceWrapper aspspProfileService;
     private final RequestProviderService requestProviderService;
 
     public ScaApproachResolver(ServiceTypeDiscoveryService serviceTypeDiscoveryService,
                                @Lazy Xs2aAisConsentService xs2aAisConsentService,
                                @Lazy PisAuthorisationService pisAuthorisationService,
-                               AspspProfileService aspspProfileService,
+                               AspspProfileServiceWrapper aspspProfileService,
                                RequestProviderService requestProviderService) {
         this.serviceTypeDiscoveryService = serviceTypeDiscoveryService;
         this.xs2aAisConsentService = xs2aAisConsentService;
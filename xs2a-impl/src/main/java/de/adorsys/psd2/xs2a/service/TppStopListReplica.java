@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service;
+
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.service.TppStopListService;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
+import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppStopListRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.BooleanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory replica of authorisation numbers of blocked TPPs, so that stop list checks on the request path
+ * don't require a call to CMS.
+ * <p>
+ * The replica is loaded in full once and then kept fresh by applying changes of the stop list, requested from CMS
+ * in the background as soon as the replica is older than the configured sync interval. Until the replica has been
+ * loaded, or if it couldn't be synchronised for longer than the configured maximum staleness, every check is delegated
+ * to CMS.
+ * <p>
+ * The replica can be disabled by setting `xs2a.tpp-stop-list.replica.sync-interval.ms` to zero, in this case every
+ * check is delegated to CMS.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TppStopListReplica {
+    private final TppStopListService tppStopListService;
+    private final Set<String> blockedTppAuthorisationNumbers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean syncInProgress = new AtomicBoolean();
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tpp-stop-list-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${xs2a.tpp-stop-list.replica.sync-interval.ms:10000}")
+    private long syncIntervalMs;
+    @Value("${xs2a.tpp-stop-list.replica.max-staleness.ms:60000}")
+    private long maxStalenessMs;
+    @Value("${xs2a.tpp-stop-list.replica.sync-overlap.ms:5000}")
+    private long syncOverlapMs;
+
+    private volatile OffsetDateTime lastSyncTimestamp;
+    private volatile long lastSyncTime;
+
+    /**
+     * Checks if TPP is blocked
+     *
+     * @param tppAuthorisationNumber authorisation number of the TPP
+     * @return <code>true</code> if TPP is blocked, <code>false</code> otherwise
+     */
+    public boolean checkIfTppBlocked(String tppAuthorisationNumber) {
+        if (isReplicaDisabled() || tppAuthorisationNumber == null) {
+            return checkIfTppBlockedInCms(tppAuthorisationNumber);
+        }
+
+        long replicaAge = System.currentTimeMillis() - lastSyncTime;
+        if (replicaAge > syncIntervalMs) {
+            scheduleSync();
+        }
+
+        if (lastSyncTimestamp == null || replicaAge > maxStalenessMs) {
+            return checkIfTppBlockedInCms(tppAuthorisationNumber);
+        }
+        return blockedTppAuthorisationNumbers.contains(tppAuthorisationNumber);
+    }
+
+    /**
+     * Requests changes of the stop list from CMS and applies them to the replica. The whole stop list is requested
+     * if the replica hasn't been loaded yet.
+     */
+    public void sync() {
+        long syncStartTime = System.currentTimeMillis();
+        OffsetDateTime changedSince = lastSyncTimestamp == null
+                                          ? null
+                                          : lastSyncTimestamp.minus(syncOverlapMs, ChronoUnit.MILLIS);
+
+        CmsResponse<TppStopListChanges> cmsResponse = tppStopListService.getTppStopListChanges(changedSince);
+        if (!cmsResponse.isSuccessful() || cmsResponse.getPayload().getRecords() == null) {
+            log.warn("Couldn't get changes of TPP stop list from CMS, the replica hasn't been updated");
+            return;
+        }
+
+        TppStopListChanges changes = cmsResponse.getPayload();
+        if (changedSince == null) {
+            replaceBlockedTpps(changes);
+        } else {
+            changes.getRecords().forEach(this::applyChange);
+        }
+
+        lastSyncTimestamp = changes.getSyncTimestamp();
+        lastSyncTime = syncStartTime;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    private boolean isReplicaDisabled() {
+        return syncIntervalMs <= 0;
+    }
+
+    private boolean checkIfTppBlockedInCms(String tppAuthorisationNumber) {
+        CmsResponse<Boolean> cmsResponse = tppStopListService.checkIfTppBlocked(tppAuthorisationNumber);
+        return cmsResponse.isSuccessful() && BooleanUtils.isTrue(cmsResponse.getPayload());
+    }
+
+    private void replaceBlockedTpps(TppStopListChanges changes) {
+        Set<String> blockedTpps = changes.getRecords().stream()
+                                      .filter(record -> record.getStatus() == TppStatus.BLOCKED)
+                                      .map(TppStopListRecord::getTppAuthorisationNumber)
+                                      .collect(Collectors.toSet());
+        // New entries are added before the outdated ones are removed, so that blocked TPP is never missing in the replica
+        blockedTppAuthorisationNumbers.addAll(blockedTpps);
+        blockedTppAuthorisationNumbers.retainAll(blockedTpps);
+    }
+
+    private void applyChange(TppStopListRecord record) {
+        if (record.getStatus() == TppStatus.BLOCKED) {
+            blockedTppAuthorisationNumbers.add(record.getTppAuthorisationNumber());
+        } else {
+            blockedTppAuthorisationNumbers.remove(record.getTppAuthorisationNumber());
+        }
+    }
+
+    private void scheduleSync() {
+        if (!syncInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            syncExecutor.execute(() -> {
+                try {
+                    sync();
+                } catch (RuntimeException e) {
+                    log.warn("Couldn't synchronise TPP stop list replica: {}", e.getMessage());
+                } finally {
+                    syncInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            syncInProgress.set(false);
+        }
+    }
+}
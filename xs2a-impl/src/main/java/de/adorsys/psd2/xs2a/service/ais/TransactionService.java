@@ -33,7 +33,6 @@ import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsDownloadResponse;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReportByPeriodRequest;
 import de.adorsys.psd2.xs2a.service.TppService;
-import de.adorsys.psd2.xs2a.service.consent.Xs2aAccountService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
 import de.adorsys.psd2.xs2a.service.event.Xs2aEventService;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
@@ -79,7 +78,6 @@ public class TransactionService {
 
     private final ValueValidatorService validatorService;
     private final Xs2aAisConsentService aisConsentService;
-    private final Xs2aAccountService xs2aAccountService;
     private final Xs2aAisConsentMapper consentMapper;
     private final TppService tppService;
     private final AspspProfileServiceWrapper aspspProfileService;
@@ -139,12 +137,11 @@ public class TransactionService {
 
         SpiTransactionReport spiTransactionReport = spiResponse.getPayload();
         List<SpiTransaction> spiTransactions = spiTransactionReport.getTransactions();
+        Integer numberOfTransactions = CollectionUtils.isNotEmpty(spiTransactions)
+                                           ? spiTransactions.size()
+                                           : null;
 
-        if (CollectionUtils.isNotEmpty(spiTransactions)) {
-            xs2aAccountService.saveNumberOfTransaction(request.getConsentId(), request.getAccountId(), spiTransactions.size());
-        }
-
-        return getXs2aTransactionsReportResponseObject(request, aisConsent, spiTransactionReport);
+        return getXs2aTransactionsReportResponseObject(request, aisConsent, spiTransactionReport, numberOfTransactions);
     }
 
     /**
@@ -351,7 +348,8 @@ public class TransactionService {
     @NotNull
     private ResponseObject<Xs2aTransactionsReport> getXs2aTransactionsReportResponseObject(Xs2aTransactionsReportByPeriodRequest request,
                                                                                            AisConsent aisConsent,
-                                                                                           SpiTransactionReport spiTransactionReport) {
+                                                                                           SpiTransactionReport spiTransactionReport,
+                                                                                           Integer numberOfTransactions) {
         Xs2aTransactionsReport transactionsReport = mapToTransactionsReport(request, aisConsent, spiTransactionReport);
         ResponseObject<Xs2aTransactionsReport> response = ResponseObject.<Xs2aTransactionsReport>builder()
                                                               .body(transactionsReport)
@@ -362,7 +360,7 @@ public class TransactionService {
                                            accountHelperService.createActionStatus(request.isWithBalance(), TypeAccess.TRANSACTION, response),
                                            request.getRequestUri(),
                                            accountHelperService.needsToUpdateUsage(aisConsent),
-                                           transactionsReport.getAccountReference().getResourceId(), null);
+                                           transactionsReport.getAccountReference().getResourceId(), null, numberOfTransactions);
         return response;
     }
 
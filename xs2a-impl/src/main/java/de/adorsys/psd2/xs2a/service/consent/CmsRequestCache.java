@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.consent;
+
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Read-through cache of CMS calls, made by XS2A within one request.
+ * <p>
+ * Services of CMS are wrapped into proxies, that return the response of the identical read from the cache instead of
+ * calling CMS again. Any other call is considered as a write and drops all cached responses of the request, as CMS may
+ * change related consents, payments and authorisations along with the written one.
+ * Only successful responses are cached. Calls made outside of an HTTP request are always passed to CMS.
+ * <p>
+ * Number of performed and cached calls is recorded into the logging context after every call.
+ */
+@Component
+@RequiredArgsConstructor
+public class CmsRequestCache {
+    private static final String REQUEST_STATE_ATTRIBUTE = CmsRequestCache.class.getName() + ".STATE";
+
+    private final LoggingContextService loggingContextService;
+
+    @Value("${xs2a.cms.request-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Wraps CMS service into the proxy, that caches results of given read methods within the request
+     *
+     * @param type        interface of CMS service
+     * @param delegate    CMS service to be called
+     * @param readMethods names of the methods, that don't change data in CMS
+     * @param <T>         type of CMS service
+     * @return proxy of CMS service
+     */
+    public <T> T wrap(Class<T> type, T delegate, String... readMethods) {
+        Set<String> readMethodNames = new HashSet<>(Arrays.asList(readMethods));
+        Set<String> methodNames = new HashSet<>();
+        for (Method method : type.getMethods()) {
+            methodNames.add(method.getName());
+        }
+        if (!methodNames.containsAll(readMethodNames)) {
+            throw new IllegalArgumentException("Unknown read methods of " + type.getName() + ": " + readMethodNames);
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(delegate, method, args);
+            }
+            return invokeCached(type, delegate, method, args, readMethodNames.contains(method.getName()));
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Drops all cached responses of the given request, so that the request can be dispatched again with fresh data from CMS
+     *
+     * @param request current request
+     */
+    public void clear(HttpServletRequest request) {
+        request.removeAttribute(REQUEST_STATE_ATTRIBUTE);
+    }
+
+    private Object invokeCached(Class<?> type, Object delegate, Method method, Object[] args, boolean read) throws Throwable {
+        RequestState state = getRequestState();
+        if (state == null) {
+            return invoke(delegate, method, args);
+        }
+
+        if (!read) {
+            try {
+                return invoke(delegate, method, args);
+            } finally {
+                state.responses.clear();
+                state.cmsCallCount++;
+                storeCallCount(state);
+            }
+        }
+
+        List<Object> key = Arrays.asList(type, method.getName(), args == null ? Collections.emptyList() : Arrays.asList(args));
+        Object cachedResponse = state.responses.get(key);
+        if (cachedResponse != null) {
+            state.cachedCmsCallCount++;
+            storeCallCount(state);
+            return cachedResponse;
+        }
+
+        Object response = invoke(delegate, method, args);
+        state.cmsCallCount++;
+        storeCallCount(state);
+        if (response instanceof CmsResponse && ((CmsResponse<?>) response).isSuccessful()) {
+            state.responses.put(key, response);
+        }
+        return response;
+    }
+
+    private RequestState getRequestState() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (!enabled || requestAttributes == null) {
+            return null;
+        }
+
+        RequestState state = (RequestState) requestAttributes.getAttribute(REQUEST_STATE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (state == null) {
+            state = new RequestState();
+            requestAttributes.setAttribute(REQUEST_STATE_ATTRIBUTE, state, RequestAttributes.SCOPE_REQUEST);
+        }
+        return state;
+    }
+
+    private void storeCallCount(RequestState state) {
+        loggingContextService.storeCmsCallCount(state.cmsCallCount, state.cachedCmsCallCount);
+    }
+
+    private Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+        // methods may be declared in package-private base interfaces of CMS services
+        return AopUtils.invokeJoinpointUsingReflection(delegate, method, args);
+    }
+
+    private static class RequestState {
+        private final Map<List<Object>, Object> responses = new HashMap<>();
+        private int cmsCallCount;
+        private int cachedCmsCallCount;
+    }
+}
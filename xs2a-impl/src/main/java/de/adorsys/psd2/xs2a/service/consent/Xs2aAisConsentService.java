@@ -167,8 +167,27 @@ public class Xs2aAisConsentService {
      */
     public void consentActionLog(String tppId, String consentId, ActionStatus actionStatus, String requestUri, boolean updateUsage,
                                  String resourceId, String transactionId) {
+        consentActionLog(tppId, consentId, actionStatus, requestUri, updateUsage, resourceId, transactionId, null);
+    }
+
+    /**
+     * Sends a POST request to CMS to perform decrement of consent usages, report status of the operation held with certain AIS consent
+     * and store number of transactions, read from the account, within one call
+     *
+     * @param tppId                String representation of TPP`s identifier from TPP Certificate
+     * @param consentId            String representation of identifier of stored consent
+     * @param actionStatus         Enum value representing whether the action is successful or errors occurred
+     * @param requestUri           target URL of the request
+     * @param updateUsage          Update usage indicator
+     * @param resourceId           The identification that denotes the addressed account
+     * @param transactionId        String representation of ASPSP transaction primary identifier
+     * @param numberOfTransactions Number of transactions, read from the account, or <code>null</code> if it shouldn't be stored
+     */
+    public void consentActionLog(String tppId, String consentId, ActionStatus actionStatus, String requestUri, boolean updateUsage,
+                                 String resourceId, String transactionId, Integer numberOfTransactions) {
         try {
-            aisConsentService.checkConsentAndSaveActionLog(new AisConsentActionRequest(tppId, consentId, actionStatus, requestUri, updateUsage, resourceId, transactionId));
+            aisConsentService.checkConsentAndSaveActionLog(new AisConsentActionRequest(tppId, consentId, actionStatus, requestUri, updateUsage,
+                                                                                       resourceId, transactionId, numberOfTransactions));
         } catch (WrongChecksumException e) {
             log.info("consentActionLog cannot be executed, checksum verification failed");
         }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.consent;
+
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.ais.CmsConsent;
+import de.adorsys.psd2.consent.api.piis.PiisConsentChangedEvent;
+import de.adorsys.psd2.consent.api.service.PiisConsentService;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceSelector;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provides PIIS consents for funds confirmation, optionally keeping them in a bounded in-memory cache.
+ * <p>
+ * Consents are cached by account identifier and currency. Cached consents of the account are dropped on
+ * {@link PiisConsentChangedEvent} or once they become older than time to live. The least recently used entry is
+ * evicted once the maximum size is reached.
+ * <p>
+ * The event is published only by CMS, running in the same application, so the cache can't be enabled with remote CMS:
+ * changes of PIIS consents would stay invisible for XS2A until time to live expires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class Xs2aPiisConsentService {
+    private final PiisConsentService piisConsentService;
+
+    @Value("${xs2a.piis-consent.cache.max-size:0}")
+    private int maxSize;
+    @Value("${xs2a.piis-consent.cache.ttl.ms:10000}")
+    private long timeToLiveMs;
+
+    private final ConcurrentMap<CacheKey, CachedConsents> cachedConsents = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong accessCounter = new AtomicLong();
+
+    @PostConstruct
+    public void checkCacheSupported() {
+        if (maxSize > 0 && !piisConsentService.isPiisConsentChangedEventPublished()) {
+            log.warn("PIIS consent cache is disabled, as changes of PIIS consents aren't announced by CMS to XS2A. " +
+                         "Set xs2a.piis-consent.cache.max-size to 0 when using remote CMS");
+            maxSize = 0;
+        }
+    }
+
+    /**
+     * Returns PIIS consents for the given account identifier and currency
+     *
+     * @param currency                 currency of the account, consents for all currencies are returned if <code>null</code>
+     * @param accountReferenceSelector account identifier
+     * @return response with the list of consents
+     */
+    public @NotNull CmsResponse<List<CmsConsent>> getPiisConsentListByAccountIdentifier(@Nullable Currency currency,
+                                                                                        @NotNull AccountReferenceSelector accountReferenceSelector) {
+        if (maxSize <= 0) {
+            return piisConsentService.getPiisConsentListByAccountIdentifier(currency, accountReferenceSelector);
+        }
+
+        CacheKey key = new CacheKey(accountReferenceSelector.getAccountValue(), currency);
+        List<CmsConsent> consents = getCachedConsents(key);
+        if (consents != null) {
+            return CmsResponse.<List<CmsConsent>>builder()
+                       .payload(consents)
+                       .build();
+        }
+
+        long invalidationsBeforeLoad = invalidations.get();
+        CmsResponse<List<CmsConsent>> response = piisConsentService.getPiisConsentListByAccountIdentifier(currency, accountReferenceSelector);
+        if (response.isSuccessful()) {
+            putConsents(key, response.getPayload(), invalidationsBeforeLoad);
+        }
+        return response;
+    }
+
+    /**
+     * Drops cached consents of the accounts, whose PIIS consents have been changed
+     *
+     * @param event event with changed account identifiers
+     */
+    @EventListener
+    public void onPiisConsentChanged(PiisConsentChangedEvent event) {
+        invalidations.incrementAndGet();
+        cachedConsents.keySet().removeIf(key -> event.getAccountIdentifiers().contains(key.getAccountIdentifier()));
+    }
+
+    int size() {
+        return cachedConsents.size();
+    }
+
+    private List<CmsConsent> getCachedConsents(CacheKey key) {
+        CachedConsents cached = cachedConsents.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() - cached.getCreatedAt() >= timeToLiveMs) {
+            cachedConsents.remove(key, cached);
+            return null;
+        }
+        cached.setLastAccess(accessCounter.incrementAndGet());
+        return cached.getConsents();
+    }
+
+    private void putConsents(CacheKey key, List<CmsConsent> consents, long invalidationsBeforeLoad) {
+        CachedConsents cached = new CachedConsents(Collections.unmodifiableList(new ArrayList<>(consents)), System.currentTimeMillis());
+        cached.setLastAccess(accessCounter.incrementAndGet());
+        cachedConsents.put(key, cached);
+
+        // consents, loaded before the last invalidation, may be already outdated
+        if (invalidations.get() != invalidationsBeforeLoad) {
+            cachedConsents.remove(key, cached);
+            return;
+        }
+
+        while (cachedConsents.size() > maxSize) {
+            Optional<Map.Entry<CacheKey, CachedConsents>> leastRecentlyUsed = cachedConsents.entrySet().stream()
+                                                                                  .min(Comparator.comparingLong(entry -> entry.getValue().getLastAccess()));
+            if (!leastRecentlyUsed.isPresent()) {
+                return;
+            }
+            cachedConsents.remove(leastRecentlyUsed.get().getKey(), leastRecentlyUsed.get().getValue());
+        }
+    }
+
+    @Data
+    private static class CacheKey {
+        private final String accountIdentifier;
+        private final Currency currency;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedConsents {
+        private final List<CmsConsent> consents;
+        private final long createdAt;
+        @Setter
+        private volatile long lastAccess;
+    }
+}
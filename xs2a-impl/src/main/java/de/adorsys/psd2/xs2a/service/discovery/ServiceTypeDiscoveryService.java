@@ -17,24 +17,35 @@
 package de.adorsys.psd2.xs2a.service.discovery;
 
 import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRoute;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRouteResolver;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.http.HttpServletRequest;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ServiceTypeDiscoveryService {
     private final HttpServletRequest request;
+    private final Xs2aRouteResolver xs2aRouteResolver;
 
     /**
-     * Gets service type from request URI by invoking ServiceTypeDiscovery
+     * Gets service type of the current request from the route of the request
      *
      * @return ServiceType value
+     * @throws IllegalArgumentException if the request doesn't belong to XS2A endpoints
      */
     public ServiceType getServiceType() {
-        return ServiceTypeDiscovery.getServiceType(new UrlPathHelper().getPathWithinApplication(request));
+        Xs2aRoute route = xs2aRouteResolver.resolveRoute(request);
+        ServiceType serviceType = route.getServiceType();
+        if (serviceType == null) {
+            String requestUri = request.getRequestURI();
+            log.warn("Can't get ServiceType because illegal path: [{}]", requestUri);
+            throw new IllegalArgumentException("Illegal path: " + requestUri);
+        }
+        return serviceType;
     }
 }
-
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.event;
+
+/**
+ * Defines what happens to the event, if the queue of events to be recorded is full
+ */
+public enum EventQueueOverflowPolicy {
+    /**
+     * Request thread waits until there is free space in the queue
+     */
+    BLOCK,
+    /**
+     * Event is dropped and counted in `xs2a.event.queue.dropped` metric
+     */
+    DROP,
+    /**
+     * Event is recorded synchronously by the request thread
+     */
+    CALLER_RUNS
+}
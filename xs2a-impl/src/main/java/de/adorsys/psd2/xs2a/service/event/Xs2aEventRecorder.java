@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.event;
+
+import de.adorsys.psd2.event.service.Xs2aEventServiceEncrypted;
+import de.adorsys.psd2.event.service.model.EventBO;
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records events in the CMS asynchronously, so that TPP requests don't wait for the event to be written.
+ * <p>
+ * Events are put into the bounded in-memory queue and written by the background thread in batches of up to
+ * `xs2a.event.queue.batch-size` events. Behaviour in case of the full queue is defined by {@link EventQueueOverflowPolicy}.
+ * On shutdown the queue is drained for at most `xs2a.event.queue.shutdown-timeout.ms` milliseconds.
+ * <p>
+ * The background thread doesn't run within any TPP request, so every batch is recorded with its own generated request ID
+ * in the logging context, which is passed to the remote CMS in `X-Request-ID` and `X-Internal-Request-ID` headers.
+ * <p>
+ * Asynchronous recording can be disabled by setting `xs2a.event.queue.capacity` to zero, in this case every event
+ * is recorded synchronously.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Xs2aEventRecorder implements MeterBinder {
+    private final Xs2aEventServiceEncrypted eventService;
+    private final LoggingContextService loggingContextService;
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    @Value("${xs2a.event.queue.capacity:10000}")
+    private int queueCapacity;
+    @Value("${xs2a.event.queue.batch-size:100}")
+    private int batchSize;
+    @Value("${xs2a.event.queue.flush-interval.ms:200}")
+    private long flushIntervalMs;
+    @Value("${xs2a.event.queue.overflow-policy:CALLER_RUNS}")
+    private EventQueueOverflowPolicy overflowPolicy;
+    @Value("${xs2a.event.queue.shutdown-timeout.ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<EventBO> eventQueue;
+    private Thread flushThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (queueCapacity <= 0) {
+            return;
+        }
+
+        eventQueue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flushThread = new Thread(this::flushEvents, "xs2a-event-recorder");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flushThread == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            flushThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (flushThread.isAlive()) {
+            flushThread.interrupt();
+            log.warn("Event queue hasn't been drained within {} ms, {} events weren't recorded", shutdownTimeoutMs, eventQueue.size());
+        }
+    }
+
+    /**
+     * Puts the event into the queue to be recorded in the CMS
+     *
+     * @param event Event to be recorded
+     */
+    public void recordEvent(@NotNull EventBO event) {
+        if (!running) {
+            recordEventSynchronously(event);
+            return;
+        }
+
+        if (eventQueue.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                putEvent(event);
+                break;
+            case DROP:
+                droppedEvents.incrementAndGet();
+                log.warn("TPP ID: [{}]. Event queue is full, event from TPP request has been dropped", event.getTppAuthorisationNumber());
+                break;
+            case CALLER_RUNS:
+            default:
+                recordEventSynchronously(event);
+        }
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("xs2a.event.queue.size", this, recorder -> recorder.eventQueue == null ? 0 : recorder.eventQueue.size())
+            .description("Number of events waiting to be recorded in the CMS")
+            .register(registry);
+        FunctionCounter.builder("xs2a.event.queue.dropped", droppedEvents, AtomicLong::get)
+            .description("Number of events dropped because of the full event queue")
+            .register(registry);
+    }
+
+    long getDroppedEventsCount() {
+        return droppedEvents.get();
+    }
+
+    private void putEvent(EventBO event) {
+        try {
+            eventQueue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordEventSynchronously(event);
+        }
+    }
+
+    private void recordEventSynchronously(EventBO event) {
+        boolean recorded = eventService.recordEvent(event);
+        if (!recorded) {
+            log.info("TPP ID: [{}]. Couldn't record event from TPP request: {}", event.getTppAuthorisationNumber(), event);
+        }
+    }
+
+    private void flushEvents() {
+        while (running || !eventQueue.isEmpty()) {
+            EventBO firstEvent;
+            try {
+                firstEvent = eventQueue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (firstEvent != null) {
+                List<EventBO> batch = new ArrayList<>(batchSize);
+                batch.add(firstEvent);
+                eventQueue.drainTo(batch, batchSize - 1);
+                recordBatch(batch);
+            }
+        }
+    }
+
+    private void recordBatch(List<EventBO> batch) {
+        String batchRequestId = UUID.randomUUID().toString();
+        loggingContextService.storeRequestInformation(new RequestInfo(batchRequestId, batchRequestId));
+        try {
+            boolean recorded = eventService.recordEvents(batch);
+            if (!recorded) {
+                log.info("Couldn't record batch of {} events from TPP requests", batch.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Couldn't record batch of {} events from TPP requests: {}", batch.size(), e.getMessage());
+        } finally {
+            loggingContextService.clearContext();
+        }
+    }
+}
@@ -18,7 +18,6 @@ package de.adorsys.psd2.xs2a.service.event;
 
 import de.adorsys.psd2.event.core.model.EventOrigin;
 import de.adorsys.psd2.event.core.model.EventType;
-import de.adorsys.psd2.event.service.Xs2aEventServiceEncrypted;
 import de.adorsys.psd2.event.service.model.EventBO;
 import de.adorsys.psd2.xs2a.domain.RequestData;
 import de.adorsys.psd2.xs2a.domain.event.RequestEventPayload;
@@ -26,19 +25,17 @@ import de.adorsys.psd2.xs2a.service.RequestProviderService;
 import de.adorsys.psd2.xs2a.service.TppService;
 import de.adorsys.psd2.xs2a.service.event.mapper.EventMapper;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class Xs2aEventService {
     private final TppService tppService;
-    private final Xs2aEventServiceEncrypted eventService;
+    private final Xs2aEventRecorder eventRecorder;
     private final RequestProviderService requestProviderService;
     private final EventMapper eventMapper;
 
@@ -112,10 +109,7 @@ public class Xs2aEventService {
     }
 
     private void recordEventInCms(EventBO event) {
-        boolean recorded = eventService.recordEvent(event);
-        if (!recorded) {
-            log.info("TPP ID: [{}]. Couldn't record event from TPP request: {}", event.getTppAuthorisationNumber(), event);
-        }
+        eventRecorder.recordEvent(event);
     }
 
     private EventBO buildTppEvent(EventType eventType, Object body) {
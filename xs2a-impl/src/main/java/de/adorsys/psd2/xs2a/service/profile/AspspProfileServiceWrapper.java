@@ -18,7 +18,6 @@ package de.adorsys.psd2.xs2a.service.profile;
 
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.aspsp.profile.domain.MulticurrencyAccountLevel;
-import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.xs2a.core.ais.BookingStatus;
 import de.adorsys.psd2.xs2a.core.profile.*;
 import de.adorsys.psd2.xs2a.domain.account.SupportedAccountReferenceField;
@@ -33,7 +32,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class AspspProfileServiceWrapper {
-    private final AspspProfileService aspspProfileService;
+    private final AspspProfileSnapshotHolder aspspProfileSnapshotHolder;
 
     /**
      * Gets a map with payment types and products allowed by current ASPSP from ASPSP profile service
@@ -50,7 +49,7 @@ public class AspspProfileServiceWrapper {
      * @return List of Available SCA approaches for tpp
      */
     public List<ScaApproach> getScaApproaches() {
-        return aspspProfileService.getScaApproaches();
+        return aspspProfileSnapshotHolder.getScaApproaches();
     }
 
     /**
@@ -336,7 +335,7 @@ public class AspspProfileServiceWrapper {
     }
 
     private AspspSettings readAspspSettings() {
-        return aspspProfileService.getAspspSettings();
+        return aspspProfileSnapshotHolder.getAspspSettings();
     }
 
     /**
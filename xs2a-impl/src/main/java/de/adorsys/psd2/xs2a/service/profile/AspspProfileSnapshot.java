@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.profile;
+
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the ASPSP profile, loaded at once from the ASPSP profile service.
+ * Every newly loaded snapshot receives a higher version than the previous one.
+ */
+@Value
+public class AspspProfileSnapshot {
+    private long version;
+    private AspspSettings aspspSettings;
+    private List<ScaApproach> scaApproaches;
+    private long loadedAt;
+
+    boolean isExpired(long currentTimeMillis, long timeToLiveMs) {
+        return currentTimeMillis - loadedAt >= timeToLiveMs;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.profile;
+
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettingsUpdatedEvent;
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the in-memory snapshot of ASPSP profile, so that profile reads on the request path don't require a call
+ * to ASPSP profile service (which is a remote call in case of standalone profile).
+ * <p>
+ * The snapshot is loaded synchronously on the first read. Once its age exceeds the configured time to live, it's still
+ * being served while a fresh one is being loaded in the background. The snapshot is dropped immediately on
+ * {@link AspspSettingsUpdatedEvent}, published by the embedded ASPSP profile on reload or update.
+ * <p>
+ * Caching can be disabled by setting `xs2a.aspsp-profile.cache.ttl.ms` to zero, in this case every read is delegated
+ * to ASPSP profile service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AspspProfileSnapshotHolder {
+    private final AspspProfileService aspspProfileService;
+    private final AtomicReference<AspspProfileSnapshot> snapshotReference = new AtomicReference<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final AtomicLong invalidationCounter = new AtomicLong();
+    private final AtomicBoolean refreshInProgress = new AtomicBoolean();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "aspsp-profile-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${xs2a.aspsp-profile.cache.ttl.ms:60000}")
+    private long timeToLiveMs;
+
+    /**
+     * Returns ASPSP settings from the current snapshot
+     *
+     * @return ASPSP settings
+     */
+    public AspspSettings getAspspSettings() {
+        if (isCacheDisabled()) {
+            return aspspProfileService.getAspspSettings();
+        }
+        return getSnapshot().getAspspSettings();
+    }
+
+    /**
+     * Returns SCA approaches from the current snapshot
+     *
+     * @return list of SCA approaches ordered by priority
+     */
+    public List<ScaApproach> getScaApproaches() {
+        if (isCacheDisabled()) {
+            return aspspProfileService.getScaApproaches();
+        }
+        return getSnapshot().getScaApproaches();
+    }
+
+    /**
+     * Returns current snapshot of ASPSP profile, loading it if there is none yet
+     *
+     * @return current snapshot
+     */
+    public AspspProfileSnapshot getSnapshot() {
+        AspspProfileSnapshot snapshot = snapshotReference.get();
+        if (snapshot == null) {
+            return loadSnapshot();
+        }
+
+        if (snapshot.isExpired(System.currentTimeMillis(), timeToLiveMs)) {
+            scheduleRefresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops current snapshot, so that the next read will load a fresh one
+     */
+    public void invalidate() {
+        invalidationCounter.incrementAndGet();
+        snapshotReference.set(null);
+    }
+
+    @EventListener
+    public void onAspspSettingsUpdated(AspspSettingsUpdatedEvent event) {
+        log.info("ASPSP profile has been updated at {}, dropping cached snapshot", event.getTimestamp());
+        invalidate();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private boolean isCacheDisabled() {
+        return timeToLiveMs <= 0;
+    }
+
+    private synchronized AspspProfileSnapshot loadSnapshot() {
+        AspspProfileSnapshot snapshot = snapshotReference.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return refreshSnapshot(invalidationCounter.get());
+    }
+
+    private AspspProfileSnapshot refreshSnapshot(long invalidationsBeforeLoad) {
+        AspspSettings aspspSettings = aspspProfileService.getAspspSettings();
+        List<ScaApproach> scaApproaches = aspspProfileService.getScaApproaches();
+        AspspProfileSnapshot snapshot = new AspspProfileSnapshot(versionCounter.incrementAndGet(),
+                                                                 aspspSettings,
+                                                                 scaApproaches == null
+                                                                     ? Collections.emptyList()
+                                                                     : Collections.unmodifiableList(scaApproaches),
+                                                                 System.currentTimeMillis());
+        // Snapshot loaded concurrently with invalidation may already be outdated, so it's not stored
+        if (invalidationCounter.get() == invalidationsBeforeLoad) {
+            snapshotReference.set(snapshot);
+        }
+        return snapshot;
+    }
+
+    private void scheduleRefresh() {
+        if (!refreshInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        long invalidationsBeforeLoad = invalidationCounter.get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshSnapshot(invalidationsBeforeLoad);
+                } catch (RuntimeException e) {
+                    log.warn("Couldn't refresh ASPSP profile snapshot, the previous one will be used: {}", e.getMessage());
+                } finally {
+                    refreshInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshInProgress.set(false);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps SPI beans into the proxy, that records metrics of SPI calls via {@link SpiMetricsRecorder}
+ * (if `xs2a.spi.metrics.enabled` is set) and routes them through {@link SpiExecutionService}
+ * (if `xs2a.spi.execution.enabled` is set).
+ * <p>
+ * Only methods returning {@link SpiResponse} are instrumented, other methods of the SPI beans are invoked directly.
+ * SPI beans are left as they are, if there is neither a Micrometer registry nor SPI execution enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpiBeanPostProcessor implements BeanPostProcessor {
+    private static final String SPI_PACKAGE = "de.adorsys.psd2.xs2a.spi.service";
+
+    private final SpiMetricsRecorder spiMetricsRecorder;
+    private final SpiExecutionService spiExecutionService;
+
+    @Override
+    public Object postProcessAfterInitialization(@NotNull Object bean, @NotNull String beanName) {
+        boolean metricsEnabled = spiMetricsRecorder.isEnabled();
+        boolean executionEnabled = spiExecutionService.isEnabled();
+        if (!metricsEnabled && !executionEnabled) {
+            return bean;
+        }
+
+        List<Class<?>> spiInterfaces = Arrays.stream(ClassUtils.getAllInterfaces(bean))
+                                           .filter(i -> SPI_PACKAGE.equals(i.getPackageName()))
+                                           .filter(i -> Arrays.stream(i.getMethods()).anyMatch(this::returnsSpiResponse))
+                                           .collect(Collectors.toList());
+        if (spiInterfaces.isEmpty()) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        // keeps SPI beans injectable by their concrete classes, unless the class can't be subclassed
+        boolean finalClass = Modifier.isFinal(bean.getClass().getModifiers());
+        if (finalClass) {
+            log.warn("SPI bean [{}] of final class {} is proxied by its interfaces and can't be injected by its class",
+                     beanName, bean.getClass().getName());
+        }
+        proxyFactory.setProxyTargetClass(!finalClass);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Method method = invocation.getMethod();
+            if (!returnsSpiResponse(method)) {
+                return invocation.proceed();
+            }
+            Class<?> spiInterface = getSpiInterface(spiInterfaces, method);
+            SpiCall<Object> spiCall = executionEnabled
+                                          ? () -> spiExecutionService.execute(spiInterface, method.getName(), invocation::proceed)
+                                          : invocation::proceed;
+            return metricsEnabled
+                       ? spiMetricsRecorder.record(spiInterface, method, invocation.getArguments(), spiCall)
+                       : spiCall.call();
+        });
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    private boolean returnsSpiResponse(Method method) {
+        return SpiResponse.class.isAssignableFrom(method.getReturnType());
+    }
+
+    private Class<?> getSpiInterface(List<Class<?>> spiInterfaces, Method method) {
+        return spiInterfaces.stream()
+                   .filter(i -> Arrays.stream(i.getMethods()).anyMatch(m -> m.getName().equals(method.getName())))
+                   .findFirst()
+                   .orElse(spiInterfaces.get(0));
+    }
+}
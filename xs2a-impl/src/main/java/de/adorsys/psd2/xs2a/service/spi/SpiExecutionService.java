@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.exception.SpiExecutionUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes SPI calls in bounded thread pools, one pool (bulkhead) per SPI interface, so that a slow ASPSP backend
+ * behind one SPI can't occupy all servlet threads and starve the requests to other SPIs.
+ * <p>
+ * Every bulkhead runs at most `xs2a.spi.execution.max-concurrent-calls` calls at a time and queues at most
+ * `xs2a.spi.execution.queue-capacity` further calls; a call that doesn't fit or doesn't complete within
+ * `xs2a.spi.execution.timeout.ms` milliseconds is answered with {@link SpiExecutionUnavailableException}.
+ * Both limits can be overridden per SPI interface with
+ * `xs2a.spi.execution.bulkhead.{SpiSimpleName}.max-concurrent-calls` and `xs2a.spi.execution.bulkhead.{SpiSimpleName}.timeout.ms`.
+ * <p>
+ * Methods changing the state in ASPSP (payment initiation and execution, authorisation steps, etc.) are limited by
+ * the longer `xs2a.spi.execution.writing-timeout.ms` (overridable with
+ * `xs2a.spi.execution.bulkhead.{SpiSimpleName}.writing-timeout.ms`), as XS2A can't know whether the ASPSP has
+ * processed the call, that didn't complete in time, and the TPP might retry it. The timeout of a single method can be
+ * set with `xs2a.spi.execution.bulkhead.{SpiSimpleName}.{methodName}.timeout.ms`, `0` disables it.
+ * <p>
+ * The calling servlet thread waits for the result of the SPI thread, so a blocked SPI call holds both threads until
+ * the timeout.
+ * <p>
+ * MDC, request attributes and locale of the calling thread are propagated to the SPI thread, so that request-scoped
+ * beans (e.g. {@link de.adorsys.psd2.xs2a.service.RequestProviderService}) remain usable in the SPI.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpiExecutionService {
+    private static final String BULKHEAD_PROPERTY_PREFIX = "xs2a.spi.execution.bulkhead.";
+    private static final long NO_TIMEOUT = 0;
+    private static final Set<String> READING_SPI_METHODS = Set.of("getPaymentById", "getPaymentStatusById", "getConsentStatus",
+                                                                  "requestAvailableScaMethods", "performFundsSufficientCheck",
+                                                                  "requestAccountList", "requestAccountDetailForAccount",
+                                                                  "requestTransactionsForAccount", "requestTransactionForAccountByTransactionId",
+                                                                  "requestBalancesForAccount", "requestTransactionsByDownloadLink",
+                                                                  "requestCardAccountList", "requestCardAccountDetailsForAccount",
+                                                                  "requestCardTransactionsForAccount", "requestCardBalancesForAccount");
+
+    private final Environment environment;
+    private final Map<Class<?>, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, Long> methodTimeouts = new ConcurrentHashMap<>();
+
+    @Value("${xs2a.spi.execution.enabled:false}")
+    private boolean enabled;
+    @Value("${xs2a.spi.execution.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+    @Value("${xs2a.spi.execution.queue-capacity:0}")
+    private int queueCapacity;
+    @Value("${xs2a.spi.execution.timeout.ms:30000}")
+    private long timeoutMs;
+    @Value("${xs2a.spi.execution.writing-timeout.ms:120000}")
+    private long writingTimeoutMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Executes the call in the bulkhead of the given SPI interface and waits for its result
+     *
+     * @param spiInterface SPI interface being called
+     * @param methodName   name of the called SPI method
+     * @param spiCall      call to be executed
+     * @param <T>          type of the call result
+     * @return result of the call
+     * @throws Throwable exception thrown by the call itself
+     * @throws SpiExecutionUnavailableException if the bulkhead is full or the call timed out
+     */
+    public <T> T execute(Class<?> spiInterface, String methodName, SpiCall<T> spiCall) throws Throwable {
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(spiInterface, this::createBulkhead);
+        long timeout = methodTimeouts.computeIfAbsent(spiInterface.getSimpleName() + "." + methodName,
+                                                      key -> getMethodTimeout(key, methodName, bulkhead));
+
+        Future<T> future;
+        try {
+            future = bulkhead.executor.submit(new ContextAwareCallable<>(spiCall));
+        } catch (RejectedExecutionException e) {
+            log.warn("SPI call to {} rejected: all {} threads are busy", spiInterface.getSimpleName(), bulkhead.executor.getMaximumPoolSize());
+            throw new SpiExecutionUnavailableException("SPI " + spiInterface.getSimpleName() + " is overloaded");
+        }
+
+        try {
+            return timeout == NO_TIMEOUT
+                       ? future.get()
+                       : future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("SPI call to {}.{} didn't complete within {} ms", spiInterface.getSimpleName(), methodName, timeout);
+            throw new SpiExecutionUnavailableException("SPI " + spiInterface.getSimpleName() + " timed out");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof SpiCallThrowable ? cause.getCause() : cause;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SpiExecutionUnavailableException("SPI call to " + spiInterface.getSimpleName() + " was interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(b -> b.executor.shutdownNow());
+    }
+
+    private Bulkhead createBulkhead(Class<?> spiInterface) {
+        String name = spiInterface.getSimpleName();
+        int threads = environment.getProperty(BULKHEAD_PROPERTY_PREFIX + name + ".max-concurrent-calls", Integer.class, maxConcurrentCalls);
+        long timeout = environment.getProperty(BULKHEAD_PROPERTY_PREFIX + name + ".timeout.ms", Long.class, timeoutMs);
+        long writingTimeout = environment.getProperty(BULKHEAD_PROPERTY_PREFIX + name + ".writing-timeout.ms", Long.class, writingTimeoutMs);
+
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                                            ? new ArrayBlockingQueue<>(queueCapacity)
+                                            : new SynchronousQueue<>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue,
+                                                             new SpiThreadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        log.info("Created SPI bulkhead for {} with {} threads, timeout {} ms for reading and {} ms for writing methods",
+                 name, threads, timeout, writingTimeout);
+        return new Bulkhead(executor, timeout, writingTimeout);
+    }
+
+    private long getMethodTimeout(String methodKey, String methodName, Bulkhead bulkhead) {
+        long defaultTimeout = READING_SPI_METHODS.contains(methodName)
+                                  ? bulkhead.timeoutMs
+                                  : bulkhead.writingTimeoutMs;
+        return environment.getProperty(BULKHEAD_PROPERTY_PREFIX + methodKey + ".timeout.ms", Long.class, defaultTimeout);
+    }
+
+    @RequiredArgsConstructor
+    private static class Bulkhead {
+        private final ThreadPoolExecutor executor;
+        private final long timeoutMs;
+        private final long writingTimeoutMs;
+    }
+
+    private static class SpiCallThrowable extends Exception {
+        SpiCallThrowable(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private static class ContextAwareCallable<T> implements Callable<T> {
+        private final SpiCall<T> spiCall;
+        private final Map<String, String> mdcContext;
+        private final RequestAttributes requestAttributes;
+        private final LocaleContext localeContext;
+
+        ContextAwareCallable(SpiCall<T> spiCall) {
+            this.spiCall = spiCall;
+            this.mdcContext = MDC.getCopyOfContextMap();
+            this.requestAttributes = RequestContextHolder.getRequestAttributes();
+            this.localeContext = LocaleContextHolder.getLocaleContext();
+        }
+
+        @Override
+        public T call() throws Exception {
+            if (mdcContext != null) {
+                MDC.setContextMap(mdcContext);
+            }
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                return spiCall.call();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SpiCallThrowable(e);
+            } finally {
+                MDC.clear();
+                RequestContextHolder.resetRequestAttributes();
+                LocaleContextHolder.resetLocaleContext();
+            }
+        }
+    }
+
+    private static class SpiThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        SpiThreadFactory(String spiName) {
+            this.namePrefix = "spi-" + spiName + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
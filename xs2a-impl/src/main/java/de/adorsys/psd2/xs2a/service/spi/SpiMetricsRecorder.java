@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.SpiPayment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records metrics of SPI calls in the Micrometer registry (if there is one in the application context):
+ * <ul>
+ * <li>{@code xs2a.spi.calls} - timer of SPI calls, tagged with the SPI interface, method, payment product and outcome
+ * ({@code SUCCESS}, {@code ERROR} for responses with errors or {@code EXCEPTION} for exceptions thrown by the SPI)</li>
+ * <li>{@code xs2a.spi.calls.active} - gauge of SPI calls in progress, tagged with the SPI interface and method</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class SpiMetricsRecorder {
+    private static final String CALLS_METRIC = "xs2a.spi.calls";
+    private static final String ACTIVE_CALLS_METRIC = "xs2a.spi.calls.active";
+    private static final String SPI_TAG = "spi";
+    private static final String METHOD_TAG = "method";
+    private static final String NONE = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ListableBeanFactory beanFactory;
+    private final Map<List<String>, AtomicInteger> activeCalls = new ConcurrentHashMap<>();
+
+    @Value("${xs2a.spi.metrics.enabled:true}")
+    private boolean enabled;
+    @Value("${xs2a.spi.metrics.percentile-histogram:true}")
+    private boolean percentileHistogram;
+
+    /**
+     * Checks whether SPI calls should be instrumented: metrics have to be enabled and there has to be a
+     * {@link MeterRegistry} in the application context. The registry is looked up by bean definitions only, so it isn't
+     * instantiated before all bean post processors are registered.
+     *
+     * @return <code>true</code> if SPI calls should be instrumented, <code>false</code> otherwise
+     */
+    public boolean isEnabled() {
+        return enabled && beanFactory.getBeanNamesForType(MeterRegistry.class, true, false).length > 0;
+    }
+
+    /**
+     * Executes the SPI call and records its duration and outcome
+     *
+     * @param spiInterface SPI interface being called
+     * @param method       SPI method being called
+     * @param arguments    arguments of the call, used to determine the payment product
+     * @param spiCall      call to be executed
+     * @param <T>          type of the call result
+     * @return result of the call
+     * @throws Throwable exception thrown by the call
+     */
+    public <T> T record(Class<?> spiInterface, Method method, Object[] arguments, SpiCall<T> spiCall) throws Throwable {
+        MeterRegistry registry = meterRegistryProvider.getIfAvailable();
+        if (registry == null) {
+            return spiCall.call();
+        }
+
+        String spiName = spiInterface.getSimpleName();
+        AtomicInteger active = activeCalls.computeIfAbsent(Arrays.asList(spiName, method.getName()),
+                                                           key -> registerActiveCallsGauge(registry, key));
+        active.incrementAndGet();
+        Timer.Sample sample = Timer.start(registry);
+        SpiCallOutcome outcome = SpiCallOutcome.EXCEPTION;
+        try {
+            T result = spiCall.call();
+            outcome = result instanceof SpiResponse && ((SpiResponse<?>) result).hasError()
+                          ? SpiCallOutcome.ERROR
+                          : SpiCallOutcome.SUCCESS;
+            return result;
+        } finally {
+            active.decrementAndGet();
+            sample.stop(Timer.builder(CALLS_METRIC)
+                            .description("Duration of SPI calls")
+                            .tag(SPI_TAG, spiName)
+                            .tag(METHOD_TAG, method.getName())
+                            .tag("payment-product", getPaymentProduct(arguments))
+                            .tag("outcome", outcome.name())
+                            .publishPercentileHistogram(percentileHistogram)
+                            .register(registry));
+        }
+    }
+
+    private AtomicInteger registerActiveCallsGauge(MeterRegistry registry, List<String> key) {
+        AtomicInteger counter = new AtomicInteger();
+        Gauge.builder(ACTIVE_CALLS_METRIC, counter, AtomicInteger::get)
+            .description("Number of SPI calls in progress")
+            .tag(SPI_TAG, key.get(0))
+            .tag(METHOD_TAG, key.get(1))
+            .register(registry);
+        return counter;
+    }
+
+    private String getPaymentProduct(Object[] arguments) {
+        return Arrays.stream(arguments)
+                   .filter(SpiPayment.class::isInstance)
+                   .map(a -> ((SpiPayment) a).getPaymentProduct())
+                   .filter(Objects::nonNull)
+                   .findFirst()
+                   .orElse(NONE);
+    }
+
+    private enum SpiCallOutcome {
+        SUCCESS, ERROR, EXCEPTION
+    }
+}
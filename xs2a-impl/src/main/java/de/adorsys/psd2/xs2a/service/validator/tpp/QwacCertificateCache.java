@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.validator.tpp;
+
+import de.adorsys.psd2.validator.certificate.util.CertificateExtractorUtil;
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import no.difi.certvalidator.api.CertificateValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of parsed QWAC certificates, used by the QWAC certificate filter.
+ * <p>
+ * Certificates are kept by SHA-256 fingerprint of the encoded certificate, so that the same certificate isn't parsed
+ * on every request of the TPP. Along with the parsed data the cache remembers TPP roles, that were last stored in CMS
+ * for this certificate, so that TPP info is updated only when the roles change.
+ * The least recently used certificate is evicted once the maximum size is reached, certificates older than time to
+ * live are parsed again.
+ */
+@Component
+public class QwacCertificateCache {
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    @Value("${xs2a.qwac-certificate.cache.max-size:1000}")
+    private int maxSize;
+    @Value("${xs2a.qwac-certificate.cache.ttl.ms:3600000}")
+    private long timeToLiveMs;
+
+    private final Map<String, CachedCertificate> cachedCertificates = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Returns parsed data of the given certificate, parsing it only if there is no valid cached data
+     *
+     * @param encodedCertificate QWAC certificate of the TPP
+     * @return parsed certificate data
+     * @throws CertificateValidationException if the certificate couldn't be parsed
+     */
+    public TppCertificateData getTppCertificateData(String encodedCertificate) throws CertificateValidationException {
+        String fingerprint = fingerprint(encodedCertificate);
+
+        CachedCertificate cachedCertificate = getCachedCertificate(fingerprint);
+        if (cachedCertificate != null) {
+            return cachedCertificate.tppCertificateData;
+        }
+
+        TppCertificateData tppCertificateData = CertificateExtractorUtil.extract(encodedCertificate);
+        putCertificate(fingerprint, tppCertificateData);
+        return tppCertificateData;
+    }
+
+    /**
+     * Checks whether given TPP roles were already stored in CMS for the given certificate
+     *
+     * @param encodedCertificate QWAC certificate of the TPP
+     * @param tppRoles           current TPP roles
+     * @return <code>true</code> if the same roles were stored, <code>false</code> otherwise
+     */
+    public synchronized boolean isTppRolesStored(String encodedCertificate, List<TppRole> tppRoles) {
+        CachedCertificate cachedCertificate = cachedCertificates.get(fingerprint(encodedCertificate));
+        return cachedCertificate != null
+                   && cachedCertificate.storedTppRoles != null
+                   && cachedCertificate.storedTppRoles.equals(tppRoles);
+    }
+
+    /**
+     * Remembers TPP roles, that were stored in CMS for the given certificate
+     *
+     * @param encodedCertificate QWAC certificate of the TPP
+     * @param tppRoles           stored TPP roles
+     */
+    public synchronized void setTppRolesStored(String encodedCertificate, List<TppRole> tppRoles) {
+        CachedCertificate cachedCertificate = cachedCertificates.get(fingerprint(encodedCertificate));
+        if (cachedCertificate != null) {
+            cachedCertificate.storedTppRoles = new ArrayList<>(tppRoles);
+        }
+    }
+
+    synchronized int size() {
+        return cachedCertificates.size();
+    }
+
+    private synchronized CachedCertificate getCachedCertificate(String fingerprint) {
+        CachedCertificate cachedCertificate = cachedCertificates.get(fingerprint);
+        if (cachedCertificate == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() - cachedCertificate.createdAt >= timeToLiveMs) {
+            cachedCertificates.remove(fingerprint);
+            return null;
+        }
+        return cachedCertificate;
+    }
+
+    private synchronized void putCertificate(String fingerprint, TppCertificateData tppCertificateData) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        cachedCertificates.put(fingerprint, new CachedCertificate(tppCertificateData, System.currentTimeMillis()));
+
+        Iterator<CachedCertificate> iterator = cachedCertificates.values().iterator();
+        while (cachedCertificates.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String fingerprint(String encodedCertificate) {
+        try {
+            byte[] digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM).digest(encodedCertificate.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algorithm " + FINGERPRINT_ALGORITHM + " isn't supported", e);
+        }
+    }
+
+    private static class CachedCertificate {
+        private final TppCertificateData tppCertificateData;
+        private final long createdAt;
+        private List<TppRole> storedTppRoles;
+
+        private CachedCertificate(TppCertificateData tppCertificateData, long createdAt) {
+            this.tppCertificateData = tppCertificateData;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web;
+
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.authorisation.AisAuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.authorisation.AuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.authorisation.PisAuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.authorisation.PisCancellationAuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.pis.proto.PisCommonPaymentResponse;
+import de.adorsys.psd2.consent.api.service.AuthorisationServiceEncrypted;
+import de.adorsys.psd2.core.data.ais.AisConsent;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
+import de.adorsys.psd2.xs2a.service.consent.Xs2aPisCommonPaymentService;
+import de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoCheckerService;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves ETags of status endpoints: statuses of payments and consents and SCA statuses of their authorisations.
+ * <p>
+ * The version of the status is read from CMS before the controller is invoked, so that the status endpoint is called
+ * only if the status might have changed. Final transaction and consent statuses and SCA statuses can't be changed by
+ * the SPI call of the status endpoint, so the version of such status is authoritative and is used as the ETag of the
+ * response. Other statuses are read from the SPI, the ETag of their responses is calculated from the response body.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatusETagResolver {
+    public static final String STATUS_VERSION_ATTRIBUTE = StatusETagResolver.class.getName() + ".STATUS_VERSION";
+    private static final String PAYMENT_ID = "paymentId";
+    private static final String CONSENT_ID = "consentId";
+    private static final String AUTHORISATION_ID = "authorisationId";
+    private static final String CANCELLATION_ID = "cancellationId";
+    private static final String VERSION_SEPARATOR = "|";
+
+    private final RequestPathResolver requestPathResolver;
+    private final PathParameterExtractor pathParameterExtractor;
+    private final Xs2aPisCommonPaymentService pisCommonPaymentService;
+    private final Xs2aAisConsentService aisConsentService;
+    private final AuthorisationServiceEncrypted authorisationServiceEncrypted;
+    private final TppInfoCheckerService tppInfoCheckerService;
+
+    /**
+     * Reads the version of the status, requested by the given request, from CMS. Path parameters of the request have
+     * to be resolved by the handler mapping, they remain available in asynchronous dispatches of the request.
+     *
+     * @param request status request
+     * @return version of the status or empty Optional, if the status isn't stored in CMS or the resource doesn't
+     * belong to the TPP of the request
+     */
+    public Optional<StatusVersion> resolveStatusVersion(HttpServletRequest request) {
+        Map<String, String> pathParameters = pathParameterExtractor.extractParameters(request);
+        if (pathParameters == null) {
+            return Optional.empty();
+        }
+
+        // different representations of the same status must have different ETags
+        String representation = requestPathResolver.resolveRequestPath(request) + VERSION_SEPARATOR + request.getHeader(HttpHeaders.ACCEPT);
+        if (pathParameters.containsKey(PAYMENT_ID)) {
+            return resolvePaymentStatusVersion(representation, pathParameters);
+        }
+        if (pathParameters.containsKey(CONSENT_ID)) {
+            return resolveConsentStatusVersion(representation, pathParameters);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Calculates strong ETag of the given response body
+     *
+     * @param body response body
+     * @return ETag value in double quotes
+     */
+    public String generateETag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * Checks whether <code>If-None-Match</code> header of the request matches the given ETag
+     *
+     * @param request current request
+     * @param eTag    ETag of the current status
+     * @return <code>true</code> if the header contains the ETag (compared weakly) or <code>*</code>,
+     * <code>false</code> otherwise
+     */
+    public boolean matchesIfNoneMatch(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        return Arrays.stream(ifNoneMatch.split(","))
+                   .map(String::trim)
+                   .map(t -> StringUtils.removeStart(t, "W/"))
+                   .anyMatch(t -> "*".equals(t) || eTag.equals(t));
+    }
+
+    private Optional<StatusVersion> resolvePaymentStatusVersion(String representation, Map<String, String> pathParameters) {
+        String paymentId = pathParameters.get(PAYMENT_ID);
+        Optional<PisCommonPaymentResponse> paymentOptional = pisCommonPaymentService.getPisCommonPaymentById(paymentId)
+                                                                 .filter(p -> !tppInfoCheckerService.differsFromTppInRequest(p.getTppInfo()));
+        if (!paymentOptional.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (pathParameters.containsKey(AUTHORISATION_ID)) {
+            return resolveScaStatusVersion(representation, pathParameters.get(AUTHORISATION_ID), new PisAuthorisationParentHolder(paymentId));
+        }
+        if (pathParameters.containsKey(CANCELLATION_ID)) {
+            return resolveScaStatusVersion(representation, pathParameters.get(CANCELLATION_ID), new PisCancellationAuthorisationParentHolder(paymentId));
+        }
+
+        PisCommonPaymentResponse payment = paymentOptional.get();
+        TransactionStatus transactionStatus = payment.getTransactionStatus();
+        if (transactionStatus == null) {
+            return Optional.empty();
+        }
+        boolean finalised = transactionStatus.isFinalisedStatus();
+        return Optional.of(buildStatusVersion(finalised, finalised, representation, transactionStatus,
+                                              payment.getStatusChangeTimestamp()));
+    }
+
+    private Optional<StatusVersion> resolveConsentStatusVersion(String representation, Map<String, String> pathParameters) {
+        String consentId = pathParameters.get(CONSENT_ID);
+        Optional<AisConsent> consentOptional = aisConsentService.getAccountConsentById(consentId)
+                                                   .filter(c -> !tppInfoCheckerService.differsFromTppInRequest(c.getTppInfo()));
+        if (!consentOptional.isPresent()) {
+            return Optional.empty();
+        }
+
+        if (pathParameters.containsKey(AUTHORISATION_ID)) {
+            return resolveScaStatusVersion(representation, pathParameters.get(AUTHORISATION_ID), new AisAuthorisationParentHolder(consentId));
+        }
+
+        AisConsent consent = consentOptional.get();
+        ConsentStatus consentStatus = consent.getConsentStatus();
+        if (consentStatus == null) {
+            return Optional.empty();
+        }
+        boolean finalised = consentStatus.isFinalisedStatus();
+        return Optional.of(buildStatusVersion(finalised, finalised, representation, consentStatus,
+                                              consent.getStatusChangeTimestamp()));
+    }
+
+    private Optional<StatusVersion> resolveScaStatusVersion(String representation, String authorisationId, AuthorisationParentHolder parentHolder) {
+        CmsResponse<ScaStatus> response = authorisationServiceEncrypted.getAuthorisationScaStatus(authorisationId, parentHolder);
+        if (response.hasError() || response.getPayload() == null) {
+            return Optional.empty();
+        }
+
+        // SCA statuses are stored in CMS only
+        ScaStatus scaStatus = response.getPayload();
+        return Optional.of(buildStatusVersion(true, scaStatus.isFinalisedStatus(), representation, scaStatus));
+    }
+
+    private StatusVersion buildStatusVersion(boolean authoritative, boolean finalised, Object... versionParts) {
+        String version = Arrays.stream(versionParts)
+                             .map(String::valueOf)
+                             .collect(Collectors.joining(VERSION_SEPARATOR));
+        return new StatusVersion(generateETag(version.getBytes(StandardCharsets.UTF_8)), authoritative, finalised);
+    }
+}
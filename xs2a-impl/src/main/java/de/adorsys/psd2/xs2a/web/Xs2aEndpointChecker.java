@@ -16,25 +16,30 @@
 
 package de.adorsys.psd2.xs2a.web;
 
-import de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant;
-import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRouteResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.util.AntPathMatcher;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class Xs2aEndpointChecker {
-    private static final AntPathMatcher matcher = new AntPathMatcher();
-    private final RequestPathResolver requestPathResolver;
+    private final Xs2aRouteResolver xs2aRouteResolver;
 
     public boolean isXs2aEndpoint(HttpServletRequest request) {
-        String requestPath = requestPathResolver.resolveRequestPath(request);
+        return xs2aRouteResolver.resolveRoute(request).isXs2aEndpoint();
+    }
 
-        return Stream.of(Xs2aEndpointPathConstant.getAllXs2aEndpointPaths())
-                   .anyMatch(en -> matcher.match(en, requestPath));
+    /**
+     * Checks whether the response of the given request should be written directly to the client instead of being cached
+     * in memory. Transaction download endpoints are always streamed, other endpoints can be added with
+     * {@code xs2a.response-streaming.endpoints} property (comma-separated list of Ant-style path patterns).
+     *
+     * @param request current request
+     * @return <code>true</code> if response should be streamed, <code>false</code> otherwise
+     */
+    public boolean isStreamingEndpoint(HttpServletRequest request) {
+        return xs2aRouteResolver.resolveRoute(request).isStreaming();
     }
 }
@@ -35,6 +35,7 @@ import static org.springframework.web.servlet.mvc.method.annotation.MvcUriCompon
 @RequiredArgsConstructor
 public abstract class AbstractLinkAspect<T> {
     private final AspspProfileServiceWrapper aspspProfileServiceWrapper;
+    private volatile Class<T> controllerClass;
 
     protected <B> boolean hasError(ResponseEntity<B> target) {
         Optional<B> body = Optional.ofNullable(target.getBody());
@@ -56,8 +57,17 @@ public abstract class AbstractLinkAspect<T> {
         return aspspProfileServiceWrapper.isAuthorisationConfirmationRequestMandated();
     }
 
-    @SuppressWarnings("unchecked")
     private Class<T> getControllerClass() {
+        Class<T> resolvedControllerClass = controllerClass;
+        if (resolvedControllerClass == null) {
+            resolvedControllerClass = resolveControllerClass();
+            controllerClass = resolvedControllerClass;
+        }
+        return resolvedControllerClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> resolveControllerClass() {
         try {
             String className = ((ParameterizedType) this.getClass().getGenericSuperclass())
                                    .getActualTypeArguments()[0]
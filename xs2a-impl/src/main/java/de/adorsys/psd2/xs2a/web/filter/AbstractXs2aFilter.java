@@ -19,10 +19,13 @@ package de.adorsys.psd2.xs2a.web.filter;
 import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
 import de.adorsys.psd2.xs2a.web.error.TppErrorMessageWriter;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 
 /**
  * Abstract filter that will be executed only once and will be applied only to XS2A endpoints.
+ * Asynchronous dispatches of requests, suspended by {@link StatusPollingFilter}, are skipped, as the request has already
+ * passed the filter on its initial dispatch.
  */
 public abstract class AbstractXs2aFilter extends GlobalAbstractExceptionFilter {
     private final Xs2aEndpointChecker xs2aEndpointChecker;
@@ -34,6 +37,7 @@ public abstract class AbstractXs2aFilter extends GlobalAbstractExceptionFilter {
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        return !xs2aEndpointChecker.isXs2aEndpoint(request);
+        return request.getDispatcherType() == DispatcherType.ASYNC
+                   || !xs2aEndpointChecker.isXs2aEndpoint(request);
     }
 }
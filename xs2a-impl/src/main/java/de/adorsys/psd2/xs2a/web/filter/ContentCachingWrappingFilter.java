@@ -18,8 +18,10 @@ package de.adorsys.psd2.xs2a.web.filter;
 
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletRequest;
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletResponse;
+import de.adorsys.psd2.xs2a.component.StreamingHttpServletResponse;
 import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
 import de.adorsys.psd2.xs2a.web.error.TppErrorMessageWriter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.FilterChain;
@@ -30,14 +32,25 @@ import java.io.IOException;
 
 @Component
 public class ContentCachingWrappingFilter extends AbstractXs2aFilter {
+    private final Xs2aEndpointChecker xs2aEndpointChecker;
+
+    @Value("${xs2a.response-streaming.log-head-size:256}")
+    private int streamingLogHeadSize;
 
     public ContentCachingWrappingFilter(TppErrorMessageWriter tppErrorMessageWriter, Xs2aEndpointChecker xs2aEndpointChecker) {
         super(tppErrorMessageWriter, xs2aEndpointChecker);
+        this.xs2aEndpointChecker = xs2aEndpointChecker;
     }
 
     @Override
     protected void doFilterInternalCustom(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         MultiReadHttpServletRequest multiReadRequest = new MultiReadHttpServletRequest(request);
+
+        if (xs2aEndpointChecker.isStreamingEndpoint(request)) {
+            doFilter(multiReadRequest, new StreamingHttpServletResponse(response, streamingLogHeadSize), filterChain);
+            return;
+        }
+
         MultiReadHttpServletResponse multiReadResponse = new MultiReadHttpServletResponse(response);
 
         doFilter(multiReadRequest, multiReadResponse, filterChain);
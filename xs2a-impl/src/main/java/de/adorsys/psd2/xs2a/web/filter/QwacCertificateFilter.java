@@ -16,14 +16,15 @@
 
 package de.adorsys.psd2.xs2a.web.filter;
 
+import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.service.TppService;
-import de.adorsys.psd2.validator.certificate.util.CertificateExtractorUtil;
 import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
 import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.core.tpp.TppRole;
 import de.adorsys.psd2.xs2a.service.RequestProviderService;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.validator.tpp.QwacCertificateCache;
 import de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoHolder;
 import de.adorsys.psd2.xs2a.service.validator.tpp.TppRoleValidationService;
 import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
@@ -62,8 +63,9 @@ public class QwacCertificateFilter extends AbstractXs2aFilter {
     private final Xs2aTppInfoMapper xs2aTppInfoMapper;
     private final TppInfoRolesMapper tppInfoRolesMapper;
     private final TppErrorMessageWriter tppErrorMessageWriter;
+    private final QwacCertificateCache qwacCertificateCache;
 
-    public QwacCertificateFilter(TppErrorMessageWriter tppErrorMessageWriter, Xs2aEndpointChecker xs2aEndpointChecker, TppInfoHolder tppInfoHolder, RequestProviderService requestProviderService, TppRoleValidationService tppRoleValidationService, TppService tppService, AspspProfileServiceWrapper aspspProfileService, Xs2aTppInfoMapper xs2aTppInfoMapper, TppInfoRolesMapper tppInfoRolesMapper, TppErrorMessageWriter tppErrorMessageWriter1) {
+    public QwacCertificateFilter(TppErrorMessageWriter tppErrorMessageWriter, Xs2aEndpointChecker xs2aEndpointChecker, TppInfoHolder tppInfoHolder, RequestProviderService requestProviderService, TppRoleValidationService tppRoleValidationService, TppService tppService, AspspProfileServiceWrapper aspspProfileService, Xs2aTppInfoMapper xs2aTppInfoMapper, TppInfoRolesMapper tppInfoRolesMapper, TppErrorMessageWriter tppErrorMessageWriter1, QwacCertificateCache qwacCertificateCache) {
         super(tppErrorMessageWriter, xs2aEndpointChecker);
         this.tppInfoHolder = tppInfoHolder;
         this.requestProviderService = requestProviderService;
@@ -73,6 +75,7 @@ public class QwacCertificateFilter extends AbstractXs2aFilter {
         this.xs2aTppInfoMapper = xs2aTppInfoMapper;
         this.tppInfoRolesMapper = tppInfoRolesMapper;
         this.tppErrorMessageWriter = tppErrorMessageWriter1;
+        this.qwacCertificateCache = qwacCertificateCache;
     }
 
     @Override
@@ -81,7 +84,7 @@ public class QwacCertificateFilter extends AbstractXs2aFilter {
 
         if (StringUtils.isNotBlank(encodedTppQwacCert)) {
             try {
-                TppCertificateData tppCertificateData = CertificateExtractorUtil.extract(encodedTppQwacCert);
+                TppCertificateData tppCertificateData = qwacCertificateCache.getTppCertificateData(encodedTppQwacCert);
                 if (isCertificateExpired(tppCertificateData.getNotAfter())) {
                     buildCertificateExpiredErrorResponse(response);
                     return;
@@ -92,9 +95,9 @@ public class QwacCertificateFilter extends AbstractXs2aFilter {
                 boolean checkTppRolesFromHeader = StringUtils.isNotBlank(tppRolesAllowedHeader);
                 boolean checkTppRolesFromCertificate = aspspProfileService.isCheckTppRolesFromCertificateSupported();
                 if (checkTppRolesFromHeader) {
-                    processTppRolesFromHeader(tppInfo, tppRolesAllowedHeader);
+                    processTppRolesFromHeader(encodedTppQwacCert, tppInfo, tppRolesAllowedHeader);
                 } else if (checkTppRolesFromCertificate) {
-                    processTppRolesFromCertificate(tppInfo, tppCertificateData);
+                    processTppRolesFromCertificate(encodedTppQwacCert, tppInfo, tppCertificateData);
                 }
 
                 boolean checkTppRoles = checkTppRolesFromHeader || checkTppRolesFromCertificate;
@@ -113,26 +116,31 @@ public class QwacCertificateFilter extends AbstractXs2aFilter {
         chain.doFilter(request, response);
     }
 
-    private void processTppRolesFromCertificate(TppInfo tppInfo, TppCertificateData tppCertificateData) {
+    private void processTppRolesFromCertificate(String encodedTppQwacCert, TppInfo tppInfo, TppCertificateData tppCertificateData) {
         List<TppRole> xs2aTppRoles = tppCertificateData.getPspRoles().stream()
                                          .map(TppRole::valueOf)
                                          .collect(Collectors.toList());
 
-        setTppRolesAndUpdateTppInfo(tppInfo, xs2aTppRoles);
+        setTppRolesAndUpdateTppInfo(encodedTppQwacCert, tppInfo, xs2aTppRoles);
     }
 
-    private void processTppRolesFromHeader(TppInfo tppInfo, String tppRolesAllowedHeader) {
+    private void processTppRolesFromHeader(String encodedTppQwacCert, TppInfo tppInfo, String tppRolesAllowedHeader) {
         Optional.of(tppRolesAllowedHeader)
             .map(roles -> roles.split(","))
             .map(Arrays::asList)
             .map(tppInfoRolesMapper::mapToTppRoles)
-            .ifPresent(roles -> setTppRolesAndUpdateTppInfo(tppInfo, roles));
+            .ifPresent(roles -> setTppRolesAndUpdateTppInfo(encodedTppQwacCert, tppInfo, roles));
     }
 
-    private void setTppRolesAndUpdateTppInfo(TppInfo tppInfo, List<TppRole> roles) {
+    private void setTppRolesAndUpdateTppInfo(String encodedTppQwacCert, TppInfo tppInfo, List<TppRole> roles) {
         if (!roles.isEmpty()) {
             tppInfo.setTppRoles(roles);
-            tppService.updateTppInfo(tppInfo);
+            if (!qwacCertificateCache.isTppRolesStored(encodedTppQwacCert, roles)) {
+                CmsResponse<Boolean> response = tppService.updateTppInfo(tppInfo);
+                if (response.isSuccessful() && Boolean.TRUE.equals(response.getPayload())) {
+                    qwacCertificateCache.setTppRolesStored(encodedTppQwacCert, roles);
+                }
+            }
         }
     }
 
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.filter;
+
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import de.adorsys.psd2.xs2a.component.MultiReadHttpServletResponse;
+import de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.service.consent.CmsRequestCache;
+import de.adorsys.psd2.xs2a.web.StatusETagResolver;
+import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
+import de.adorsys.psd2.xs2a.web.error.TppErrorMessageWriter;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles conditional requests and long-polling of status endpoints: statuses of payments, consents and signing baskets
+ * and SCA statuses of their authorisations.
+ * <p>
+ * Successful responses of status endpoints get strong <code>ETag</code>. If the status in CMS can't be changed by the
+ * SPI, the ETag is taken from its version, resolved by {@link de.adorsys.psd2.xs2a.web.interceptor.status.StatusETagInterceptor}
+ * before the controller is invoked, otherwise the ETag is calculated from the response body. If <code>If-None-Match</code>
+ * header of the request matches the ETag of the current status, <code>304 Not Modified</code> is returned without body.
+ * <p>
+ * If long-polling is enabled and the request contains <code>Prefer: wait={seconds}</code> header along with matching
+ * <code>If-None-Match</code>, the request is suspended asynchronously instead of returning <code>304</code>. Only
+ * statuses, whose version in CMS is authoritative and that are not final (e.g. SCA statuses), are awaited: CMS learns
+ * about changes of other statuses from the SPI call of the status request only, so such requests are answered with
+ * <code>304</code> immediately. Every <code>xs2a.status.long-polling.recheck-interval.ms</code> the version of the
+ * status is read from CMS by a task, started on the suspended request, without dispatching the request. If the wait
+ * time, limited by <code>xs2a.status.long-polling.max-wait.ms</code>, expires, the request is answered with
+ * <code>304</code> directly. Only if the version has changed, the request is dispatched asynchronously to the controller
+ * again. The asynchronous dispatch is prepared by {@link de.adorsys.psd2.xs2a.web.interceptor.status.StatusETagInterceptor},
+ * so the filter doesn't need to be registered for <code>ASYNC</code> dispatcher type. No thread is held while the
+ * request is suspended.
+ */
+@Slf4j
+@Component
+public class StatusPollingFilter extends AbstractXs2aFilter {
+    public static final String REQUEST_INFO_ATTRIBUTE = StatusPollingFilter.class.getName() + ".REQUEST_INFO";
+    static final String PREFER_HEADER = "Prefer";
+    private static final String DEADLINE_ATTRIBUTE = StatusPollingFilter.class.getName() + ".DEADLINE";
+    private static final String WAIT_PREFERENCE = "wait";
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final Xs2aEndpointChecker xs2aEndpointChecker;
+    private final RequestPathResolver requestPathResolver;
+    private final LoggingContextService loggingContextService;
+    private final CmsRequestCache cmsRequestCache;
+    private final StatusETagResolver statusETagResolver;
+    private final AtomicInteger suspendedRequests = new AtomicInteger();
+    private volatile ScheduledExecutorService scheduler;
+
+    @Value("${xs2a.status.etag.enabled:true}")
+    private boolean etagEnabled;
+    @Value("${xs2a.status.long-polling.enabled:false}")
+    private boolean longPollingEnabled;
+    @Value("${xs2a.status.long-polling.max-wait.ms:30000}")
+    private long maxWaitMs;
+    @Value("${xs2a.status.long-polling.recheck-interval.ms:1000}")
+    private long recheckIntervalMs;
+    @Value("${xs2a.status.long-polling.max-suspended-requests:1000}")
+    private int maxSuspendedRequests;
+
+    public StatusPollingFilter(TppErrorMessageWriter tppErrorMessageWriter,
+                               Xs2aEndpointChecker xs2aEndpointChecker,
+                               RequestPathResolver requestPathResolver,
+                               LoggingContextService loggingContextService,
+                               CmsRequestCache cmsRequestCache,
+                               StatusETagResolver statusETagResolver) {
+        super(tppErrorMessageWriter, xs2aEndpointChecker);
+        this.xs2aEndpointChecker = xs2aEndpointChecker;
+        this.requestPathResolver = requestPathResolver;
+        this.loggingContextService = loggingContextService;
+        this.cmsRequestCache = cmsRequestCache;
+        this.statusETagResolver = statusETagResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !etagEnabled
+                   || request.getDispatcherType() == DispatcherType.ASYNC
+                   || !HttpMethod.GET.matches(request.getMethod())
+                   || !xs2aEndpointChecker.isXs2aEndpoint(request)
+                   || !isStatusEndpoint(request);
+    }
+
+    @Override
+    protected void doFilterInternalCustom(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        MultiReadHttpServletResponse responseWrapper = new MultiReadHttpServletResponse(response);
+        filterChain.doFilter(request, responseWrapper);
+        handleStatusResponse(request, response, responseWrapper);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void handleStatusResponse(HttpServletRequest request, HttpServletResponse response,
+                                      MultiReadHttpServletResponse responseWrapper) throws IOException {
+        StatusVersion statusVersion = (StatusVersion) request.getAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE);
+        boolean authoritative = statusVersion != null && statusVersion.isAuthoritative();
+        // unchanged authoritative status is answered by StatusETagInterceptor without invoking the controller
+        boolean notModified = authoritative && responseWrapper.getStatus() == HttpServletResponse.SC_NOT_MODIFIED;
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK && !notModified) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+
+        String eTag = authoritative
+                          ? statusVersion.getETag()
+                          : statusETagResolver.generateETag(responseWrapper.getCachedContent());
+        if (!notModified && !statusETagResolver.matchesIfNoneMatch(request, eTag)) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+
+        // CMS learns about changes of not authoritative statuses from the SPI call only and final statuses won't be
+        // changed anymore, so only authoritative not final statuses are awaited
+        boolean awaitable = authoritative && !statusVersion.isFinalised();
+        if (!awaitable || !suspend(request, response, statusVersion, eTag)) {
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+    }
+
+    private boolean suspend(HttpServletRequest request, HttpServletResponse response, StatusVersion statusVersion, String eTag) {
+        if (!longPollingEnabled || !request.isAsyncSupported()) {
+            return false;
+        }
+
+        Long deadline = (Long) request.getAttribute(DEADLINE_ATTRIBUTE);
+        if (deadline == null) {
+            long waitMs = Math.min(getPreferredWaitMs(request), maxWaitMs);
+            if (waitMs <= 0) {
+                return false;
+            }
+            // the request, resumed after the status change, isn't suspended longer than initially requested
+            deadline = System.currentTimeMillis() + waitMs;
+            request.setAttribute(DEADLINE_ATTRIBUTE, deadline);
+            request.setAttribute(REQUEST_INFO_ATTRIBUTE, loggingContextService.getRequestInformation());
+        }
+        long remainingMs = deadline - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+            return false;
+        }
+        if (suspendedRequests.incrementAndGet() > maxSuspendedRequests) {
+            suspendedRequests.decrementAndGet();
+            log.info("Status request is not suspended, as maximum number of suspended requests [{}] is reached", maxSuspendedRequests);
+            return false;
+        }
+
+        // wrappers of the outer filters are already flushed at this point, so the request is suspended unwrapped
+        AsyncContext asyncContext = request.startAsync(unwrapRequest(request), unwrapResponse(response));
+        // the request is answered by the recheck before the deadline, the timeout is a safety net only
+        asyncContext.setTimeout(remainingMs + recheckIntervalMs);
+        SuspendedRequest suspendedRequest = new SuspendedRequest(asyncContext, statusVersion, eTag, deadline);
+        asyncContext.addListener(suspendedRequest);
+        suspendedRequest.scheduleRecheck();
+        return true;
+    }
+
+    private ServletRequest unwrapRequest(ServletRequest request) {
+        ServletRequest unwrapped = request;
+        while (unwrapped instanceof ServletRequestWrapper) {
+            unwrapped = ((ServletRequestWrapper) unwrapped).getRequest();
+        }
+        return unwrapped;
+    }
+
+    private ServletResponse unwrapResponse(ServletResponse response) {
+        ServletResponse unwrapped = response;
+        while (unwrapped instanceof ServletResponseWrapper) {
+            unwrapped = ((ServletResponseWrapper) unwrapped).getResponse();
+        }
+        return unwrapped;
+    }
+
+    private long getPreferredWaitMs(HttpServletRequest request) {
+        String prefer = request.getHeader(PREFER_HEADER);
+        if (StringUtils.isBlank(prefer)) {
+            return 0;
+        }
+
+        return Arrays.stream(prefer.split("[,;]"))
+                   .map(String::trim)
+                   .filter(p -> StringUtils.startsWithIgnoreCase(p, WAIT_PREFERENCE + "="))
+                   .map(p -> NumberUtils.toLong(StringUtils.substringAfter(p, "=").trim()))
+                   .findFirst()
+                   .map(TimeUnit.SECONDS::toMillis)
+                   .orElse(0L);
+    }
+
+    private boolean isStatusEndpoint(HttpServletRequest request) {
+        String path = requestPathResolver.resolveRequestPath(request);
+        for (String pattern : Xs2aEndpointPathConstant.getStatusXs2aEndpointPaths()) {
+            if (MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null) {
+            synchronized (this) {
+                executor = scheduler;
+                if (executor == null) {
+                    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "xs2a-status-polling");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private class SuspendedRequest implements AsyncListener {
+        private final AsyncContext asyncContext;
+        private final StatusVersion statusVersion;
+        private final String eTag;
+        private final long deadline;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SuspendedRequest(AsyncContext asyncContext, StatusVersion statusVersion, String eTag, long deadline) {
+            this.asyncContext = asyncContext;
+            this.statusVersion = statusVersion;
+            this.eTag = eTag;
+            this.deadline = deadline;
+        }
+
+        private void scheduleRecheck() {
+            long delayMs = Math.max(0, Math.min(recheckIntervalMs, deadline - System.currentTimeMillis()));
+            getScheduler().schedule(this::startRecheck, delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        private void startRecheck() {
+            if (released.get()) {
+                return;
+            }
+            try {
+                // CMS is read by a container thread, not by the single scheduler thread
+                asyncContext.start(this::recheck);
+            } catch (IllegalStateException e) {
+                log.info("Status request can't be rechecked, as it has been completed: {}", e.getMessage());
+                release();
+            }
+        }
+
+        private void recheck() {
+            HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+            // request scoped beans and request information are needed to read the status from CMS
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            loggingContextService.storeRequestInformation((RequestInfo) request.getAttribute(REQUEST_INFO_ATTRIBUTE));
+            try {
+                // responses of CMS, cached by the previous reads of the same request, may be outdated
+                cmsRequestCache.clear(request);
+                boolean unchanged = statusETagResolver.resolveStatusVersion(request)
+                                        .filter(statusVersion::equals)
+                                        .isPresent();
+                if (!unchanged) {
+                    resume();
+                } else if (System.currentTimeMillis() >= deadline) {
+                    respondNotModified();
+                } else {
+                    scheduleRecheck();
+                }
+            } catch (RuntimeException e) {
+                log.info("Status of the suspended request can't be rechecked, request is resumed: {}", e.getMessage());
+                resume();
+            } finally {
+                loggingContextService.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+
+        private void resume() {
+            if (release()) {
+                asyncContext.dispatch();
+            }
+        }
+
+        private void respondNotModified() {
+            if (release()) {
+                asyncContext.getRequest().removeAttribute(DEADLINE_ATTRIBUTE);
+                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                response.setHeader(HttpHeaders.ETAG, eTag);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                asyncContext.complete();
+            }
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                suspendedRequests.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            respondNotModified();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (release()) {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the resumed request is suspended again with the new listener
+        }
+    }
+}
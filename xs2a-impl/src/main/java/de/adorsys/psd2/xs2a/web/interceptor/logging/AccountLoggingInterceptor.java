@@ -60,6 +60,8 @@ public class AccountLoggingInterceptor extends HandlerInterceptorAdapter {
             .withTpp(tppService.getTppInfo())
             .withResponseStatus()
             .withParam("consentStatus", loggingContextService.getConsentStatus())
+            .withParam("cmsCalls", loggingContextService.getCmsCallCount())
+            .withParam("cachedCmsCalls", loggingContextService.getCachedCmsCallCount())
             .perform();
     }
 }
@@ -63,6 +63,8 @@ public class ConsentLoggingInterceptor extends HandlerInterceptorAdapter {
             .withOptionalRedirectId(redirectIdService.getRedirectId())
             .withParam("consentStatus", loggingContextService.getConsentStatus())
             .withParam("scaStatus", loggingContextService.getScaStatus())
+            .withParam("cmsCalls", loggingContextService.getCmsCallCount())
+            .withParam("cachedCmsCalls", loggingContextService.getCachedCmsCallCount())
             .perform();
     }
 }
@@ -63,6 +63,8 @@ public class PaymentLoggingInterceptor extends HandlerInterceptorAdapter {
             .withOptionalRedirectId(redirectIdService.getRedirectId())
             .withParam("transactionStatus", loggingContextService.getTransactionStatus())
             .withParam("scaStatus", loggingContextService.getScaStatus())
+            .withParam("cmsCalls", loggingContextService.getCmsCallCount())
+            .withParam("cachedCmsCalls", loggingContextService.getCachedCmsCallCount())
             .perform();
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.status;
+
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.web.StatusETagResolver;
+import de.adorsys.psd2.xs2a.web.filter.StatusPollingFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Optional;
+
+/**
+ * Answers conditional requests of status endpoints with <code>304 Not Modified</code> before the controller is invoked,
+ * if the authoritative version of the status in CMS matches <code>If-None-Match</code> header. No SPI is called and no
+ * event is recorded for such requests.
+ * <p>
+ * The resolved version is stored in the request attribute {@link StatusETagResolver#STATUS_VERSION_ATTRIBUTE} for
+ * {@link StatusPollingFilter}. The interceptor has to be registered after the validation interceptors.
+ * <p>
+ * Requests, suspended by {@link StatusPollingFilter}, are dispatched asynchronously to the controller after the status
+ * change. Such dispatch doesn't pass XS2A filters, so the interceptor restores the logging context of the request and
+ * sets the ETag of the authoritative status.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatusETagInterceptor extends HandlerInterceptorAdapter {
+    private final StatusETagResolver statusETagResolver;
+    private final LoggingContextService loggingContextService;
+
+    @Value("${xs2a.status.etag.enabled:true}")
+    private boolean etagEnabled;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        boolean resumedRequest = isResumedRequest(request);
+        if (resumedRequest) {
+            loggingContextService.storeRequestInformation((RequestInfo) request.getAttribute(StatusPollingFilter.REQUEST_INFO_ATTRIBUTE));
+        }
+        if (!etagEnabled || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+
+        Optional<StatusVersion> statusVersionOptional = statusETagResolver.resolveStatusVersion(request);
+        if (!statusVersionOptional.isPresent()) {
+            return true;
+        }
+
+        StatusVersion statusVersion = statusVersionOptional.get();
+        request.setAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE, statusVersion);
+        if (!statusVersion.isAuthoritative()) {
+            return true;
+        }
+
+        if (statusETagResolver.matchesIfNoneMatch(request, statusVersion.getETag())) {
+            response.setHeader(HttpHeaders.ETAG, statusVersion.getETag());
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        if (resumedRequest) {
+            response.setHeader(HttpHeaders.ETAG, statusVersion.getETag());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (isResumedRequest(request)) {
+            loggingContextService.clearContext();
+        }
+    }
+
+    private boolean isResumedRequest(HttpServletRequest request) {
+        return request.getDispatcherType() == DispatcherType.ASYNC
+                   && request.getAttribute(StatusPollingFilter.REQUEST_INFO_ATTRIBUTE) != null;
+    }
+}
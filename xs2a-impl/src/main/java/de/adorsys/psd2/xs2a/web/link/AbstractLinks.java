@@ -20,7 +20,9 @@ import de.adorsys.psd2.xs2a.core.authorisation.AuthenticationObject;
 import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
 import de.adorsys.psd2.xs2a.domain.HrefType;
 import de.adorsys.psd2.xs2a.domain.Links;
+import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.Objects;
@@ -29,6 +31,7 @@ import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
 import static org.springframework.web.util.UriComponentsBuilder.fromPath;
 
 class AbstractLinks extends Links {
+    private static volatile LinkPrefix lastLinkPrefix;
 
     private String httpUrl;
 
@@ -37,13 +40,46 @@ class AbstractLinks extends Links {
     }
 
     HrefType buildPath(String path, Object... params) {
-        UriComponentsBuilder uriComponentsBuilder = StringUtils.startsWith(httpUrl, "/")
-                                                        ? fromPath(httpUrl)
-                                                        : fromHttpUrl(httpUrl);
-        return new HrefType(uriComponentsBuilder
-                                .path(path)
-                                .buildAndExpand(params)
-                                .toUriString());
+        LinkPrefix linkPrefix = getLinkPrefix();
+        if (!linkPrefix.isConcatenable()) {
+            return new HrefType(getUriComponentsBuilder(httpUrl)
+                                    .path(path)
+                                    .buildAndExpand(params)
+                                    .toUriString());
+        }
+
+        LinkTemplate template = LinkTemplate.of(path);
+        String prefix = linkPrefix.getPrefix();
+        StringBuilder href = new StringBuilder(template.estimateLength(prefix.length()));
+        href.append(prefix);
+        if (template.startsWithSlash()) {
+            if (linkPrefix.isEndsWithSlash()) {
+                href.setLength(href.length() - 1);
+            }
+        } else if (linkPrefix.isSlashRequired()) {
+            href.append('/');
+        }
+        template.appendTo(href, params);
+        return new HrefType(href.toString());
+    }
+
+    /**
+     * Returns normalised form of the base URL of the links. As the base URL is the same for all links of the response and
+     * usually doesn't change between the requests, the last parsed base URL is reused until another one is given.
+     */
+    private LinkPrefix getLinkPrefix() {
+        LinkPrefix linkPrefix = lastLinkPrefix;
+        if (linkPrefix == null || !linkPrefix.getHttpUrl().equals(httpUrl)) {
+            linkPrefix = new LinkPrefix(httpUrl);
+            lastLinkPrefix = linkPrefix;
+        }
+        return linkPrefix;
+    }
+
+    private static UriComponentsBuilder getUriComponentsBuilder(String httpUrl) {
+        return StringUtils.startsWith(httpUrl, "/")
+                   ? fromPath(httpUrl)
+                   : fromHttpUrl(httpUrl);
     }
 
     protected boolean isScaStatusMethodSelected(AuthenticationObject chosenScaMethod, ScaStatus scaStatus) {
@@ -78,4 +114,24 @@ class AbstractLinks extends Links {
     public int hashCode() {
         return Objects.hash(super.hashCode(), httpUrl);
     }
+
+    @Value
+    private static class LinkPrefix {
+        private String httpUrl;
+        private String prefix;
+        private boolean concatenable;
+        private boolean endsWithSlash;
+        private boolean slashRequired;
+
+        LinkPrefix(String httpUrl) {
+            UriComponents uriComponents = getUriComponentsBuilder(httpUrl).build();
+            String path = uriComponents.getPath();
+            this.httpUrl = httpUrl;
+            this.prefix = uriComponents.toUriString();
+            // query and fragment of the base URL have to stay after the path, so such URLs can't be simply concatenated
+            this.concatenable = uriComponents.getQuery() == null && uriComponents.getFragment() == null;
+            this.endsWithSlash = prefix.endsWith("/");
+            this.slashRequired = uriComponents.getHost() != null && StringUtils.isEmpty(path);
+        }
+    }
 }
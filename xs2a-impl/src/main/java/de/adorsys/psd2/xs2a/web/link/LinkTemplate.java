@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.link;
+
+import de.adorsys.psd2.xs2a.web.aspect.UrlHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Link path template, parsed once into literal parts and variable positions, so that the link can be rendered by plain
+ * string concatenation instead of building and expanding URI components on each call.
+ * <p>
+ * Rendering follows the rules of {@link org.springframework.web.util.UriComponentsBuilder#buildAndExpand(Object...)}:
+ * variables are replaced by the given values in order of their appearance, <code>null</code> values are rendered as empty
+ * strings, values are not encoded and repeating slashes in the template are collapsed.
+ */
+final class LinkTemplate {
+    private static final int ESTIMATED_VARIABLE_LENGTH = 32;
+    private static final Map<String, LinkTemplate> PRECOMPILED_TEMPLATES = precompileUrlHolderTemplates();
+
+    private final String[] literals;
+    private final String[] variableNames;
+    private final int literalsLength;
+
+    private LinkTemplate(List<String> literals, List<String> variableNames) {
+        this.literals = literals.toArray(new String[0]);
+        this.variableNames = variableNames.toArray(new String[0]);
+        this.literalsLength = literals.stream()
+                                  .mapToInt(String::length)
+                                  .sum();
+    }
+
+    /**
+     * Returns template for the given path: templates of all links from {@link UrlHolder} are compiled once on class
+     * loading, any other path (e.g. already expanded confirmation link) is compiled for single use and not cached.
+     *
+     * @param path link path with variables in curly braces
+     * @return compiled template
+     */
+    static LinkTemplate of(@NotNull String path) {
+        LinkTemplate template = PRECOMPILED_TEMPLATES.get(path);
+        return template != null
+                   ? template
+                   : compile(path);
+    }
+
+    static LinkTemplate compile(@NotNull String path) {
+        List<String> literals = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        String sanitizedPath = collapseSlashes(path);
+
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < sanitizedPath.length()) {
+            int variableEnd = findVariableEnd(sanitizedPath, position);
+            if (variableEnd < 0) {
+                literal.append(sanitizedPath.charAt(position));
+                position++;
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                variableNames.add(sanitizedPath.substring(position + 1, variableEnd));
+                position = variableEnd + 1;
+            }
+        }
+        literals.add(literal.toString());
+        return new LinkTemplate(literals, variableNames);
+    }
+
+    boolean startsWithSlash() {
+        return literals[0].startsWith("/");
+    }
+
+    void appendTo(StringBuilder target, Object... values) {
+        int valuesCount = values == null ? 0 : values.length;
+        if (valuesCount < variableNames.length) {
+            throw new IllegalArgumentException("Not enough variable values available to expand '" + variableNames[valuesCount] + "'");
+        }
+        target.append(literals[0]);
+        for (int i = 0; i < variableNames.length; i++) {
+            Object value = values[i];
+            if (value != null) {
+                target.append(value);
+            }
+            target.append(literals[i + 1]);
+        }
+    }
+
+    int estimateLength(int prefixLength) {
+        return prefixLength + literalsLength + variableNames.length * ESTIMATED_VARIABLE_LENGTH;
+    }
+
+    private static int findVariableEnd(String path, int position) {
+        if (path.charAt(position) != '{') {
+            return -1;
+        }
+        for (int i = position + 1; i < path.length(); i++) {
+            char current = path.charAt(i);
+            if (current == '}') {
+                return i > position + 1 ? i : -1;
+            }
+            if (current == '/') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static String collapseSlashes(String path) {
+        int index = path.indexOf("//");
+        if (index < 0) {
+            return path;
+        }
+        StringBuilder sanitized = new StringBuilder(path);
+        while (index != -1) {
+            sanitized.deleteCharAt(index);
+            index = sanitized.indexOf("//", index);
+        }
+        return sanitized.toString();
+    }
+
+    private static Map<String, LinkTemplate> precompileUrlHolderTemplates() {
+        Map<String, LinkTemplate> templates = new HashMap<>();
+        for (Field field : UrlHolder.class.getFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && field.getType() == String.class) {
+                try {
+                    String path = (String) field.get(null);
+                    templates.put(path, compile(path));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Link path " + field.getName() + " couldn't be read", e);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(templates);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.request;
+
+import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import lombok.Value;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of the resolution of the request path against the routes of XS2A endpoints
+ */
+@Value
+public class Xs2aRoute {
+    static final Xs2aRoute NOT_XS2A_ROUTE = new Xs2aRoute(null, null, false);
+
+    /**
+     * Path pattern of the XS2A endpoint group, the request belongs to, <code>null</code> for non-XS2A requests
+     */
+    @Nullable
+    private String endpointPattern;
+    @Nullable
+    private ServiceType serviceType;
+    private boolean streaming;
+
+    public boolean isXs2aEndpoint() {
+        return endpointPattern != null;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.request;
+
+import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+import static de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant.*;
+
+/**
+ * Index of Ant-style path patterns of XS2A endpoints, compiled into a tree of path segments, so that the route of
+ * the request is found in one pass over the segments of its path instead of matching the path with every pattern.
+ * <p>
+ * Patterns consisting of literal segments, single-segment wildcards (<code>*</code>) and trailing <code>**</code>
+ * are put into the tree, any other pattern is matched by {@link AntPathMatcher} after the tree lookup.
+ * Matching rules of the tree are the same as of {@link AntPathMatcher}.
+ */
+public final class Xs2aRouteIndex {
+    private static final String PATH_SEPARATOR = "/";
+    private static final String WILDCARD = "*";
+    private static final String DOUBLE_WILDCARD = "**";
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final Node root = new Node();
+    private final List<RouteEntry> fallbackEntries = new ArrayList<>();
+
+    /**
+     * Creates index of all XS2A endpoints with streaming of transaction downloads and given additional streaming endpoints
+     *
+     * @param additionalStreamingEndpoints Ant-style path patterns of endpoints, which responses should be streamed
+     * @return compiled index
+     */
+    public static Xs2aRouteIndex xs2aRoutes(@NotNull String... additionalStreamingEndpoints) {
+        Xs2aRouteIndex index = new Xs2aRouteIndex();
+        index.addEndpoint(ACCOUNTS_PATH, ServiceType.AIS);
+        index.addEndpoint(CARD_ACCOUNTS_PATH, ServiceType.AIS);
+        index.addEndpoint(CONSENTS_PATH, ServiceType.AIS);
+        index.addEndpoint(SINGLE_PAYMENTS_PATH, ServiceType.PIS);
+        index.addEndpoint(PERIODIC_PAYMENTS_PATH, ServiceType.PIS);
+        index.addEndpoint(BULK_PAYMENTS_PATH, ServiceType.PIS);
+        index.addEndpoint(FUNDS_CONFIRMATION_PATH, ServiceType.PIIS);
+        index.addEndpoint(SIGNING_BASKETS_PATH, ServiceType.SB);
+        Arrays.stream(getStreamingXs2aEndpointPaths()).forEach(index::addStreamingEndpoint);
+        Arrays.stream(additionalStreamingEndpoints)
+            .filter(StringUtils::hasText)
+            .forEach(index::addStreamingEndpoint);
+        return index;
+    }
+
+    void addEndpoint(String pattern, ServiceType serviceType) {
+        addEntry(new RouteEntry(pattern, serviceType, false));
+    }
+
+    void addStreamingEndpoint(String pattern) {
+        addEntry(new RouteEntry(pattern, null, true));
+    }
+
+    /**
+     * Finds the route of the given request path
+     *
+     * @param path request path without context path
+     * @return found route, route with no endpoint pattern and service type if the path doesn't belong to XS2A endpoints
+     */
+    @NotNull
+    public Xs2aRoute findRoute(@NotNull String path) {
+        List<RouteEntry> matchedEntries = new ArrayList<>(2);
+        if (path.startsWith(PATH_SEPARATOR)) {
+            String[] segments = StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR, false, true);
+            match(root, segments, 0, path.endsWith(PATH_SEPARATOR), matchedEntries);
+        }
+        for (RouteEntry entry : fallbackEntries) {
+            if (MATCHER.match(entry.pattern, path)) {
+                matchedEntries.add(entry);
+            }
+        }
+        if (matchedEntries.isEmpty()) {
+            return Xs2aRoute.NOT_XS2A_ROUTE;
+        }
+
+        RouteEntry endpoint = null;
+        boolean streaming = false;
+        for (RouteEntry entry : matchedEntries) {
+            if (entry.streaming) {
+                streaming = true;
+            } else if (endpoint == null) {
+                endpoint = entry;
+            }
+        }
+        return endpoint == null
+                   ? new Xs2aRoute(null, null, streaming)
+                   : new Xs2aRoute(endpoint.pattern, endpoint.serviceType, streaming);
+    }
+
+    private void addEntry(RouteEntry entry) {
+        String[] segments = StringUtils.tokenizeToStringArray(entry.pattern, PATH_SEPARATOR, false, true);
+        if (!isIndexable(entry.pattern, segments)) {
+            fallbackEntries.add(entry);
+            return;
+        }
+
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                node.catchAllEntries.add(entry);
+                return;
+            }
+            node = WILDCARD.equals(segment)
+                       ? node.getOrCreateWildcardChild()
+                       : node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.exactEntries.add(entry);
+    }
+
+    private boolean isIndexable(String pattern, String[] segments) {
+        if (!pattern.startsWith(PATH_SEPARATOR) || pattern.endsWith(PATH_SEPARATOR)) {
+            return false;
+        }
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean lastSegment = i == segments.length - 1;
+            if (DOUBLE_WILDCARD.equals(segment) && !lastSegment
+                    || !DOUBLE_WILDCARD.equals(segment) && !WILDCARD.equals(segment) && containsWildcardOrVariable(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean containsWildcardOrVariable(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    private void match(Node node, String[] segments, int index, boolean trailingSeparator, List<RouteEntry> matchedEntries) {
+        matchedEntries.addAll(node.catchAllEntries);
+        if (index == segments.length) {
+            if (!trailingSeparator) {
+                matchedEntries.addAll(node.exactEntries);
+            } else if (node.wildcardChild != null) {
+                // AntPathMatcher treats trailing separator as matching the last single-segment wildcard
+                matchedEntries.addAll(node.wildcardChild.exactEntries);
+            }
+            return;
+        }
+
+        Node child = node.children.get(segments[index]);
+        if (child != null) {
+            match(child, segments, index + 1, trailingSeparator, matchedEntries);
+        }
+        if (node.wildcardChild != null) {
+            match(node.wildcardChild, segments, index + 1, trailingSeparator, matchedEntries);
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<RouteEntry> exactEntries = new ArrayList<>();
+        private final List<RouteEntry> catchAllEntries = new ArrayList<>();
+        private Node wildcardChild;
+
+        private Node getOrCreateWildcardChild() {
+            if (wildcardChild == null) {
+                wildcardChild = new Node();
+            }
+            return wildcardChild;
+        }
+    }
+
+    private static class RouteEntry {
+        private final String pattern;
+        private final ServiceType serviceType;
+        private final boolean streaming;
+
+        private RouteEntry(String pattern, ServiceType serviceType, boolean streaming) {
+            this.pattern = pattern;
+            this.serviceType = serviceType;
+            this.streaming = streaming;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.request;
+
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Objects;
+
+/**
+ * Resolves the route of the request by {@link Xs2aRouteIndex}. The route is resolved once per request and is kept
+ * in the request attribute for all further filters, interceptors and services handling the same request.
+ */
+@Component
+@RequiredArgsConstructor
+public class Xs2aRouteResolver {
+    private static final String ROUTE_ATTRIBUTE = Xs2aRouteResolver.class.getName() + ".ROUTE";
+
+    private final RequestPathResolver requestPathResolver;
+
+    @Value("${xs2a.response-streaming.endpoints:}")
+    private String[] additionalStreamingEndpoints = new String[0];
+
+    private volatile Xs2aRouteIndex routeIndex;
+
+    /**
+     * Returns the route of the given request
+     *
+     * @param request current request
+     * @return route of the request
+     */
+    @NotNull
+    public Xs2aRoute resolveRoute(HttpServletRequest request) {
+        String requestUri = request.getRequestURI();
+        Object resolvedRoute = request.getAttribute(ROUTE_ATTRIBUTE);
+        // request URI changes on forward and error dispatches, the route has to be resolved again in this case
+        if (resolvedRoute instanceof ResolvedRoute && ((ResolvedRoute) resolvedRoute).isResolvedFor(requestUri)) {
+            return ((ResolvedRoute) resolvedRoute).route;
+        }
+
+        String requestPath = requestPathResolver.resolveRequestPath(request);
+        Xs2aRoute route = getRouteIndex().findRoute(requestPath);
+        request.setAttribute(ROUTE_ATTRIBUTE, new ResolvedRoute(requestUri, route));
+        return route;
+    }
+
+    private Xs2aRouteIndex getRouteIndex() {
+        Xs2aRouteIndex index = routeIndex;
+        if (index == null) {
+            index = Xs2aRouteIndex.xs2aRoutes(additionalStreamingEndpoints);
+            routeIndex = index;
+        }
+        return index;
+    }
+
+    private static class ResolvedRoute {
+        private final String requestUri;
+        private final Xs2aRoute route;
+
+        private ResolvedRoute(String requestUri, Xs2aRoute route) {
+            this.requestUri = requestUri;
+            this.route = route;
+        }
+
+        private boolean isResolvedFor(String requestUri) {
+            return Objects.equals(this.requestUri, requestUri);
+        }
+    }
+}
@@ -16,7 +16,10 @@
 
 package de.adorsys.psd2.xs2a.web.validator.body.raw;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import de.adorsys.psd2.mapper.Xs2aObjectMapper;
 import de.adorsys.psd2.xs2a.core.domain.TppMessageInformation;
 import de.adorsys.psd2.xs2a.core.error.MessageError;
@@ -36,6 +39,7 @@ import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.FORMAT_ERROR_DESE
 @Component
 @RequiredArgsConstructor
 public class FieldExtractor {
+    private static final String BODY_TREE_ATTRIBUTE = FieldExtractor.class.getName() + ".BODY_TREE";
 
     private final ErrorBuildingService errorBuildingService;
     private final Xs2aObjectMapper xs2aObjectMapper;
@@ -43,7 +47,7 @@ public class FieldExtractor {
     public Optional<String> extractField(HttpServletRequest request, String fieldName, MessageError messageError) {
         Optional<String> fieldOptional = Optional.empty();
         try {
-            fieldOptional = xs2aObjectMapper.toJsonField(request.getInputStream(), fieldName, new TypeReference<String>() {
+            fieldOptional = xs2aObjectMapper.toJsonField(readBodyTree(request), fieldName, new TypeReference<String>() {
             });
         } catch (IOException e) {
             errorBuildingService.enrichMessageError(messageError, TppMessageInformation.of(FORMAT_ERROR_DESERIALIZATION_FAIL));
@@ -54,7 +58,7 @@ public class FieldExtractor {
 
     public Optional<String> extractOptionalField(HttpServletRequest request, String fieldName) {
         try {
-            return xs2aObjectMapper.toJsonField(request.getInputStream(), fieldName, new TypeReference<String>() {
+            return xs2aObjectMapper.toJsonField(readBodyTree(request), fieldName, new TypeReference<String>() {
             });
         } catch (IOException e) {
             return Optional.empty();
@@ -64,7 +68,7 @@ public class FieldExtractor {
     public List<String> extractList(HttpServletRequest request, String fieldName, MessageError messageError) {
         List<String> fieldList = new ArrayList<>();
         try {
-            fieldList.addAll(xs2aObjectMapper.toJsonGetValuesForField(request.getInputStream(), fieldName));
+            fieldList.addAll(xs2aObjectMapper.toJsonGetValuesForField(readBodyTree(request), fieldName));
         } catch (IOException e) {
             errorBuildingService.enrichMessageError(messageError, TppMessageInformation.of(FORMAT_ERROR_DESERIALIZATION_FAIL));
         }
@@ -73,7 +77,7 @@ public class FieldExtractor {
 
     public List<String> extractOptionalList(HttpServletRequest request, String fieldName) {
         try {
-            return xs2aObjectMapper.toJsonGetValuesForField(request.getInputStream(), fieldName);
+            return xs2aObjectMapper.toJsonGetValuesForField(readBodyTree(request), fieldName);
 
         } catch (IOException e) {
             return Collections.emptyList();
@@ -82,11 +86,48 @@ public class FieldExtractor {
 
     public <T> Optional<T> mapBodyToInstance(HttpServletRequest request, MessageError messageError, Class<T> clazz) {
         try {
-            return Optional.of(xs2aObjectMapper.readValue(request.getInputStream(), clazz));
+            return Optional.of(xs2aObjectMapper.treeToValue(readMandatoryBodyTree(request), clazz));
         } catch (IOException e) {
             errorBuildingService.enrichMessageError(messageError, TppMessageInformation.of(FORMAT_ERROR_DESERIALIZATION_FAIL));
         }
 
         return Optional.empty();
     }
+
+    /**
+     * Returns JSON tree of the request body. The body is parsed only once per request, the tree is kept in the request
+     * attributes and reused by all subsequent calls.
+     *
+     * @param request current request
+     * @return JSON tree of the body or {@link MissingNode} if the body is empty or isn't a valid JSON
+     * @throws IOException if the body couldn't be read
+     */
+    private JsonNode readBodyTree(HttpServletRequest request) throws IOException {
+        Object cachedTree = request.getAttribute(BODY_TREE_ATTRIBUTE);
+        if (cachedTree instanceof JsonNode) {
+            return (JsonNode) cachedTree;
+        }
+
+        JsonNode bodyTree;
+        try {
+            bodyTree = xs2aObjectMapper.readTree(request.getInputStream());
+        } catch (JsonProcessingException e) {
+            bodyTree = MissingNode.getInstance();
+        }
+
+        if (bodyTree == null) {
+            bodyTree = MissingNode.getInstance();
+        }
+
+        request.setAttribute(BODY_TREE_ATTRIBUTE, bodyTree);
+        return bodyTree;
+    }
+
+    private JsonNode readMandatoryBodyTree(HttpServletRequest request) throws IOException {
+        JsonNode bodyTree = readBodyTree(request);
+        if (bodyTree.isMissingNode()) {
+            throw new IOException("Request body is empty or isn't a valid JSON");
+        }
+        return bodyTree;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.component;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+class MultiReadHttpServletRequestTest {
+    private static final byte[] CONTENT = "some string\n".getBytes();
+
+    @Test
+    void getInputStream_shouldReturnSameContentOnEveryRead() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(CONTENT);
+        MultiReadHttpServletRequest multiReadRequest = new MultiReadHttpServletRequest(request);
+
+        // When
+        byte[] firstRead = IOUtils.toByteArray(multiReadRequest.getInputStream());
+        byte[] secondRead = IOUtils.toByteArray(multiReadRequest.getInputStream());
+
+        // Then
+        assertArrayEquals(CONTENT, firstRead);
+        assertArrayEquals(CONTENT, secondRead);
+    }
+
+    @Test
+    void getCachedBody_shouldReadOriginalBodyOnce() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(CONTENT);
+        MultiReadHttpServletRequest multiReadRequest = new MultiReadHttpServletRequest(request);
+
+        // When
+        byte[] firstBody = multiReadRequest.getCachedBody();
+        byte[] secondBody = multiReadRequest.getCachedBody();
+
+        // Then
+        assertArrayEquals(CONTENT, firstBody);
+        assertSame(firstBody, secondBody);
+    }
+
+    @Test
+    void setReadListener_shouldNotifyDataAvailableAndAllDataRead() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(CONTENT);
+        ServletInputStream inputStream = new MultiReadHttpServletRequest(request).getInputStream();
+        ReadListener readListener = mock(ReadListener.class);
+
+        // When
+        inputStream.setReadListener(readListener);
+
+        // Then
+        InOrder inOrder = inOrder(readListener);
+        inOrder.verify(readListener).onDataAvailable();
+        inOrder.verify(readListener).onAllDataRead();
+        verify(readListener, never()).onError(any());
+    }
+
+    @Test
+    void setReadListener_listenerFails_shouldNotifyError() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent(CONTENT);
+        ServletInputStream inputStream = new MultiReadHttpServletRequest(request).getInputStream();
+        ReadListener readListener = mock(ReadListener.class);
+        IOException exception = new IOException("listener failure");
+        doThrow(exception).when(readListener).onDataAvailable();
+
+        // When
+        inputStream.setReadListener(readListener);
+
+        // Then
+        verify(readListener).onError(exception);
+        verify(readListener, never()).onAllDataRead();
+    }
+}
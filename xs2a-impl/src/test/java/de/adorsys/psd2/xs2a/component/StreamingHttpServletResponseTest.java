@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.component;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingHttpServletResponseTest {
+    private static final String CONTENT = "some string";
+    private static final int HEAD_SIZE = 4;
+
+    @Test
+    void getOutputStream_shouldWriteContentToOriginalResponse() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StreamingHttpServletResponse streamingResponse = new StreamingHttpServletResponse(response, HEAD_SIZE);
+
+        // When
+        streamingResponse.getOutputStream().write(CONTENT.getBytes());
+
+        // Then
+        assertArrayEquals(CONTENT.getBytes(), response.getContentAsByteArray());
+        assertEquals(CONTENT.length(), streamingResponse.getContentSize());
+        assertArrayEquals(CONTENT.substring(0, HEAD_SIZE).getBytes(), streamingResponse.getContentHead());
+    }
+
+    @Test
+    void getWriter_shouldWriteContentToOriginalResponse() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StreamingHttpServletResponse streamingResponse = new StreamingHttpServletResponse(response, HEAD_SIZE);
+
+        // When
+        streamingResponse.getWriter().write(CONTENT);
+        streamingResponse.flushBuffer();
+
+        // Then
+        assertArrayEquals(CONTENT.getBytes(), response.getContentAsByteArray());
+        assertEquals(CONTENT.length(), streamingResponse.getContentSize());
+        assertArrayEquals(CONTENT.substring(0, HEAD_SIZE).getBytes(), streamingResponse.getContentHead());
+    }
+
+    @Test
+    void getContentHead_singleBytes_shouldKeepOnlyHead() throws IOException {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        StreamingHttpServletResponse streamingResponse = new StreamingHttpServletResponse(response, HEAD_SIZE);
+
+        // When
+        for (byte b : CONTENT.getBytes()) {
+            streamingResponse.getOutputStream().write(b);
+        }
+
+        // Then
+        assertEquals(CONTENT.length(), streamingResponse.getContentSize());
+        assertArrayEquals(CONTENT.substring(0, HEAD_SIZE).getBytes(), streamingResponse.getContentHead());
+    }
+}
@@ -18,6 +18,7 @@ package de.adorsys.psd2.xs2a.component.logger.request;
 
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletRequest;
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletResponse;
+import de.adorsys.psd2.xs2a.component.StreamingHttpServletResponse;
 import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +44,7 @@ class RequestResponseLogMessageTest {
     private static final String RESPONSE_HEADERS_MESSAGE_FORMAT = "responseHeaders: [%s: %s, %s: %s]";
     private static final String EMPTY_RESPONSE_HEADERS_MESSAGE_FORMAT = "responseHeaders: [%s]";
     private static final String RESPONSE_BODY_MESSAGE_FORMAT = "responseBody: [%s]";
+    private static final String STREAMED_RESPONSE_BODY_MESSAGE_FORMAT = "responseBody: [%d bytes streamed, head: %s]";
     private static final String RESPONSE_BODY_JSON_PATH = "json/component/logger/request/message-response-payload.json";
     private static final String REQUEST_BODY_JSON_PATH = "json/component/logger/request/message-request-payload.json";
     private static final String JSON_CONTENT_TYPE = "application/json";
@@ -285,4 +287,22 @@ class RequestResponseLogMessageTest {
         // Then
         assertEquals(expectedMessage, logMessage.getMessage());
     }
+
+    @Test
+    void withResponseBody_streamedResponse_shouldAddSizeAndHead() throws IOException {
+        // Given
+        StreamingHttpServletResponse streamingResponse = new StreamingHttpServletResponse(response, 10);
+        byte[] jsonPayload = jsonReader.getBytesFromFile(RESPONSE_BODY_JSON_PATH);
+        streamingResponse.getOutputStream().write(jsonPayload);
+
+        String expectedMessage = String.format(STREAMED_RESPONSE_BODY_MESSAGE_FORMAT, jsonPayload.length, new String(jsonPayload, 0, 10));
+
+        // When
+        RequestResponseLogMessage logMessage = RequestResponseLogMessage.builder(request, streamingResponse)
+                                                   .withResponseBody()
+                                                   .build();
+
+        // Then
+        assertEquals(expectedMessage, logMessage.getMessage());
+    }
 }
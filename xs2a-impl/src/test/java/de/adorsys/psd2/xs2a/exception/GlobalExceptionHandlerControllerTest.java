@@ -86,4 +86,17 @@ class GlobalExceptionHandlerControllerTest {
         verify(errorTypeMapper).mapToErrorType(ServiceType.AIS, 400);
         verify(responseErrorMapper).generateErrorResponse(new MessageError(errorType, TppMessageInformation.buildWithCustomError(messageErrorCode, restExceptionMessage)));
     }
+
+    @Test
+    void spiExecutionUnavailableException_shouldReturnServiceUnavailable() throws NoSuchMethodException {
+        // Given
+        when(handlerMethod.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        SpiExecutionUnavailableException exception = new SpiExecutionUnavailableException("SPI AccountSpi timed out");
+
+        // When
+        globalExceptionHandlerController.spiExecutionUnavailableException(exception, handlerMethod);
+
+        // Then
+        verify(responseErrorMapper).generateServiceUnavailableErrorResponse("SPI AccountSpi timed out");
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service;
+
+import de.adorsys.psd2.consent.api.CmsError;
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.service.TppStopListService;
+import de.adorsys.psd2.consent.api.tpp.TppStopListChanges;
+import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppStopListRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TppStopListReplicaTest {
+    private static final String BLOCKED_TPP = "blocked TPP";
+    private static final String ENABLED_TPP = "enabled TPP";
+    private static final OffsetDateTime SYNC_TIMESTAMP = OffsetDateTime.now();
+    private static final long SYNC_OVERLAP_MS = 5000;
+
+    @Mock
+    private TppStopListService tppStopListService;
+
+    @InjectMocks
+    private TppStopListReplica tppStopListReplica;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tppStopListReplica, "syncIntervalMs", 60000L);
+        ReflectionTestUtils.setField(tppStopListReplica, "maxStalenessMs", 120000L);
+        ReflectionTestUtils.setField(tppStopListReplica, "syncOverlapMs", SYNC_OVERLAP_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tppStopListReplica.shutdown();
+    }
+
+    @Test
+    void checkIfTppBlocked_replicaNotLoaded_shouldCheckInCms() {
+        // Given
+        when(tppStopListService.checkIfTppBlocked(BLOCKED_TPP))
+            .thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
+
+        // When
+        boolean blocked = tppStopListReplica.checkIfTppBlocked(BLOCKED_TPP);
+
+        // Then
+        assertTrue(blocked);
+        verify(tppStopListService).checkIfTppBlocked(BLOCKED_TPP);
+    }
+
+    @Test
+    void checkIfTppBlocked_replicaLoaded_shouldNotCheckInCms() {
+        // Given
+        when(tppStopListService.getTppStopListChanges(null))
+            .thenReturn(buildChanges(buildRecord(BLOCKED_TPP, TppStatus.BLOCKED)));
+        tppStopListReplica.sync();
+
+        // When
+        boolean blocked = tppStopListReplica.checkIfTppBlocked(BLOCKED_TPP);
+        boolean enabled = tppStopListReplica.checkIfTppBlocked(ENABLED_TPP);
+
+        // Then
+        assertTrue(blocked);
+        assertFalse(enabled);
+        verify(tppStopListService, never()).checkIfTppBlocked(any());
+    }
+
+    @Test
+    void sync_replicaLoaded_shouldApplyChanges() {
+        // Given
+        when(tppStopListService.getTppStopListChanges(null))
+            .thenReturn(buildChanges(buildRecord(ENABLED_TPP, TppStatus.BLOCKED)));
+        tppStopListReplica.sync();
+        when(tppStopListService.getTppStopListChanges(SYNC_TIMESTAMP.minusNanos(SYNC_OVERLAP_MS * 1_000_000)))
+            .thenReturn(buildChanges(buildRecord(ENABLED_TPP, TppStatus.ENABLED), buildRecord(BLOCKED_TPP, TppStatus.BLOCKED)));
+
+        // When
+        tppStopListReplica.sync();
+
+        // Then
+        assertTrue(tppStopListReplica.checkIfTppBlocked(BLOCKED_TPP));
+        assertFalse(tppStopListReplica.checkIfTppBlocked(ENABLED_TPP));
+    }
+
+    @Test
+    void sync_cmsError_shouldKeepReplicaNotLoaded() {
+        // Given
+        when(tppStopListService.getTppStopListChanges(isNull()))
+            .thenReturn(CmsResponse.<TppStopListChanges>builder().error(CmsError.TECHNICAL_ERROR).build());
+        when(tppStopListService.checkIfTppBlocked(BLOCKED_TPP))
+            .thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
+        tppStopListReplica.sync();
+
+        // When
+        boolean blocked = tppStopListReplica.checkIfTppBlocked(BLOCKED_TPP);
+
+        // Then
+        assertTrue(blocked);
+        verify(tppStopListService).checkIfTppBlocked(BLOCKED_TPP);
+    }
+
+    @Test
+    void checkIfTppBlocked_replicaStale_shouldCheckInCms() {
+        // Given
+        when(tppStopListService.getTppStopListChanges(null))
+            .thenReturn(buildChanges(buildRecord(BLOCKED_TPP, TppStatus.BLOCKED)));
+        tppStopListReplica.sync();
+        ReflectionTestUtils.setField(tppStopListReplica, "lastSyncTime", System.currentTimeMillis() - 300000L);
+        when(tppStopListService.checkIfTppBlocked(BLOCKED_TPP))
+            .thenReturn(CmsResponse.<Boolean>builder().payload(false).build());
+
+        // When
+        boolean blocked = tppStopListReplica.checkIfTppBlocked(BLOCKED_TPP);
+
+        // Then
+        assertFalse(blocked);
+        verify(tppStopListService).checkIfTppBlocked(BLOCKED_TPP);
+    }
+
+    @Test
+    void checkIfTppBlocked_replicaDisabled_shouldCheckInCms() {
+        // Given
+        ReflectionTestUtils.setField(tppStopListReplica, "syncIntervalMs", 0L);
+        when(tppStopListService.checkIfTppBlocked(ENABLED_TPP))
+            .thenReturn(CmsResponse.<Boolean>builder().payload(false).build());
+
+        // When
+        boolean blocked = tppStopListReplica.checkIfTppBlocked(ENABLED_TPP);
+
+        // Then
+        assertFalse(blocked);
+        verify(tppStopListService, never()).getTppStopListChanges(any());
+    }
+
+    private CmsResponse<TppStopListChanges> buildChanges(TppStopListRecord... records) {
+        return CmsResponse.<TppStopListChanges>builder()
+                   .payload(new TppStopListChanges(SYNC_TIMESTAMP, Arrays.asList(records)))
+                   .build();
+    }
+
+    private TppStopListRecord buildRecord(String tppAuthorisationNumber, TppStatus status) {
+        TppStopListRecord record = new TppStopListRecord();
+        record.setTppAuthorisationNumber(tppAuthorisationNumber);
+        record.setStatus(status);
+        return record;
+    }
+}
@@ -40,7 +40,6 @@ import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReportByPeriodRequest;
 import de.adorsys.psd2.xs2a.service.ais.AccountHelperService;
 import de.adorsys.psd2.xs2a.service.ais.TransactionService;
-import de.adorsys.psd2.xs2a.service.consent.Xs2aAccountService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
 import de.adorsys.psd2.xs2a.service.event.Xs2aEventService;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
@@ -171,8 +170,6 @@ class TransactionServiceTest {
     private AccountHelperService accountHelperService;
     @Mock
     private LoggingContextService loggingContextService;
-    @Mock
-    private Xs2aAccountService xs2aAccountService;
 
     @BeforeEach
     void setUp() {
@@ -329,6 +326,7 @@ class TransactionServiceTest {
 
         verify(accountSpi).requestTransactionsForAccount(any(SpiContextData.class), argumentCaptor.capture(), any(SpiAccountReference.class), any(SpiAccountConsent.class), eq(null));
         checkPassingParametersWithoutAnyChanges(argumentCaptor.getValue());
+        verify(aisConsentService).consentActionLog(any(), eq(CONSENT_ID), any(), any(), anyBoolean(), any(), isNull(), isNull());
     }
 
     @Test
@@ -39,7 +39,6 @@ import de.adorsys.psd2.xs2a.domain.account.Xs2aCardTransactionsReport;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReportByPeriodRequest;
 import de.adorsys.psd2.xs2a.service.TppService;
 import de.adorsys.psd2.xs2a.service.consent.CardAccountHandler;
-import de.adorsys.psd2.xs2a.service.consent.Xs2aAccountService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
 import de.adorsys.psd2.xs2a.service.event.Xs2aEventService;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
@@ -149,8 +148,6 @@ class CardTransactionServiceTest {
     @Mock
     private LoggingContextService loggingContextService;
     @Mock
-    private Xs2aAccountService xs2aAccountService;
-    @Mock
     private CardAccountHandler cardAccountHandler;
 
     @BeforeEach
@@ -294,6 +291,7 @@ class CardTransactionServiceTest {
 
         verify(cardAccountSpi).requestCardTransactionsForAccount(any(SpiContextData.class), argumentCaptor.capture(), any(SpiAccountReference.class), any(SpiAccountConsent.class), eq(null));
         checkPassingParametersWithoutAnyChanges(argumentCaptor.getValue());
+        verify(aisConsentService).consentActionLog(any(), eq(CONSENT_ID), any(), any(), anyBoolean(), any(), isNull(), eq(0));
     }
 
     @Test
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.consent;
+
+import de.adorsys.psd2.consent.api.CmsError;
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.WrongChecksumException;
+import de.adorsys.psd2.consent.api.ais.CmsConsent;
+import de.adorsys.psd2.consent.api.service.ConsentServiceEncrypted;
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CmsRequestCacheTest {
+    private static final String CONSENT_ID = "consent ID";
+    private static final String ANOTHER_CONSENT_ID = "another consent ID";
+
+    @Mock
+    private LoggingContextService loggingContextService;
+    @Mock
+    private ConsentServiceEncrypted consentServiceEncrypted;
+
+    @InjectMocks
+    private CmsRequestCache cmsRequestCache;
+
+    private ConsentServiceEncrypted cachedConsentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cmsRequestCache, "enabled", true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cachedConsentService = cmsRequestCache.wrap(ConsentServiceEncrypted.class, consentServiceEncrypted, "getConsentById", "getConsentStatusById");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void wrap_identicalReads_shouldCallCmsOnce() {
+        // Given
+        CmsResponse<CmsConsent> response = buildResponse(new CmsConsent());
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(response);
+
+        // When
+        CmsResponse<CmsConsent> first = cachedConsentService.getConsentById(CONSENT_ID);
+        CmsResponse<CmsConsent> second = cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        assertSame(response, first);
+        assertSame(response, second);
+        verify(consentServiceEncrypted, times(1)).getConsentById(CONSENT_ID);
+        verify(loggingContextService).storeCmsCallCount(1, 0);
+        verify(loggingContextService).storeCmsCallCount(1, 1);
+    }
+
+    @Test
+    void wrap_differentArguments_shouldCallCmsForEach() {
+        // Given
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+        when(consentServiceEncrypted.getConsentById(ANOTHER_CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        cachedConsentService.getConsentById(ANOTHER_CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted).getConsentById(CONSENT_ID);
+        verify(consentServiceEncrypted).getConsentById(ANOTHER_CONSENT_ID);
+    }
+
+    @Test
+    void wrap_write_shouldDropCachedResponses() throws WrongChecksumException {
+        // Given
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+        when(consentServiceEncrypted.updateConsentStatusById(CONSENT_ID, ConsentStatus.VALID)).thenReturn(buildResponse(true));
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        cachedConsentService.updateConsentStatusById(CONSENT_ID, ConsentStatus.VALID);
+        cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted, times(2)).getConsentById(CONSENT_ID);
+        verify(loggingContextService).storeCmsCallCount(3, 0);
+    }
+
+    @Test
+    void wrap_writeThrowsException_shouldPropagateExceptionAndDropCachedResponses() throws WrongChecksumException {
+        // Given
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+        when(consentServiceEncrypted.updateConsentStatusById(CONSENT_ID, ConsentStatus.VALID)).thenThrow(new WrongChecksumException());
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        assertThrows(WrongChecksumException.class, () -> cachedConsentService.updateConsentStatusById(CONSENT_ID, ConsentStatus.VALID));
+        cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted, times(2)).getConsentById(CONSENT_ID);
+    }
+
+    @Test
+    void wrap_errorResponse_shouldNotBeCached() {
+        // Given
+        CmsResponse<CmsConsent> errorResponse = CmsResponse.<CmsConsent>builder()
+                                                    .error(CmsError.LOGICAL_ERROR)
+                                                    .build();
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(errorResponse);
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted, times(2)).getConsentById(CONSENT_ID);
+    }
+
+    @Test
+    void wrap_outsideOfRequest_shouldCallCmsEveryTime() {
+        // Given
+        RequestContextHolder.resetRequestAttributes();
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted, times(2)).getConsentById(CONSENT_ID);
+        verify(loggingContextService, never()).storeCmsCallCount(anyInt(), anyInt());
+    }
+
+    @Test
+    void wrap_disabled_shouldCallCmsEveryTime() {
+        // Given
+        ReflectionTestUtils.setField(cmsRequestCache, "enabled", false);
+        when(consentServiceEncrypted.getConsentById(CONSENT_ID)).thenReturn(buildResponse(new CmsConsent()));
+
+        // When
+        cachedConsentService.getConsentById(CONSENT_ID);
+        cachedConsentService.getConsentById(CONSENT_ID);
+
+        // Then
+        verify(consentServiceEncrypted, times(2)).getConsentById(CONSENT_ID);
+    }
+
+    @Test
+    void wrap_unknownReadMethod_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> cmsRequestCache.wrap(ConsentServiceEncrypted.class, consentServiceEncrypted, "getConsent"));
+    }
+
+    private <T> CmsResponse<T> buildResponse(T payload) {
+        return CmsResponse.<T>builder()
+                   .payload(payload)
+                   .build();
+    }
+}
@@ -427,6 +427,23 @@ class Xs2aAisConsentServiceTest {
         assertThat(aisConsentActionRequest.isUpdateUsage()).isTrue();
     }
 
+    @Test
+    void consentActionLog_withNumberOfTransactions() throws WrongChecksumException {
+        // Given
+        ArgumentCaptor<AisConsentActionRequest> argumentCaptor = ArgumentCaptor.forClass(AisConsentActionRequest.class);
+
+        // When
+        xs2aAisConsentService.consentActionLog(TPP_ID, CONSENT_ID, ActionStatus.SUCCESS, REQUEST_URI, true, "resource ID", null, 10);
+
+        // Then
+        verify(aisConsentServiceEncrypted).checkConsentAndSaveActionLog(argumentCaptor.capture());
+
+        AisConsentActionRequest aisConsentActionRequest = argumentCaptor.getValue();
+        assertThat(aisConsentActionRequest.getConsentId()).isEqualTo(CONSENT_ID);
+        assertThat(aisConsentActionRequest.getResourceId()).isEqualTo("resource ID");
+        assertThat(aisConsentActionRequest.getNumberOfTransactions()).isEqualTo(10);
+    }
+
     @Test
     void createConsentCheckInternalRequestId() throws WrongChecksumException {
         // Given
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.consent;
+
+import de.adorsys.psd2.consent.api.CmsError;
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.ais.CmsConsent;
+import de.adorsys.psd2.consent.api.piis.PiisConsentChangedEvent;
+import de.adorsys.psd2.consent.api.service.PiisConsentService;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceSelector;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Xs2aPiisConsentServiceTest {
+    private static final Currency EUR_CURRENCY = Currency.getInstance("EUR");
+    private static final String IBAN = "DE15500105172295759744";
+    private static final String ANOTHER_IBAN = "DE87200500001234567890";
+    private static final AccountReferenceSelector SELECTOR = new AccountReferenceSelector(AccountReferenceType.IBAN, IBAN);
+    private static final AccountReferenceSelector ANOTHER_SELECTOR = new AccountReferenceSelector(AccountReferenceType.IBAN, ANOTHER_IBAN);
+
+    @Mock
+    private PiisConsentService piisConsentService;
+
+    @InjectMocks
+    private Xs2aPiisConsentService xs2aPiisConsentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(xs2aPiisConsentService, "maxSize", 10);
+        ReflectionTestUtils.setField(xs2aPiisConsentService, "timeToLiveMs", 60000L);
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_shouldLoadConsentsOnce() {
+        // Given
+        CmsConsent cmsConsent = new CmsConsent();
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.singletonList(cmsConsent)));
+
+        // When
+        CmsResponse<List<CmsConsent>> first = xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        CmsResponse<List<CmsConsent>> second = xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        assertEquals(Collections.singletonList(cmsConsent), first.getPayload());
+        assertEquals(Collections.singletonList(cmsConsent), second.getPayload());
+        verify(piisConsentService, times(1)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_disabled_shouldLoadConsentsEveryTime() {
+        // Given
+        ReflectionTestUtils.setField(xs2aPiisConsentService, "maxSize", 0);
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+
+        // When
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(2)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        assertEquals(0, xs2aPiisConsentService.size());
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_expired_shouldLoadConsentsAgain() {
+        // Given
+        ReflectionTestUtils.setField(xs2aPiisConsentService, "timeToLiveMs", 0L);
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+
+        // When
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(2)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_error_shouldNotCache() {
+        // Given
+        CmsResponse<List<CmsConsent>> errorResponse = CmsResponse.<List<CmsConsent>>builder()
+                                                          .error(CmsError.TECHNICAL_ERROR)
+                                                          .build();
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(errorResponse);
+
+        // When
+        CmsResponse<List<CmsConsent>> actual = xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        assertSame(errorResponse, actual);
+        assertEquals(0, xs2aPiisConsentService.size());
+    }
+
+    @Test
+    void onPiisConsentChanged_shouldEvictConsentsOfChangedAccount() {
+        // Given
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(null, ANOTHER_SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(null, ANOTHER_SELECTOR);
+
+        // When
+        xs2aPiisConsentService.onPiisConsentChanged(new PiisConsentChangedEvent(Collections.singleton(IBAN)));
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(null, ANOTHER_SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(2)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        verify(piisConsentService, times(1)).getPiisConsentListByAccountIdentifier(null, ANOTHER_SELECTOR);
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_maxSizeReached_shouldEvictLeastRecentlyUsed() {
+        // Given
+        ReflectionTestUtils.setField(xs2aPiisConsentService, "maxSize", 1);
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, ANOTHER_SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+
+        // When
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, ANOTHER_SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(2)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        assertEquals(1, xs2aPiisConsentService.size());
+    }
+
+    @Test
+    void getPiisConsentListByAccountIdentifier_invalidatedDuringLoad_shouldNotCache() {
+        // Given
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenAnswer(invocation -> {
+                xs2aPiisConsentService.onPiisConsentChanged(new PiisConsentChangedEvent(Collections.singleton(IBAN)));
+                return buildResponse(Collections.emptyList());
+            });
+
+        // When
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        assertEquals(0, xs2aPiisConsentService.size());
+    }
+
+    @Test
+    void checkCacheSupported_eventNotPublished_shouldDisableCache() {
+        // Given
+        when(piisConsentService.isPiisConsentChangedEventPublished()).thenReturn(false);
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+
+        // When
+        xs2aPiisConsentService.checkCacheSupported();
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(2)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        assertEquals(0, xs2aPiisConsentService.size());
+    }
+
+    @Test
+    void checkCacheSupported_eventPublished_shouldKeepCacheEnabled() {
+        // Given
+        when(piisConsentService.isPiisConsentChangedEventPublished()).thenReturn(true);
+        when(piisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR))
+            .thenReturn(buildResponse(Collections.emptyList()));
+
+        // When
+        xs2aPiisConsentService.checkCacheSupported();
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        xs2aPiisConsentService.getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+
+        // Then
+        verify(piisConsentService, times(1)).getPiisConsentListByAccountIdentifier(EUR_CURRENCY, SELECTOR);
+        assertEquals(1, xs2aPiisConsentService.size());
+    }
+
+    private CmsResponse<List<CmsConsent>> buildResponse(List<CmsConsent> consents) {
+        return CmsResponse.<List<CmsConsent>>builder()
+                   .payload(consents)
+                   .build();
+    }
+}
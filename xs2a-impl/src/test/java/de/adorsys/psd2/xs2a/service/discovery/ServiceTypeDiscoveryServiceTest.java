@@ -17,6 +17,8 @@
 package de.adorsys.psd2.xs2a.service.discovery;
 
 import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRouteResolver;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -35,7 +37,7 @@ class ServiceTypeDiscoveryServiceTest {
     @Test
     void getServiceType() {
         request = new MockHttpServletRequest("GET", "/v1/consents");
-        cut = new ServiceTypeDiscoveryService(request);
+        cut = new ServiceTypeDiscoveryService(request, new Xs2aRouteResolver(new RequestPathResolver()));
         ServiceType result = cut.getServiceType();
 
         assertEquals("AIS", result.name());
@@ -45,7 +47,7 @@ class ServiceTypeDiscoveryServiceTest {
     void getServiceTypeWithContextPath() {
         request = new MockHttpServletRequest("GET", "/xs2a/v1/consents");
         request.setContextPath("/xs2a");
-        cut = new ServiceTypeDiscoveryService(request);
+        cut = new ServiceTypeDiscoveryService(request, new Xs2aRouteResolver(new RequestPathResolver()));
         ServiceType result = cut.getServiceType();
 
         assertEquals("AIS", result.name());
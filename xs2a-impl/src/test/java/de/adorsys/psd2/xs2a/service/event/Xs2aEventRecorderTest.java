@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.event;
+
+import de.adorsys.psd2.event.service.Xs2aEventServiceEncrypted;
+import de.adorsys.psd2.event.service.model.EventBO;
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class Xs2aEventRecorderTest {
+    private static final String TPP_AUTHORISATION_NUMBER = "999";
+
+    @Mock
+    private Xs2aEventServiceEncrypted eventService;
+    @Mock
+    private LoggingContextService loggingContextService;
+
+    @InjectMocks
+    private Xs2aEventRecorder xs2aEventRecorder;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(xs2aEventRecorder, "queueCapacity", 10);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "batchSize", 5);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "overflowPolicy", EventQueueOverflowPolicy.CALLER_RUNS);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "shutdownTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        xs2aEventRecorder.shutdown();
+    }
+
+    @Test
+    void recordEvent_queueDisabled_shouldRecordSynchronously() {
+        // Given
+        ReflectionTestUtils.setField(xs2aEventRecorder, "queueCapacity", 0);
+        xs2aEventRecorder.start();
+        EventBO event = buildEvent();
+        when(eventService.recordEvent(event)).thenReturn(true);
+
+        // When
+        xs2aEventRecorder.recordEvent(event);
+
+        // Then
+        verify(eventService).recordEvent(event);
+        verify(eventService, never()).recordEvents(anyList());
+    }
+
+    @Test
+    void recordEvent_shouldRecordInBatchesOnShutdown() {
+        // Given
+        ReflectionTestUtils.setField(xs2aEventRecorder, "flushIntervalMs", 60000L);
+        xs2aEventRecorder.start();
+        when(eventService.recordEvents(anyList())).thenReturn(true);
+
+        // When
+        for (int i = 0; i < 7; i++) {
+            xs2aEventRecorder.recordEvent(buildEvent());
+        }
+        xs2aEventRecorder.shutdown();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EventBO>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventService, atLeastOnce()).recordEvents(batchCaptor.capture());
+        int recordedEvents = batchCaptor.getAllValues().stream().mapToInt(List::size).sum();
+        assertEquals(7, recordedEvents);
+        assertTrue(batchCaptor.getAllValues().stream().allMatch(batch -> batch.size() <= 5));
+        verify(eventService, never()).recordEvent(any());
+    }
+
+    @Test
+    void recordEvent_queueFull_callerRuns_shouldRecordSynchronously() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(xs2aEventRecorder, "queueCapacity", 1);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "batchSize", 1);
+        CountDownLatch batchStarted = new CountDownLatch(1);
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        when(eventService.recordEvents(anyList())).thenAnswer(invocation -> {
+            batchStarted.countDown();
+            releaseBatch.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        xs2aEventRecorder.start();
+        EventBO overflowingEvent = buildEvent();
+        when(eventService.recordEvent(overflowingEvent)).thenReturn(true);
+
+        // When
+        xs2aEventRecorder.recordEvent(buildEvent());
+        assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+        xs2aEventRecorder.recordEvent(buildEvent());
+        xs2aEventRecorder.recordEvent(overflowingEvent);
+        releaseBatch.countDown();
+
+        // Then
+        verify(eventService).recordEvent(overflowingEvent);
+    }
+
+    @Test
+    void recordEvent_queueFull_drop_shouldCountDroppedEvent() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(xs2aEventRecorder, "queueCapacity", 1);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "batchSize", 1);
+        ReflectionTestUtils.setField(xs2aEventRecorder, "overflowPolicy", EventQueueOverflowPolicy.DROP);
+        CountDownLatch batchStarted = new CountDownLatch(1);
+        CountDownLatch releaseBatch = new CountDownLatch(1);
+        when(eventService.recordEvents(anyList())).thenAnswer(invocation -> {
+            batchStarted.countDown();
+            releaseBatch.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        xs2aEventRecorder.start();
+
+        // When
+        xs2aEventRecorder.recordEvent(buildEvent());
+        assertTrue(batchStarted.await(5, TimeUnit.SECONDS));
+        xs2aEventRecorder.recordEvent(buildEvent());
+        xs2aEventRecorder.recordEvent(buildEvent());
+        releaseBatch.countDown();
+
+        // Then
+        assertEquals(1, xs2aEventRecorder.getDroppedEventsCount());
+        verify(eventService, never()).recordEvent(any());
+    }
+
+    @Test
+    void recordEvent_recordingFailed_shouldKeepRecording() {
+        // Given
+        xs2aEventRecorder.start();
+        when(eventService.recordEvents(anyList()))
+            .thenThrow(new IllegalStateException("CMS is unavailable"))
+            .thenReturn(true);
+
+        // When
+        xs2aEventRecorder.recordEvent(buildEvent());
+        verify(eventService, timeout(5000)).recordEvents(anyList());
+        xs2aEventRecorder.recordEvent(buildEvent());
+
+        // Then
+        verify(eventService, timeout(5000).times(2)).recordEvents(anyList());
+    }
+
+    @Test
+    void recordEvent_shouldRecordBatchWithinGeneratedRequestContext() {
+        // Given
+        xs2aEventRecorder.start();
+        when(eventService.recordEvents(anyList())).thenReturn(true);
+        ArgumentCaptor<RequestInfo> requestInfoCaptor = ArgumentCaptor.forClass(RequestInfo.class);
+
+        // When
+        xs2aEventRecorder.recordEvent(buildEvent());
+
+        // Then
+        verify(loggingContextService, timeout(5000)).clearContext();
+        InOrder inOrder = inOrder(loggingContextService, eventService);
+        inOrder.verify(loggingContextService).storeRequestInformation(requestInfoCaptor.capture());
+        inOrder.verify(eventService).recordEvents(anyList());
+        inOrder.verify(loggingContextService).clearContext();
+        RequestInfo requestInfo = requestInfoCaptor.getValue();
+        assertNotNull(requestInfo.getInternalRequestId());
+        assertEquals(requestInfo.getInternalRequestId(), requestInfo.getXRequestId());
+    }
+
+    private EventBO buildEvent() {
+        return EventBO.builder()
+                   .tppAuthorisationNumber(TPP_AUTHORISATION_NUMBER)
+                   .build();
+    }
+}
@@ -17,7 +17,6 @@
 package de.adorsys.psd2.xs2a.service.profile;
 
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
-import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.xs2a.core.ais.BookingStatus;
 import de.adorsys.xs2a.reader.JsonReader;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,14 +37,14 @@ class AspspProfileServiceWrapperTest {
     private static final String ASPSP_SETTINGS_JSON_PATH = "json/service/profile/AspspSettings.json";
 
     @Mock
-    private AspspProfileService aspspProfileService;
+    private AspspProfileSnapshotHolder aspspProfileSnapshotHolder;
 
     @InjectMocks
     private AspspProfileServiceWrapper aspspProfileServiceWrapper;
 
     @BeforeEach
     void setUp() {
-        when(aspspProfileService.getAspspSettings())
+        when(aspspProfileSnapshotHolder.getAspspSettings())
             .thenReturn(new JsonReader().getObjectFromFile(ASPSP_SETTINGS_JSON_PATH, AspspSettings.class));
     }
 
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.profile;
+
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettingsUpdatedEvent;
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.xs2a.reader.JsonReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AspspProfileSnapshotHolderTest {
+    private static final String ASPSP_SETTINGS_JSON_PATH = "json/service/profile/AspspSettings.json";
+    private static final List<ScaApproach> SCA_APPROACHES = Collections.singletonList(ScaApproach.REDIRECT);
+
+    @Mock
+    private AspspProfileService aspspProfileService;
+
+    @InjectMocks
+    private AspspProfileSnapshotHolder aspspProfileSnapshotHolder;
+
+    private AspspSettings aspspSettings;
+
+    @BeforeEach
+    void setUp() {
+        aspspSettings = new JsonReader().getObjectFromFile(ASPSP_SETTINGS_JSON_PATH, AspspSettings.class);
+        ReflectionTestUtils.setField(aspspProfileSnapshotHolder, "timeToLiveMs", 60000L);
+    }
+
+    @Test
+    void getAspspSettings_shouldLoadProfileOnce() {
+        // Given
+        when(aspspProfileService.getAspspSettings()).thenReturn(aspspSettings);
+        when(aspspProfileService.getScaApproaches()).thenReturn(SCA_APPROACHES);
+
+        // When
+        AspspSettings first = aspspProfileSnapshotHolder.getAspspSettings();
+        AspspSettings second = aspspProfileSnapshotHolder.getAspspSettings();
+        List<ScaApproach> scaApproaches = aspspProfileSnapshotHolder.getScaApproaches();
+
+        // Then
+        assertSame(aspspSettings, first);
+        assertSame(aspspSettings, second);
+        assertEquals(SCA_APPROACHES, scaApproaches);
+        verify(aspspProfileService, times(1)).getAspspSettings();
+        verify(aspspProfileService, times(1)).getScaApproaches();
+    }
+
+    @Test
+    void onAspspSettingsUpdated_shouldReloadProfileOnNextRead() {
+        // Given
+        when(aspspProfileService.getAspspSettings()).thenReturn(aspspSettings);
+        when(aspspProfileService.getScaApproaches()).thenReturn(SCA_APPROACHES);
+        AspspProfileSnapshot firstSnapshot = aspspProfileSnapshotHolder.getSnapshot();
+
+        // When
+        aspspProfileSnapshotHolder.onAspspSettingsUpdated(new AspspSettingsUpdatedEvent(System.currentTimeMillis()));
+        AspspProfileSnapshot secondSnapshot = aspspProfileSnapshotHolder.getSnapshot();
+
+        // Then
+        assertEquals(firstSnapshot.getVersion() + 1, secondSnapshot.getVersion());
+        verify(aspspProfileService, times(2)).getAspspSettings();
+    }
+
+    @Test
+    void getAspspSettings_cacheDisabled_shouldDelegateEveryCall() {
+        // Given
+        ReflectionTestUtils.setField(aspspProfileSnapshotHolder, "timeToLiveMs", 0L);
+        when(aspspProfileService.getAspspSettings()).thenReturn(aspspSettings);
+
+        // When
+        aspspProfileSnapshotHolder.getAspspSettings();
+        aspspProfileSnapshotHolder.getAspspSettings();
+
+        // Then
+        verify(aspspProfileService, times(2)).getAspspSettings();
+        verify(aspspProfileService, never()).getScaApproaches();
+    }
+}
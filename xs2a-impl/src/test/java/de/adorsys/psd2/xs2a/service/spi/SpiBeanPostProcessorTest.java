@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.spi.domain.SpiAspspConsentDataProvider;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationRequest;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationResponse;
+import de.adorsys.psd2.xs2a.spi.domain.piis.SpiPiisConsent;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpiBeanPostProcessorTest {
+    private static final String BEAN_NAME = "fundsConfirmationSpi";
+
+    @Mock
+    private SpiMetricsRecorder spiMetricsRecorder;
+    @Mock
+    private SpiExecutionService spiExecutionService;
+
+    @InjectMocks
+    private SpiBeanPostProcessor spiBeanPostProcessor;
+
+    @Test
+    void postProcessAfterInitialization_disabled_shouldReturnSameBean() {
+        // Given
+        when(spiMetricsRecorder.isEnabled()).thenReturn(false);
+        when(spiExecutionService.isEnabled()).thenReturn(false);
+        TestFundsConfirmationSpi bean = new TestFundsConfirmationSpi();
+
+        // When
+        Object actual = spiBeanPostProcessor.postProcessAfterInitialization(bean, BEAN_NAME);
+
+        // Then
+        assertSame(bean, actual);
+    }
+
+    @Test
+    void postProcessAfterInitialization_notSpiBean_shouldReturnSameBean() {
+        // Given
+        when(spiMetricsRecorder.isEnabled()).thenReturn(false);
+        when(spiExecutionService.isEnabled()).thenReturn(true);
+        Object bean = new Object();
+
+        // When
+        Object actual = spiBeanPostProcessor.postProcessAfterInitialization(bean, BEAN_NAME);
+
+        // Then
+        assertSame(bean, actual);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void postProcessAfterInitialization_spiBean_shouldRouteSpiCallsThroughExecutionService() throws Throwable {
+        // Given
+        when(spiMetricsRecorder.isEnabled()).thenReturn(false);
+        when(spiExecutionService.isEnabled()).thenReturn(true);
+        when(spiExecutionService.execute(eq(FundsConfirmationSpi.class), eq("performFundsSufficientCheck"), any()))
+            .thenAnswer(invocation -> ((SpiCall<Object>) invocation.getArgument(2)).call());
+
+        // When
+        Object proxy = spiBeanPostProcessor.postProcessAfterInitialization(new TestFundsConfirmationSpi(), BEAN_NAME);
+        SpiResponse<SpiFundsConfirmationResponse> response = ((TestFundsConfirmationSpi) proxy).performFundsSufficientCheck(null, null, null, null);
+        String description = ((TestFundsConfirmationSpi) proxy).getDescription();
+
+        // Then
+        assertTrue(response.getPayload().isFundsAvailable());
+        assertEquals("test SPI", description);
+        verify(spiExecutionService, times(1)).execute(eq(FundsConfirmationSpi.class), eq("performFundsSufficientCheck"), any());
+        verify(spiMetricsRecorder, never()).record(any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void postProcessAfterInitialization_metricsEnabled_shouldRecordSpiCalls() throws Throwable {
+        // Given
+        when(spiMetricsRecorder.isEnabled()).thenReturn(true);
+        when(spiExecutionService.isEnabled()).thenReturn(false);
+        when(spiMetricsRecorder.record(eq(FundsConfirmationSpi.class), any(), any(), any()))
+            .thenAnswer(invocation -> ((SpiCall<Object>) invocation.getArgument(3)).call());
+
+        // When
+        Object proxy = spiBeanPostProcessor.postProcessAfterInitialization(new TestFundsConfirmationSpi(), BEAN_NAME);
+        SpiResponse<SpiFundsConfirmationResponse> response = ((FundsConfirmationSpi) proxy).performFundsSufficientCheck(null, null, null, null);
+
+        // Then
+        assertTrue(response.getPayload().isFundsAvailable());
+        verify(spiMetricsRecorder).record(eq(FundsConfirmationSpi.class), any(), any(), any());
+        verify(spiExecutionService, never()).execute(any(), any(), any());
+    }
+
+    static class TestFundsConfirmationSpi implements FundsConfirmationSpi {
+        @Override
+        public SpiResponse<SpiFundsConfirmationResponse> performFundsSufficientCheck(SpiContextData contextData,
+                                                                                     SpiPiisConsent spiPiisConsent,
+                                                                                     SpiFundsConfirmationRequest spiFundsConfirmationRequest,
+                                                                                     SpiAspspConsentDataProvider aspspConsentDataProvider) {
+            SpiFundsConfirmationResponse response = new SpiFundsConfirmationResponse();
+            response.setFundsAvailable(true);
+            return SpiResponse.<SpiFundsConfirmationResponse>builder().payload(response).build();
+        }
+
+        public String getDescription() {
+            return "test SPI";
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.exception.SpiExecutionUnavailableException;
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.PaymentSpi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpiExecutionServiceTest {
+    private static final String REQUEST_ACCOUNT_LIST = "requestAccountList";
+
+    private MockEnvironment environment;
+    private SpiExecutionService spiExecutionService;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        spiExecutionService = new SpiExecutionService(environment);
+        ReflectionTestUtils.setField(spiExecutionService, "enabled", true);
+        ReflectionTestUtils.setField(spiExecutionService, "maxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 1000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spiExecutionService.shutdown();
+        MDC.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void execute_shouldRunCallInSpiThreadWithCallerContext() throws Throwable {
+        // Given
+        MDC.put("internal-request-id", "some id");
+        RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+
+        // When
+        String result = spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> {
+            assertSame(requestAttributes, RequestContextHolder.getRequestAttributes());
+            return Thread.currentThread().getName() + ":" + MDC.get("internal-request-id");
+        });
+
+        // Then
+        assertEquals("spi-AccountSpi-1:some id", result);
+        assertEquals("some id", MDC.get("internal-request-id"));
+    }
+
+    @Test
+    void execute_shouldRethrowExceptionOfCall() {
+        // When
+        IOException exception = assertThrows(IOException.class, () -> spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> {
+            throw new IOException("connection refused");
+        }));
+
+        // Then
+        assertEquals("connection refused", exception.getMessage());
+    }
+
+    @Test
+    void execute_timeout_shouldThrowUnavailable() {
+        // Given
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 50L);
+
+        // When
+        SpiExecutionUnavailableException exception = assertThrows(SpiExecutionUnavailableException.class,
+                                                                   () -> spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> {
+                                                                       Thread.sleep(5000);
+                                                                       return "too late";
+                                                                   }));
+
+        // Then
+        assertEquals("SPI AccountSpi timed out", exception.getMessage());
+    }
+
+    @Test
+    void execute_bulkheadFull_shouldRejectCallAndKeepOtherSpisAvailable() throws Throwable {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        caller.submit(() -> {
+            try {
+                return spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> {
+                    started.countDown();
+                    return release.await(5, TimeUnit.SECONDS);
+                });
+            } catch (Throwable e) {
+                return false;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            // When
+            SpiExecutionUnavailableException exception = assertThrows(SpiExecutionUnavailableException.class,
+                                                                       () -> spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> "rejected"));
+            String otherSpiResult = spiExecutionService.execute(FundsConfirmationSpi.class, "performFundsSufficientCheck", () -> "accepted");
+
+            // Then
+            assertEquals("SPI AccountSpi is overloaded", exception.getMessage());
+            assertEquals("accepted", otherSpiResult);
+        } finally {
+            release.countDown();
+            caller.shutdown();
+        }
+    }
+
+    @Test
+    void execute_perSpiTimeout_shouldOverrideDefault() {
+        // Given
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 5000L);
+        environment.setProperty("xs2a.spi.execution.bulkhead.AccountSpi.timeout.ms", "50");
+
+        // When
+        assertThrows(SpiExecutionUnavailableException.class, () -> spiExecutionService.execute(AccountSpi.class, REQUEST_ACCOUNT_LIST, () -> {
+            Thread.sleep(5000);
+            return "too late";
+        }));
+    }
+
+    @Test
+    void execute_writingMethod_shouldUseWritingTimeout() throws Throwable {
+        // Given
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 50L);
+        ReflectionTestUtils.setField(spiExecutionService, "writingTimeoutMs", 5000L);
+
+        // When
+        String result = spiExecutionService.execute(PaymentSpi.class, "initiatePayment", () -> {
+            Thread.sleep(200);
+            return "initiated";
+        });
+
+        // Then
+        assertEquals("initiated", result);
+    }
+
+    @Test
+    void execute_writingTimeout_shouldThrowUnavailable() {
+        // Given
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 5000L);
+        environment.setProperty("xs2a.spi.execution.bulkhead.PaymentSpi.writing-timeout.ms", "50");
+
+        // When
+        SpiExecutionUnavailableException exception = assertThrows(SpiExecutionUnavailableException.class,
+                                                                   () -> spiExecutionService.execute(PaymentSpi.class, "initiatePayment", () -> {
+                                                                       Thread.sleep(5000);
+                                                                       return "too late";
+                                                                   }));
+
+        // Then
+        assertEquals("SPI PaymentSpi timed out", exception.getMessage());
+    }
+
+    @Test
+    void execute_perMethodTimeout_shouldOverrideDefault() {
+        // Given
+        ReflectionTestUtils.setField(spiExecutionService, "timeoutMs", 5000L);
+        environment.setProperty("xs2a.spi.execution.bulkhead.PaymentSpi.initiatePayment.timeout.ms", "50");
+
+        // When
+        SpiExecutionUnavailableException exception = assertThrows(SpiExecutionUnavailableException.class,
+                                                                   () -> spiExecutionService.execute(PaymentSpi.class, "initiatePayment", () -> {
+                                                                       Thread.sleep(5000);
+                                                                       return "too late";
+                                                                   }));
+
+        // Then
+        assertEquals("SPI PaymentSpi timed out", exception.getMessage());
+    }
+}
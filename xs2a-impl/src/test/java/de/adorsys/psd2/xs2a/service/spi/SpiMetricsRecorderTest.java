@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.spi.domain.SpiAspspConsentDataProvider;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.payment.SpiSinglePayment;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.SinglePaymentSpi;
+import de.adorsys.psd2.xs2a.spi.service.SpiPayment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpiMetricsRecorderTest {
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+    @Mock
+    private ListableBeanFactory beanFactory;
+
+    private MeterRegistry registry;
+    private SpiMetricsRecorder spiMetricsRecorder;
+    private Method method;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        registry = new SimpleMeterRegistry();
+        spiMetricsRecorder = new SpiMetricsRecorder(meterRegistryProvider, beanFactory);
+        ReflectionTestUtils.setField(spiMetricsRecorder, "percentileHistogram", false);
+        method = SinglePaymentSpi.class.getMethod("getPaymentStatusById", SpiContextData.class, String.class,
+                                                  SpiPayment.class, SpiAspspConsentDataProvider.class);
+    }
+
+    @Test
+    void isEnabled_registryDefined_shouldReturnTrue() {
+        // Given
+        ReflectionTestUtils.setField(spiMetricsRecorder, "enabled", true);
+        when(beanFactory.getBeanNamesForType(MeterRegistry.class, true, false)).thenReturn(new String[]{"meterRegistry"});
+
+        // When
+        boolean actual = spiMetricsRecorder.isEnabled();
+
+        // Then
+        assertTrue(actual);
+    }
+
+    @Test
+    void isEnabled_noRegistry_shouldReturnFalse() {
+        // Given
+        ReflectionTestUtils.setField(spiMetricsRecorder, "enabled", true);
+        when(beanFactory.getBeanNamesForType(MeterRegistry.class, true, false)).thenReturn(new String[0]);
+
+        // When
+        boolean actual = spiMetricsRecorder.isEnabled();
+
+        // Then
+        assertFalse(actual);
+    }
+
+    @Test
+    void isEnabled_disabled_shouldNotLookUpRegistry() {
+        // Given
+        ReflectionTestUtils.setField(spiMetricsRecorder, "enabled", false);
+
+        // When
+        boolean actual = spiMetricsRecorder.isEnabled();
+
+        // Then
+        assertFalse(actual);
+        verifyNoInteractions(beanFactory);
+    }
+
+    @Test
+    void record_successfulResponse_shouldRecordSuccessWithPaymentProduct() throws Throwable {
+        // Given
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(registry);
+        SpiSinglePayment payment = new SpiSinglePayment(PAYMENT_PRODUCT);
+        SpiResponse<String> spiResponse = SpiResponse.<String>builder().payload("payload").build();
+
+        // When
+        SpiResponse<String> actual = spiMetricsRecorder.record(SinglePaymentSpi.class, method, new Object[]{null, null, payment, null},
+                                                               () -> {
+                                                                   assertEquals(1.0, activeCalls().value());
+                                                                   return spiResponse;
+                                                               });
+
+        // Then
+        assertSame(spiResponse, actual);
+        Timer timer = registry.find("xs2a.spi.calls")
+                          .tags("spi", "SinglePaymentSpi", "method", "getPaymentStatusById",
+                                "payment-product", PAYMENT_PRODUCT, "outcome", "SUCCESS")
+                          .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(0.0, activeCalls().value());
+    }
+
+    @Test
+    void record_responseWithError_shouldRecordError() throws Throwable {
+        // Given
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(registry);
+        SpiResponse<String> spiResponse = SpiResponse.<String>builder().error(new TppMessage(MessageErrorCode.FORMAT_ERROR)).build();
+
+        // When
+        spiMetricsRecorder.record(SinglePaymentSpi.class, method, new Object[]{null, null, null, null}, () -> spiResponse);
+
+        // Then
+        Timer timer = registry.find("xs2a.spi.calls").tags("payment-product", "none", "outcome", "ERROR").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void record_exception_shouldRecordExceptionAndRethrow() {
+        // Given
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(registry);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> spiMetricsRecorder.record(SinglePaymentSpi.class, method, new Object[0], () -> {
+            throw new IllegalStateException("ASPSP is down");
+        }));
+
+        // Then
+        Timer timer = registry.find("xs2a.spi.calls").tags("outcome", "EXCEPTION").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(0.0, activeCalls().value());
+    }
+
+    @Test
+    void record_noMeterRegistry_shouldOnlyExecuteCall() throws Throwable {
+        // Given
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(null);
+
+        // When
+        String actual = spiMetricsRecorder.record(SinglePaymentSpi.class, method, new Object[0], () -> "result");
+
+        // Then
+        assertEquals("result", actual);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private Gauge activeCalls() {
+        return registry.get("xs2a.spi.calls.active").tags("spi", "SinglePaymentSpi", "method", "getPaymentStatusById").gauge();
+    }
+}
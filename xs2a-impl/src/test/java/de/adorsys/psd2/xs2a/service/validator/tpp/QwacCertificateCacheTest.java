@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.validator.tpp;
+
+import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import no.difi.certvalidator.api.CertificateValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QwacCertificateCacheTest {
+    private static final String QWAC_CERTIFICATE = "-----BEGIN CERTIFICATE-----MIIFNjCCAx6gAwIBAgIERd3y8TANBgkqhkiG9w0BAQsFADB4MQswCQYDVQQGEwJERTEQMA4GA1UECAwHQkFWQVJJQTESMBAGA1UEBwwJTnVyZW1iZXJnMSIwIAYDVQQKDBlUcnVzdCBTZXJ2aWNlIFByb3ZpZGVyIEFHMR8wHQYDVQQLDBZJbmZvcm1hdGlvbiBUZWNobm9sb2d5MB4XDTIwMDMwNTEzMzk1MFoXDTMwMDMwMzAwMDAwMFowgcExITAfBgNVBAoMGEZpY3Rpb25hbCBDb3Jwb3JhdGlvbiBBRzElMCMGCgmSJomT8ixkARkWFXB1YmxpYy5jb3Jwb3JhdGlvbi5kZTEfMB0GA1UECwwWSW5mb3JtYXRpb24gVGVjaG5vbG9neTEQMA4GA1UEBhMHR2VybWFueTEPMA0GA1UECAwGQmF5ZXJuMRIwEAYDVQQHDAlOdXJlbWJlcmcxHTAbBgNVBGEMFFBTRERFLUZBS0VOQ0EtODdCMkFDMIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEAsHAdLWn7pEAlD5daEjKv7hE4FW+vMJRrA/Bw2M/Zsu8VFfW1ARmbTgTy7rGLFBK/Y2SToEj60+5GEkCgCvi+vI/Bdykk8XqjpVsJjTW67np1b2Av8F61zvCnn2UOxBtXBHCzR1j2yz2om1IMYieGu/cDTWLNkbuoGSnj0dq4CbHp2f8ch++goffqLRXr642j8cVlqZYsapB8y+Z8IydbtNBd/XAmRTAprmdRv9B4PC7P+lIYX8QbXw77f+9/2Kty7oVHtjle+GnTR8wH5nCiMQsA9V564/34lKwuEkzuryV1HzitQ/X7FSZoiSQRTxbxjVO+xdzI3hjF2FZjVvkqywIDAQABo34wfDB6BggrBgEFBQcBAwRuMGwGBgQAgZgnAjBiMDkwEQYHBACBmCcBAwwGUFNQX0FJMBEGBwQAgZgnAQIMBlBTUF9QSTARBgcEAIGYJwEEDAZQU1BfSUMMGVRydXN0IFNlcnZpY2UgUHJvdmlkZXIgQUcMCkRFLUZBS0VOQ0EwDQYJKoZIhvcNAQELBQADggIBACKUQc3O3TOFG8tWk4sQd3f9SGlOcBOMekSXCxRgskcYkjhWW4+EN1FYzlGuXPfq1yngKaM3ss9yCDVep0MFa4hDJ/hzSSD5upExzwWDkUa97AHCjZd39W6kLaCMAc5vTbR9r7zBvMKBcAmhZ9mWCvrvbHUOURv5yBfrrEk4AM1Vakf5l+fWP4JhA779+7JlwpQRpy5dgqROwKQ2L634d2osgXUV4CkqhSUQ5LcYI4uBFyKnM0pyGaNYdKhBC95J0y5GYa7NpKJNZXf+clTbe33gCt2SFSOMa7CV5NYpnohS201uNd/ffWLzGtFBnHLNpX8qTfFc16mtIcJo6Iiof2CYgfYAyJByBC1gZHf1wAtfQzAn6JcEaJzmehXKKl9x7X62aaGan7l+MblUT65Gd+Yed+rXLF6svefbrcIbZwt/W+v1fbfnip9QEFPV3VLjg0vk9Y30ftZCcFRSHLD3mdxcVEtmVxDDxyzDUwXF7J/mi4RQhZBb3OtwwEIWC2zUaycNMZWJRI+RqfLvanlDFFMoYeSZKTFf8jS/PPcfpKOAiTGu21iuuv+gYxh/rgjW419w26ya+Q3jabaz3E9Im/opSU5sQ9W92ALA14J9VZs6v8BVmqKTB5APKfeTYoXg9MjP9fjVM/hP26kIgQVs5Bz15ov8uQlQC+OTO+2y5ozs-----END CERTIFICATE-----";
+
+    private QwacCertificateCache qwacCertificateCache;
+
+    @BeforeEach
+    void setUp() {
+        qwacCertificateCache = new QwacCertificateCache();
+        ReflectionTestUtils.setField(qwacCertificateCache, "maxSize", 10);
+        ReflectionTestUtils.setField(qwacCertificateCache, "timeToLiveMs", 60000L);
+    }
+
+    @Test
+    void getTppCertificateData_shouldParseCertificateOnce() throws CertificateValidationException {
+        // When
+        TppCertificateData first = qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+        TppCertificateData second = qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+
+        // Then
+        assertNotNull(first.getPspAuthorisationNumber());
+        assertSame(first, second);
+        assertEquals(1, qwacCertificateCache.size());
+    }
+
+    @Test
+    void getTppCertificateData_expired_shouldParseAgain() throws CertificateValidationException {
+        // Given
+        ReflectionTestUtils.setField(qwacCertificateCache, "timeToLiveMs", 0L);
+
+        // When
+        TppCertificateData first = qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+        TppCertificateData second = qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+
+        // Then
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void getTppCertificateData_disabled_shouldNotCache() throws CertificateValidationException {
+        // Given
+        ReflectionTestUtils.setField(qwacCertificateCache, "maxSize", 0);
+
+        // When
+        qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+
+        // Then
+        assertEquals(0, qwacCertificateCache.size());
+    }
+
+    @Test
+    void isTppRolesStored_shouldReflectLastStoredRoles() throws CertificateValidationException {
+        // Given
+        qwacCertificateCache.getTppCertificateData(QWAC_CERTIFICATE);
+
+        // When
+        boolean storedBefore = qwacCertificateCache.isTppRolesStored(QWAC_CERTIFICATE, Collections.singletonList(TppRole.AISP));
+        qwacCertificateCache.setTppRolesStored(QWAC_CERTIFICATE, Collections.singletonList(TppRole.AISP));
+        boolean storedAfter = qwacCertificateCache.isTppRolesStored(QWAC_CERTIFICATE, Collections.singletonList(TppRole.AISP));
+        boolean changedRolesStored = qwacCertificateCache.isTppRolesStored(QWAC_CERTIFICATE, Arrays.asList(TppRole.AISP, TppRole.PISP));
+
+        // Then
+        assertFalse(storedBefore);
+        assertTrue(storedAfter);
+        assertFalse(changedRolesStored);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web;
+
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.authorisation.PisAuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.pis.proto.PisCommonPaymentResponse;
+import de.adorsys.psd2.consent.api.service.AuthorisationServiceEncrypted;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
+import de.adorsys.psd2.xs2a.service.consent.Xs2aPisCommonPaymentService;
+import de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoCheckerService;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusETagResolverTest {
+    private static final String PAYMENT_ID = "payment id";
+    private static final String AUTHORISATION_ID = "authorisation id";
+    private static final String PAYMENT_STATUS_PATH = "/v1/payments/sepa-credit-transfers/payment id/status";
+    private static final OffsetDateTime STATUS_CHANGE_TIMESTAMP = OffsetDateTime.parse("2020-03-01T10:15:30+01:00");
+
+    @Mock
+    private RequestPathResolver requestPathResolver;
+    @Mock
+    private PathParameterExtractor pathParameterExtractor;
+    @Mock
+    private Xs2aPisCommonPaymentService pisCommonPaymentService;
+    @Mock
+    private Xs2aAisConsentService aisConsentService;
+    @Mock
+    private AuthorisationServiceEncrypted authorisationServiceEncrypted;
+    @Mock
+    private TppInfoCheckerService tppInfoCheckerService;
+
+    private StatusETagResolver statusETagResolver;
+    private MockHttpServletRequest request;
+    private Map<String, String> pathParameters;
+
+    @BeforeEach
+    void setUp() {
+        statusETagResolver = new StatusETagResolver(requestPathResolver, pathParameterExtractor, pisCommonPaymentService,
+                                                    aisConsentService, authorisationServiceEncrypted, tppInfoCheckerService);
+        request = new MockHttpServletRequest("GET", PAYMENT_STATUS_PATH);
+        request.addHeader(HttpHeaders.ACCEPT, "application/json");
+        pathParameters = new HashMap<>();
+        pathParameters.put("paymentId", PAYMENT_ID);
+    }
+
+    @Test
+    void resolveStatusVersion_finalisedPaymentStatus_authoritative() {
+        // Given
+        givenPayment(TransactionStatus.ACSC);
+
+        // When
+        Optional<StatusVersion> actual = statusETagResolver.resolveStatusVersion(request);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertTrue(actual.get().isAuthoritative());
+        assertTrue(actual.get().isFinalised());
+        verifyNoInteractions(authorisationServiceEncrypted);
+    }
+
+    @Test
+    void resolveStatusVersion_notFinalisedPaymentStatus_notAuthoritative() {
+        // Given
+        givenPayment(TransactionStatus.ACSP);
+
+        // When
+        Optional<StatusVersion> actual = statusETagResolver.resolveStatusVersion(request);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertFalse(actual.get().isAuthoritative());
+        assertFalse(actual.get().isFinalised());
+    }
+
+    @Test
+    void resolveStatusVersion_changedStatus_differentETag() {
+        // Given
+        givenPayment(TransactionStatus.ACSP);
+        String acspETag = statusETagResolver.resolveStatusVersion(request).map(StatusVersion::getETag).orElse(null);
+        givenPayment(TransactionStatus.ACSC);
+
+        // When
+        Optional<StatusVersion> actual = statusETagResolver.resolveStatusVersion(request);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertNotEquals(acspETag, actual.get().getETag());
+    }
+
+    @Test
+    void resolveStatusVersion_scaStatus_authoritative() {
+        // Given
+        givenPayment(TransactionStatus.ACSP);
+        pathParameters.put("authorisationId", AUTHORISATION_ID);
+        when(authorisationServiceEncrypted.getAuthorisationScaStatus(AUTHORISATION_ID, new PisAuthorisationParentHolder(PAYMENT_ID)))
+            .thenReturn(CmsResponse.<ScaStatus>builder().payload(ScaStatus.PSUAUTHENTICATED).build());
+
+        // When
+        Optional<StatusVersion> actual = statusETagResolver.resolveStatusVersion(request);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertTrue(actual.get().isAuthoritative());
+        assertFalse(actual.get().isFinalised());
+    }
+
+    @Test
+    void resolveStatusVersion_paymentOfOtherTpp_empty() {
+        // Given
+        givenPayment(TransactionStatus.ACSC);
+        when(tppInfoCheckerService.differsFromTppInRequest(any())).thenReturn(true);
+
+        // When
+        Optional<StatusVersion> actual = statusETagResolver.resolveStatusVersion(request);
+
+        // Then
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    void matchesIfNoneMatch() {
+        // Given
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"etag\"");
+
+        // When
+        boolean matching = statusETagResolver.matchesIfNoneMatch(request, "\"etag\"");
+        boolean notMatching = statusETagResolver.matchesIfNoneMatch(request, "\"changed\"");
+
+        // Then
+        assertTrue(matching);
+        assertFalse(notMatching);
+    }
+
+    private void givenPayment(TransactionStatus transactionStatus) {
+        PisCommonPaymentResponse payment = new PisCommonPaymentResponse();
+        payment.setTppInfo(new TppInfo());
+        payment.setTransactionStatus(transactionStatus);
+        payment.setStatusChangeTimestamp(STATUS_CHANGE_TIMESTAMP);
+        when(pathParameterExtractor.extractParameters(request)).thenReturn(pathParameters);
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn(PAYMENT_STATUS_PATH);
+        when(pisCommonPaymentService.getPisCommonPaymentById(PAYMENT_ID)).thenReturn(Optional.of(payment));
+    }
+}
@@ -17,12 +17,14 @@
 package de.adorsys.psd2.xs2a.web;
 
 import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRouteResolver;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -32,14 +34,22 @@ import static org.mockito.Mockito.when;
 class Xs2aEndpointCheckerTest {
     private static final String XS2A_ENDPOINT = "/v1/accounts";
     private static final String NOT_XS2A_ENDPOINT = "/v1/gifts";
+    private static final String DOWNLOAD_ENDPOINT = "/v1/accounts/account-id/transactions/download/download-id";
+    private static final String TRANSACTIONS_ENDPOINT = "/v1/accounts/account-id/transactions";
 
-    @InjectMocks
     private Xs2aEndpointChecker xs2aEndpointChecker;
+    private Xs2aRouteResolver xs2aRouteResolver;
     @Mock
     private RequestPathResolver requestPathResolver;
     @Mock
     private MockHttpServletRequest request;
 
+    @BeforeEach
+    void setUp() {
+        xs2aRouteResolver = new Xs2aRouteResolver(requestPathResolver);
+        xs2aEndpointChecker = new Xs2aEndpointChecker(xs2aRouteResolver);
+    }
+
     @Test
     void isXs2aEndpoint_true() {
         // Given
@@ -63,4 +73,41 @@ class Xs2aEndpointCheckerTest {
         // Then
         assertFalse(actual);
     }
+
+    @Test
+    void isStreamingEndpoint_downloadEndpoint_true() {
+        // Given
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn(DOWNLOAD_ENDPOINT);
+
+        // When
+        boolean actual = xs2aEndpointChecker.isStreamingEndpoint(request);
+
+        // Then
+        assertTrue(actual);
+    }
+
+    @Test
+    void isStreamingEndpoint_notStreamingEndpoint_false() {
+        // Given
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn(TRANSACTIONS_ENDPOINT);
+
+        // When
+        boolean actual = xs2aEndpointChecker.isStreamingEndpoint(request);
+
+        // Then
+        assertFalse(actual);
+    }
+
+    @Test
+    void isStreamingEndpoint_additionalEndpoint_true() {
+        // Given
+        ReflectionTestUtils.setField(xs2aRouteResolver, "additionalStreamingEndpoints", new String[]{"/v1/accounts/*/transactions"});
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn(TRANSACTIONS_ENDPOINT);
+
+        // When
+        boolean actual = xs2aEndpointChecker.isStreamingEndpoint(request);
+
+        // Then
+        assertTrue(actual);
+    }
 }
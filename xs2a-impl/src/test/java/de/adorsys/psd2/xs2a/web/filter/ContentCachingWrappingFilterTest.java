@@ -18,6 +18,7 @@ package de.adorsys.psd2.xs2a.web.filter;
 
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletRequest;
 import de.adorsys.psd2.xs2a.component.MultiReadHttpServletResponse;
+import de.adorsys.psd2.xs2a.component.StreamingHttpServletResponse;
 import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -71,4 +72,24 @@ class ContentCachingWrappingFilterTest {
         assertTrue(capturedRequest.getValue() instanceof MultiReadHttpServletRequest);
         assertTrue(capturedResponse.getValue() instanceof MultiReadHttpServletResponse);
     }
+
+    @Test
+    void doFilterInternal_streamingEndpoint_shouldNotCacheResponse() throws ServletException, IOException {
+        // Given
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest();
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+
+        when(xs2aEndpointChecker.isXs2aEndpoint(mockRequest))
+            .thenReturn(true);
+        when(xs2aEndpointChecker.isStreamingEndpoint(mockRequest))
+            .thenReturn(true);
+
+        // When
+        contentCachingWrappingFilter.doFilter(mockRequest, mockResponse, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(capturedRequest.capture(), capturedResponse.capture());
+        assertTrue(capturedRequest.getValue() instanceof MultiReadHttpServletRequest);
+        assertTrue(capturedResponse.getValue() instanceof StreamingHttpServletResponse);
+    }
 }
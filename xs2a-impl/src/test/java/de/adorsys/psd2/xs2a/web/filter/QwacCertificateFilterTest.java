@@ -16,12 +16,15 @@
 
 package de.adorsys.psd2.xs2a.web.filter;
 
+import de.adorsys.psd2.consent.api.CmsError;
+import de.adorsys.psd2.consent.api.CmsResponse;
 import de.adorsys.psd2.consent.api.service.TppService;
 import de.adorsys.psd2.validator.certificate.util.TppCertificateData;
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.core.tpp.TppRole;
 import de.adorsys.psd2.xs2a.service.RequestProviderService;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.validator.tpp.QwacCertificateCache;
 import de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoHolder;
 import de.adorsys.psd2.xs2a.service.validator.tpp.TppRoleValidationService;
 import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
@@ -33,9 +36,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -89,6 +94,8 @@ class QwacCertificateFilterTest {
     private Xs2aTppInfoMapper xs2aTppInfoMapper;
     @Mock
     private TppInfoRolesMapper tppInfoRolesMapper;
+    @Spy
+    private QwacCertificateCache qwacCertificateCache = new QwacCertificateCache();
 
     @Test
     void doFilter_success() throws IOException, ServletException {
@@ -133,6 +140,7 @@ class QwacCertificateFilterTest {
         when(requestProviderService.getTppRolesAllowedHeader()).thenReturn(null);
         when(tppRoleValidationService.hasAccess(any(), eq(request))).thenReturn(true);
         when(aspspProfileService.isCheckTppRolesFromCertificateSupported()).thenReturn(true);
+        when(tppService.updateTppInfo(any(TppInfo.class))).thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
 
         //When
         qwacCertificateFilter.doFilter(request, response, chain);
@@ -158,6 +166,7 @@ class QwacCertificateFilterTest {
         when(tppInfoRolesMapper.mapToTppRoles(Collections.singletonList("AISP"))).thenReturn(Collections.singletonList(TppRole.AISP));
         String rolesRepresentation = roles.stream().map(TppRole::toString).collect(Collectors.joining(", "));
         when(requestProviderService.getTppRolesAllowedHeader()).thenReturn(rolesRepresentation);
+        when(tppService.updateTppInfo(any(TppInfo.class))).thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
 
         //When
         qwacCertificateFilter.doFilter(request, response, chain);
@@ -170,6 +179,55 @@ class QwacCertificateFilterTest {
         assertEquals(roles, tppInfo.getTppRoles());
     }
 
+    @Test
+    void doFilter_sameCertificateAndRoles_shouldUpdateTppInfoOnce() throws IOException, ServletException {
+        //Given
+        ReflectionTestUtils.setField(qwacCertificateCache, "maxSize", 10);
+        ReflectionTestUtils.setField(qwacCertificateCache, "timeToLiveMs", 60000L);
+        when(xs2aEndpointChecker.isXs2aEndpoint(request)).thenReturn(true);
+        when(xs2aTppInfoMapper.mapToTppInfo(any(TppCertificateData.class))).thenAnswer(invocation -> new TppInfo());
+        when(requestProviderService.getEncodedTppQwacCert()).thenReturn(TEST_QWAC_CERTIFICATE_VALID);
+        when(requestProviderService.getTppRolesAllowedHeader()).thenReturn(null);
+        when(tppRoleValidationService.hasAccess(any(), eq(request))).thenReturn(true);
+        when(aspspProfileService.isCheckTppRolesFromCertificateSupported()).thenReturn(true);
+        when(tppService.updateTppInfo(any(TppInfo.class))).thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
+
+        //When
+        qwacCertificateFilter.doFilter(request, response, chain);
+        qwacCertificateFilter.doFilter(request, response, chain);
+
+        //Then
+        verify(chain, times(2)).doFilter(any(), any());
+        verify(tppService, times(1)).updateTppInfo(any(TppInfo.class));
+    }
+
+    @Test
+    void doFilter_tppInfoNotUpdated_shouldRetryUpdateOnNextRequest() throws IOException, ServletException {
+        //Given
+        ReflectionTestUtils.setField(qwacCertificateCache, "maxSize", 10);
+        ReflectionTestUtils.setField(qwacCertificateCache, "timeToLiveMs", 60000L);
+        when(xs2aEndpointChecker.isXs2aEndpoint(request)).thenReturn(true);
+        when(xs2aTppInfoMapper.mapToTppInfo(any(TppCertificateData.class))).thenAnswer(invocation -> new TppInfo());
+        when(requestProviderService.getEncodedTppQwacCert()).thenReturn(TEST_QWAC_CERTIFICATE_VALID);
+        when(requestProviderService.getTppRolesAllowedHeader()).thenReturn(null);
+        when(tppRoleValidationService.hasAccess(any(), eq(request))).thenReturn(true);
+        when(aspspProfileService.isCheckTppRolesFromCertificateSupported()).thenReturn(true);
+        when(tppService.updateTppInfo(any(TppInfo.class)))
+            .thenReturn(CmsResponse.<Boolean>builder().error(CmsError.TECHNICAL_ERROR).build())
+            .thenReturn(CmsResponse.<Boolean>builder().payload(false).build())
+            .thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
+
+        //When
+        qwacCertificateFilter.doFilter(request, response, chain);
+        qwacCertificateFilter.doFilter(request, response, chain);
+        qwacCertificateFilter.doFilter(request, response, chain);
+        qwacCertificateFilter.doFilter(request, response, chain);
+
+        //Then
+        verify(chain, times(4)).doFilter(any(), any());
+        verify(tppService, times(3)).updateTppInfo(any(TppInfo.class));
+    }
+
     @Test
     void doFilter_failure_wrong_tpp_roles() throws IOException, ServletException {
         //Given
@@ -181,6 +239,7 @@ class QwacCertificateFilterTest {
         when(requestProviderService.getEncodedTppQwacCert()).thenReturn(TEST_QWAC_CERTIFICATE_VALID);
         when(requestProviderService.getTppRolesAllowedHeader()).thenReturn("PIISP");
         when(tppInfoRolesMapper.mapToTppRoles(Collections.singletonList("PIISP"))).thenReturn(Collections.singletonList(TppRole.PIISP));
+        when(tppService.updateTppInfo(any(TppInfo.class))).thenReturn(CmsResponse.<Boolean>builder().payload(true).build());
 
         //When
         qwacCertificateFilter.doFilter(request, response, chain);
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.filter;
+
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.service.consent.CmsRequestCache;
+import de.adorsys.psd2.xs2a.web.StatusETagResolver;
+import de.adorsys.psd2.xs2a.web.Xs2aEndpointChecker;
+import de.adorsys.psd2.xs2a.web.error.TppErrorMessageWriter;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusPollingFilterTest {
+    private static final String PAYMENT_STATUS_PATH = "/v1/payments/sepa-credit-transfers/payment-id/status";
+    private static final String RCVD_BODY = "{\"transactionStatus\":\"RCVD\"}";
+    private static final String ACSC_BODY = "{\"transactionStatus\":\"ACSC\"}";
+    private static final String RCVD_ETAG = "\"2e2989ef29e68caee6044d21ad124a82\"";
+    private static final String VERSION_ETAG = "\"version\"";
+    private static final String RECEIVED_ETAG = "\"received\"";
+    private static final StatusVersion RECEIVED_VERSION = new StatusVersion(RECEIVED_ETAG, true, false);
+    private static final StatusVersion FINALISED_VERSION = new StatusVersion("\"finalised\"", true, true);
+    private static final long AWAIT_TIMEOUT_MS = 5000;
+
+    @Mock
+    private TppErrorMessageWriter tppErrorMessageWriter;
+    @Mock
+    private Xs2aEndpointChecker xs2aEndpointChecker;
+    @Mock
+    private RequestPathResolver requestPathResolver;
+    @Mock
+    private LoggingContextService loggingContextService;
+    @Mock
+    private CmsRequestCache cmsRequestCache;
+    @Mock
+    private StatusETagResolver statusETagResolver;
+
+    private StatusPollingFilter statusPollingFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        statusPollingFilter = new StatusPollingFilter(tppErrorMessageWriter, xs2aEndpointChecker, requestPathResolver,
+                                                      loggingContextService, cmsRequestCache, statusETagResolver);
+        ReflectionTestUtils.setField(statusPollingFilter, "etagEnabled", true);
+        ReflectionTestUtils.setField(statusPollingFilter, "longPollingEnabled", true);
+        ReflectionTestUtils.setField(statusPollingFilter, "maxWaitMs", 30000L);
+        ReflectionTestUtils.setField(statusPollingFilter, "recheckIntervalMs", 60000L);
+        ReflectionTestUtils.setField(statusPollingFilter, "maxSuspendedRequests", 1);
+
+        request = new MockHttpServletRequest("GET", PAYMENT_STATUS_PATH);
+        request.setAsyncSupported(true);
+        response = new MockHttpServletResponse();
+
+        lenient().when(statusETagResolver.generateETag(any())).thenCallRealMethod();
+        lenient().when(statusETagResolver.matchesIfNoneMatch(any(), any())).thenCallRealMethod();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statusPollingFilter.shutdown();
+    }
+
+    @Test
+    void doFilter_noIfNoneMatch_returnsBodyWithETag() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+
+        // When
+        statusPollingFilter.doFilter(request, response, statusChain(RCVD_BODY));
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(RCVD_BODY, response.getContentAsString());
+        assertEquals(RCVD_ETAG, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_matchingIfNoneMatch_returnsNotModified() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + RCVD_ETAG);
+
+        // When
+        statusPollingFilter.doFilter(request, response, statusChain(RCVD_BODY));
+
+        // Then
+        assertEquals(304, response.getStatus());
+        assertEquals("", response.getContentAsString());
+        assertEquals(RCVD_ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertFalse(request.isAsyncStarted());
+    }
+
+    @Test
+    void doFilter_changedStatus_returnsBody() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, RCVD_ETAG);
+
+        // When
+        statusPollingFilter.doFilter(request, response, statusChain(ACSC_BODY));
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(ACSC_BODY, response.getContentAsString());
+        assertNotEquals(RCVD_ETAG, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_errorResponse_passedWithoutETag() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+
+        // When
+        statusPollingFilter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(403);
+            res.getWriter().write("{}");
+        });
+
+        // Then
+        assertEquals(403, response.getStatus());
+        assertEquals("{}", response.getContentAsString());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_authoritativeVersion_returnsBodyWithVersionETag() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.setAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE, new StatusVersion(VERSION_ETAG, true, true));
+
+        // When
+        statusPollingFilter.doFilter(request, response, statusChain(ACSC_BODY));
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(ACSC_BODY, response.getContentAsString());
+        assertEquals(VERSION_ETAG, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_finalisedVersionNotModified_returnsNotModifiedWithoutWaiting() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, VERSION_ETAG);
+        request.addHeader(StatusPollingFilter.PREFER_HEADER, "wait=10");
+        request.setAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE, new StatusVersion(VERSION_ETAG, true, true));
+
+        // When
+        statusPollingFilter.doFilter(request, response, notModifiedChain());
+
+        // Then
+        assertFalse(request.isAsyncStarted());
+        assertEquals(304, response.getStatus());
+        assertEquals(VERSION_ETAG, response.getHeader(HttpHeaders.ETAG));
+        verify(statusETagResolver, never()).resolveStatusVersion(request);
+    }
+
+    @Test
+    void doFilter_notAuthoritativeVersion_returnsNotModifiedWithoutWaiting() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, RCVD_ETAG);
+        request.addHeader(StatusPollingFilter.PREFER_HEADER, "wait=10");
+        request.setAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE, new StatusVersion(VERSION_ETAG, false, false));
+
+        // When
+        statusPollingFilter.doFilter(request, response, statusChain(RCVD_BODY));
+
+        // Then
+        assertFalse(request.isAsyncStarted());
+        assertEquals(304, response.getStatus());
+        assertEquals(RCVD_ETAG, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_longPolling_resumedWhenStatusChanges() throws ServletException, IOException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(statusPollingFilter, "recheckIntervalMs", 10L);
+        givenStatusEndpoint();
+        givenAwaitedRequest(request);
+        RequestInfo requestInfo = new RequestInfo("internal request id", "x-request-id");
+        when(loggingContextService.getRequestInformation()).thenReturn(requestInfo);
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(RECEIVED_VERSION), Optional.of(FINALISED_VERSION));
+
+        // When
+        statusPollingFilter.doFilter(request, response, notModifiedChain());
+
+        // Then
+        assertTrue(request.isAsyncStarted());
+        assertEquals("", response.getContentAsString());
+
+        // When
+        awaitRecheckResult();
+
+        // Then
+        assertNotNull(getAsyncContext().getDispatchedPath());
+        assertTrue(request.isAsyncStarted());
+        verify(statusETagResolver, times(2)).resolveStatusVersion(request);
+        verify(cmsRequestCache, times(2)).clear(request);
+        verify(loggingContextService, times(2)).storeRequestInformation(requestInfo);
+        // the recheck is finished after the dispatch
+        verify(loggingContextService, timeout(AWAIT_TIMEOUT_MS).times(2)).clearContext();
+    }
+
+    @Test
+    void doFilter_longPollingExpired_returnsNotModifiedWithoutDispatch() throws ServletException, IOException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(statusPollingFilter, "recheckIntervalMs", 10L);
+        ReflectionTestUtils.setField(statusPollingFilter, "maxWaitMs", 100L);
+        givenStatusEndpoint();
+        givenAwaitedRequest(request);
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(RECEIVED_VERSION));
+
+        // When
+        statusPollingFilter.doFilter(request, new HttpServletResponseWrapper(response), notModifiedChain());
+        awaitRecheckResult();
+
+        // Then
+        assertFalse(request.isAsyncStarted());
+        assertSame(response, getAsyncContext().getResponse());
+        assertNull(getAsyncContext().getDispatchedPath());
+        assertEquals(304, response.getStatus());
+        assertEquals(RECEIVED_ETAG, response.getHeader(HttpHeaders.ETAG));
+        verify(statusETagResolver, atLeast(2)).resolveStatusVersion(request);
+    }
+
+    @Test
+    void doFilter_longPollingRecheckFailed_resumesRequest() throws ServletException, IOException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(statusPollingFilter, "recheckIntervalMs", 10L);
+        givenStatusEndpoint();
+        givenAwaitedRequest(request);
+        when(statusETagResolver.resolveStatusVersion(request)).thenThrow(new IllegalStateException("CMS is not available"));
+
+        // When
+        statusPollingFilter.doFilter(request, response, notModifiedChain());
+        awaitRecheckResult();
+
+        // Then
+        assertNotNull(getAsyncContext().getDispatchedPath());
+    }
+
+    @Test
+    void doFilter_asyncDispatch_passedWithoutHandling() throws ServletException, IOException {
+        // Given
+        request.setDispatcherType(DispatcherType.ASYNC);
+        FilterChain filterChain = mock(FilterChain.class);
+
+        // When
+        statusPollingFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(statusETagResolver, xs2aEndpointChecker);
+    }
+
+    @Test
+    void doFilter_longPollingLimitReached_returnsNotModified() throws ServletException, IOException {
+        // Given
+        givenStatusEndpoint();
+        MockHttpServletRequest otherRequest = new MockHttpServletRequest("GET", PAYMENT_STATUS_PATH);
+        otherRequest.setAsyncSupported(true);
+        givenAwaitedRequest(otherRequest);
+        when(xs2aEndpointChecker.isXs2aEndpoint(otherRequest)).thenReturn(true);
+        when(requestPathResolver.resolveRequestPath(otherRequest)).thenReturn(PAYMENT_STATUS_PATH);
+        statusPollingFilter.doFilter(otherRequest, new MockHttpServletResponse(), notModifiedChain());
+
+        givenAwaitedRequest(request);
+
+        // When
+        statusPollingFilter.doFilter(request, response, notModifiedChain());
+
+        // Then
+        assertTrue(otherRequest.isAsyncStarted());
+        assertFalse(request.isAsyncStarted());
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void doFilter_notStatusEndpoint_passedWithoutETag() throws ServletException, IOException {
+        // Given
+        when(xs2aEndpointChecker.isXs2aEndpoint(request)).thenReturn(true);
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn("/v1/payments/sepa-credit-transfers/payment-id");
+        FilterChain filterChain = mock(FilterChain.class);
+
+        // When
+        statusPollingFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private void givenStatusEndpoint() {
+        when(xs2aEndpointChecker.isXs2aEndpoint(request)).thenReturn(true);
+        when(requestPathResolver.resolveRequestPath(request)).thenReturn(PAYMENT_STATUS_PATH);
+    }
+
+    private void givenAwaitedRequest(MockHttpServletRequest awaitedRequest) {
+        awaitedRequest.addHeader(HttpHeaders.IF_NONE_MATCH, RECEIVED_ETAG);
+        awaitedRequest.addHeader(StatusPollingFilter.PREFER_HEADER, "respond-async, wait=10");
+        awaitedRequest.setAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE, RECEIVED_VERSION);
+    }
+
+    private MockAsyncContext getAsyncContext() {
+        return (MockAsyncContext) request.getAsyncContext();
+    }
+
+    private void awaitRecheckResult() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+        while (request.isAsyncStarted() && getAsyncContext().getDispatchedPath() == null
+                   && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private FilterChain statusChain(String body) {
+        return (req, res) -> res.getWriter().write(body);
+    }
+
+    private FilterChain notModifiedChain() {
+        return (req, res) -> ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+}
@@ -106,6 +106,8 @@ class AccountLoggingInterceptorTest {
 
         verify(tppService).getTppInfo();
         verify(loggingContextService).getConsentStatus();
+        verify(loggingContextService).getCmsCallCount();
+        verify(loggingContextService).getCachedCmsCallCount();
         verify(response).getStatus();
     }
 }
@@ -110,5 +110,7 @@ class ConsentLoggingInterceptorTest {
         verify(redirectIdService).getRedirectId();
         verify(loggingContextService).getConsentStatus();
         verify(loggingContextService).getScaStatus();
+        verify(loggingContextService).getCmsCallCount();
+        verify(loggingContextService).getCachedCmsCallCount();
     }
 }
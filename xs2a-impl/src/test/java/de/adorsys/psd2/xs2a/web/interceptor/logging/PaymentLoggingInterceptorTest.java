@@ -107,6 +107,8 @@ class PaymentLoggingInterceptorTest {
         verify(redirectIdService).getRedirectId();
         verify(loggingContextService).getTransactionStatus();
         verify(loggingContextService).getScaStatus();
+        verify(loggingContextService).getCmsCallCount();
+        verify(loggingContextService).getCachedCmsCallCount();
         verify(loggingContextService, never()).getConsentStatus();
     }
 }
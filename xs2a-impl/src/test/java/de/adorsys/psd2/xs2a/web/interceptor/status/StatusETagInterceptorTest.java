@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.status;
+
+import de.adorsys.psd2.logger.context.LoggingContextService;
+import de.adorsys.psd2.logger.context.RequestInfo;
+import de.adorsys.psd2.xs2a.domain.StatusVersion;
+import de.adorsys.psd2.xs2a.web.StatusETagResolver;
+import de.adorsys.psd2.xs2a.web.filter.StatusPollingFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.DispatcherType;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatusETagInterceptorTest {
+    private static final String ETAG = "\"version\"";
+
+    @Mock
+    private StatusETagResolver statusETagResolver;
+    @Mock
+    private LoggingContextService loggingContextService;
+
+    @InjectMocks
+    private StatusETagInterceptor statusETagInterceptor;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statusETagInterceptor, "etagEnabled", true);
+        request = new MockHttpServletRequest("GET", "/v1/payments/sepa-credit-transfers/payment-id/status");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void preHandle_authoritativeVersionMatches_returnsNotModified() {
+        // Given
+        StatusVersion statusVersion = new StatusVersion(ETAG, true, true);
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(statusVersion));
+        when(statusETagResolver.matchesIfNoneMatch(request, ETAG)).thenReturn(true);
+
+        // When
+        boolean actual = statusETagInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertFalse(actual);
+        assertEquals(304, response.getStatus());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(statusVersion, request.getAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE));
+    }
+
+    @Test
+    void preHandle_authoritativeVersionChanged_invokesController() {
+        // Given
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(new StatusVersion(ETAG, true, true)));
+        when(statusETagResolver.matchesIfNoneMatch(request, ETAG)).thenReturn(false);
+
+        // When
+        boolean actual = statusETagInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(actual);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void preHandle_notAuthoritativeVersion_invokesController() {
+        // Given
+        StatusVersion statusVersion = new StatusVersion(ETAG, false, false);
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(statusVersion));
+
+        // When
+        boolean actual = statusETagInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(actual);
+        assertEquals(statusVersion, request.getAttribute(StatusETagResolver.STATUS_VERSION_ATTRIBUTE));
+        verify(statusETagResolver, never()).matchesIfNoneMatch(request, ETAG);
+    }
+
+    @Test
+    void preHandle_notGetRequest_invokesController() {
+        // Given
+        request.setMethod("DELETE");
+
+        // When
+        boolean actual = statusETagInterceptor.preHandle(request, response, null);
+
+        // Then
+        assertTrue(actual);
+        verifyNoInteractions(statusETagResolver);
+    }
+
+    @Test
+    void preHandle_resumedRequest_restoresLoggingContextAndSetsETag() {
+        // Given
+        RequestInfo requestInfo = new RequestInfo("internal request id", "x-request-id");
+        request.setDispatcherType(DispatcherType.ASYNC);
+        request.setAttribute(StatusPollingFilter.REQUEST_INFO_ATTRIBUTE, requestInfo);
+        when(statusETagResolver.resolveStatusVersion(request)).thenReturn(Optional.of(new StatusVersion(ETAG, true, false)));
+        when(statusETagResolver.matchesIfNoneMatch(request, ETAG)).thenReturn(false);
+
+        // When
+        boolean actual = statusETagInterceptor.preHandle(request, response, null);
+        statusETagInterceptor.afterCompletion(request, response, null, null);
+
+        // Then
+        assertTrue(actual);
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        verify(loggingContextService).storeRequestInformation(requestInfo);
+        verify(loggingContextService).clearContext();
+    }
+}
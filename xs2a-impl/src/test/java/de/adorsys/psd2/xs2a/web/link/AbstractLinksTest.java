@@ -18,6 +18,7 @@ package de.adorsys.psd2.xs2a.web.link;
 
 import de.adorsys.psd2.xs2a.domain.HrefType;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -56,4 +57,51 @@ class AbstractLinksTest {
         //Then
         assertEquals(expected.getHref(), actual.getHref());
     }
+
+    @Test
+    void buildPath_absolute_path_with_trailing_slash() {
+        //Given
+        AbstractLinks links = new AbstractLinks(ABSOLUTE_HTTP_URL + "/");
+        HrefType expected = new HrefType(RESULT_ABSOLUTE_PATH);
+
+        //When
+        HrefType actual = links.buildPath(PAYMENT_PATH, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID);
+
+        //Then
+        assertEquals(expected.getHref(), actual.getHref());
+    }
+
+    @Test
+    void buildPath_expanded_path() {
+        //Given
+        AbstractLinks links = new AbstractLinks(ABSOLUTE_HTTP_URL);
+        String expandedPath = "/v1/payments/sepa-credit-transfers/" + PAYMENT_ID;
+        HrefType expected = new HrefType(RESULT_ABSOLUTE_PATH);
+
+        //When
+        HrefType actual = links.buildPath(expandedPath);
+
+        //Then
+        assertEquals(expected.getHref(), actual.getHref());
+    }
+
+    @Test
+    void buildPath_sameAsUriComponentsBuilder() {
+        //Given
+        String[] httpUrls = {"http://localhost:8080", "https://localhost/xs2a/", "http://host:80/xs2a//base", "/", "/myhost.com/", "http://host/base?query=1"};
+
+        for (String httpUrl : httpUrls) {
+            AbstractLinks links = new AbstractLinks(httpUrl);
+            String expected = (httpUrl.startsWith("/") ? UriComponentsBuilder.fromPath(httpUrl) : UriComponentsBuilder.fromHttpUrl(httpUrl))
+                                  .path(PAYMENT_PATH)
+                                  .buildAndExpand(PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID)
+                                  .toUriString();
+
+            //When
+            HrefType actual = links.buildPath(PAYMENT_PATH, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID);
+
+            //Then
+            assertEquals(expected, actual.getHref());
+        }
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.link;
+
+import de.adorsys.psd2.xs2a.web.aspect.UrlHolder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkTemplateTest {
+    private static final String PAYMENT_SERVICE = "payments";
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String PAYMENT_ID = "j5drwApSajpoFP1h5_pYxh9ftC4ogs6_6emI06HD6O_pllrbeOyAHl4YXhAXbDTnk0TyKYKH8uiQvSrzLsiMcs_aJzS3dI_tse0HueAjChY=_=_psGLvQpt9Q";
+    private static final String AUTHORISATION_ID = "1234-auth-id";
+
+    @Test
+    void of_urlHolderPath_returnsPrecompiledTemplate() {
+        // When
+        LinkTemplate first = LinkTemplate.of(UrlHolder.PIS_AUTHORISATION_LINK_URL);
+        LinkTemplate second = LinkTemplate.of(UrlHolder.PIS_AUTHORISATION_LINK_URL);
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void of_unknownPath_compilesNewTemplate() {
+        // Given
+        String path = "/v1/consents/some-consent-id/authorisations/some-redirect-id";
+
+        // When
+        LinkTemplate first = LinkTemplate.of(path);
+        LinkTemplate second = LinkTemplate.of(path);
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(path, render(first));
+    }
+
+    @Test
+    void appendTo_expandsVariablesInOrder() {
+        // Given
+        LinkTemplate template = LinkTemplate.of(UrlHolder.PIS_AUTHORISATION_LINK_URL);
+
+        // When
+        String actual = render(template, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID);
+
+        // Then
+        assertEquals("/v1/payments/sepa-credit-transfers/" + PAYMENT_ID + "/authorisations/" + AUTHORISATION_ID, actual);
+    }
+
+    @Test
+    void appendTo_nullValue_expandedAsEmptyString() {
+        // Given
+        LinkTemplate template = LinkTemplate.of(UrlHolder.ACCOUNT_BALANCES_URL);
+
+        // When
+        String actual = render(template, (Object) null);
+
+        // Then
+        assertEquals("/v1/accounts//balances", actual);
+    }
+
+    @Test
+    void appendTo_notEnoughValues_throwsException() {
+        // Given
+        LinkTemplate template = LinkTemplate.of(UrlHolder.PAYMENT_LINK_URL);
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                                                           () -> render(template, PAYMENT_SERVICE, PAYMENT_PRODUCT));
+
+        // Then
+        assertEquals("Not enough variable values available to expand 'payment-id'", exception.getMessage());
+    }
+
+    @Test
+    void compile_collapsesRepeatingSlashesAndKeepsIncompleteBraces() {
+        // Given
+        LinkTemplate template = LinkTemplate.compile("//v1//accounts/{accountId}/{/x}");
+
+        // When
+        String actual = render(template, "account");
+
+        // Then
+        assertEquals("/v1/accounts/account/{/x}", actual);
+        assertTrue(template.startsWithSlash());
+    }
+
+    private String render(LinkTemplate template, Object... values) {
+        StringBuilder target = new StringBuilder();
+        template.appendTo(target, values);
+        return target.toString();
+    }
+}
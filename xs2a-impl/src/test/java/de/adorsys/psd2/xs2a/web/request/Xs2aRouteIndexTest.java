@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.request;
+
+import de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant;
+import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Xs2aRouteIndexTest {
+    private static final String[] PATHS = {
+        "/v1/accounts", "/v1/accounts/", "/v1/accounts/account-id/balances", "/v1/card-accounts/account-id/transactions",
+        "/v1/consents", "/v1/consents/consent-id/authorisations/auth-id", "/v1/funds-confirmations",
+        "/v1/payments/sepa-credit-transfers", "/v1/bulk-payments/sepa-credit-transfers/payment-id",
+        "/v1/periodic-payments/sepa-credit-transfers/payment-id/status", "/v1/signing-baskets/basket-id",
+        "/v1/accounts/account-id/transactions/download/download-id", "/v1/accounts/account-id/transactions/download/",
+        "/v1/accounts/account-id/transactions/download", "/v1/accounts/account-id/transactions/download/download-id/",
+        "/v1/card-accounts/account-id/transactions/download/download-id", "/v1//accounts//account-id", "v1/accounts",
+        "/v1", "/v1/", "/", "", "/v1/gifts", "/v2/accounts", "/v1/accountsx", "/error", "/v1/ACCOUNTS"
+    };
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    void findRoute_sameAsAntPathMatcher() {
+        // Given
+        Xs2aRouteIndex index = Xs2aRouteIndex.xs2aRoutes();
+
+        for (String path : PATHS) {
+            boolean expectedXs2aEndpoint = Stream.of(Xs2aEndpointPathConstant.getAllXs2aEndpointPaths())
+                                               .anyMatch(p -> antPathMatcher.match(p, path));
+            boolean expectedStreaming = Stream.of(Xs2aEndpointPathConstant.getStreamingXs2aEndpointPaths())
+                                            .anyMatch(p -> antPathMatcher.match(p, path));
+
+            // When
+            Xs2aRoute route = index.findRoute(path);
+
+            // Then
+            assertEquals(expectedXs2aEndpoint, route.isXs2aEndpoint(), path);
+            assertEquals(expectedStreaming, route.isStreaming(), path);
+            if (route.isXs2aEndpoint()) {
+                assertTrue(antPathMatcher.match(route.getEndpointPattern(), path), path);
+            }
+        }
+    }
+
+    @Test
+    void findRoute_serviceType() {
+        // Given
+        Xs2aRouteIndex index = Xs2aRouteIndex.xs2aRoutes();
+
+        // Then
+        assertEquals(ServiceType.AIS, index.findRoute("/v1/card-accounts/account-id").getServiceType());
+        assertEquals(ServiceType.AIS, index.findRoute("/v1/consents/consent-id").getServiceType());
+        assertEquals(ServiceType.PIS, index.findRoute("/v1/periodic-payments/sepa-credit-transfers").getServiceType());
+        assertEquals(ServiceType.PIIS, index.findRoute("/v1/funds-confirmations").getServiceType());
+        assertEquals(ServiceType.SB, index.findRoute("/v1/signing-baskets/basket-id").getServiceType());
+        assertNull(index.findRoute("/v1/gifts").getServiceType());
+    }
+
+    @Test
+    void findRoute_downloadEndpoint_streamingXs2aRoute() {
+        // Given
+        Xs2aRouteIndex index = Xs2aRouteIndex.xs2aRoutes();
+
+        // When
+        Xs2aRoute route = index.findRoute("/v1/accounts/account-id/transactions/download/download-id");
+
+        // Then
+        assertEquals(new Xs2aRoute(Xs2aEndpointPathConstant.ACCOUNTS_PATH, ServiceType.AIS, true), route);
+    }
+
+    @Test
+    void findRoute_additionalStreamingEndpoints() {
+        // Given
+        Xs2aRouteIndex index = Xs2aRouteIndex.xs2aRoutes("/v1/accounts/*/transactions", "/v1/card-accounts/acc?unt-*/**", "");
+
+        // Then
+        assertTrue(index.findRoute("/v1/accounts/account-id/transactions").isStreaming());
+        assertFalse(index.findRoute("/v1/accounts/account-id/balances").isStreaming());
+        assertTrue(index.findRoute("/v1/card-accounts/account-id/transactions").isStreaming());
+        assertFalse(index.findRoute("/v1/card-accounts/other-id/transactions").isStreaming());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.request;
+
+import de.adorsys.psd2.xs2a.core.mapper.ServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class Xs2aRouteResolverTest {
+    @Spy
+    private RequestPathResolver requestPathResolver;
+
+    private Xs2aRouteResolver xs2aRouteResolver;
+
+    @BeforeEach
+    void setUp() {
+        xs2aRouteResolver = new Xs2aRouteResolver(requestPathResolver);
+    }
+
+    @Test
+    void resolveRoute_resolvedOncePerRequest() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/consents/consent-id");
+
+        // When
+        Xs2aRoute first = xs2aRouteResolver.resolveRoute(request);
+        Xs2aRoute second = xs2aRouteResolver.resolveRoute(request);
+
+        // Then
+        assertEquals(ServiceType.AIS, first.getServiceType());
+        assertSame(first, second);
+        verify(requestPathResolver, times(1)).resolveRequestPath(request);
+    }
+
+    @Test
+    void resolveRoute_requestUriChanged_resolvedAgain() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/consents/consent-id");
+        xs2aRouteResolver.resolveRoute(request);
+        request.setRequestURI("/error");
+
+        // When
+        Xs2aRoute route = xs2aRouteResolver.resolveRoute(request);
+
+        // Then
+        assertFalse(route.isXs2aEndpoint());
+        verify(requestPathResolver, times(2)).resolveRequestPath(request);
+    }
+
+    @Test
+    void resolveRoute_withContextPath() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/xs2a/v1/payments/sepa-credit-transfers");
+        request.setContextPath("/xs2a");
+
+        // When
+        Xs2aRoute route = xs2aRouteResolver.resolveRoute(request);
+
+        // Then
+        assertEquals(ServiceType.PIS, route.getServiceType());
+    }
+}
@@ -31,6 +31,7 @@ import org.springframework.mock.web.MockHttpServletRequest;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -122,6 +123,36 @@ class FieldExtractorTest {
         assertTrue(actualResult.isEmpty());
     }
 
+    @Test
+    void extractField_severalFields_shouldParseBodyOnce() throws IOException {
+        // Given
+        Xs2aObjectMapper spyObjectMapper = Mockito.spy(new Xs2aObjectMapper());
+        FieldExtractor extractor = new FieldExtractor(new ErrorBuildingServiceMock(ErrorType.PIS_400), spyObjectMapper);
+
+        // When
+        extractor.extractField(mockRequest, FIELD_NAME, messageError);
+        extractor.extractList(mockRequest, CURRENCY_FIELD_NAME, messageError);
+        extractor.extractOptionalField(mockRequest, FIELD_NAME);
+
+        // Then
+        Mockito.verify(spyObjectMapper, Mockito.times(1)).readTree(Mockito.any(InputStream.class));
+        assertTrue(messageError.getTppMessages().isEmpty());
+    }
+
+    @Test
+    void mapBodyToInstance_malformedBody_shouldEnrichError() {
+        // Given
+        MockHttpServletRequest malformedRequest = new MockHttpServletRequest();
+        malformedRequest.setContent("not a json".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Optional<Object> actualResult = fieldExtractor.mapBodyToInstance(malformedRequest, messageError, Object.class);
+
+        // Then
+        assertFalse(actualResult.isPresent());
+        assertEquals(DESERIALIZATION_ERROR, messageError);
+    }
+
     private List<String> getCurrencyList() {
         List<String> currencyList = new ArrayList<>();
         currencyList.add("EUR");
@@ -20,6 +20,8 @@ import de.adorsys.psd2.mapper.Xs2aObjectMapper;
 import de.adorsys.psd2.xs2a.core.error.ErrorType;
 import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.web.request.RequestPathResolver;
+import de.adorsys.psd2.xs2a.web.request.Xs2aRouteResolver;
 import de.adorsys.psd2.xs2a.web.validator.ErrorBuildingService;
 import org.springframework.mock.web.MockHttpServletRequest;
 
@@ -27,7 +29,7 @@ public class ErrorBuildingServiceMock extends ErrorBuildingService {
     private ErrorType errorType;
 
     public ErrorBuildingServiceMock(ErrorType errorType) {
-        super(new ServiceTypeDiscoveryService(new MockHttpServletRequest()), new ServiceTypeToErrorTypeMapper(),
+        super(new ServiceTypeDiscoveryService(new MockHttpServletRequest(), new Xs2aRouteResolver(new RequestPathResolver())), new ServiceTypeToErrorTypeMapper(),
               null, new Xs2aObjectMapper());
         this.errorType = errorType;
     }
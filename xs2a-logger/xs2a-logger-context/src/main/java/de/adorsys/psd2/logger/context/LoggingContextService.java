@@ -91,6 +91,28 @@ public interface LoggingContextService {
      */
     RequestInfo getRequestInformation();
 
+    /**
+     * Records number of calls to CMS, made within current request, into current context
+     *
+     * @param cmsCallCount       number of calls, performed by CMS
+     * @param cachedCmsCallCount number of calls, served from the request cache without calling CMS
+     */
+    void storeCmsCallCount(int cmsCallCount, int cachedCmsCallCount);
+
+    /**
+     * Retrieves number of calls, performed by CMS within current request, from current logging context as string
+     *
+     * @return string representation of CMS call count
+     */
+    String getCmsCallCount();
+
+    /**
+     * Retrieves number of CMS calls, served from the request cache within current request, from current logging context as string
+     *
+     * @return string representation of cached CMS call count
+     */
+    String getCachedCmsCallCount();
+
     /**
      * Clears current logging context.
      * <p>
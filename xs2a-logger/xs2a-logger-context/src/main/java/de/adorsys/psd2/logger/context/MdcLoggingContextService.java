@@ -31,6 +31,8 @@ public class MdcLoggingContextService implements LoggingContextService {
     private static final String SCA_STATUS_KEY = "scaStatus";
     private static final String INTERNAL_REQUEST_ID_KEY = "internal-request-id";
     private static final String X_REQUEST_ID_KEY = "x-request-id";
+    private static final String CMS_CALL_COUNT_KEY = "cmsCalls";
+    private static final String CACHED_CMS_CALL_COUNT_KEY = "cachedCmsCalls";
 
     @Override
     public void storeConsentStatus(@NotNull ConsentStatus consentStatus) {
@@ -88,6 +90,22 @@ public class MdcLoggingContextService implements LoggingContextService {
         return new RequestInfo(internalRequestId, xRequestId);
     }
 
+    @Override
+    public void storeCmsCallCount(int cmsCallCount, int cachedCmsCallCount) {
+        MDC.put(CMS_CALL_COUNT_KEY, String.valueOf(cmsCallCount));
+        MDC.put(CACHED_CMS_CALL_COUNT_KEY, String.valueOf(cachedCmsCallCount));
+    }
+
+    @Override
+    public String getCmsCallCount() {
+        return MDC.get(CMS_CALL_COUNT_KEY);
+    }
+
+    @Override
+    public String getCachedCmsCallCount() {
+        return MDC.get(CACHED_CMS_CALL_COUNT_KEY);
+    }
+
     @Override
     public void clearContext() {
         MDC.clear();
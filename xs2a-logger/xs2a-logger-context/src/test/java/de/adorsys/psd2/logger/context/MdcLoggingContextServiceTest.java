@@ -32,6 +32,8 @@ class MdcLoggingContextServiceTest {
     private static final String SCA_STATUS_KEY = "scaStatus";
     private static final String INTERNAL_REQUEST_ID_KEY = "internal-request-id";
     private static final String X_REQUEST_ID_KEY = "x-request-id";
+    private static final String CMS_CALL_COUNT_KEY = "cmsCalls";
+    private static final String CACHED_CMS_CALL_COUNT_KEY = "cachedCmsCalls";
     private static final String X_REQUEST_ID = "0d7f200e-09b4-46f5-85bd-f4ea89fccace";
     private static final String INTERNAL_REQUEST_ID = "9fe83704-6019-46fa-b8aa-53fb8fa667ea";
 
@@ -194,6 +196,31 @@ class MdcLoggingContextServiceTest {
         assertEquals(expectedRequestInfo, actualRequestInfo);
     }
 
+    @Test
+    void storeCmsCallCount_shouldPutCountsIntoMdc() {
+        // When
+        mdcLoggingContextService.storeCmsCallCount(3, 2);
+
+        // Then
+        assertEquals("3", MDC.get(CMS_CALL_COUNT_KEY));
+        assertEquals("2", MDC.get(CACHED_CMS_CALL_COUNT_KEY));
+    }
+
+    @Test
+    void getCmsCallCount_shouldTakeCountsFromMdc() {
+        // Given
+        MDC.put(CMS_CALL_COUNT_KEY, "5");
+        MDC.put(CACHED_CMS_CALL_COUNT_KEY, "1");
+
+        // When
+        String actualCmsCallCount = mdcLoggingContextService.getCmsCallCount();
+        String actualCachedCmsCallCount = mdcLoggingContextService.getCachedCmsCallCount();
+
+        // Then
+        assertEquals("5", actualCmsCallCount);
+        assertEquals("1", actualCachedCmsCallCount);
+    }
+
     @Test
     void clearContext_shouldClearMdc() {
         // Given
@@ -47,7 +47,25 @@ public class Xs2aObjectMapper extends ObjectMapper {
      */
     public <T> Optional<T> toJsonField(InputStream stream, String fieldName, TypeReference<T> typeReference) {
         try {
-            JsonNode jsonNode = readTree(stream);
+            return toJsonField(readTree(stream), fieldName, typeReference);
+        } catch (IOException e) {
+            log.info("Couldn't extract field {} from json: {}", fieldName, e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Extracts field by given name from already parsed JSON tree
+     *
+     * @param jsonNode      parsed JSON content
+     * @param fieldName     name of the JSON field to be extracted
+     * @param typeReference type reference of the field
+     * @param <T>           type of the field to be extracted
+     * @return value of the extracted field, if it was found in the JSON
+     */
+    public <T> Optional<T> toJsonField(JsonNode jsonNode, String fieldName, TypeReference<T> typeReference) {
+        try {
             JsonNode fieldNode = jsonNode.get(fieldName);
 
             if (fieldNode == null) {
@@ -66,14 +84,23 @@ public class Xs2aObjectMapper extends ObjectMapper {
     }
 
     public List<String> toJsonGetValuesForField(InputStream stream, String fieldName) {
-        List<String> values = new ArrayList<>();
         try {
-            JsonNode jsonNode = readTree(stream);
-            values.addAll(jsonNode.findValuesAsText(fieldName));
+            return toJsonGetValuesForField(readTree(stream), fieldName);
         } catch (IOException e) {
             log.info("Couldn't extract field {} from json: {}", fieldName, e.getMessage());
         }
-        return values;
+        return new ArrayList<>();
+    }
+
+    /**
+     * Extracts values of all fields with given name from already parsed JSON tree
+     *
+     * @param jsonNode  parsed JSON content
+     * @param fieldName name of the JSON fields to be extracted
+     * @return list of text values of the found fields
+     */
+    public List<String> toJsonGetValuesForField(JsonNode jsonNode, String fieldName) {
+        return new ArrayList<>(jsonNode.findValuesAsText(fieldName));
     }
 
     @Override
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2018-2020 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.integration;
+
+import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
+import de.adorsys.psd2.consent.api.AspspDataService;
+import de.adorsys.psd2.consent.api.CmsResponse;
+import de.adorsys.psd2.consent.api.authorisation.PisAuthorisationParentHolder;
+import de.adorsys.psd2.consent.api.pis.proto.PisCommonPaymentResponse;
+import de.adorsys.psd2.consent.api.service.AuthorisationServiceEncrypted;
+import de.adorsys.psd2.consent.api.service.PisCommonPaymentServiceEncrypted;
+import de.adorsys.psd2.consent.api.service.TppService;
+import de.adorsys.psd2.consent.api.service.TppStopListService;
+import de.adorsys.psd2.consent.api.service.UpdatePaymentAfterSpiServiceEncrypted;
+import de.adorsys.psd2.event.core.model.EventType;
+import de.adorsys.psd2.event.service.Xs2aEventServiceEncrypted;
+import de.adorsys.psd2.event.service.model.EventBO;
+import de.adorsys.psd2.starter.Xs2aStandaloneStarter;
+import de.adorsys.psd2.xs2a.config.CorsConfigurationProperties;
+import de.adorsys.psd2.xs2a.config.WebConfig;
+import de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant;
+import de.adorsys.psd2.xs2a.config.Xs2aInterfaceConfig;
+import de.adorsys.psd2.xs2a.core.authorisation.Authorisation;
+import de.adorsys.psd2.xs2a.core.authorisation.AuthorisationType;
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
+import de.adorsys.psd2.xs2a.core.sca.AuthorisationScaApproachResponse;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
+import de.adorsys.psd2.xs2a.integration.builder.AspspSettingsBuilder;
+import de.adorsys.psd2.xs2a.integration.builder.TppInfoBuilder;
+import de.adorsys.psd2.xs2a.integration.builder.UrlBuilder;
+import de.adorsys.psd2.xs2a.integration.builder.payment.PisCommonPaymentResponseBuilder;
+import de.adorsys.psd2.xs2a.service.event.Xs2aEventService;
+import de.adorsys.psd2.xs2a.spi.domain.payment.response.SpiGetPaymentStatusResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.SinglePaymentSpi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.servlet.DispatcherType;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles({"integration-test", "mock-qwac"})
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@SpringBootTest(
+    classes = Xs2aStandaloneStarter.class)
+@ContextConfiguration(classes = {
+    CorsConfigurationProperties.class,
+    WebConfig.class,
+    Xs2aEndpointPathConstant.class,
+    Xs2aInterfaceConfig.class
+})
+@TestPropertySource(properties = {
+    "xs2a.status.long-polling.enabled=true",
+    "xs2a.status.long-polling.recheck-interval.ms=100"
+})
+class PaymentStatusLongPollingIT {
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final UUID X_REQUEST_ID = UUID.randomUUID();
+    private static final PaymentType SINGLE_PAYMENT_TYPE = PaymentType.SINGLE;
+    private static final String SEPA_PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String ENCRYPTED_PAYMENT_ID = "DfLtDOgo1tTK6WQlHlb-TMPL2pkxRlhZ4feMa5F4tOWwNN45XLNAVfWwoZUKlQwb_=_bS6p6XvTWI";
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData("data".getBytes(), ENCRYPTED_PAYMENT_ID);
+    private static final String AUTHORISATION_ID = "e8356ea7-8e3e-474f-b5ea-2b89346cb2dc";
+    private static final PsuIdData PSU_ID_DATA = new PsuIdData("PSU-123", "Some type", "Some corporate id", "Some corporate id type", "Some IP Address");
+    private static final String PSU_MESSAGE = "PSU message";
+    private static final String PREFER_WAIT = "wait=1";
+    private static final long DISPATCH_TIMEOUT_MS = 5000;
+
+    private HttpHeaders httpHeaders = new HttpHeaders();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AspspProfileService aspspProfileService;
+    @MockBean
+    private TppService tppService;
+    @MockBean
+    private TppStopListService tppStopListService;
+    @MockBean
+    private Xs2aEventServiceEncrypted eventServiceEncrypted;
+    @MockBean
+    private SinglePaymentSpi singlePaymentSpi;
+    @MockBean
+    private PisCommonPaymentServiceEncrypted pisCommonPaymentServiceEncrypted;
+    @MockBean
+    private AspspDataService aspspDataService;
+    @MockBean
+    private AuthorisationServiceEncrypted authorisationServiceEncrypted;
+    @MockBean
+    private UpdatePaymentAfterSpiServiceEncrypted updatePaymentStatusAfterSpiServiceEncrypted;
+    @SpyBean
+    private Xs2aEventService xs2aEventService;
+
+    @BeforeEach
+    void init() {
+        httpHeaders.add("x-request-id", X_REQUEST_ID.toString());
+        httpHeaders.add("PSU-ID", "PSU-123");
+        httpHeaders.add("PSU-ID-Type", "Some type");
+        httpHeaders.add("PSU-Corporate-ID", "Some corporate id");
+        httpHeaders.add("PSU-Corporate-ID-Type", "Some corporate id type");
+        httpHeaders.add(HttpHeaders.ACCEPT, JSON_CONTENT_TYPE);
+
+        when(aspspProfileService.getAspspSettings())
+            .thenReturn(AspspSettingsBuilder.buildAspspSettings());
+        when(aspspProfileService.getScaApproaches())
+            .thenReturn(Collections.singletonList(ScaApproach.REDIRECT));
+        when(tppStopListService.checkIfTppBlocked(TppInfoBuilder.getTppInfo()))
+            .thenReturn(CmsResponse.<Boolean>builder()
+                            .payload(false)
+                            .build());
+        when(eventServiceEncrypted.recordEvent(any(EventBO.class)))
+            .thenReturn(true);
+        when(updatePaymentStatusAfterSpiServiceEncrypted.updatePaymentStatus(eq(ENCRYPTED_PAYMENT_ID), any(TransactionStatus.class)))
+            .thenReturn(CmsResponse.<Boolean>builder()
+                            .payload(true)
+                            .build());
+        when(aspspDataService.readAspspConsentData(ENCRYPTED_PAYMENT_ID))
+            .thenReturn(Optional.of(ASPSP_CONSENT_DATA));
+        when(tppService.updateTppInfo(any(TppInfo.class)))
+            .thenReturn(CmsResponse.<Boolean>builder()
+                            .payload(true)
+                            .build());
+        when(singlePaymentSpi.getPaymentStatusById(any(), eq(JSON_CONTENT_TYPE), any(), any()))
+            .thenReturn(SpiResponse.<SpiGetPaymentStatusResponse>builder()
+                            .payload(new SpiGetPaymentStatusResponse(TransactionStatus.ACSP, null, SpiGetPaymentStatusResponse.RESPONSE_TYPE_JSON, null, PSU_MESSAGE))
+                            .build());
+        when(authorisationServiceEncrypted.getAuthorisationScaApproach(AUTHORISATION_ID))
+            .thenReturn(CmsResponse.<AuthorisationScaApproachResponse>builder()
+                            .payload(new AuthorisationScaApproachResponse(ScaApproach.REDIRECT))
+                            .build());
+    }
+
+    @Test
+    void getTransactionStatus_notFinalisedStatus_notModifiedWithoutWaiting() throws Exception {
+        // Given
+        givenCmsTransactionStatus(TransactionStatus.ACSP);
+        String eTag = getTransactionStatus().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(UrlBuilder.buildGetTransactionStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID))
+                                                  .headers(httpHeaders)
+                                                  .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                                  .header("Prefer", PREFER_WAIT))
+                              .andReturn();
+
+        // Then
+        assertFalse(mvcResult.getRequest().isAsyncStarted());
+        assertEquals(304, mvcResult.getResponse().getStatus());
+        assertEquals(eTag, mvcResult.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(singlePaymentSpi, times(2)).getPaymentStatusById(any(), any(), any(), any());
+        verify(xs2aEventService, times(2)).recordPisTppRequest(ENCRYPTED_PAYMENT_ID, EventType.GET_TRANSACTION_STATUS_REQUEST_RECEIVED);
+    }
+
+    @Test
+    void getScaStatus_unchangedStatus_suspendedWithoutControllerCalls() throws Exception {
+        // Given
+        givenCmsTransactionStatus(TransactionStatus.ACSP);
+        givenCmsScaStatus(ScaStatus.RECEIVED);
+        String eTag = getScaStatus().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(UrlBuilder.buildGetPaymentInitiationScaStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID, AUTHORISATION_ID))
+                                                  .headers(httpHeaders)
+                                                  .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                                  .header("Prefer", PREFER_WAIT))
+                              .andReturn();
+        assertTrue(mvcResult.getRequest().isAsyncStarted());
+        awaitCompletion(mvcResult);
+
+        // Then
+        assertNull(((MockAsyncContext) mvcResult.getRequest().getAsyncContext()).getDispatchedPath());
+        assertEquals(304, mvcResult.getResponse().getStatus());
+        assertEquals(eTag, mvcResult.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(xs2aEventService, times(1)).recordPisTppRequest(ENCRYPTED_PAYMENT_ID, EventType.GET_PAYMENT_SCA_STATUS_REQUEST_RECEIVED);
+        verify(authorisationServiceEncrypted, atLeast(3)).getAuthorisationScaStatus(anyString(), any());
+        verifyNoInteractions(singlePaymentSpi);
+    }
+
+    @Test
+    void getScaStatus_changedStatus_resumedWithNewStatus() throws Exception {
+        // Given
+        givenCmsTransactionStatus(TransactionStatus.ACSP);
+        givenCmsScaStatus(ScaStatus.RECEIVED);
+        String eTag = getScaStatus().getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult mvcResult = mockMvc.perform(get(UrlBuilder.buildGetPaymentInitiationScaStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID, AUTHORISATION_ID))
+                                                  .headers(httpHeaders)
+                                                  .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                                  .header("Prefer", PREFER_WAIT))
+                              .andReturn();
+        assertTrue(mvcResult.getRequest().isAsyncStarted());
+
+        // When
+        givenCmsScaStatus(ScaStatus.PSUAUTHENTICATED);
+        mvcResult = asyncDispatch(mvcResult);
+
+        // Then
+        assertFalse(mvcResult.getRequest().isAsyncStarted());
+        assertEquals(200, mvcResult.getResponse().getStatus());
+        assertEquals("{\"scaStatus\":\"psuAuthenticated\"}", mvcResult.getResponse().getContentAsString());
+        assertNotEquals(eTag, mvcResult.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(xs2aEventService, times(2)).recordPisTppRequest(ENCRYPTED_PAYMENT_ID, EventType.GET_PAYMENT_SCA_STATUS_REQUEST_RECEIVED);
+    }
+
+    @Test
+    void getTransactionStatus_finalisedStatus_notModifiedWithoutSpiCall() throws Exception {
+        // Given
+        givenCmsTransactionStatus(TransactionStatus.ACSC);
+        String eTag = getTransactionStatus().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(UrlBuilder.buildGetTransactionStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID))
+                                                  .headers(httpHeaders)
+                                                  .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                                  .header("Prefer", PREFER_WAIT))
+                              .andReturn();
+
+        // Then
+        assertFalse(mvcResult.getRequest().isAsyncStarted());
+        assertEquals(304, mvcResult.getResponse().getStatus());
+        assertEquals(eTag, mvcResult.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(singlePaymentSpi, times(1)).getPaymentStatusById(any(), any(), any(), any());
+        verify(xs2aEventService, times(1)).recordPisTppRequest(ENCRYPTED_PAYMENT_ID, EventType.GET_TRANSACTION_STATUS_REQUEST_RECEIVED);
+    }
+
+    private MvcResult getTransactionStatus() throws Exception {
+        return mockMvc.perform(get(UrlBuilder.buildGetTransactionStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID))
+                                   .headers(httpHeaders))
+                   .andExpect(status().isOk())
+                   .andReturn();
+    }
+
+    private MvcResult getScaStatus() throws Exception {
+        return mockMvc.perform(get(UrlBuilder.buildGetPaymentInitiationScaStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID, AUTHORISATION_ID))
+                                   .headers(httpHeaders))
+                   .andExpect(status().isOk())
+                   .andReturn();
+    }
+
+    private void givenCmsScaStatus(ScaStatus scaStatus) {
+        when(authorisationServiceEncrypted.getAuthorisationScaStatus(AUTHORISATION_ID, new PisAuthorisationParentHolder(ENCRYPTED_PAYMENT_ID)))
+            .thenReturn(CmsResponse.<ScaStatus>builder()
+                            .payload(scaStatus)
+                            .build());
+    }
+
+    private void givenCmsTransactionStatus(TransactionStatus transactionStatus) {
+        PisCommonPaymentResponse pisCommonPaymentResponse = PisCommonPaymentResponseBuilder.buildPisCommonPaymentResponseWithPayment();
+        pisCommonPaymentResponse.setAuthorisations(Collections.singletonList(
+            new Authorisation(AUTHORISATION_ID, PSU_ID_DATA, ENCRYPTED_PAYMENT_ID, AuthorisationType.PIS_CREATION, ScaStatus.RECEIVED)));
+        pisCommonPaymentResponse.setTransactionStatus(transactionStatus);
+        pisCommonPaymentResponse.setStatusChangeTimestamp(OffsetDateTime.now());
+        when(pisCommonPaymentServiceEncrypted.getCommonPaymentById(ENCRYPTED_PAYMENT_ID))
+            .thenReturn(CmsResponse.<PisCommonPaymentResponse>builder()
+                            .payload(pisCommonPaymentResponse)
+                            .build());
+    }
+
+    /**
+     * Waits until the suspended request is answered by the scheduler of long-polling without dispatching it
+     */
+    private void awaitCompletion(MvcResult mvcResult) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DISPATCH_TIMEOUT_MS;
+        while (mvcResult.getRequest().isAsyncStarted() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertFalse(mvcResult.getRequest().isAsyncStarted());
+    }
+
+    /**
+     * Waits until the suspended request is dispatched by the scheduler of long-polling and performs the asynchronous
+     * dispatch in the same way as the servlet container does
+     */
+    private MvcResult asyncDispatch(MvcResult mvcResult) throws Exception {
+        MockHttpServletRequest request = mvcResult.getRequest();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        ((MockAsyncContext) request.getAsyncContext()).addDispatchHandler(dispatched::countDown);
+        assertTrue(dispatched.await(DISPATCH_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+        RequestBuilder asyncDispatch = servletContext -> {
+            request.setDispatcherType(DispatcherType.ASYNC);
+            request.setAsyncStarted(false);
+            request.setAsyncContext(null);
+            return request;
+        };
+        return mockMvc.perform(asyncDispatch).andReturn();
+    }
+}
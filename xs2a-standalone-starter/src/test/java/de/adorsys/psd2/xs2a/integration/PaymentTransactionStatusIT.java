@@ -71,6 +71,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles({"integration-test", "mock-qwac"})
@@ -198,6 +199,31 @@ class PaymentTransactionStatusIT {
             .andExpect(content().string(IOUtils.resourceToString(TRANSACTION_STATUS_SPI_XML_PATH, UTF_8)));
     }
 
+    @Test
+    void getTransactionStatus_notModified() throws Exception {
+        // Given
+        httpHeaders.add(ACCEPT_HEADER, JSON_CONTENT_TYPE);
+        when(singlePaymentSpi.getPaymentStatusById(any(), eq(JSON_CONTENT_TYPE), any(), any()))
+            .thenReturn(SpiResponse.<SpiGetPaymentStatusResponse>builder()
+                            .payload(new SpiGetPaymentStatusResponse(TransactionStatus.ACSP, null, SpiGetPaymentStatusResponse.RESPONSE_TYPE_JSON, null, PSU_MESSAGE))
+                            .build());
+        String eTag = mockMvc.perform(get(UrlBuilder.buildGetTransactionStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID))
+                                          .headers(httpHeaders))
+                          .andExpect(status().isOk())
+                          .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequestBuilder requestBuilder = get(UrlBuilder.buildGetTransactionStatusUrl(SINGLE_PAYMENT_TYPE.getValue(), SEPA_PAYMENT_PRODUCT, ENCRYPTED_PAYMENT_ID));
+        requestBuilder.headers(httpHeaders);
+        requestBuilder.header(HttpHeaders.IF_NONE_MATCH, eTag);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(requestBuilder);
+
+        // Then
+        resultActions.andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+
     @Test
     void getTransactionStatusNoContentType() throws Exception {
         // Given
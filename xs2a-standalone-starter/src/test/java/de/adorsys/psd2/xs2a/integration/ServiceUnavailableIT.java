@@ -388,6 +388,7 @@ class ServiceUnavailableIT {
         ScaApproach scaApproach = ScaApproach.EMBEDDED;
         givenReturnOrThrowException(aspspProfileService.getAspspSettings(), AspspSettingsBuilder.buildAspspSettings(), throwException);
         givenReturnOrThrowException(aspspProfileService.getScaApproaches(), Collections.singletonList(scaApproach), throwException);
+        givenReturnOrThrowException(aspspProfileServiceWrapper.getScaApproaches(), Collections.singletonList(scaApproach), throwException);
         givenReturnOrThrowException(aspspProfileServiceWrapper.isPsuInInitialRequestMandated(), false, throwException);
         givenReturnOrThrowException(aspspProfileServiceWrapper.getTppSignatureRequired(), false, throwException);
         givenReturnOrThrowException(aspspProfileServiceWrapper.isCheckTppRolesFromCertificateSupported(), false, throwException);